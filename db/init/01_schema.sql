@@ -11,6 +11,10 @@
 --   6. telemetry_records  (FK → iot_devices)
 --   7. incidents          (FK → iot_devices)
 --   8. technician_assignments (FK → incidents, technicians)
+--
+-- This file is the V1 baseline. Later changes (indexes, new tables) ship as
+-- Flyway migrations in supermart-iot/src/main/resources/db/migration/mysql and
+-- are applied by the API on startup — do not add them here.
 -- ═══════════════════════════════════════════════════════════════════════════════
 
 USE supermartdb;
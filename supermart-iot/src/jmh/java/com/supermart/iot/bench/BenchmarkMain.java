@@ -0,0 +1,133 @@
+package com.supermart.iot.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the JMH benchmarks and compares the scores with the committed baseline.
+ *
+ * <p>Every benchmark reports average time per operation, so a positive change is
+ * a slowdown. A benchmark slower than the baseline by more than
+ * {@code --tolerance} is flagged; with {@code --fail-on-regression=true} the run
+ * exits with status 1. {@code --update-baseline=true} replaces the baseline with
+ * this run, to be committed together with the change that moved the numbers.
+ * Virtual-thread benchmarks are limited to platform mode on runtimes older than
+ * Java 21.</p>
+ *
+ * <p>Started by {@code mvn -Pbenchmark -DskipTests test-compile exec:exec@jmh}.</p>
+ */
+public final class BenchmarkMain {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Map<String, String> options = parse(args);
+        Path output = Path.of(options.getOrDefault("output", "target/jmh-result.json"));
+        Path baseline = Path.of(options.getOrDefault("baseline", "benchmarks/baseline.json"));
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.10"));
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        ChainedOptionsBuilder runner = new OptionsBuilder()
+                .include(options.getOrDefault("include", ".*"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(output.toString());
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Java " + Runtime.version().feature() + ": ExecutionModeBenchmark runs platform mode only.");
+            runner.param("executionMode", "platform");
+        }
+        new Runner(runner.build()).run();
+
+        int regressions = 0;
+        if (Files.exists(baseline)) {
+            regressions = compare(scores(baseline), scores(output), tolerance);
+        } else {
+            System.out.println("No baseline at " + baseline + "; nothing to compare.");
+        }
+        if (Boolean.parseBoolean(options.get("update-baseline"))) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(output, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + baseline);
+        }
+        if (regressions > 0 && Boolean.parseBoolean(options.get("fail-on-regression"))) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /** Benchmark name plus parameters, mapped to its score. */
+    private static Map<String, Score> scores(Path results) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : (ArrayNode) JSON.readTree(results.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(), metric.path("scoreError").asDouble(),
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private static int compare(Map<String, Score> baseline, Map<String, Score> current, double tolerance) {
+        int regressions = 0;
+        System.out.printf("%n%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(now.unit())) {
+                System.out.printf("%-90s %14s %14s %9s%n", entry.getKey(), "-", now, "new");
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score();
+            // Only count it when the difference is larger than both the tolerance and the measurement error
+            boolean regressed = change > tolerance && now.score() - now.error() > before.score() + before.error();
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14s %14s %+8.1f%%%s%n", entry.getKey(), before, now, change * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) beyond %.0f%%%n", regressions, tolerance * 100);
+        return regressions;
+    }
+
+    private record Score(double score, double error, String unit) {
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", score, unit);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.supermart.iot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The platform-thread and virtual-thread request modes on a workload shaped
+ * like ingest and dashboard calls: a short JDBC query on a 10-connection Hikari
+ * pool plus a longer wait that holds no connection. One operation is a burst of
+ * {@value #REQUESTS} concurrent requests.
+ *
+ * <p>{@code platform} runs requests on a pool the size of Tomcat's default
+ * {@code server.tomcat.threads.max}; {@code virtual} starts a virtual thread per
+ * request behind {@link ConcurrencyLimitedDataSource}. {@code virtual} needs a
+ * Java 21 runtime; {@code BenchmarkMain} runs only {@code platform} on older ones.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final int REQUESTS = 1_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long QUERY_MILLIS = 2;
+    private static final long OFF_DATABASE_MILLIS = 20;
+
+    @Param({"platform", "virtual"})
+    public String executionMode;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private ExecutorService platformThreads;
+
+    @Setup
+    public void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:mode-benchmark;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(10);
+        pool.setConnectionTimeout(30_000);
+        if ("virtual".equals(executionMode)) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("executionMode=virtual needs a Java 21 runtime");
+            }
+            dataSource = new ConcurrencyLimitedDataSource(pool, pool.getMaximumPoolSize(), Duration.ofSeconds(30));
+        } else {
+            dataSource = pool;
+            platformThreads = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (platformThreads != null) {
+            platformThreads.shutdown();
+        }
+        pool.close();
+    }
+
+    @Benchmark
+    public int requestBurst() throws Exception {
+        if (platformThreads != null) {
+            return run(platformThreads);
+        }
+        ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+        try {
+            return run(virtualThreads);
+        } finally {
+            virtualThreads.shutdown();
+        }
+    }
+
+    private int run(ExecutorService executor) throws InterruptedException, ExecutionException {
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                request();
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    private void request() throws SQLException, InterruptedException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT 1")) {
+            rows.next();
+            Thread.sleep(QUERY_MILLIS);
+        }
+        Thread.sleep(OFF_DATABASE_MILLIS);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        // Compiled for Java 17, so the Java 21 factory is looked up at run time
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+}
@@ -0,0 +1,72 @@
+package com.supermart.iot.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.ApiResponse;
+import com.supermart.iot.dto.response.TelemetryResponse;
+import com.supermart.iot.protocol.TelemetryFrameCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wire formats of single-reading ingest: the JSON request and
+ * {@code ApiResponse<TelemetryResponse>} envelope, next to the binary frame and
+ * ack of {@link TelemetryFrameCodec}. The mapper is built the way Spring Boot
+ * builds its own, with {@code java.time} support.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelemetryJsonBenchmark {
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final byte[] requestJson = ("{\"deviceId\":9001,\"temperature\":-18.3,"
+            + "\"recordedAt\":\"2026-02-24T10:29:00\"}").getBytes(StandardCharsets.UTF_8);
+    private final byte[] requestFrame = TelemetryFrameCodec.encode(List.of(TelemetryIngestRequest.builder()
+            .deviceId(9001L).temperature(-18.3).recordedAt(LocalDateTime.of(2026, 2, 24, 10, 29)).build()));
+    private final TelemetryResponse response = TelemetryResponse.builder()
+            .telemetryId(78234441L)
+            .deviceId(9001L)
+            .temperature(-18.3)
+            .recordedAt(LocalDateTime.of(2026, 2, 24, 10, 29))
+            .isAlert(false)
+            .build();
+    private final ApiResponse<TelemetryResponse> envelope = ApiResponse.ok(response, "Telemetry recorded successfully.");
+
+    @Benchmark
+    public TelemetryIngestRequest readRequestJson() throws IOException {
+        return mapper.readValue(requestJson, TelemetryIngestRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeResponseJson() throws IOException {
+        return mapper.writeValueAsBytes(envelope);
+    }
+
+    @Benchmark
+    public List<TelemetryIngestRequest> readRequestFrame() {
+        return TelemetryFrameCodec.decode(requestFrame);
+    }
+
+    @Benchmark
+    public byte[] writeAckFrame() {
+        return TelemetryFrameCodec.encodeAck(response);
+    }
+}
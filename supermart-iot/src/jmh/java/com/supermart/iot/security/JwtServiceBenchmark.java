@@ -0,0 +1,79 @@
+package com.supermart.iot.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done for every authenticated dashboard request.
+ * {@link #authenticateRequest} repeats what {@link JwtAuthenticationFilter}
+ * calls on the service for one request; {@link #verifyUncached} is the cost
+ * of a token the verified-token cache has not seen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    private String token;
+    private UserDetails user;
+
+    @Setup
+    public void setUp() {
+        jwtService = jwtService(10_000L);
+        uncachedJwtService = jwtService(0L);
+        token = jwtService.generateAccessToken("manager@supermart.com");
+        user = new User("manager@supermart.com", "", List.of());
+    }
+
+    private static JwtService jwtService(long verifiedCacheSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "accessTokenExpirationMs", 2_700_000L);
+        ReflectionTestUtils.setField(service, "refreshTokenExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(service, "verifiedCacheSize", verifiedCacheSize);
+        return service;
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken("manager@supermart.com");
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtService.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean authenticateRequest() {
+        Claims claims = jwtService.verify(token);
+        return claims.getSubject() != null && jwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncachedJwtService.verify(token);
+    }
+}
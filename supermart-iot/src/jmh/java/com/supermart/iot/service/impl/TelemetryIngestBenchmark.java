@@ -0,0 +1,97 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.SupermartIotApplication;
+import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.TelemetryResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full {@link TelemetryService#ingest} path in a running application context
+ * on the {@code test} profile: device lookup, rate limiting, threshold
+ * evaluation, the telemetry write, the latest-reading and device updates, and
+ * the incident check.
+ *
+ * <p>Write-behind is off so each operation includes persistence, and the rate
+ * limit is lifted. {@code store} selects H2 through JDBC or the memory-mapped
+ * segment store in a temporary directory.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TelemetryIngestBenchmark {
+
+    @Param({"jdbc", "segment"})
+    public String store;
+
+    private ConfigurableApplicationContext context;
+    private TelemetryService telemetryService;
+    private Path segments;
+
+    @Setup
+    public void start() throws IOException {
+        segments = Files.createTempDirectory("telemetry-bench");
+        context = new SpringApplicationBuilder(SupermartIotApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Command-line arguments, so they win over application-test.properties
+                .run("--app.telemetry.rate-limit-per-minute=" + Integer.MAX_VALUE,
+                        "--app.telemetry.write-behind.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:benchdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--app.telemetry.store=" + store,
+                        "--app.telemetry.store.segment.directory=" + segments,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+        telemetryService = context.getBean(TelemetryService.class);
+    }
+
+    @TearDown
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(segments);
+    }
+
+    /** Device 9002 (2–8 °C) reporting inside its thresholds. */
+    @Benchmark
+    public TelemetryResponse ingestInRange() {
+        return telemetryService.ingest(reading(9002L, 5.1));
+    }
+
+    /** Device 9001 (-25 to -15 °C) reporting an excursion; its incident stays open after the first call. */
+    @Benchmark
+    public TelemetryResponse ingestAlert() {
+        return telemetryService.ingest(reading(9001L, -10.2));
+    }
+
+    private static TelemetryIngestRequest reading(long deviceId, double temperature) {
+        return TelemetryIngestRequest.builder()
+                .deviceId(deviceId)
+                .temperature(temperature)
+                .recordedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.enums.DeviceStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-reading CPU work outside persistence: threshold evaluation and the
+ * incident description built for an excursion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThresholdEvaluationBenchmark {
+
+    private final DeviceSnapshot device = new DeviceSnapshot(9001L, "DEV-2024-TX-09001",
+            DeviceMetadataCache.hashKey("key-dev-9001"), -25.0, -15.0, DeviceStatus.ACTIVE, 501L, 1001L);
+
+    // Fields rather than constants so the JIT cannot fold the inputs
+    public double inRange = -18.0;
+    public double excursion = -10.2;
+
+    @Benchmark
+    public boolean isOutsideThreshold() {
+        return device.isOutsideThreshold(inRange);
+    }
+
+    @Benchmark
+    public String buildIncidentDescription() {
+        return TelemetryPersistenceService.buildIncidentDescription(device, excursion);
+    }
+}
@@ -0,0 +1,9 @@
+package com.supermart.iot.archive;
+
+import java.time.LocalDateTime;
+
+/**
+ * One telemetry reading as stored in an archive block.
+ */
+public record ArchivedReading(long telemetryId, LocalDateTime recordedAt, double temperature, boolean alert) {
+}
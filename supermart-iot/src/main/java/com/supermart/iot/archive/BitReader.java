@@ -0,0 +1,33 @@
+package com.supermart.iot.archive;
+
+/**
+ * Reads bits written by {@link BitWriter}, most significant bit first.
+ */
+final class BitReader {
+
+    private final byte[] buffer;
+    private long position;
+
+    BitReader(byte[] buffer, int startByte) {
+        this.buffer = buffer;
+        this.position = (long) startByte << 3;
+    }
+
+    boolean readBit() {
+        int index = (int) (position >>> 3);
+        if (index >= buffer.length) {
+            throw new IllegalArgumentException("Truncated telemetry block");
+        }
+        boolean bit = (buffer[index] & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,46 @@
+package com.supermart.iot.archive;
+
+import java.util.Arrays;
+
+/**
+ * Growable bit buffer, written most significant bit first.
+ */
+final class BitWriter {
+
+    private byte[] buffer;
+    private long bitCount;
+
+    BitWriter(int initialBytes) {
+        buffer = new byte[Math.max(8, initialBytes)];
+    }
+
+    void writeBit(boolean bit) {
+        ensureCapacity(1);
+        if (bit) {
+            buffer[(int) (bitCount >>> 3)] |= (byte) (0x80 >>> (bitCount & 7));
+        }
+        bitCount++;
+    }
+
+    /** Writes the low {@code count} bits of {@code value}, high bit first. */
+    void writeBits(long value, int count) {
+        ensureCapacity(count);
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1L) != 0) {
+                buffer[(int) (bitCount >>> 3)] |= (byte) (0x80 >>> (bitCount & 7));
+            }
+            bitCount++;
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitCount + 7) >>> 3));
+    }
+
+    private void ensureCapacity(int bits) {
+        long needed = (bitCount + bits + 7) >>> 3;
+        if (needed > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.max(needed, buffer.length * 2L));
+        }
+    }
+}
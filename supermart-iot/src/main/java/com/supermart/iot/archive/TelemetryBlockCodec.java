@@ -0,0 +1,209 @@
+package com.supermart.iot.archive;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gorilla-style columnar encoding of one device's readings.
+ *
+ * <p>Layout: a version byte, then a bit stream holding the reading count, the
+ * first reading in full and every later reading as:</p>
+ * <ul>
+ *   <li>{@code recorded_at} whole seconds as a delta-of-delta ({@code 0} costs one
+ *       bit, jitter up to ±2048 s costs at most 16 bits), followed by the
+ *       sub-second micros ({@code 0} costs one bit);</li>
+ *   <li>{@code telemetry_id} as a delta-of-delta with the same buckets;</li>
+ *   <li>{@code temperature} XOR-ed with the previous value: one bit when
+ *       unchanged, otherwise only the meaningful bits, reusing the previous
+ *       leading/trailing-zero window when it fits;</li>
+ *   <li>{@code is_alert} as one bit.</li>
+ * </ul>
+ *
+ * <p>Encoding is lossless. Readings are stored in {@code (recorded_at,
+ * telemetry_id)} order.</p>
+ */
+public final class TelemetryBlockCodec {
+
+    static final byte VERSION = 1;
+
+    /** Reading order within a block. */
+    public static final Comparator<ArchivedReading> ORDER = Comparator
+            .comparing(ArchivedReading::recordedAt)
+            .thenComparingLong(ArchivedReading::telemetryId);
+
+    private static final int MICROS_BITS = 20;
+
+    private TelemetryBlockCodec() {
+    }
+
+    public static byte[] encode(List<ArchivedReading> readings) {
+        List<ArchivedReading> sorted = new ArrayList<>(readings);
+        sorted.sort(ORDER);
+        BitWriter out = new BitWriter(16 + sorted.size() * 4);
+        out.writeBits(VERSION, 8);
+        out.writeBits(sorted.size(), 32);
+        if (sorted.isEmpty()) {
+            return out.toByteArray();
+        }
+
+        ArchivedReading first = sorted.get(0);
+        long prevSeconds = first.recordedAt().toEpochSecond(ZoneOffset.UTC);
+        long prevId = first.telemetryId();
+        long prevBits = Double.doubleToRawLongBits(first.temperature());
+        out.writeBits(prevId, 64);
+        out.writeBits(prevSeconds, 64);
+        writeMicros(out, first.recordedAt());
+        out.writeBits(prevBits, 64);
+        out.writeBit(first.alert());
+
+        long prevSecondsDelta = 0;
+        long prevIdDelta = 0;
+        int prevLeading = -1;
+        int prevTrailing = 0;
+        for (int i = 1; i < sorted.size(); i++) {
+            ArchivedReading reading = sorted.get(i);
+
+            long seconds = reading.recordedAt().toEpochSecond(ZoneOffset.UTC);
+            long secondsDelta = seconds - prevSeconds;
+            writeDeltaOfDelta(out, secondsDelta - prevSecondsDelta);
+            writeMicros(out, reading.recordedAt());
+            prevSeconds = seconds;
+            prevSecondsDelta = secondsDelta;
+
+            long idDelta = reading.telemetryId() - prevId;
+            writeDeltaOfDelta(out, idDelta - prevIdDelta);
+            prevId = reading.telemetryId();
+            prevIdDelta = idDelta;
+
+            long bits = Double.doubleToRawLongBits(reading.temperature());
+            long xor = bits ^ prevBits;
+            if (xor == 0) {
+                out.writeBit(false);
+            } else {
+                out.writeBit(true);
+                int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trailing = Long.numberOfTrailingZeros(xor);
+                if (prevLeading >= 0 && leading >= prevLeading && trailing >= prevTrailing) {
+                    out.writeBit(false);
+                    out.writeBits(xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+                } else {
+                    int length = 64 - leading - trailing;
+                    out.writeBit(true);
+                    out.writeBits(leading, 5);
+                    out.writeBits(length == 64 ? 0 : length, 6);
+                    out.writeBits(xor >>> trailing, length);
+                    prevLeading = leading;
+                    prevTrailing = trailing;
+                }
+            }
+            prevBits = bits;
+
+            out.writeBit(reading.alert());
+        }
+        return out.toByteArray();
+    }
+
+    public static List<ArchivedReading> decode(byte[] block) {
+        if (block.length == 0 || block[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported telemetry block version");
+        }
+        BitReader in = new BitReader(block, 1);
+        int count = (int) in.readBits(32);
+        List<ArchivedReading> readings = new ArrayList<>(count);
+        if (count == 0) {
+            return readings;
+        }
+
+        long prevId = in.readBits(64);
+        long prevSeconds = in.readBits(64);
+        int micros = readMicros(in);
+        long prevBits = in.readBits(64);
+        readings.add(new ArchivedReading(prevId, toDateTime(prevSeconds, micros),
+                Double.longBitsToDouble(prevBits), in.readBit()));
+
+        long prevSecondsDelta = 0;
+        long prevIdDelta = 0;
+        int prevLeading = 0;
+        int prevTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            prevSecondsDelta += readDeltaOfDelta(in);
+            prevSeconds += prevSecondsDelta;
+            micros = readMicros(in);
+
+            prevIdDelta += readDeltaOfDelta(in);
+            prevId += prevIdDelta;
+
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    prevLeading = (int) in.readBits(5);
+                    int length = (int) in.readBits(6);
+                    if (length == 0) {
+                        length = 64;
+                    }
+                    prevTrailing = 64 - prevLeading - length;
+                }
+                long meaningful = in.readBits(64 - prevLeading - prevTrailing);
+                prevBits ^= meaningful << prevTrailing;
+            }
+
+            readings.add(new ArchivedReading(prevId, toDateTime(prevSeconds, micros),
+                    Double.longBitsToDouble(prevBits), in.readBit()));
+        }
+        return readings;
+    }
+
+    private static void writeDeltaOfDelta(BitWriter out, long value) {
+        if (value == 0) {
+            out.writeBit(false);
+        } else if (value >= -63 && value <= 64) {
+            out.writeBits(0b10, 2);
+            out.writeBits(value + 63, 7);
+        } else if (value >= -255 && value <= 256) {
+            out.writeBits(0b110, 3);
+            out.writeBits(value + 255, 9);
+        } else if (value >= -2047 && value <= 2048) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(value + 2047, 12);
+        } else {
+            out.writeBits(0b1111, 4);
+            out.writeBits(value, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        if (!in.readBit()) {
+            return in.readBits(7) - 63;
+        }
+        if (!in.readBit()) {
+            return in.readBits(9) - 255;
+        }
+        if (!in.readBit()) {
+            return in.readBits(12) - 2047;
+        }
+        return in.readBits(64);
+    }
+
+    private static void writeMicros(BitWriter out, LocalDateTime at) {
+        int micros = at.getNano() / 1000;
+        if (micros == 0) {
+            out.writeBit(false);
+        } else {
+            out.writeBit(true);
+            out.writeBits(micros, MICROS_BITS);
+        }
+    }
+
+    private static int readMicros(BitReader in) {
+        return in.readBit() ? (int) in.readBits(MICROS_BITS) : 0;
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond, int micros) {
+        return LocalDateTime.ofEpochSecond(epochSecond, micros * 1000, ZoneOffset.UTC);
+    }
+}
@@ -3,6 +3,7 @@ package com.supermart.iot.config;
 import com.supermart.iot.repository.UserRepository;
 import com.supermart.iot.security.DeviceKeyAuthFilter;
 import com.supermart.iot.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,7 +34,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  *
  * <p>Public endpoints: {@code /auth/**}, {@code /h2-console/**},
  * {@code /v3/api-docs/**}, {@code /swagger-ui/**}, {@code /actuator/**}.
- * All other requests require a valid JWT Bearer token.</p>
+ * All other requests require a valid JWT Bearer token. Async dispatches
+ * (completion of {@code /dashboard/stream}) are permitted because the JWT was
+ * already checked on the original request. Telemetry exports are limited to
+ * dashboard users ({@code ADMIN}, {@code MANAGER}).</p>
  *
  * <p>CORS is delegated to {@link CorsConfig} via the
  * {@link org.springframework.web.cors.CorsConfigurationSource} bean.</p>
@@ -71,11 +75,13 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/actuator/**").permitAll()
-                .requestMatchers(HttpMethod.POST, "/telemetry").hasRole("DEVICE")
+                .requestMatchers(HttpMethod.POST, "/telemetry", "/telemetry/batch").hasRole("DEVICE")
+                .requestMatchers(HttpMethod.GET, "/telemetry/export").hasAnyRole("ADMIN", "MANAGER")
                 .anyRequest().authenticated()
             )
             .headers(headers -> headers.frameOptions(fo -> fo.disable())) // for H2 console
@@ -0,0 +1,75 @@
+package com.supermart.iot.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@link DataSource} that counts the JDBC statements prepared on the current
+ * thread between {@link #startCounting()} and {@link #stopCounting()}.
+ *
+ * <p>Every {@code prepareStatement}, {@code prepareCall} and
+ * {@code createStatement} counts once, whether it comes from Hibernate or from
+ * {@code JdbcTemplate}; a JDBC batch counts as one statement. Connections taken
+ * while the thread is not counting are returned unwrapped, so background work
+ * such as the write-behind writers pays nothing.</p>
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /** Starts counting on the current thread, from zero. */
+    public static void startCounting() {
+        COUNTER.set(new int[1]);
+    }
+
+    /** Stops counting on the current thread and returns the count, or {@code 0} if it was not counting. */
+    public static int stopCounting() {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter != null ? counter[0] : 0;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        int[] counter = COUNTER.get();
+        if (counter == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("prepare") || "createStatement".equals(name)) {
+                        counter[0]++;
+                    } else if ("equals".equals(name) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    } else if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    } else if ("unwrap".equals(name) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,65 @@
+package com.supermart.iot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Support beans for {@code spring.threads.virtual.enabled=true}.
+ *
+ * <p>Spring Boot itself moves Tomcat request handling, {@code @Async} and
+ * {@code @Scheduled} onto virtual threads when the flag is set on Java 21+. This
+ * configuration adds what that mode needs on top: a JDBC concurrency limit,
+ * because request threads are no longer capped by a thread pool, and a monitor
+ * for virtual threads pinned by blocking inside {@code synchronized}. None of it
+ * is active in the default platform-thread mode.</p>
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Wraps the application {@link DataSource} in a
+     * {@link ConcurrencyLimitedDataSource}. {@code app.jdbc.max-concurrency} of
+     * {@code 0} uses the Hikari pool size.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.jdbc.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor jdbcConcurrencyLimiter(Environment environment) {
+        int configured = environment.getProperty("app.jdbc.max-concurrency", Integer.class, 0);
+        Duration acquireTimeout = Duration.ofMillis(
+                environment.getProperty("app.jdbc.acquire-timeout-ms", Long.class, 5000L));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                // Hikari reports -1 until its pool starts, meaning its default of 10
+                int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : -1;
+                int limit = configured > 0 ? configured : poolSize > 0 ? poolSize : DEFAULT_POOL_SIZE;
+                log.info("Limiting data source '{}' to {} concurrent connections", beanName, limit);
+                return new ConcurrencyLimitedDataSource(dataSource, limit, acquireTimeout);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(Environment environment) {
+        return new VirtualThreadPinningMonitor(Duration.ofMillis(
+                environment.getProperty("app.threads.pinning-monitor.threshold-ms", Long.class, 20L)));
+    }
+}
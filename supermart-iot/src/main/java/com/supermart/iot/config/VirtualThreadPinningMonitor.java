@@ -0,0 +1,85 @@
+package com.supermart.iot.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Logs virtual threads that stay pinned to their carrier longer than
+ * {@code app.threads.pinning-monitor.threshold-ms}.
+ *
+ * <p>A virtual thread that blocks inside {@code synchronized} or a native frame
+ * cannot unmount, so it holds one of the few carrier threads for the whole wait.
+ * The JDK reports this as the JFR event {@code jdk.VirtualThreadPinned}; this
+ * monitor streams that event in-process and logs the application frames of the
+ * pinned stack, so the offending lock can be found without a recording file.
+ * On JDKs without the event the stream simply stays silent.</p>
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String APPLICATION_PACKAGE = "com.supermart.";
+    private static final int MAX_FRAMES = 8;
+
+    private final Duration threshold;
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        stream.close();
+    }
+
+    /** Pinning events seen since startup. */
+    public long getPinnedEvents() {
+        return pinnedEvents.get();
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinnedEvents.incrementAndGet();
+        log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(),
+                describe(event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of()));
+    }
+
+    /** The application frames of a stack, falling back to its top frames. */
+    static String describe(List<RecordedFrame> frames) {
+        List<String> application = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .limit(MAX_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .toList();
+        if (!application.isEmpty()) {
+            return String.join(" <- ", application);
+        }
+        return frames.stream().limit(MAX_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -1,12 +1,15 @@
 package com.supermart.iot.controller;
 
 import com.supermart.iot.dto.response.*;
+import com.supermart.iot.service.impl.DashboardBroadcaster;
 import com.supermart.iot.service.impl.DashboardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/dashboard")
@@ -15,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardBroadcaster dashboardBroadcaster;
 
     @GetMapping("/summary")
     @Operation(summary = "Get real-time KPI summary")
@@ -29,4 +33,10 @@ public class DashboardController {
             @RequestParam(defaultValue = "20") int size) {
         return ResponseEntity.ok(ApiResponse.ok(dashboardService.getAlerts(page, size)));
     }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream KPI changes and alert devices as server-sent events")
+    public SseEmitter stream() {
+        return dashboardBroadcaster.subscribe();
+    }
 }
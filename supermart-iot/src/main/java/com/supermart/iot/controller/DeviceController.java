@@ -11,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/devices")
@@ -46,4 +47,25 @@ public class DeviceController {
             @RequestParam(defaultValue = "20") int size) {
         return ResponseEntity.ok(ApiResponse.ok(deviceService.getDeviceTelemetry(deviceId, from, to, page, size)));
     }
+
+    @GetMapping("/{deviceId}/telemetry/cursor")
+    @Operation(summary = "Get telemetry history for a device using an opaque continuation cursor (no total count)")
+    public ResponseEntity<ApiResponse<CursorPagedResponse<TelemetryResponse>>> getTelemetryByCursor(
+            @PathVariable Long deviceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(deviceService.getDeviceTelemetryPage(deviceId, from, to, cursor, size)));
+    }
+
+    @GetMapping("/{deviceId}/telemetry/aggregate")
+    @Operation(summary = "Get bucketed min/max/avg/count telemetry for a device (1m, 1h or 1d buckets)")
+    public ResponseEntity<ApiResponse<List<TelemetryAggregateResponse>>> getTelemetryAggregate(
+            @PathVariable Long deviceId,
+            @RequestParam(defaultValue = "1h") String bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(ApiResponse.ok(deviceService.getDeviceTelemetryAggregate(deviceId, bucket, from, to)));
+    }
 }
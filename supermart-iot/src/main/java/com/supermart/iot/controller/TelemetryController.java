@@ -2,15 +2,27 @@ package com.supermart.iot.controller;
 
 import com.supermart.iot.dto.request.TelemetryIngestRequest;
 import com.supermart.iot.dto.response.ApiResponse;
+import com.supermart.iot.dto.response.TelemetryBatchResponse;
 import com.supermart.iot.dto.response.TelemetryResponse;
+import com.supermart.iot.exception.BadRequestException;
+import com.supermart.iot.protocol.TelemetryFrameCodec;
+import com.supermart.iot.service.impl.TelemetryExportService;
 import com.supermart.iot.service.impl.TelemetryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/telemetry")
@@ -18,16 +30,98 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Telemetry", description = "IoT device data ingestion")
 public class TelemetryController {
 
+    private static final MediaType FRAME_TYPE = MediaType.parseMediaType(TelemetryFrameCodec.MEDIA_TYPE);
+
     private final TelemetryService telemetryService;
+    private final TelemetryExportService telemetryExportService;
 
     @PostMapping
-    @Operation(summary = "Ingest telemetry reading from an IoT device")
+    @Operation(summary = "Ingest telemetry reading from an IoT device",
+            description = "Send an Idempotency-Key header or a sequence number to make retries safe: a repeat "
+                    + "within the deduplication window returns the original response.")
     public ResponseEntity<ApiResponse<TelemetryResponse>> ingest(
-            @Valid @RequestBody TelemetryIngestRequest request) {
-        TelemetryResponse record = telemetryService.ingest(request);
-        String message = record.getIsAlert()
-                ? "Telemetry recorded. Temperature threshold exceeded — incident created."
-                : "Telemetry recorded successfully.";
+            @Valid @RequestBody TelemetryIngestRequest request,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        TelemetryResponse record = telemetryService.ingest(request, idempotencyKey);
+        String message;
+        if (record.getTelemetryId() == null) {
+            message = record.getIsAlert()
+                    ? "Telemetry accepted. Temperature threshold exceeded — incident will be opened."
+                    : "Telemetry accepted for recording.";
+        } else {
+            message = record.getIsAlert()
+                    ? "Telemetry recorded. Temperature threshold exceeded — incident created."
+                    : "Telemetry recorded successfully.";
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.ok(record, message));
     }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Ingest a batch of telemetry readings from a gateway",
+            description = "Readings are validated and rate-limited individually; the response carries "
+                    + "one result per reading in submission order. Readings whose sequence was already "
+                    + "ingested are replayed with their original result.")
+    public ResponseEntity<ApiResponse<TelemetryBatchResponse>> ingestBatch(
+            @RequestBody List<TelemetryIngestRequest> requests) {
+        TelemetryBatchResponse response = telemetryService.ingestBatch(requests);
+        String message = response.getAccepted() + " of " + response.getReceived() + " telemetry readings recorded.";
+        HttpStatus status = response.getAccepted() > 0 ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(ApiResponse.ok(response, message));
+    }
+
+    @PostMapping(consumes = TelemetryFrameCodec.MEDIA_TYPE)
+    @Operation(summary = "Ingest one telemetry reading as a binary frame",
+            description = "Same semantics as the JSON endpoint; the body is a one-reading frame and the "
+                    + "response a binary ack. Errors are reported with the usual status codes.")
+    public ResponseEntity<byte[]> ingestFrame(
+            @RequestBody byte[] frame,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        List<TelemetryIngestRequest> requests = decode(frame);
+        if (requests.size() != 1) {
+            throw new BadRequestException("Telemetry frame must hold exactly one reading; use /telemetry/batch.");
+        }
+        TelemetryResponse record = telemetryService.ingest(requests.get(0), idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(FRAME_TYPE)
+                .body(TelemetryFrameCodec.encodeAck(record));
+    }
+
+    @PostMapping(path = "/batch", consumes = TelemetryFrameCodec.MEDIA_TYPE)
+    @Operation(summary = "Ingest a batch of telemetry readings as a binary frame",
+            description = "Same semantics as the JSON batch endpoint; the ack holds one result per reading.")
+    public ResponseEntity<byte[]> ingestBatchFrame(@RequestBody byte[] frame) {
+        TelemetryBatchResponse response = telemetryService.ingestBatch(decode(frame));
+        HttpStatus status = response.getAccepted() > 0 ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status)
+                .contentType(FRAME_TYPE)
+                .body(TelemetryFrameCodec.encodeAck(response));
+    }
+
+    private static List<TelemetryIngestRequest> decode(byte[] frame) {
+        try {
+            return TelemetryFrameCodec.decode(frame);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage() + ".");
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream raw telemetry for one device, one store or the whole fleet as CSV or NDJSON",
+            description = "Rows are streamed from a database cursor in device and time order, so any range "
+                    + "can be exported in one request. Set gzip=true to receive a .gz file.")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) Long deviceId,
+            @RequestParam(required = false) Long storeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        TelemetryExportService.TelemetryExport export =
+                telemetryExportService.prepare(deviceId, storeId, from, to, format, gzip);
+        return ResponseEntity.ok()
+                .contentType(export.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(export.filename()).build().toString())
+                .body(export.body());
+    }
 }
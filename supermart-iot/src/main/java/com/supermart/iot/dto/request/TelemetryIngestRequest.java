@@ -15,4 +15,10 @@ public class TelemetryIngestRequest {
 
     @NotNull(message = "recordedAt is required")
     private LocalDateTime recordedAt;
+
+    /**
+     * Optional per-device reading number. A retried reading with the same
+     * sequence is answered with the original response instead of being stored again.
+     */
+    private Long sequence;
 }
@@ -0,0 +1,18 @@
+package com.supermart.iot.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * A page of a keyset-paginated listing. Unlike {@link PagedResponse} there is no
+ * total count; pass {@code nextCursor} back as {@code cursor} to fetch the next
+ * page until {@code hasMore} is {@code false}.
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class CursorPagedResponse<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasMore;
+    private int size;
+}
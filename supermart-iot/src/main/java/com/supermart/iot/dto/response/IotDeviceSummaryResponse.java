@@ -1,6 +1,7 @@
 package com.supermart.iot.dto.response;
 
 import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.enums.EquipmentType;
 import lombok.*;
 import java.time.LocalDateTime;
 
@@ -12,6 +13,9 @@ public class IotDeviceSummaryResponse {
     private LocalDateTime lastSeenAt;
     private String storeName;
     private String unitName;
+    private EquipmentType unitType;
+    private Double minTempThreshold;
+    private Double maxTempThreshold;
     private Double latestTemperature;
     private Boolean isAlert;
 }
@@ -22,4 +22,15 @@ public class PagedResponse<T> {
                 .size(pageData.getSize())
                 .build();
     }
+
+    /** Page metadata from {@code pageData} with content mapped in bulk by the caller. */
+    public static <T> PagedResponse<T> of(Page<?> pageData, List<T> content) {
+        return PagedResponse.<T>builder()
+                .content(content)
+                .totalElements(pageData.getTotalElements())
+                .totalPages(pageData.getTotalPages())
+                .page(pageData.getNumber())
+                .size(pageData.getSize())
+                .build();
+    }
 }
@@ -0,0 +1,14 @@
+package com.supermart.iot.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TelemetryAggregateResponse {
+    private LocalDateTime bucketStart;
+    private Long sampleCount;
+    private Long alertCount;
+    private Double minTemperature;
+    private Double maxTemperature;
+    private Double avgTemperature;
+}
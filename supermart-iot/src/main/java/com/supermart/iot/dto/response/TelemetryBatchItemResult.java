@@ -0,0 +1,31 @@
+package com.supermart.iot.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Outcome of a single reading within a telemetry batch.
+ *
+ * <p>Accepted items carry the persisted {@link TelemetryResponse}; rejected items
+ * carry an {@code errorCode} using the same vocabulary as {@link ApiResponse}
+ * errors ({@code VALIDATION_ERROR}, {@code NOT_FOUND}, {@code RATE_LIMITED},
+ * {@code DUPLICATE}).</p>
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TelemetryBatchItemResult {
+
+    /** Zero-based position of the reading in the submitted array. */
+    private int index;
+
+    private boolean accepted;
+
+    private TelemetryResponse telemetry;
+
+    /** {@code true} when the reading's sequence was already ingested and its original result is replayed. */
+    private Boolean duplicate;
+
+    private String errorCode;
+
+    private String message;
+}
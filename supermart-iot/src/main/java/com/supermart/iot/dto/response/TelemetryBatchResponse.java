@@ -0,0 +1,17 @@
+package com.supermart.iot.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * Response payload for {@code POST /telemetry/batch}.
+ *
+ * <p>{@code results} is in the same order as the submitted readings.</p>
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TelemetryBatchResponse {
+    private int received;
+    private int accepted;
+    private int rejected;
+    private List<TelemetryBatchItemResult> results;
+}
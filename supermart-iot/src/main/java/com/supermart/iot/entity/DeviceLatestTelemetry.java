@@ -0,0 +1,39 @@
+package com.supermart.iot.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized copy of each device's newest telemetry reading.
+ *
+ * <p>Advanced on ingest alongside the raw insert so device listings can read
+ * the latest temperature for a whole page with one primary-key lookup instead
+ * of a top-1 query per device.</p>
+ *
+ * <p>It doubles as the per-device alert state: {@code is_alert} is indexed so the
+ * devices whose latest reading alerts are found without touching raw telemetry.</p>
+ */
+@Entity
+@Table(name = "device_latest_telemetry", indexes = {
+        @Index(name = "idx_latest_telemetry_alert", columnList = "is_alert")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class DeviceLatestTelemetry {
+
+    @Id
+    @Column(name = "device_id")
+    private Long deviceId;
+
+    @Column(name = "telemetry_id", nullable = false)
+    private Long telemetryId;
+
+    @Column(nullable = false)
+    private Double temperature;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Column(name = "is_alert", nullable = false)
+    private Boolean isAlert;
+}
@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "incidents")
+@Table(name = "incidents", indexes = {
+        @Index(name = "idx_incidents_device_status", columnList = "device_id, status"),
+        @Index(name = "idx_incidents_status", columnList = "status")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Incident {
 
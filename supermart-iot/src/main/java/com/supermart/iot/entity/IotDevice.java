@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "iot_devices")
+@Table(name = "iot_devices", indexes = {
+        @Index(name = "idx_iot_devices_status", columnList = "status")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class IotDevice {
 
@@ -0,0 +1,46 @@
+package com.supermart.iot.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One device's readings for one closed day, moved out of {@code telemetry_records}
+ * by the archiver and compressed with
+ * {@link com.supermart.iot.archive.TelemetryBlockCodec}.
+ *
+ * <p>The first/last timestamps and count let readers skip or count whole
+ * blocks without decoding them.</p>
+ */
+@Entity
+@Table(name = "telemetry_archive_blocks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_archive_device_date", columnNames = {"device_id", "block_date"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TelemetryArchiveBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "block_id")
+    private Long blockId;
+
+    @Column(name = "device_id", nullable = false)
+    private Long deviceId;
+
+    @Column(name = "block_date", nullable = false)
+    private LocalDate blockDate;
+
+    @Column(name = "first_recorded_at", nullable = false)
+    private LocalDateTime firstRecordedAt;
+
+    @Column(name = "last_recorded_at", nullable = false)
+    private LocalDateTime lastRecordedAt;
+
+    @Column(name = "sample_count", nullable = false)
+    private int sampleCount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+}
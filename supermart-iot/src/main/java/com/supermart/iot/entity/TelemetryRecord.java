@@ -5,7 +5,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "telemetry_records")
+// Mirrors db/migration/mysql/V2 so H2 (ddl-auto) plans the same access paths as MySQL.
+@Table(name = "telemetry_records", indexes = {
+        @Index(name = "idx_telemetry_device_recorded", columnList = "device_id, recorded_at, is_alert, temperature"),
+        @Index(name = "idx_telemetry_alert_recorded", columnList = "is_alert, recorded_at")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class TelemetryRecord {
 
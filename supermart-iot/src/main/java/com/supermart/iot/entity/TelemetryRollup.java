@@ -0,0 +1,38 @@
+package com.supermart.iot.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-device telemetry aggregate for one {@link com.supermart.iot.enums.RollupBucket}.
+ *
+ * <p>Maintained incrementally on ingest by upserts that add to the counts and
+ * sum and widen min/max, so rows are never recomputed from raw telemetry.
+ * Rows older than their bucket's retention are deleted by
+ * {@link com.supermart.iot.service.impl.TelemetryRollupRetention}.</p>
+ */
+@Entity
+@Table(name = "telemetry_rollups", indexes = {
+        @Index(name = "idx_rollups_bucket_start", columnList = "bucket, bucket_start")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TelemetryRollup {
+
+    @EmbeddedId
+    private TelemetryRollupId id;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "alert_count", nullable = false)
+    private long alertCount;
+
+    @Column(name = "min_temperature", nullable = false)
+    private double minTemperature;
+
+    @Column(name = "max_temperature", nullable = false)
+    private double maxTemperature;
+
+    @Column(name = "temperature_sum", nullable = false)
+    private double temperatureSum;
+}
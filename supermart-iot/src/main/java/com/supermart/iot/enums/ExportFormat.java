@@ -0,0 +1,33 @@
+package com.supermart.iot.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Telemetry export formats, addressed in the API by their code
+ * ({@code csv}, {@code ndjson}).
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String code;
+    private final String contentType;
+
+    ExportFormat(String code, String contentType) {
+        this.code = code;
+        this.contentType = contentType;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static Optional<ExportFormat> fromCode(String code) {
+        return Arrays.stream(values()).filter(f -> f.code.equalsIgnoreCase(code)).findFirst();
+    }
+}
@@ -0,0 +1,50 @@
+package com.supermart.iot.enums;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Telemetry rollup granularities, addressed in the API by their short code
+ * ({@code 1m}, {@code 1h}, {@code 1d}).
+ */
+public enum RollupBucket {
+    MINUTE("1m", ChronoUnit.MINUTES, Duration.ofHours(6)),
+    HOUR("1h", ChronoUnit.HOURS, Duration.ofDays(30)),
+    DAY("1d", ChronoUnit.DAYS, Duration.ofDays(365));
+
+    private final String code;
+    private final ChronoUnit unit;
+    private final Duration defaultSpan;
+
+    RollupBucket(String code, ChronoUnit unit, Duration defaultSpan) {
+        this.code = code;
+        this.unit = unit;
+        this.defaultSpan = defaultSpan;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /** Range returned when the caller gives no {@code from}: roughly 360–720 points. */
+    public Duration getDefaultSpan() {
+        return defaultSpan;
+    }
+
+    /** Start of the bucket containing {@code timestamp}. */
+    public LocalDateTime truncate(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    /** Number of buckets between two instants, rounded up. */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(truncate(from), truncate(to)) + 1;
+    }
+
+    public static Optional<RollupBucket> fromCode(String code) {
+        return Arrays.stream(values()).filter(b -> b.code.equalsIgnoreCase(code)).findFirst();
+    }
+}
@@ -3,6 +3,7 @@ package com.supermart.iot.exception;
 import com.supermart.iot.dto.response.ApiResponse;
 import io.jsonwebtoken.JwtException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -44,6 +45,13 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("RATE_LIMITED", ex.getMessage()));
     }
 
+    @ExceptionHandler(IngestBackpressureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBackpressure(IngestBackpressureException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error("SERVICE_UNAVAILABLE", ex.getMessage()));
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiResponse<Void>> handleBadCredentials(BadCredentialsException ex) {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -0,0 +1,21 @@
+package com.supermart.iot.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the telemetry write-behind queue is saturated. Mapped to
+ * {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+@Getter
+public class IngestBackpressureException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public IngestBackpressureException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,181 @@
+package com.supermart.iot.protocol;
+
+import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.TelemetryBatchItemResult;
+import com.supermart.iot.dto.response.TelemetryBatchResponse;
+import com.supermart.iot.dto.response.TelemetryResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-layout binary frames for telemetry ingest, content type
+ * {@value #MEDIA_TYPE}.
+ *
+ * <p>A request frame is a 4-byte header followed by {@code count} readings, all
+ * little-endian:</p>
+ * <pre>
+ *   0  byte   version       1
+ *   1  byte   flags         bit 0 = readings carry a sequence number
+ *   2  u16    count
+ *   per reading, 20 bytes (28 with sequence):
+ *   0  long   device_id
+ *   8  long   recorded_at   epoch milliseconds, UTC
+ *  16  float  temperature
+ *  20  long   sequence      only when flag bit 0 is set
+ * </pre>
+ *
+ * <p>An ack frame has the same header (flags {@code 0}) followed by one
+ * 10-byte result per reading, in request order:</p>
+ * <pre>
+ *   0  byte   status        see STATUS_* constants
+ *   1  byte   flags         bit 0 = is_alert
+ *   2  long   telemetry_id  0 when rejected or not yet persisted
+ * </pre>
+ *
+ * <p>Readings are decoded straight from the buffer into
+ * {@link TelemetryIngestRequest}s. Temperatures travel as {@code float} and are
+ * read back as the shortest decimal that round-trips, so {@code -18.3f} becomes
+ * {@code -18.3}.</p>
+ */
+public final class TelemetryFrameCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.supermart.telemetry";
+
+    static final byte VERSION = 1;
+    static final int HEADER_BYTES = 4;
+    static final int READING_BYTES = 20;
+    static final int SEQUENCE_BYTES = 8;
+    static final int RESULT_BYTES = 10;
+    static final int MAX_COUNT = 0xFFFF;
+
+    private static final int SEQUENCE_FLAG = 1;
+    private static final int ALERT_FLAG = 1;
+
+    public static final byte STATUS_ACCEPTED = 0;
+    public static final byte STATUS_DUPLICATE = 1;
+    public static final byte STATUS_VALIDATION_ERROR = 2;
+    public static final byte STATUS_NOT_FOUND = 3;
+    public static final byte STATUS_RATE_LIMITED = 4;
+    public static final byte STATUS_IN_FLIGHT = 5;
+
+    private TelemetryFrameCodec() {
+    }
+
+    /**
+     * Decodes a request frame.
+     *
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    public static List<TelemetryIngestRequest> decode(byte[] frame) {
+        if (frame.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("Telemetry frame is shorter than its header");
+        }
+        ByteBuffer in = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.get() != VERSION) {
+            throw new IllegalArgumentException("Unsupported telemetry frame version");
+        }
+        boolean sequenced = (in.get() & SEQUENCE_FLAG) != 0;
+        int count = Short.toUnsignedInt(in.getShort());
+        int readingBytes = READING_BYTES + (sequenced ? SEQUENCE_BYTES : 0);
+        if (frame.length != HEADER_BYTES + count * readingBytes) {
+            throw new IllegalArgumentException("Telemetry frame of " + frame.length + " bytes does not hold "
+                    + count + " readings");
+        }
+
+        List<TelemetryIngestRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long deviceId = in.getLong();
+            long millis = in.getLong();
+            float temperature = in.getFloat();
+            if (!Float.isFinite(temperature)) {
+                throw new IllegalArgumentException("Reading " + i + " has a non-finite temperature");
+            }
+            TelemetryIngestRequest request = new TelemetryIngestRequest();
+            request.setDeviceId(deviceId);
+            request.setRecordedAt(toDateTime(millis));
+            request.setTemperature(Double.parseDouble(Float.toString(temperature)));
+            if (sequenced) {
+                request.setSequence(in.getLong());
+            }
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    /** Encodes a request frame; readings carry sequences if the first one does. */
+    public static byte[] encode(List<TelemetryIngestRequest> requests) {
+        if (requests.size() > MAX_COUNT) {
+            throw new IllegalArgumentException("Telemetry frame holds at most " + MAX_COUNT + " readings");
+        }
+        boolean sequenced = !requests.isEmpty() && requests.get(0).getSequence() != null;
+        int readingBytes = READING_BYTES + (sequenced ? SEQUENCE_BYTES : 0);
+        ByteBuffer out = header(HEADER_BYTES + requests.size() * readingBytes, sequenced ? SEQUENCE_FLAG : 0,
+                requests.size());
+        for (TelemetryIngestRequest request : requests) {
+            out.putLong(request.getDeviceId());
+            out.putLong(toMillis(request.getRecordedAt()));
+            out.putFloat(request.getTemperature().floatValue());
+            if (sequenced) {
+                out.putLong(request.getSequence());
+            }
+        }
+        return out.array();
+    }
+
+    /** Encodes the ack for a single accepted reading. */
+    public static byte[] encodeAck(TelemetryResponse response) {
+        ByteBuffer out = header(HEADER_BYTES + RESULT_BYTES, 0, 1);
+        putResult(out, STATUS_ACCEPTED, response);
+        return out.array();
+    }
+
+    /** Encodes the ack for a batch, one result per reading in request order. */
+    public static byte[] encodeAck(TelemetryBatchResponse response) {
+        List<TelemetryBatchItemResult> results = response.getResults();
+        ByteBuffer out = header(HEADER_BYTES + results.size() * RESULT_BYTES, 0, results.size());
+        for (TelemetryBatchItemResult result : results) {
+            putResult(out, status(result), result.getTelemetry());
+        }
+        return out.array();
+    }
+
+    private static ByteBuffer header(int bytes, int flags, int count) {
+        ByteBuffer out = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        out.put(VERSION);
+        out.put((byte) flags);
+        out.putShort((short) count);
+        return out;
+    }
+
+    private static void putResult(ByteBuffer out, byte status, TelemetryResponse telemetry) {
+        out.put(status);
+        out.put(telemetry != null && Boolean.TRUE.equals(telemetry.getIsAlert()) ? (byte) ALERT_FLAG : 0);
+        out.putLong(telemetry != null && telemetry.getTelemetryId() != null ? telemetry.getTelemetryId() : 0L);
+    }
+
+    private static byte status(TelemetryBatchItemResult result) {
+        if (result.isAccepted()) {
+            return Boolean.TRUE.equals(result.getDuplicate()) ? STATUS_DUPLICATE : STATUS_ACCEPTED;
+        }
+        return switch (result.getErrorCode()) {
+            case "NOT_FOUND" -> STATUS_NOT_FOUND;
+            case "RATE_LIMITED" -> STATUS_RATE_LIMITED;
+            case "DUPLICATE" -> STATUS_IN_FLIGHT;
+            default -> STATUS_VALIDATION_ERROR;
+        };
+    }
+
+    static long toMillis(LocalDateTime at) {
+        return at.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
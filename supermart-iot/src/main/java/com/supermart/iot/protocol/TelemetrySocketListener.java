@@ -0,0 +1,307 @@
+package com.supermart.iot.protocol;
+
+import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.TelemetryBatchResponse;
+import com.supermart.iot.exception.BadRequestException;
+import com.supermart.iot.service.impl.DeviceMetadataCache;
+import com.supermart.iot.service.impl.DeviceSnapshot;
+import com.supermart.iot.service.impl.TelemetryService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking TCP listener for gateways that keep a connection open instead of
+ * posting each reading over HTTPS.
+ *
+ * <p>Every message, in both directions, is a little-endian {@code u32} length
+ * followed by that many bytes. A connection starts with one message holding the
+ * device key as UTF-8; it is checked once against {@link DeviceMetadataCache}
+ * and the connection stays authenticated until it closes. Every later message
+ * is a {@link TelemetryFrameCodec} request frame and is ingested through
+ * {@link TelemetryService#ingestBatch}, exactly like {@code POST /telemetry/batch}
+ * but without the servlet filter chain.</p>
+ *
+ * <p>Replies carry a type byte before their payload: {@value #REPLY_OK} with an
+ * empty payload after the key, or a {@link TelemetryFrameCodec} ack after a
+ * frame; {@value #REPLY_ERROR} with a UTF-8 message. An unknown key or an
+ * oversized message is answered with an error and the connection is closed; a
+ * malformed frame only fails that message.</p>
+ *
+ * <p>One selector thread does all socket I/O; messages are handled on
+ * {@code app.telemetry.socket.workers} threads. A connection has at most one
+ * message in flight and is not read again until its reply is written, so a slow
+ * database pushes back on gateways through TCP flow control.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.telemetry.socket.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TelemetrySocketListener {
+
+    public static final byte REPLY_OK = 0;
+    public static final byte REPLY_ERROR = 1;
+
+    private static final int LENGTH_BYTES = 4;
+
+    private final TelemetryService telemetryService;
+    private final DeviceMetadataCache deviceCache;
+
+    @Value("${app.telemetry.socket.bind-address:0.0.0.0}")
+    private String bindAddress;
+
+    @Value("${app.telemetry.socket.port:7070}")
+    private int port;
+
+    @Value("${app.telemetry.socket.max-frame-bytes:65536}")
+    private int maxFrameBytes;
+
+    @Value("${app.telemetry.socket.workers:4}")
+    private int workers;
+
+    // Work handed back to the selector thread by workers
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private Selector selector;
+    private ServerSocketChannel server;
+    private ExecutorService executor;
+    private Thread loop;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(bindAddress, port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        AtomicInteger workerCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "telemetry-socket-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        loop = new Thread(this::run, "telemetry-socket-selector");
+        loop.setDaemon(true);
+        loop.start();
+        log.info("Telemetry socket listener on {}", server.getLocalAddress());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        running = false;
+        selector.wakeup();
+        loop.join(TimeUnit.SECONDS.toMillis(5));
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    /** The bound port, useful when {@code app.telemetry.socket.port} is {@code 0}. */
+    public int localPort() {
+        return server.socket().getLocalPort();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                Runnable task;
+                while ((task = pending.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            } catch (IOException e) {
+                log.warn("Telemetry socket selector failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+            Session session = (Session) key.attachment();
+            if (key.isReadable()) {
+                read(session);
+            }
+            if (key.isValid() && key.isWritable()) {
+                write(session);
+            }
+        } catch (IOException e) {
+            log.debug("Telemetry socket connection dropped: {}", e.getMessage());
+            close(key);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Session(key));
+    }
+
+    private void read(Session session) throws IOException {
+        SocketChannel channel = (SocketChannel) session.key.channel();
+        if (session.body == null) {
+            if (channel.read(session.length) < 0) {
+                close(session.key);
+                return;
+            }
+            if (session.length.hasRemaining()) {
+                return;
+            }
+            int length = session.length.flip().getInt();
+            session.length.clear();
+            if (length <= 0 || length > maxFrameBytes) {
+                session.closeAfterWrite = true;
+                reply(session, REPLY_ERROR, utf8("Message of " + length + " bytes exceeds the maximum of "
+                        + maxFrameBytes + "."));
+                return;
+            }
+            session.body = ByteBuffer.allocate(length);
+        }
+        if (channel.read(session.body) < 0) {
+            close(session.key);
+            return;
+        }
+        if (session.body.hasRemaining()) {
+            return;
+        }
+        byte[] message = session.body.array();
+        session.body = null;
+        // One message at a time: stop reading until the reply is written
+        session.key.interestOps(0);
+        executor.execute(() -> {
+            Reply reply = process(session, message);
+            pending.add(() -> reply(session, reply.type(), reply.payload()));
+            selector.wakeup();
+        });
+    }
+
+    /** Handles one message on a worker thread. */
+    private Reply process(Session session, byte[] message) {
+        if (session.device == null) {
+            Optional<DeviceSnapshot> device = deviceCache.findByDeviceKey(new String(message, StandardCharsets.UTF_8));
+            if (device.isEmpty()) {
+                session.closeAfterWrite = true;
+                return new Reply(REPLY_ERROR, utf8("Invalid device key."));
+            }
+            session.device = device.get();
+            log.debug("Device {} connected over telemetry socket", device.get().deviceSerial());
+            return new Reply(REPLY_OK, new byte[0]);
+        }
+        try {
+            List<TelemetryIngestRequest> requests = TelemetryFrameCodec.decode(message);
+            TelemetryBatchResponse response = telemetryService.ingestBatch(requests);
+            return new Reply(REPLY_OK, TelemetryFrameCodec.encodeAck(response));
+        } catch (IllegalArgumentException | BadRequestException e) {
+            return new Reply(REPLY_ERROR, utf8(e.getMessage()));
+        } catch (RuntimeException e) {
+            log.warn("Telemetry socket ingest failed for device {}: {}", session.device.deviceId(), e.getMessage());
+            return new Reply(REPLY_ERROR, utf8("Telemetry could not be ingested. Retry shortly."));
+        }
+    }
+
+    /** Queues a reply; runs on the selector thread. */
+    private void reply(Session session, byte type, byte[] payload) {
+        if (!session.key.isValid()) {
+            return;
+        }
+        ByteBuffer out = ByteBuffer.allocate(LENGTH_BYTES + 1 + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(1 + payload.length).put(type).put(payload).flip();
+        session.writes.add(out);
+        session.key.interestOps(SelectionKey.OP_WRITE);
+    }
+
+    private void write(Session session) throws IOException {
+        SocketChannel channel = (SocketChannel) session.key.channel();
+        while (!session.writes.isEmpty()) {
+            ByteBuffer out = session.writes.peek();
+            channel.write(out);
+            if (out.hasRemaining()) {
+                return;
+            }
+            session.writes.poll();
+        }
+        if (session.closeAfterWrite) {
+            close(session.key);
+        } else {
+            session.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Closing telemetry socket failed: {}", e.getMessage());
+        }
+    }
+
+    private static byte[] utf8(String message) {
+        return message.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Reply(byte type, byte[] payload) {
+    }
+
+    /** Per-connection state; the device is set by a worker and read after the reply hand-off. */
+    private static final class Session {
+
+        private final SelectionKey key;
+        private final ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final Queue<ByteBuffer> writes = new ArrayDeque<>();
+        private ByteBuffer body;
+        private volatile DeviceSnapshot device;
+        private volatile boolean closeAfterWrite;
+
+        private Session(SelectionKey key) {
+            this.key = key;
+        }
+    }
+}
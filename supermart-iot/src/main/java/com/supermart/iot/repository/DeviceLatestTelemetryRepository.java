@@ -0,0 +1,10 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.DeviceLatestTelemetry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeviceLatestTelemetryRepository extends JpaRepository<DeviceLatestTelemetry, Long>,
+        DeviceLatestTelemetryRepositoryCustom {
+}
@@ -0,0 +1,25 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.DeviceLatestTelemetry;
+import com.supermart.iot.entity.TelemetryRecord;
+
+import java.util.List;
+
+/**
+ * Conditional writes for {@link DeviceLatestTelemetry}.
+ */
+public interface DeviceLatestTelemetryRepositoryCustom {
+
+    /**
+     * Makes each reading its device's latest unless a newer one is already
+     * stored, in one JDBC batch. "Newer" is {@code (recorded_at, telemetry_id)}
+     * order, so late or backdated readings never move the projection backwards.
+     *
+     * <p>Uses {@code MERGE} on H2 and {@code INSERT ... ON DUPLICATE KEY UPDATE}
+     * on MySQL. Joins the caller's transaction.</p>
+     *
+     * @param latest persisted readings (ids assigned), at most one per device
+     */
+    void advance(List<TelemetryRecord> latest);
+
+}
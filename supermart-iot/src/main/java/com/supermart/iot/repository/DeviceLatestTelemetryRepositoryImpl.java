@@ -0,0 +1,81 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * {@link DeviceLatestTelemetryRepositoryCustom} implementation backed by plain
+ * JDBC, with one conditional upsert statement per supported database.
+ */
+@RequiredArgsConstructor
+public class DeviceLatestTelemetryRepositoryImpl implements DeviceLatestTelemetryRepositoryCustom {
+
+    private static final String MYSQL_NEWER = newer("device_latest_telemetry");
+
+    // MySQL applies ON DUPLICATE KEY assignments left to right and later ones see
+    // earlier results, so the columns MYSQL_NEWER compares are assigned last (telemetry_id,
+    // then recorded_at) to keep the condition evaluated against the stored row.
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO device_latest_telemetry (device_id, telemetry_id, temperature, recorded_at, is_alert) " +
+            "VALUES (?, ?, ?, ?, ?) AS d ON DUPLICATE KEY UPDATE " +
+            "temperature = IF(" + MYSQL_NEWER + ", d.temperature, device_latest_telemetry.temperature), " +
+            "is_alert = IF(" + MYSQL_NEWER + ", d.is_alert, device_latest_telemetry.is_alert), " +
+            "telemetry_id = IF(" + MYSQL_NEWER + ", d.telemetry_id, device_latest_telemetry.telemetry_id), " +
+            "recorded_at = IF(" + MYSQL_NEWER + ", d.recorded_at, device_latest_telemetry.recorded_at)";
+
+    private static final String H2_MERGE =
+            "MERGE INTO device_latest_telemetry l USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+            "CAST(? AS DOUBLE PRECISION), CAST(? AS TIMESTAMP(6)), CAST(? AS BOOLEAN))) " +
+            "AS d (device_id, telemetry_id, temperature, recorded_at, is_alert) " +
+            "ON l.device_id = d.device_id " +
+            "WHEN MATCHED AND " + newer("l") + " THEN UPDATE SET " +
+            "telemetry_id = d.telemetry_id, temperature = d.temperature, " +
+            "recorded_at = d.recorded_at, is_alert = d.is_alert " +
+            "WHEN NOT MATCHED THEN INSERT (device_id, telemetry_id, temperature, recorded_at, is_alert) " +
+            "VALUES (d.device_id, d.telemetry_id, d.temperature, d.recorded_at, d.is_alert)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void advance(List<TelemetryRecord> latest) {
+        if (latest.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            String sql = isMySql(connection.getMetaData().getDatabaseProductName()) ? MYSQL_UPSERT : H2_MERGE;
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (TelemetryRecord record : latest) {
+                    bind(ps, record);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /** Whether the incoming row {@code d} sorts after the stored row in {@code (recorded_at, telemetry_id)} order. */
+    private static String newer(String stored) {
+        return "(d.recorded_at > " + stored + ".recorded_at OR (d.recorded_at = " + stored + ".recorded_at " +
+               "AND d.telemetry_id > " + stored + ".telemetry_id))";
+    }
+
+    private static boolean isMySql(String productName) {
+        return productName.toLowerCase().contains("mysql");
+    }
+
+    private static void bind(PreparedStatement ps, TelemetryRecord record) throws SQLException {
+        ps.setLong(1, record.getDevice().getDeviceId());
+        ps.setLong(2, record.getTelemetryId());
+        ps.setDouble(3, record.getTemperature());
+        ps.setTimestamp(4, Timestamp.valueOf(record.getRecordedAt()));
+        ps.setBoolean(5, Boolean.TRUE.equals(record.getIsAlert()));
+    }
+}
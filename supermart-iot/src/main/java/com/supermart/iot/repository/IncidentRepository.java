@@ -5,6 +5,7 @@ import com.supermart.iot.enums.IncidentStatus;
 import com.supermart.iot.enums.IncidentType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +15,8 @@ import java.util.Optional;
 @Repository
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
 
+    // Device, unit and store are fetched with the page for the embedded device summaries.
+    @EntityGraph(attributePaths = {"device", "device.unit", "device.unit.store"})
     @Query("SELECT i FROM Incident i WHERE " +
            "(:status IS NULL OR i.status = :status) AND " +
            "(:storeId IS NULL OR i.device.unit.store.storeId = :storeId) AND " +
@@ -2,19 +2,38 @@ package com.supermart.iot.repository;
 
 import com.supermart.iot.entity.IotDevice;
 import com.supermart.iot.enums.DeviceStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
-public interface IotDeviceRepository extends JpaRepository<IotDevice, Long> {
+public interface IotDeviceRepository extends JpaRepository<IotDevice, Long>, IotDeviceRepositoryCustom {
 
     Optional<IotDevice> findByDeviceKey(String deviceKey);
 
+    // Unit is fetched so DeviceSnapshot can read unit and store ids without extra selects.
+    @Query("SELECT d FROM IotDevice d JOIN FETCH d.unit WHERE d.deviceKey = :deviceKey")
+    Optional<IotDevice> findWithUnitByDeviceKey(@Param("deviceKey") String deviceKey);
+
+    @Query("SELECT d FROM IotDevice d JOIN FETCH d.unit WHERE d.deviceId IN :deviceIds")
+    List<IotDevice> findAllWithUnitByDeviceIdIn(@Param("deviceIds") Collection<Long> deviceIds);
+
+    // Unit and store are fetched with the page so summaries need no per-device selects.
+    @EntityGraph(attributePaths = {"unit", "unit.store"})
     @Query("SELECT d FROM IotDevice d WHERE " +
            "(:storeId IS NULL OR d.unit.store.storeId = :storeId) AND " +
            "(:status IS NULL OR d.status = :status)")
@@ -22,13 +41,104 @@ public interface IotDeviceRepository extends JpaRepository<IotDevice, Long> {
                                             @Param("status") DeviceStatus status,
                                             Pageable pageable);
 
-    // JPQL does not support LIMIT inside subqueries (SQL-only syntax).
-    // Rewritten using EXISTS + MAX(recordedAt) to find devices whose most recent
-    // telemetry is an alert, which is semantically identical to the original intent.
-    @Query("SELECT d FROM IotDevice d WHERE d.status = 'FAULT' OR " +
-           "EXISTS (SELECT t FROM TelemetryRecord t WHERE t.device = d AND t.isAlert = true " +
-           "AND t.recordedAt = (SELECT MAX(t2.recordedAt) FROM TelemetryRecord t2 WHERE t2.device = d))")
-    Page<IotDevice> findAllAlertDevices(Pageable pageable);
+    @EntityGraph(attributePaths = {"unit", "unit.store"})
+    List<IotDevice> findByDeviceIdIn(Collection<Long> deviceIds);
+
+    /**
+     * One page of the ids of devices in {@code FAULT} or whose latest reading is
+     * an alert, ascending.
+     *
+     * <p>Both branches are index scans ({@code idx_iot_devices_status} and
+     * {@code idx_latest_telemetry_alert}); raw telemetry is never read.</p>
+     */
+    @Query(value = "SELECT device_id FROM iot_devices WHERE status = 'FAULT' " +
+                   "UNION SELECT device_id FROM device_latest_telemetry WHERE is_alert = TRUE " +
+                   "ORDER BY device_id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> findAlertDeviceIds(@Param("limit") int limit, @Param("offset") long offset);
+
+    /** Number of devices {@link #findAlertDeviceIds} pages through. */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT device_id FROM iot_devices WHERE status = 'FAULT' " +
+                   "UNION SELECT device_id FROM device_latest_telemetry WHERE is_alert = TRUE) alert_devices",
+           nativeQuery = true)
+    long countAlertDevices();
+
+    /**
+     * Devices in {@code FAULT} or whose latest reading is an alert, by device id,
+     * with unit and store fetched.
+     *
+     * <p>Only the page's ids are read, then their devices in one query. The
+     * count query is skipped when the page itself shows the total.</p>
+     */
+    default Page<IotDevice> findAllAlertDevices(Pageable pageable) {
+        List<Long> pageIds = findAlertDeviceIds(pageable.getPageSize(), pageable.getOffset());
+        if (pageIds.isEmpty()) {
+            return PageableExecutionUtils.getPage(List.of(), pageable, this::countAlertDevices);
+        }
+        Map<Long, IotDevice> byId = findByDeviceIdIn(pageIds).stream()
+                .collect(Collectors.toMap(IotDevice::getDeviceId, Function.identity()));
+        List<IotDevice> content = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return PageableExecutionUtils.getPage(content, pageable, this::countAlertDevices);
+    }
 
     long countByStatus(DeviceStatus status);
+
+    /** The columns telemetry export writes for each device; read without loading entities. */
+    interface ExportDevice {
+
+        Long getDeviceId();
+
+        String getDeviceSerial();
+
+        Long getStoreId();
+
+        Long getUnitId();
+    }
+
+    /** One device, every device of one store, or (both {@code null}) the fleet, by device id. */
+    @Query("SELECT d.deviceId AS deviceId, d.deviceSerial AS deviceSerial, u.store.storeId AS storeId, " +
+           "u.unitId AS unitId FROM IotDevice d JOIN d.unit u WHERE " +
+           "(:deviceId IS NULL OR d.deviceId = :deviceId) AND (:storeId IS NULL OR u.store.storeId = :storeId) " +
+           "ORDER BY d.deviceId")
+    List<ExportDevice> findExportDevices(@Param("deviceId") Long deviceId, @Param("storeId") Long storeId);
+
+    @Query("SELECT d.deviceId FROM IotDevice d WHERE d.deviceId > :afterId ORDER BY d.deviceId")
+    List<Long> findDeviceIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /** A device id with the status it had when read. */
+    interface DeviceStatusRow {
+
+        Long getDeviceId();
+
+        DeviceStatus getStatus();
+    }
+
+    /**
+     * The given devices that are not in {@code FAULT}, with their status, locked
+     * until the transaction ends. Rows are locked in id order so concurrent
+     * writers cannot deadlock on them.
+     */
+    @Query(value = "SELECT device_id AS deviceId, status AS status FROM iot_devices " +
+                   "WHERE device_id IN (:deviceIds) AND status <> 'FAULT' ORDER BY device_id FOR UPDATE",
+           nativeQuery = true)
+    List<DeviceStatusRow> lockNonFault(@Param("deviceIds") Collection<Long> deviceIds);
+
+    /**
+     * Moves the given devices to {@code FAULT} and returns those it actually
+     * changed, with their previous status. Devices already in {@code FAULT},
+     * including ones another transaction faulted since they were cached, are
+     * left out. Must run inside a transaction.
+     */
+    default List<DeviceStatusRow> transitionToFault(Collection<Long> deviceIds) {
+        List<DeviceStatusRow> changed = lockNonFault(deviceIds);
+        if (!changed.isEmpty()) {
+            markFault(changed.stream().map(DeviceStatusRow::getDeviceId).toList());
+        }
+        return changed;
+    }
+
+    // Targeted status write so alert handling never rewrites the whole row.
+    @Modifying
+    @Query("UPDATE IotDevice d SET d.status = com.supermart.iot.enums.DeviceStatus.FAULT " +
+           "WHERE d.deviceId IN :deviceIds AND d.status <> com.supermart.iot.enums.DeviceStatus.FAULT")
+    int markFault(@Param("deviceIds") Collection<Long> deviceIds);
 }
@@ -0,0 +1,24 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.IotDevice;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * JDBC-level write operations for {@link IotDevice} that Spring Data JPA
+ * cannot express efficiently.
+ */
+public interface IotDeviceRepositoryCustom {
+
+    /**
+     * Writes many {@code last_seen_at} values with one multi-row {@code UPDATE}
+     * per chunk ({@code SET last_seen_at = CASE device_id WHEN ? THEN ? ... END}).
+     *
+     * <p>Unknown device ids are ignored. Joins the caller's transaction.</p>
+     *
+     * @param lastSeenByDeviceId the new timestamp for each device
+     * @return the number of rows updated
+     */
+    int updateLastSeenAt(Map<Long, LocalDateTime> lastSeenByDeviceId);
+}
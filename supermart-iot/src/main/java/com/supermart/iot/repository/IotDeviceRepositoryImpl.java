@@ -0,0 +1,55 @@
+package com.supermart.iot.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link IotDeviceRepositoryCustom} implementation backed by plain JDBC.
+ *
+ * <p>Rows are updated in ascending id order so that concurrent flushes
+ * from several nodes acquire row locks in the same order.</p>
+ */
+@RequiredArgsConstructor
+public class IotDeviceRepositoryImpl implements IotDeviceRepositoryCustom {
+
+    /** Keeps each statement well under driver placeholder limits. */
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int updateLastSeenAt(Map<Long, LocalDateTime> lastSeenByDeviceId) {
+        List<Long> deviceIds = new ArrayList<>(lastSeenByDeviceId.keySet());
+        Collections.sort(deviceIds);
+        int updated = 0;
+        for (int from = 0; from < deviceIds.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Long> chunk = deviceIds.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, deviceIds.size()));
+            updated += updateChunk(chunk, lastSeenByDeviceId);
+        }
+        return updated;
+    }
+
+    private int updateChunk(List<Long> deviceIds, Map<Long, LocalDateTime> lastSeenByDeviceId) {
+        StringBuilder sql = new StringBuilder("UPDATE iot_devices SET last_seen_at = CASE device_id");
+        List<Object> args = new ArrayList<>(deviceIds.size() * 3);
+        for (Long deviceId : deviceIds) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(deviceId);
+            args.add(Timestamp.valueOf(lastSeenByDeviceId.get(deviceId)));
+        }
+        sql.append(" ELSE last_seen_at END WHERE device_id IN (");
+        for (int i = 0; i < deviceIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(deviceIds.get(i));
+        }
+        sql.append(')');
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
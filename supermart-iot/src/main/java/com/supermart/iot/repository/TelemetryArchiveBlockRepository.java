@@ -0,0 +1,64 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryArchiveBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TelemetryArchiveBlockRepository extends JpaRepository<TelemetryArchiveBlock, Long>,
+        TelemetryArchiveBlockRepositoryCustom {
+
+    Optional<TelemetryArchiveBlock> findByDeviceIdAndBlockDate(Long deviceId, LocalDate blockDate);
+
+    /**
+     * Ids of the blocks holding readings in {@code [from, to]}, newest first, so
+     * callers can load and decode one payload at a time. The {@code block_date}
+     * bounds let {@code uk_archive_device_date} serve the lookup.
+     */
+    @Query("SELECT b.blockId FROM TelemetryArchiveBlock b WHERE b.deviceId = :deviceId " +
+           "AND b.blockDate >= :fromDate AND b.blockDate <= :toDate " +
+           "AND b.lastRecordedAt >= :from AND b.firstRecordedAt <= :to " +
+           "ORDER BY b.blockDate DESC")
+    List<Long> findOverlappingIds(@Param("deviceId") Long deviceId,
+                                  @Param("fromDate") LocalDate fromDate,
+                                  @Param("toDate") LocalDate toDate,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    @Query("SELECT b.payload FROM TelemetryArchiveBlock b WHERE b.blockId = :blockId")
+    byte[] findPayload(@Param("blockId") Long blockId);
+
+    /** Readings in blocks lying entirely inside {@code [from, to]}, counted without decoding. */
+    @Query("SELECT COALESCE(SUM(b.sampleCount), 0) FROM TelemetryArchiveBlock b WHERE b.deviceId = :deviceId " +
+           "AND b.blockDate >= :fromDate AND b.blockDate <= :toDate " +
+           "AND b.firstRecordedAt >= :from AND b.lastRecordedAt <= :to")
+    long sumContainedSamples(@Param("deviceId") Long deviceId,
+                             @Param("fromDate") LocalDate fromDate,
+                             @Param("toDate") LocalDate toDate,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to);
+
+    /** Blocks that straddle {@code from} or {@code to}: at most the first and last of a range. */
+    @Query("SELECT b FROM TelemetryArchiveBlock b WHERE b.deviceId = :deviceId " +
+           "AND b.blockDate >= :fromDate AND b.blockDate <= :toDate " +
+           "AND b.lastRecordedAt >= :from AND b.firstRecordedAt <= :to " +
+           "AND (b.firstRecordedAt < :from OR b.lastRecordedAt > :to)")
+    List<TelemetryArchiveBlock> findStraddling(@Param("deviceId") Long deviceId,
+                                               @Param("fromDate") LocalDate fromDate,
+                                               @Param("toDate") LocalDate toDate,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(b) > 0 FROM TelemetryArchiveBlock b WHERE b.deviceId = :deviceId " +
+           "AND b.blockDate >= :fromDate AND b.blockDate <= :toDate")
+    boolean existsInRange(@Param("deviceId") Long deviceId,
+                          @Param("fromDate") LocalDate fromDate,
+                          @Param("toDate") LocalDate toDate);
+}
@@ -0,0 +1,24 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryArchiveBlock;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDate;
+
+/**
+ * Streaming reads of {@link TelemetryArchiveBlock} payloads for bulk exports.
+ */
+public interface TelemetryArchiveBlockRepositoryCustom {
+
+    /**
+     * Streams the blocks dated {@code [fromDate, toDate]} to {@code handler} from a
+     * forward-only cursor, ordered by device then date, so only one payload is
+     * held at a time. Each row has the columns {@code device_id},
+     * {@code device_serial}, {@code store_id}, {@code unit_id} and {@code payload}.
+     *
+     * @param deviceId restrict to one device, or {@code null}
+     * @param storeId  restrict to the devices of one store, or {@code null}
+     */
+    void streamBlocks(Long deviceId, Long storeId, LocalDate fromDate, LocalDate toDate,
+                      int fetchSize, RowCallbackHandler handler);
+}
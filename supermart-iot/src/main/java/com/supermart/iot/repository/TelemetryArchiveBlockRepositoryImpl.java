@@ -0,0 +1,56 @@
+package com.supermart.iot.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TelemetryArchiveBlockRepositoryCustom} implementation backed by plain
+ * JDBC, streaming with the same fetch-size rules as
+ * {@link TelemetryRepositoryImpl#streamRange}.
+ */
+@RequiredArgsConstructor
+public class TelemetryArchiveBlockRepositoryImpl implements TelemetryArchiveBlockRepositoryCustom {
+
+    private static final String BLOCKS_SQL =
+            "SELECT b.device_id, d.device_serial, u.store_id, u.unit_id, b.payload " +
+            "FROM telemetry_archive_blocks b " +
+            "JOIN iot_devices d ON d.device_id = b.device_id " +
+            "JOIN equipment_units u ON u.unit_id = d.unit_id " +
+            "WHERE b.block_date >= ? AND b.block_date <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void streamBlocks(Long deviceId, Long storeId, LocalDate fromDate, LocalDate toDate,
+                             int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(BLOCKS_SQL);
+        List<Object> params = new ArrayList<>(List.of(Date.valueOf(fromDate), Date.valueOf(toDate)));
+        if (deviceId != null) {
+            sql.append(" AND b.device_id = ?");
+            params.add(deviceId);
+        }
+        if (storeId != null) {
+            sql.append(" AND u.store_id = ?");
+            params.add(storeId);
+        }
+        sql.append(" ORDER BY b.device_id, b.block_date");
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            boolean mySql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            ps.setFetchSize(mySql ? Integer.MIN_VALUE : fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+}
@@ -1,6 +1,7 @@
 package com.supermart.iot.repository;
 
 import com.supermart.iot.entity.TelemetryRecord;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,23 +9,64 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TelemetryRepository extends JpaRepository<TelemetryRecord, Long> {
+public interface TelemetryRepository extends JpaRepository<TelemetryRecord, Long>, TelemetryRepositoryCustom {
+
+    /** Bounds used when a caller leaves one side of the range open (MySQL DATETIME limits). */
+    LocalDateTime EARLIEST_RECORDED_AT = LocalDateTime.of(1000, 1, 1, 0, 0);
+    LocalDateTime LATEST_RECORDED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * Telemetry for a device, newest first, with optional bounds.
+     *
+     * <p>Open bounds are replaced by concrete limits rather than
+     * {@code :from IS NULL OR ...} predicates, so MySQL can prune
+     * {@code recorded_at} partitions and range-scan the device index.</p>
+     */
+    default Page<TelemetryRecord> findByDeviceIdAndDateRange(Long deviceId, LocalDateTime from,
+                                                             LocalDateTime to, Pageable pageable) {
+        return findByDeviceIdAndRecordedAtBetween(deviceId,
+                from != null ? from : EARLIEST_RECORDED_AT,
+                to != null ? to : LATEST_RECORDED_AT,
+                pageable);
+    }
 
     @Query("SELECT t FROM TelemetryRecord t WHERE t.device.deviceId = :deviceId " +
-           "AND (:from IS NULL OR t.recordedAt >= :from) " +
-           "AND (:to IS NULL OR t.recordedAt <= :to) " +
+           "AND t.recordedAt >= :from AND t.recordedAt <= :to " +
            "ORDER BY t.recordedAt DESC")
-    Page<TelemetryRecord> findByDeviceIdAndDateRange(@Param("deviceId") Long deviceId,
-                                                      @Param("from") LocalDateTime from,
-                                                      @Param("to") LocalDateTime to,
-                                                      Pageable pageable);
+    Page<TelemetryRecord> findByDeviceIdAndRecordedAtBetween(@Param("deviceId") Long deviceId,
+                                                             @Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to,
+                                                             Pageable pageable);
+
+    /**
+     * Keyset page of a device's telemetry, newest first: readings at or after
+     * {@code from} that sort strictly after {@code (beforeAt, beforeId)} in
+     * {@code (recorded_at DESC, telemetry_id DESC)} order.
+     *
+     * <p>{@code recordedAt <= :beforeAt} gives MySQL a range bound on
+     * {@code idx_telemetry_device_recorded} (whose entries end with the primary
+     * key, so the tie-break on {@code telemetry_id} needs no filesort). No
+     * {@code OFFSET} and no {@code COUNT(*)}: every page costs the same.</p>
+     */
+    @Query("SELECT t FROM TelemetryRecord t WHERE t.device.deviceId = :deviceId " +
+           "AND t.recordedAt >= :from AND t.recordedAt <= :beforeAt " +
+           "AND (t.recordedAt < :beforeAt OR t.telemetryId < :beforeId) " +
+           "ORDER BY t.recordedAt DESC, t.telemetryId DESC")
+    List<TelemetryRecord> findPageBefore(@Param("deviceId") Long deviceId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("beforeAt") LocalDateTime beforeAt,
+                                         @Param("beforeId") Long beforeId,
+                                         Limit limit);
 
     Optional<TelemetryRecord> findTopByDevice_DeviceIdOrderByRecordedAtDesc(Long deviceId);
 
     long countByRecordedAtAfterAndIsAlertTrue(LocalDateTime since);
 
-    long countByDevice_DeviceIdAndRecordedAtAfter(Long deviceId, LocalDateTime since);
+    // Index-only scan of idx_telemetry_alert_recorded; used to rebuild the dashboard alert window.
+    @Query("SELECT t.recordedAt FROM TelemetryRecord t WHERE t.isAlert = true AND t.recordedAt >= :from")
+    List<LocalDateTime> findAlertRecordedAtFrom(@Param("from") LocalDateTime from);
 }
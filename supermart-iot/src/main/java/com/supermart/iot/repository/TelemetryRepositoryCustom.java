@@ -0,0 +1,47 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC-level write operations for {@link TelemetryRecord} that Spring Data JPA
+ * cannot express efficiently.
+ *
+ * <p>{@link TelemetryRecord} uses {@code GenerationType.IDENTITY}, which makes
+ * Hibernate disable insert batching. High-volume writers use
+ * {@link #batchInsert(List)} instead, which sends all rows as one JDBC batch.
+ * Bulk exports read through {@link #streamRange}, which never materialises
+ * entities.</p>
+ */
+public interface TelemetryRepositoryCustom {
+
+    /**
+     * Inserts the given records as a single JDBC batch and assigns the generated
+     * {@code telemetry_id} back onto each record, in order.
+     *
+     * <p>Only {@code device.deviceId} is read from the associated device, so
+     * callers may pass a lazy reference. Joins the caller's transaction.</p>
+     *
+     * @param records the unsaved telemetry records; must not contain ids
+     */
+    void batchInsert(List<TelemetryRecord> records);
+
+    /**
+     * Streams readings in {@code [from, to]} to {@code handler} from a forward-only,
+     * read-only cursor, ordered by device, then {@code recorded_at}, then id.
+     *
+     * <p>Rows are fetched {@code fetchSize} at a time (row by row on MySQL, whose
+     * driver otherwise buffers the whole result), so memory use does not depend
+     * on the number of rows. Each row has the columns {@code telemetry_id},
+     * {@code device_id}, {@code device_serial}, {@code store_id}, {@code unit_id},
+     * {@code recorded_at}, {@code temperature} and {@code is_alert}.</p>
+     *
+     * @param deviceId restrict to one device, or {@code null}
+     * @param storeId  restrict to the devices of one store, or {@code null}
+     */
+    void streamRange(Long deviceId, Long storeId, LocalDateTime from, LocalDateTime to,
+                     int fetchSize, RowCallbackHandler handler);
+}
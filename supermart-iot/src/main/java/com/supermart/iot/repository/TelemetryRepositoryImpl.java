@@ -0,0 +1,96 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TelemetryRepositoryCustom} implementation backed by plain JDBC.
+ *
+ * <p>On MySQL the connection URL sets {@code rewriteBatchedStatements=true},
+ * so the driver collapses the batch into multi-row {@code INSERT}s and still
+ * reports every generated key. Range exports stream with
+ * {@code fetchSize = Integer.MIN_VALUE}, the driver's row-by-row mode.</p>
+ */
+@RequiredArgsConstructor
+public class TelemetryRepositoryImpl implements TelemetryRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO telemetry_records (device_id, temperature, recorded_at, is_alert) VALUES (?, ?, ?, ?)";
+
+    private static final String EXPORT_SQL =
+            "SELECT t.telemetry_id, t.device_id, d.device_serial, u.store_id, u.unit_id, " +
+            "t.recorded_at, t.temperature, t.is_alert " +
+            "FROM telemetry_records t " +
+            "JOIN iot_devices d ON d.device_id = t.device_id " +
+            "JOIN equipment_units u ON u.unit_id = d.unit_id " +
+            "WHERE t.recorded_at >= ? AND t.recorded_at <= ?";
+
+    private static final String EXPORT_ORDER = " ORDER BY t.device_id, t.recorded_at, t.telemetry_id";
+    // With the device fixed, ordering on device_id too can steer the planner off idx_telemetry_device_recorded
+    private static final String DEVICE_ORDER = " ORDER BY t.recorded_at, t.telemetry_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<TelemetryRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (TelemetryRecord record : records) {
+                    ps.setLong(1, record.getDevice().getDeviceId());
+                    ps.setDouble(2, record.getTemperature());
+                    ps.setTimestamp(3, Timestamp.valueOf(record.getRecordedAt()));
+                    ps.setBoolean(4, record.getIsAlert());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < records.size()) {
+                        records.get(i++).setTelemetryId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void streamRange(Long deviceId, Long storeId, LocalDateTime from, LocalDateTime to,
+                            int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> params = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (deviceId != null) {
+            sql.append(" AND t.device_id = ?");
+            params.add(deviceId);
+        }
+        if (storeId != null) {
+            sql.append(" AND u.store_id = ?");
+            params.add(storeId);
+        }
+        sql.append(deviceId != null ? DEVICE_ORDER : EXPORT_ORDER);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            boolean mySql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            ps.setFetchSize(mySql ? Integer.MIN_VALUE : fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+}
@@ -0,0 +1,25 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryRollup;
+import com.supermart.iot.entity.TelemetryRollupId;
+import com.supermart.iot.enums.RollupBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TelemetryRollupRepository extends JpaRepository<TelemetryRollup, TelemetryRollupId>,
+        TelemetryRollupRepositoryCustom {
+
+    // Served by the primary key (device_id, bucket, bucket_start) as a single range scan.
+    @Query("SELECT r FROM TelemetryRollup r WHERE r.id.deviceId = :deviceId AND r.id.bucket = :bucket " +
+           "AND r.id.bucketStart >= :from AND r.id.bucketStart <= :to ORDER BY r.id.bucketStart ASC")
+    List<TelemetryRollup> findSeries(@Param("deviceId") Long deviceId,
+                                     @Param("bucket") RollupBucket bucket,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,35 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryRollup;
+import com.supermart.iot.enums.RollupBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Atomic incremental writes and bounded retention deletes for {@link TelemetryRollup}.
+ */
+public interface TelemetryRollupRepositoryCustom {
+
+    /**
+     * Merges each delta into its bucket row in one JDBC batch: counts and sum
+     * are added, min/max are widened, and missing rows are inserted.
+     *
+     * <p>Uses {@code MERGE} on H2 and {@code INSERT ... ON DUPLICATE KEY UPDATE}
+     * on MySQL. Callers should pass deltas sorted by key so that concurrent
+     * writers lock rows in the same order. Joins the caller's transaction.</p>
+     *
+     * @param deltas aggregates of new readings, at most one per key
+     */
+    void upsert(List<TelemetryRollup> deltas);
+
+    /**
+     * Deletes up to {@code limit} rows of one bucket that start before
+     * {@code cutoff}, using {@code idx_rollups_bucket_start}. Callers repeat
+     * until fewer than {@code limit} rows are deleted, so no single statement
+     * holds locks on a whole day of minute rollups.
+     *
+     * @return the number of rows deleted
+     */
+    int deleteBefore(RollupBucket bucket, LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,102 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryRollup;
+import com.supermart.iot.enums.RollupBucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@link TelemetryRollupRepositoryCustom} implementation backed by plain JDBC,
+ * with one upsert and one bounded delete statement per supported database.
+ */
+@RequiredArgsConstructor
+public class TelemetryRollupRepositoryImpl implements TelemetryRollupRepositoryCustom {
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO telemetry_rollups (device_id, bucket, bucket_start, sample_count, alert_count, " +
+            "min_temperature, max_temperature, temperature_sum) VALUES (?, ?, ?, ?, ?, ?, ?, ?) AS d " +
+            "ON DUPLICATE KEY UPDATE " +
+            "sample_count = telemetry_rollups.sample_count + d.sample_count, " +
+            "alert_count = telemetry_rollups.alert_count + d.alert_count, " +
+            "min_temperature = LEAST(telemetry_rollups.min_temperature, d.min_temperature), " +
+            "max_temperature = GREATEST(telemetry_rollups.max_temperature, d.max_temperature), " +
+            "temperature_sum = telemetry_rollups.temperature_sum + d.temperature_sum";
+
+    private static final String H2_MERGE =
+            "MERGE INTO telemetry_rollups r USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(6)), " +
+            "CAST(? AS TIMESTAMP(6)), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION), " +
+            "CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION))) " +
+            "AS d (device_id, bucket, bucket_start, sample_count, alert_count, min_temperature, max_temperature, temperature_sum) " +
+            "ON r.device_id = d.device_id AND r.bucket = d.bucket AND r.bucket_start = d.bucket_start " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "sample_count = r.sample_count + d.sample_count, " +
+            "alert_count = r.alert_count + d.alert_count, " +
+            "min_temperature = LEAST(r.min_temperature, d.min_temperature), " +
+            "max_temperature = GREATEST(r.max_temperature, d.max_temperature), " +
+            "temperature_sum = r.temperature_sum + d.temperature_sum " +
+            "WHEN NOT MATCHED THEN INSERT (device_id, bucket, bucket_start, sample_count, alert_count, " +
+            "min_temperature, max_temperature, temperature_sum) VALUES (d.device_id, d.bucket, d.bucket_start, " +
+            "d.sample_count, d.alert_count, d.min_temperature, d.max_temperature, d.temperature_sum)";
+
+    private static final String MYSQL_DELETE_BEFORE =
+            "DELETE FROM telemetry_rollups WHERE bucket = ? AND bucket_start < ? LIMIT ?";
+
+    private static final String H2_DELETE_BEFORE =
+            "DELETE FROM telemetry_rollups WHERE bucket = ? AND bucket_start < ? FETCH FIRST ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsert(List<TelemetryRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            String sql = isMySql(connection.getMetaData().getDatabaseProductName()) ? MYSQL_UPSERT : H2_MERGE;
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (TelemetryRollup delta : deltas) {
+                    bind(ps, delta);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int deleteBefore(RollupBucket bucket, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            String sql = isMySql(connection.getMetaData().getDatabaseProductName())
+                    ? MYSQL_DELETE_BEFORE : H2_DELETE_BEFORE;
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setString(1, bucket.name());
+                ps.setTimestamp(2, Timestamp.valueOf(cutoff));
+                ps.setInt(3, limit);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    private static boolean isMySql(String productName) {
+        return productName.toLowerCase().contains("mysql");
+    }
+
+    private static void bind(PreparedStatement ps, TelemetryRollup delta) throws SQLException {
+        ps.setLong(1, delta.getId().getDeviceId());
+        ps.setString(2, delta.getId().getBucket().name());
+        ps.setTimestamp(3, Timestamp.valueOf(delta.getId().getBucketStart()));
+        ps.setLong(4, delta.getSampleCount());
+        ps.setLong(5, delta.getAlertCount());
+        ps.setDouble(6, delta.getMinTemperature());
+        ps.setDouble(7, delta.getMaxTemperature());
+        ps.setDouble(8, delta.getTemperatureSum());
+    }
+}
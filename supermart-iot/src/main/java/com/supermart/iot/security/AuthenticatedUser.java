@@ -0,0 +1,31 @@
+package com.supermart.iot.security;
+
+import com.supermart.iot.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal of a dashboard request authenticated from access-token claims.
+ *
+ * <p>{@link #getName()} is the email, as it was for the {@code UserDetails}
+ * principal loaded from the database.</p>
+ *
+ * @param userId the user's database id ({@code uid} claim)
+ * @param email  the user's email (JWT subject)
+ * @param role   the user's role ({@code role} claim)
+ */
+public record AuthenticatedUser(long userId, String email, UserRole role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    /** The single {@code ROLE_*} authority for {@link #role()}. */
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -1,7 +1,7 @@
 package com.supermart.iot.security;
 
-import com.supermart.iot.entity.IotDevice;
-import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.service.impl.DeviceMetadataCache;
+import com.supermart.iot.service.impl.DeviceSnapshot;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,7 +24,7 @@ import java.util.Optional;
 @Slf4j
 public class DeviceKeyAuthFilter extends OncePerRequestFilter {
 
-    private final IotDeviceRepository deviceRepository;
+    private final DeviceMetadataCache deviceCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -35,15 +35,15 @@ public class DeviceKeyAuthFilter extends OncePerRequestFilter {
         final String deviceKey = request.getHeader("X-Device-Key");
 
         if (deviceKey != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            Optional<IotDevice> device = deviceRepository.findByDeviceKey(deviceKey);
+            Optional<DeviceSnapshot> device = deviceCache.findByDeviceKey(deviceKey);
             if (device.isPresent()) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                "device:" + device.get().getDeviceId(),
+                                "device:" + device.get().deviceId(),
                                 null,
                                 List.of(new SimpleGrantedAuthority("ROLE_DEVICE")));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-                log.debug("Device authenticated: {}", device.get().getDeviceSerial());
+                log.debug("Device authenticated: {}", device.get().deviceSerial());
             }
         }
 
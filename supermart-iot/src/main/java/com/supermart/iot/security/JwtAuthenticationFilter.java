@@ -1,5 +1,7 @@
 package com.supermart.iot.security;
 
+import com.supermart.iot.service.impl.UserStatusCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,15 +24,19 @@ import java.io.IOException;
  *
  * <p>Intercepts every HTTP request and inspects the {@code Authorization} header
  * for a {@code Bearer} token. If a valid, non-expired JWT is found, the filter
- * extracts the subject email, loads the {@link UserDetails}, and populates the
- * {@link org.springframework.security.core.context.SecurityContext} so that
- * downstream filters and controllers see an authenticated principal.</p>
+ * populates the {@link org.springframework.security.core.context.SecurityContext}
+ * so that downstream filters and controllers see an authenticated principal.
+ * Access tokens carrying {@code uid} and {@code role} claims become an
+ * {@link AuthenticatedUser} without a database query, subject to the
+ * {@link UserStatusCache} check. Other tokens fall back to loading the
+ * {@link UserDetails} by the subject email.</p>
  *
  * <p>Requests without a {@code Bearer} token are passed through unchanged,
  * allowing the security configuration to enforce access rules separately.</p>
  *
  * <p>JWT validation is delegated to {@link JwtService}, which enforces the
- * 45-minute access token expiry configured by SCRUM-3.</p>
+ * 45-minute access token expiry configured by SCRUM-3. The token is verified
+ * once per request and the resulting claims are reused for validation.</p>
  */
 @Component
 @RequiredArgsConstructor
@@ -39,6 +45,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
 
     /**
      * Validates the JWT Bearer token from the request and sets the authentication
@@ -70,14 +77,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String email = jwtService.extractEmail(jwt);
+            final Claims claims = jwtService.verify(jwt);
+            final String email = claims.getSubject();
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
+                UsernamePasswordAuthenticationToken authToken = authenticate(claims, email);
+                if (authToken != null) {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -88,4 +93,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Builds the authentication for verified claims: from the {@code uid} and
+     * {@code role} claims when the token carries them, otherwise by loading the user.
+     *
+     * @return the authentication, or {@code null} if the token no longer matches the user
+     */
+    private UsernamePasswordAuthenticationToken authenticate(Claims claims, String email) {
+        AuthenticatedUser user = jwtService.extractUser(claims);
+        if (user != null) {
+            if (!userStatusCache.isCurrent(user)) {
+                log.debug("JWT rejected: user {} was removed or changed role", email);
+                return null;
+            }
+            return new UsernamePasswordAuthenticationToken(user, null, user.authorities());
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
 }
@@ -1,5 +1,9 @@
 package com.supermart.iot.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.supermart.iot.enums.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -9,8 +13,13 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -20,11 +29,23 @@ import java.util.function.Function;
  * externally configured via {@code app.jwt.*} properties to avoid hardcoded
  * values. Access token expiration is set to 45 minutes per OWASP A07 and A05
  * recommendations (SCRUM-3).</p>
+ *
+ * <p>The signing key and parser are built once, on first use. Verified tokens
+ * are kept in a bounded cache keyed by their SHA-256 hash until their
+ * {@code exp}, so a client polling with the same token is verified once rather
+ * than on every request. Set {@code app.jwt.verified-cache-size=0} to disable
+ * the cache.</p>
  */
 @Service
 @Slf4j
 public class JwtService {
 
+    /** Access-token claim carrying the user's database id. */
+    public static final String CLAIM_USER_ID = "uid";
+
+    /** Access-token claim carrying the user's {@link UserRole}. */
+    public static final String CLAIM_ROLE = "role";
+
     @Value("${app.jwt.secret}")
     private String secretKey;
 
@@ -38,6 +59,12 @@ public class JwtService {
     @Value("${app.jwt.refresh-token-expiration-ms}")
     private long refreshTokenExpirationMs;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize = 10_000;
+
+    /** Key, parser and verified-token cache; built from the fields above on first use. */
+    private volatile Verifier verifier;
+
     /**
      * Generates a signed JWT access token for the given email subject.
      *
@@ -56,6 +83,26 @@ public class JwtService {
         return buildToken(email, Map.of("type", "access"), accessTokenExpirationMs);
     }
 
+    /**
+     * Generates a signed JWT access token that also carries the user's id and role.
+     *
+     * <p>{@link JwtAuthenticationFilter} builds the request's authentication from
+     * these claims instead of loading the user from the database.</p>
+     *
+     * @param email  the authenticated user's email address used as the JWT subject
+     * @param userId the user's database id, stored as {@code uid}
+     * @param role   the user's role, stored as {@code role}
+     * @return a compact, signed JWT access token string
+     */
+    public String generateAccessToken(String email, long userId, UserRole role) {
+        if (email == null || role == null) {
+            throw new IllegalArgumentException("Email and role must not be null when generating an access token.");
+        }
+        log.debug("Generating access token for email={}, role={}", email, role);
+        return buildToken(email, Map.of("type", "access", CLAIM_USER_ID, userId, CLAIM_ROLE, role.name()),
+                accessTokenExpirationMs);
+    }
+
     /**
      * Generates a signed JWT refresh token for the given email subject.
      *
@@ -84,7 +131,7 @@ public class JwtService {
                 .subject(subject)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(verifier().key)
                 .compact();
     }
 
@@ -96,7 +143,7 @@ public class JwtService {
      * @throws io.jsonwebtoken.JwtException if the token is malformed or the signature is invalid
      */
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
     /**
@@ -108,28 +155,45 @@ public class JwtService {
      *         {@code false} otherwise
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String email = extractEmail(token);
-        return email.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
     /**
-     * Checks whether the given JWT token has passed its expiration time.
+     * Validates already verified claims against the given user, without parsing again.
      *
-     * @param token the compact JWT string to inspect
-     * @return {@code true} if the token expiration is before the current time; {@code false} otherwise
+     * @param claims      the payload returned by {@link #verify(String)}
+     * @param userDetails the authenticated user whose credentials are checked
+     * @return {@code true} if the subject matches the user and the token is not expired
      */
-    public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject())
+                && claims.getExpiration().after(new Date());
     }
 
     /**
-     * Extracts the expiration date from the given JWT token.
+     * Reads the user carried by an access token's {@code uid} and {@code role} claims.
      *
-     * @param token the compact JWT string to parse
-     * @return the {@link Date} at which the token expires
+     * @param claims the payload returned by {@link #verify(String)}
+     * @return the user, or {@code null} if the token does not carry both claims,
+     *         as with tokens from {@link #generateAccessToken(String)} and refresh tokens
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public AuthenticatedUser extractUser(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null || claims.getSubject() == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, claims.getSubject(), UserRole.valueOf(role));
+    }
+
+    /**
+     * Checks whether the given JWT token has passed its expiration time.
+     *
+     * @param token the compact JWT string to inspect
+     * @return {@code true} if the token expiration is before the current time; {@code false} otherwise
+     */
+    public boolean isTokenExpired(String token) {
+        return verify(token).getExpiration().before(new Date());
     }
 
     /**
@@ -142,33 +206,93 @@ public class JwtService {
      * @throws io.jsonwebtoken.JwtException if the token is malformed or signature verification fails
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
     }
 
     /**
-     * Parses and verifies all claims from the given JWT token.
+     * Verifies the token signature and expiry and returns its claims.
      *
-     * @param token the compact JWT string to parse
+     * <p>A token verified before is answered from the cache until its
+     * {@code exp}. Tokens that fail verification are never cached.</p>
+     *
+     * @param token the compact JWT string to verify
      * @return the full {@link Claims} payload
-     * @throws io.jsonwebtoken.JwtException if parsing fails or signature is invalid
+     * @throws io.jsonwebtoken.JwtException if parsing fails, the signature is invalid or the token expired
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Claims verify(String token) {
+        Verifier v = verifier();
+        if (v.verified == null) {
+            return v.parse(token);
+        }
+        String hash = sha256(token);
+        Claims claims = v.verified.getIfPresent(hash);
+        if (claims == null) {
+            claims = v.parse(token);
+            if (claims.getExpiration() != null) {
+                v.verified.put(hash, claims);
+            }
+        }
+        return claims;
+    }
+
+    private Verifier verifier() {
+        Verifier v = verifier;
+        if (v == null) {
+            v = new Verifier(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)), verifiedCacheSize);
+            verifier = v;
+        }
+        return v;
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     /**
-     * Derives the HMAC-SHA signing key from the Base64-encoded secret property.
-     *
-     * @return the {@link SecretKey} used to sign and verify JWT tokens
+     * The HMAC-SHA key derived from the Base64-encoded secret, the parser
+     * verifying with it, and the verified-token cache ({@code null} when disabled).
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static final class Verifier {
+
+        private final SecretKey key;
+        private final JwtParser parser;
+        private final Cache<String, Claims> verified;
+
+        private Verifier(SecretKey key, long cacheSize) {
+            this.key = key;
+            this.parser = Jwts.parser().verifyWith(key).build();
+            this.verified = cacheSize <= 0 ? null : Caffeine.newBuilder()
+                    .maximumSize(cacheSize)
+                    .expireAfter(new Expiry<String, Claims>() {
+                        @Override
+                        public long expireAfterCreate(String hash, Claims claims, long currentTime) {
+                            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String hash, Claims claims, long currentTime,
+                                                      long currentDuration) {
+                            return expireAfterCreate(hash, claims, currentTime);
+                        }
+
+                        @Override
+                        public long expireAfterRead(String hash, Claims claims, long currentTime,
+                                                    long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+        }
+
+        private Claims parse(String token) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
     }
 
     /**
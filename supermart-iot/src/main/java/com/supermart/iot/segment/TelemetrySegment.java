@@ -0,0 +1,286 @@
+package com.supermart.iot.segment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One append-only, memory-mapped file of fixed-width telemetry records.
+ *
+ * <p>The file is pre-sized to {@code capacity} records of {@value #RECORD_BYTES}
+ * bytes, all little-endian:</p>
+ * <pre>
+ *   0  long   device_id     (never 0; 0 marks an unwritten slot)
+ *   8  long   recorded_at   epoch microseconds, UTC
+ *  16  float  temperature
+ *  20  int    flags         bit 0 = is_alert, bit 1 = tombstone
+ * </pre>
+ *
+ * <p>A record's {@code telemetry_id} is its position: {@code segmentId << 32 | slot}.
+ * Reads go straight to the mapping with absolute gets, so they never copy the
+ * segment onto the heap or make a system call. {@code device_id} is written last,
+ * so after a crash the written prefix ends at the first zero device id. A
+ * tombstoned record keeps its slot, so later ids do not move, but is left out of
+ * the index and never read back.</p>
+ *
+ * <p>The in-memory index is dense: every live slot is listed under its device,
+ * with each device's time bounds, plus the segment's time bounds and its
+ * alerting slots. That is an {@code int} per reading on the heap, about a sixth
+ * of the file, rebuilt by one sequential scan when a segment is opened. Not
+ * thread-safe; callers serialise appends against reads.</p>
+ */
+public final class TelemetrySegment implements AutoCloseable {
+
+    public static final int RECORD_BYTES = 24;
+
+    private static final int DEVICE_OFFSET = 0;
+    private static final int MICROS_OFFSET = 8;
+    private static final int TEMPERATURE_OFFSET = 16;
+    private static final int FLAGS_OFFSET = 20;
+    private static final int ALERT_FLAG = 1;
+    private static final int TOMBSTONE_FLAG = 2;
+
+    private final int segmentId;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final Map<Long, Postings> devices = new HashMap<>();
+    private final Postings alerts = new Postings();
+    private int size;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros = Long.MIN_VALUE;
+
+    private TelemetrySegment(int segmentId, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.segmentId = segmentId;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Opens an existing segment file, or creates one of {@code capacity} records.
+     * An existing file keeps the capacity it was created with.
+     */
+    public static TelemetrySegment open(Path path, int segmentId, int capacity) {
+        try {
+            boolean exists = Files.exists(path);
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long bytes = exists ? channel.size() : (long) capacity * RECORD_BYTES;
+            if (bytes > Integer.MAX_VALUE) {
+                channel.close();
+                throw new IllegalArgumentException("Segment of " + bytes + " bytes exceeds the 2 GiB mapping limit");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            TelemetrySegment segment = new TelemetrySegment(segmentId, path, channel, buffer, (int) (bytes / RECORD_BYTES));
+            segment.recover();
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open telemetry segment " + path, e);
+        }
+    }
+
+    private void recover() {
+        while (size < capacity && deviceId(size) != 0) {
+            index(size);
+            size++;
+        }
+    }
+
+    public int segmentId() {
+        return segmentId;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public long minMicros() {
+        return minMicros;
+    }
+
+    public long maxMicros() {
+        return maxMicros;
+    }
+
+    /**
+     * Appends one reading.
+     *
+     * @return its {@code telemetry_id}
+     * @throws IllegalStateException if the segment is full
+     */
+    public long append(long deviceId, long recordedAtMicros, float temperature, boolean alert) {
+        if (isFull()) {
+            throw new IllegalStateException("Telemetry segment " + segmentId + " is full");
+        }
+        int slot = size;
+        int base = slot * RECORD_BYTES;
+        buffer.putLong(base + MICROS_OFFSET, recordedAtMicros);
+        buffer.putFloat(base + TEMPERATURE_OFFSET, temperature);
+        buffer.putInt(base + FLAGS_OFFSET, alert ? ALERT_FLAG : 0);
+        buffer.putLong(base + DEVICE_OFFSET, deviceId);
+        index(slot);
+        size++;
+        return telemetryId(segmentId, slot);
+    }
+
+    /**
+     * Removes a written reading: it is flagged in the file, so it stays gone after
+     * a reopen, and dropped from the index. Time bounds are not narrowed, which
+     * only makes them looser.
+     */
+    public void tombstone(int slot) {
+        if (slot >= size || tombstoned(slot)) {
+            return;
+        }
+        int base = slot * RECORD_BYTES;
+        buffer.putInt(base + FLAGS_OFFSET, buffer.getInt(base + FLAGS_OFFSET) | TOMBSTONE_FLAG);
+        devices.get(deviceId(slot)).remove(slot);
+        if (alert(slot)) {
+            alerts.remove(slot);
+        }
+    }
+
+    private void index(int slot) {
+        if (tombstoned(slot)) {
+            return;
+        }
+        long micros = micros(slot);
+        minMicros = Math.min(minMicros, micros);
+        maxMicros = Math.max(maxMicros, micros);
+        devices.computeIfAbsent(deviceId(slot), id -> new Postings()).add(slot, micros);
+        if (alert(slot)) {
+            alerts.add(slot, micros);
+        }
+    }
+
+    /** The device's slots in append order, or {@code null} if it has none here. */
+    public Postings postings(long deviceId) {
+        return devices.get(deviceId);
+    }
+
+    /** Slots of alerting readings in append order. */
+    public Postings alerts() {
+        return alerts;
+    }
+
+    public long deviceId(int slot) {
+        return buffer.getLong(slot * RECORD_BYTES + DEVICE_OFFSET);
+    }
+
+    public long micros(int slot) {
+        return buffer.getLong(slot * RECORD_BYTES + MICROS_OFFSET);
+    }
+
+    public float temperature(int slot) {
+        return buffer.getFloat(slot * RECORD_BYTES + TEMPERATURE_OFFSET);
+    }
+
+    public boolean alert(int slot) {
+        return (buffer.getInt(slot * RECORD_BYTES + FLAGS_OFFSET) & ALERT_FLAG) != 0;
+    }
+
+    public boolean tombstoned(int slot) {
+        return (buffer.getInt(slot * RECORD_BYTES + FLAGS_OFFSET) & TOMBSTONE_FLAG) != 0;
+    }
+
+    /** Flushes written records to disk. */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close telemetry segment " + path, e);
+        }
+    }
+
+    public static long telemetryId(int segmentId, int slot) {
+        return ((long) segmentId << 32) | slot;
+    }
+
+    public static int segmentIdOf(long telemetryId) {
+        return (int) (telemetryId >>> 32);
+    }
+
+    public static int slotOf(long telemetryId) {
+        return (int) telemetryId;
+    }
+
+    public static long toMicros(LocalDateTime at) {
+        return at.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + at.getNano() / 1000;
+    }
+
+    public static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    /** Growable slot list with the time bounds of its readings. */
+    public static final class Postings {
+
+        private int[] slots = new int[8];
+        private int size;
+        private long minMicros = Long.MAX_VALUE;
+        private long maxMicros = Long.MIN_VALUE;
+
+        void add(int slot, long micros) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+            minMicros = Math.min(minMicros, micros);
+            maxMicros = Math.max(maxMicros, micros);
+        }
+
+        // Slots are added in ascending order, so the list stays sorted
+        void remove(int slot) {
+            int i = Arrays.binarySearch(slots, 0, size, slot);
+            if (i >= 0) {
+                System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                size--;
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int slot(int i) {
+            return slots[i];
+        }
+
+        public long minMicros() {
+            return minMicros;
+        }
+
+        public long maxMicros() {
+            return maxMicros;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.supermart.iot.service;
+
+/**
+ * Shared-state SPI behind the telemetry rate limiter.
+ *
+ * <p>The limiter keeps exactly one {@code long} per device — the GCRA
+ * "theoretical arrival time" in epoch microseconds — and only needs an atomic
+ * compare-and-set on it. The default implementation keeps that value in local
+ * memory; a clustered deployment can replace it with a shared store (e.g. Redis
+ * {@code WATCH/MULTI} or a Lua CAS script) by registering its own bean and setting
+ * {@code app.telemetry.rate-limit.store} to anything other than {@code memory}.</p>
+ */
+public interface RateLimitStateStore {
+
+    /**
+     * Returns the stored value for the device, or {@code 0} if none is stored.
+     *
+     * @param deviceId the device whose state is read
+     * @return the stored value, or {@code 0}
+     */
+    long get(long deviceId);
+
+    /**
+     * Atomically replaces the device's value with {@code update} if it currently
+     * equals {@code expected}. An absent value compares equal to {@code 0}.
+     *
+     * @param deviceId the device whose state is updated
+     * @param expected the value previously returned by {@link #get(long)}
+     * @param update   the new value
+     * @return {@code true} if the value was replaced
+     */
+    boolean compareAndSet(long deviceId, long expected, long update);
+}
@@ -0,0 +1,84 @@
+package com.supermart.iot.service;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Storage SPI for raw telemetry readings.
+ *
+ * <p>Ingest ({@code TelemetryPersistenceService}), device history
+ * ({@code DeviceService}), dashboard reconciliation, export, archiving and the
+ * alert-state backfill go through this interface rather than
+ * {@code TelemetryRepository}. Devices, stores, incidents, rollups, archived
+ * blocks and the latest-reading projection always stay in the database.</p>
+ *
+ * <p>{@code app.telemetry.store} selects the implementation: {@code jdbc} (the
+ * default) keeps readings in {@code telemetry_records}; {@code segment} keeps them
+ * in memory-mapped, append-only segment files on local disk.</p>
+ *
+ * <p>History is ordered newest first by {@code (recorded_at, telemetry_id)}.
+ * Returned records are detached and their device carries at least its id.</p>
+ */
+public interface TelemetryStore {
+
+    /**
+     * Stores the readings and assigns each a {@code telemetry_id}, in place.
+     *
+     * <p>Called inside the ingest transaction, and retried with the same record
+     * objects if that transaction fails. A store that does not take part in the
+     * transaction must undo its appends and clear their ids when it rolls back,
+     * and skip records that already carry an id.</p>
+     *
+     * @param records readings with {@code isAlert} evaluated; only {@code device.deviceId} is read from the device
+     */
+    void append(List<TelemetryRecord> records);
+
+    /**
+     * One offset page of a device's readings in {@code [from, to]}, newest first,
+     * with the total count.
+     *
+     * @param from inclusive, or {@code null} for no lower bound
+     * @param to   inclusive, or {@code null} for no upper bound
+     */
+    Page<TelemetryRecord> findByDeviceIdAndDateRange(Long deviceId, LocalDateTime from, LocalDateTime to,
+                                                     Pageable pageable);
+
+    /**
+     * Up to {@code limit} of a device's readings at or after {@code from} that sort
+     * strictly after {@code (beforeAt, beforeId)} in history order.
+     *
+     * @param from inclusive, or {@code null} for no lower bound
+     */
+    List<TelemetryRecord> findPageBefore(Long deviceId, LocalDateTime from, LocalDateTime beforeAt,
+                                         long beforeId, int limit);
+
+    /** {@code recorded_at} of every alerting reading at or after {@code from}, across all devices. */
+    List<LocalDateTime> findAlertRecordedAtFrom(LocalDateTime from);
+
+    /**
+     * Streams a device's readings in {@code [from, to]} held by this store, oldest
+     * first by {@code (recorded_at, telemetry_id)}, without building entities.
+     * Archived readings are not included.
+     *
+     * <p>The handler is never called under a lock of the store, so it may do slow
+     * I/O or write to the database.</p>
+     */
+    void range(long deviceId, LocalDateTime from, LocalDateTime to, ReadingHandler handler);
+
+    /**
+     * Deletes readings, such as those just archived. Inside a transaction the
+     * readings disappear when it commits.
+     */
+    void remove(List<Long> telemetryIds);
+
+    /** Receives the readings streamed by {@link #range}. */
+    @FunctionalInterface
+    interface ReadingHandler {
+
+        void accept(long telemetryId, LocalDateTime recordedAt, double temperature, boolean alert);
+    }
+}
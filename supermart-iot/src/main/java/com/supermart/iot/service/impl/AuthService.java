@@ -3,13 +3,15 @@ package com.supermart.iot.service.impl;
 import com.supermart.iot.dto.request.LoginRequest;
 import com.supermart.iot.dto.request.RefreshRequest;
 import com.supermart.iot.dto.response.LoginResponse;
+import com.supermart.iot.entity.User;
+import com.supermart.iot.repository.UserRepository;
 import com.supermart.iot.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 /**
@@ -17,7 +19,9 @@ import org.springframework.stereotype.Service;
  *
  * <p>Delegates credential validation to {@link AuthenticationManager} and
  * JWT token lifecycle management to {@link JwtService}. Access tokens issued
- * by this service expire after 45 minutes per SCRUM-3 security requirement.</p>
+ * by this service expire after 45 minutes per SCRUM-3 security requirement and
+ * carry the user's id and role, so requests can be authenticated from the
+ * token alone.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -26,7 +30,7 @@ public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
 
     /**
      * Authenticates a user by email and password and issues a new token pair.
@@ -46,17 +50,19 @@ public class AuthService {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
-        UserDetails user = userDetailsService.loadUserByUsername(request.getEmail());
+        User user = userRepository.findByEmail(request.getEmail())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + request.getEmail()));
         log.info("Login successful: email={}", request.getEmail());
-        return buildLoginResponse(user.getUsername());
+        return buildLoginResponse(user);
     }
 
     /**
      * Issues a new token pair using a valid refresh token.
      *
-     * <p>Extracts the subject email from the refresh token, reloads the user,
-     * validates the token, and generates a fresh access/refresh token pair.
-     * The new access token expires after 45 minutes per SCRUM-3.</p>
+     * <p>Verifies the refresh token, reloads the user named by its subject so the
+     * new access token carries the current role, and generates a fresh
+     * access/refresh token pair. The new access token expires after 45 minutes
+     * per SCRUM-3.</p>
      *
      * @param request the refresh request containing the unexpired refresh token
      * @return a {@link LoginResponse} containing newly issued access and refresh tokens
@@ -66,25 +72,24 @@ public class AuthService {
     public LoginResponse refresh(RefreshRequest request) {
         String email = jwtService.extractEmail(request.getRefreshToken());
         log.info("Token refresh requested: email={}", email);
-        UserDetails user = userDetailsService.loadUserByUsername(email);
-        if (!jwtService.isTokenValid(request.getRefreshToken(), user)) {
-            throw new org.springframework.security.authentication.BadCredentialsException(
-                    "Refresh token is invalid or has expired. Please log in again.");
-        }
+        User user = userRepository.findByEmail(email)
+                .filter(u -> !jwtService.isTokenExpired(request.getRefreshToken()))
+                .orElseThrow(() -> new BadCredentialsException(
+                        "Refresh token is invalid or has expired. Please log in again."));
         log.info("Token refresh successful: email={}", email);
-        return buildLoginResponse(email);
+        return buildLoginResponse(user);
     }
 
     /**
-     * Constructs a {@link LoginResponse} for the given email by generating
+     * Constructs a {@link LoginResponse} for the given user by generating
      * a new access and refresh token pair.
      *
-     * @param email the authenticated user's email address
+     * @param user the authenticated user
      * @return a fully populated {@link LoginResponse}
      */
-    private LoginResponse buildLoginResponse(String email) {
-        String accessToken = jwtService.generateAccessToken(email);
-        String refreshToken = jwtService.generateRefreshToken(email);
+    private LoginResponse buildLoginResponse(User user) {
+        String accessToken = jwtService.generateAccessToken(user.getEmail(), user.getId(), user.getRole());
+        String refreshToken = jwtService.generateRefreshToken(user.getEmail());
         return LoginResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
@@ -0,0 +1,386 @@
+package com.supermart.iot.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supermart.iot.dto.response.DashboardSummaryResponse;
+import com.supermart.iot.dto.response.IotDeviceSummaryResponse;
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.repository.IotDeviceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans dashboard changes out to {@code GET /dashboard/stream} subscribers.
+ *
+ * <p>Every event is serialised once and offered to each subscriber's bounded
+ * buffer ({@code subscriber-buffer} events). Each buffer is drained on a thread
+ * of its own (a virtual thread on Java 21+), because a servlet write blocks until
+ * the client reads: a stalled connection holds only its own sender. A subscriber
+ * whose buffer is full, or whose send has not returned within
+ * {@code send-timeout-ms}, is disconnected and is expected to reconnect and
+ * resynchronise from the initial snapshot. Its emitter is completed by its own
+ * sender once the blocked write returns, so publishing never waits on it.
+ * Device lookups for {@code alert} events run on a separate publisher thread,
+ * so database latency does not delay delivery either.</p>
+ *
+ * <p>Events:</p>
+ * <ul>
+ *   <li>{@code summary} — the KPI cards, sent on subscribe, after every committed
+ *       telemetry batch or incident change that moved a value in
+ *       {@link DashboardCounters}, and whenever a value is found changed by the
+ *       {@code summary-interval-ms} check (reconciliation, other nodes).</li>
+ *   <li>{@code alerts} — the first {@code initial-alerts} alerting devices, sent on subscribe.</li>
+ *   <li>{@code alert} — a device that started alerting, or an alerting device's new reading.</li>
+ *   <li>{@code alert-cleared} — the id of a device that is no longer alerting.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardBroadcaster {
+
+    static final String SUMMARY = "summary";
+    static final String ALERTS = "alerts";
+    static final String ALERT = "alert";
+    static final String ALERT_CLEARED = "alert-cleared";
+
+    private final DashboardService dashboardService;
+    private final DeviceService deviceService;
+    private final IotDeviceRepository deviceRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.dashboard.stream.subscriber-buffer:64}")
+    private int subscriberBuffer;
+
+    @Value("${app.dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.dashboard.stream.initial-alerts:50}")
+    private int initialAlerts;
+
+    @Value("${app.dashboard.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Devices announced as alerting; only these can produce alert-cleared events.
+    private final Set<Long> alerting = ConcurrentHashMap.newKeySet();
+    // A lock rather than synchronized: getSummary may reconcile from the database
+    private final Lock summaryLock = new ReentrantLock();
+    private volatile ExecutorService senders;
+    private volatile ExecutorService publisher;
+    private volatile DashboardSummaryResponse lastSummary;
+
+    @PostConstruct
+    void start() {
+        senders = newSenderExecutor();
+        publisher = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "dashboard-stream-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        subscribers.forEach(this::drop);
+        publisher.shutdownNow();
+        senders.shutdown();
+    }
+
+    /** Opens a stream primed with the current summary and alert list. */
+    public SseEmitter subscribe() {
+        Subscriber subscriber = new Subscriber(newEmitter(timeoutMs), new ArrayBlockingQueue<>(subscriberBuffer));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> drop(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        DashboardSummaryResponse summary = dashboardService.getSummary();
+        List<IotDeviceSummaryResponse> alerts = deviceService.toSummaryResponses(
+                deviceRepository.findAllAlertDevices(PageRequest.of(0, initialAlerts)).getContent());
+        alerts.forEach(device -> alerting.add(device.getDeviceId()));
+        offer(subscriber, event(SUMMARY, summary));
+        offer(subscriber, event(ALERTS, alerts));
+        return subscriber.emitter;
+    }
+
+    /** Number of open streams. */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Publishes the devices touched by a committed telemetry batch.
+     *
+     * <p>Runs after the surrounding transaction commits and off the calling
+     * thread. Alerting devices are pushed as {@code alert}; devices previously
+     * announced as alerting that no longer are become {@code alert-cleared}.
+     * Nothing is loaded while no one is subscribed.</p>
+     *
+     * @param alertingIds devices with an alert reading in the batch
+     * @param deviceIds   every device in the batch
+     */
+    public void devicesChanged(Collection<Long> alertingIds, Collection<Long> deviceIds) {
+        AfterCommit.run(() -> {
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            Set<Long> ids = new HashSet<>(alertingIds);
+            deviceIds.stream().filter(alerting::contains).forEach(ids::add);
+            if (ids.isEmpty()) {
+                submit(this::publishSummaryIfChanged);
+                return;
+            }
+            submit(() -> {
+                publishDevices(ids);
+                publishSummaryIfChanged();
+            });
+        });
+    }
+
+    /**
+     * Pushes the KPI summary once the surrounding transaction commits, if a
+     * counter changed; called by {@link IncidentService} after reporting an
+     * incident status change to {@link DashboardCounters}.
+     */
+    public void countersChanged() {
+        AfterCommit.run(() -> {
+            if (!subscribers.isEmpty()) {
+                submit(this::publishSummaryIfChanged);
+            }
+        });
+    }
+
+    /** Pushes the KPI summary when any counter has changed since the last push. */
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.summary-interval-ms:1000}")
+    public void publishSummaryIfChanged() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        summaryLock.lock();
+        try {
+            DashboardSummaryResponse summary = dashboardService.getSummary();
+            DashboardSummaryResponse previous = lastSummary;
+            lastSummary = summary;
+            if (previous == null || !sameCounts(previous, summary)) {
+                publish(event(SUMMARY, summary));
+            }
+        } finally {
+            summaryLock.unlock();
+        }
+    }
+
+    /** Disconnects subscribers whose current send has been blocked longer than {@code send-timeout-ms}. */
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.send-timeout-ms:10000}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                log.info("Dropping dashboard stream subscriber blocked in a send for over {} ms", sendTimeoutMs);
+                drop(subscriber);
+                Thread sender = subscriber.sender;
+                if (sender != null) {
+                    sender.interrupt();
+                }
+            }
+        }
+    }
+
+    /** Keeps idle connections open through proxies that close silent streams. */
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            publish(new Event(null, "heartbeat"));
+        }
+    }
+
+    /** Creates the emitter for a new subscriber; overridden in tests. */
+    protected SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * One sender thread per running drain: virtual threads on Java 21+, otherwise
+     * a cached pool of daemon threads, so a blocked write never delays another
+     * subscriber.
+     */
+    private static ExecutorService newSenderExecutor() {
+        try {
+            // Compiled for Java 17, so the Java 21 factory is looked up at run time
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "dashboard-stream-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            publisher.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Dashboard stream is shutting down, skipping an update");
+        }
+    }
+
+    private void publishDevices(Collection<Long> ids) {
+        try {
+            List<IotDevice> devices = deviceRepository.findByDeviceIdIn(ids);
+            for (IotDeviceSummaryResponse device : deviceService.toSummaryResponses(devices)) {
+                if (device.getStatus() == DeviceStatus.FAULT || Boolean.TRUE.equals(device.getIsAlert())) {
+                    alerting.add(device.getDeviceId());
+                    publish(event(ALERT, device));
+                } else if (alerting.remove(device.getDeviceId())) {
+                    publish(event(ALERT_CLEARED, device.getDeviceId()));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish dashboard updates for devices {}: {}", ids, e.getMessage());
+        }
+    }
+
+    void publish(Event event) {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, event);
+        }
+    }
+
+    private void offer(Subscriber subscriber, Event event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.buffer.offer(event)) {
+            log.info("Dropping slow dashboard stream subscriber ({} events buffered)", subscriber.buffer.size());
+            drop(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // At most one drain per subscriber runs at a time, so its events are sent in order.
+    private void drain(Subscriber subscriber) {
+        subscriber.sender = Thread.currentThread();
+        try {
+            Event event;
+            while (!subscriber.closed && (event = subscriber.buffer.poll()) != null) {
+                SseEmitter.SseEventBuilder builder = event.name() == null
+                        ? SseEmitter.event().comment(event.data())
+                        : SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON);
+                subscriber.sendingSince = System.nanoTime();
+                subscriber.emitter.send(builder);
+                subscriber.sendingSince = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber);
+        } finally {
+            subscriber.sendingSince = 0;
+            subscriber.sender = null;
+            subscriber.draining.set(false);
+        }
+        if (subscriber.closed) {
+            complete(subscriber);
+        } else if (!subscriber.buffer.isEmpty()) {
+            // An event offered after the last poll but before the flag was cleared would otherwise wait
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /**
+     * Stops delivering to a subscriber. Its emitter is completed by a sender,
+     * never by the caller, since completing waits for a send blocked on the socket.
+     */
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.closed = true;
+        subscriber.buffer.clear();
+        scheduleDrain(subscriber);
+    }
+
+    private void complete(Subscriber subscriber) {
+        if (subscriber.completed.compareAndSet(false, true)) {
+            try {
+                subscriber.emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Dashboard stream already closed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Event event(String name, Object payload) {
+        try {
+            return new Event(name, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unserialisable dashboard event " + name, e);
+        }
+    }
+
+    private static boolean sameCounts(DashboardSummaryResponse a, DashboardSummaryResponse b) {
+        return a.getTotalStores() == b.getTotalStores()
+                && a.getActiveDevices() == b.getActiveDevices()
+                && a.getFaultyDevices() == b.getFaultyDevices()
+                && a.getOpenIncidents() == b.getOpenIncidents()
+                && a.getAlertsLastHour() == b.getAlertsLastHour();
+    }
+
+    /** A serialised event; a {@code null} name marks an SSE comment. */
+    record Event(String name, String data) {
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean closed;
+        // System.nanoTime() when the current send started, 0 while not sending
+        private volatile long sendingSince;
+        private volatile Thread sender;
+
+        Subscriber(SseEmitter emitter, BlockingQueue<Event> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.enums.IncidentStatus;
+import com.supermart.iot.repository.IncidentRepository;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.StoreRepository;
+import com.supermart.iot.service.TelemetryStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory dashboard KPIs, kept current by the state transitions that change them.
+ *
+ * <p>Ingest, device {@code FAULT} transitions and incident status changes report
+ * their deltas here once their transaction commits, so
+ * {@code GET /dashboard/summary} is answered from memory. Alerts are counted in a
+ * ring of per-minute buckets covering the last hour, keyed by each reading's
+ * {@code recordedAt}.</p>
+ *
+ * <p>Counters are rebuilt from the database on startup and every
+ * {@code app.dashboard.counters.reconcile-interval-ms}. Between reconciliations
+ * they can drift by writes that bypass the application or that commit while a
+ * reconciliation is reading; each run corrects the drift.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCounters {
+
+    static final int WINDOW_MINUTES = 60;
+
+    private final StoreRepository storeRepository;
+    private final IotDeviceRepository deviceRepository;
+    private final IncidentRepository incidentRepository;
+    private final TelemetryStore telemetryStore;
+
+    private final AtomicLong totalStores = new AtomicLong();
+    private final AtomicLong activeDevices = new AtomicLong();
+    private final AtomicLong faultyDevices = new AtomicLong();
+    private final AtomicLong openIncidents = new AtomicLong();
+    private final AlertWindow alerts = new AlertWindow(WINDOW_MINUTES);
+    private final Lock reconcileLock = new ReentrantLock();
+
+    private Clock clock = Clock.systemDefaultZone();
+    private volatile boolean reconciled;
+
+    public long getTotalStores() {
+        ensureReconciled();
+        return totalStores.get();
+    }
+
+    public long getActiveDevices() {
+        ensureReconciled();
+        return activeDevices.get();
+    }
+
+    public long getFaultyDevices() {
+        ensureReconciled();
+        return faultyDevices.get();
+    }
+
+    public long getOpenIncidents() {
+        ensureReconciled();
+        return openIncidents.get();
+    }
+
+    /** Alert readings recorded during the last {@value #WINDOW_MINUTES} minutes. */
+    public long getAlertsLastHour() {
+        ensureReconciled();
+        return alerts.sum(currentMinute());
+    }
+
+    /** Counts persisted alert readings; readings older than the window are ignored. */
+    public void recordAlerts(Collection<LocalDateTime> recordedAt) {
+        if (recordedAt.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            long now = currentMinute();
+            for (LocalDateTime at : recordedAt) {
+                // Readings stamped ahead of the server clock count towards the current minute
+                alerts.add(Math.min(epochMinute(at), now), 1, now);
+            }
+        });
+    }
+
+    public void deviceStatusChanged(DeviceStatus from, DeviceStatus to) {
+        if (from == to) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            adjust(from, -1);
+            adjust(to, 1);
+        });
+    }
+
+    /** @param from previous status, or {@code null} for a newly created incident */
+    public void incidentStatusChanged(IncidentStatus from, IncidentStatus to) {
+        if (from == to || (from != IncidentStatus.OPEN && to != IncidentStatus.OPEN)) {
+            return;
+        }
+        AfterCommit.run(() -> openIncidents.addAndGet(to == IncidentStatus.OPEN ? 1 : -1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile();
+    }
+
+    /** Replaces every counter with its value from the database. */
+    @Scheduled(fixedDelayString = "${app.dashboard.counters.reconcile-interval-ms:60000}",
+               initialDelayString = "${app.dashboard.counters.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        // A lock rather than synchronized: the queries below must not pin a virtual thread's carrier
+        reconcileLock.lock();
+        try {
+            long now = currentMinute();
+            LocalDateTime windowStart = LocalDateTime.ofEpochSecond((now - WINDOW_MINUTES + 1) * 60, 0, ZoneOffset.UTC);
+            totalStores.set(storeRepository.count());
+            activeDevices.set(deviceRepository.countByStatus(DeviceStatus.ACTIVE));
+            faultyDevices.set(deviceRepository.countByStatus(DeviceStatus.FAULT));
+            openIncidents.set(incidentRepository.countByStatus(IncidentStatus.OPEN));
+            AlertWindow rebuilt = new AlertWindow(WINDOW_MINUTES);
+            for (LocalDateTime at : telemetryStore.findAlertRecordedAtFrom(windowStart)) {
+                rebuilt.add(Math.min(epochMinute(at), now), 1, now);
+            }
+            alerts.replaceWith(rebuilt);
+            reconciled = true;
+        } catch (DataAccessException e) {
+            log.warn("Dashboard counter reconciliation failed, keeping incremental values: {}", e.getMessage());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void ensureReconciled() {
+        if (!reconciled) {
+            reconcile();
+        }
+    }
+
+    private void adjust(DeviceStatus status, long delta) {
+        if (status == DeviceStatus.ACTIVE) {
+            activeDevices.addAndGet(delta);
+        } else if (status == DeviceStatus.FAULT) {
+            faultyDevices.addAndGet(delta);
+        }
+    }
+
+    private long currentMinute() {
+        return epochMinute(LocalDateTime.now(clock));
+    }
+
+    // LocalDateTime values are wall-clock times in the server zone; any fixed offset gives consistent minute keys.
+    private static long epochMinute(LocalDateTime at) {
+        return Math.floorDiv(at.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Ring of per-minute counts. Slot {@code m % size} holds minute {@code m};
+     * a slot still holding an older minute is reset when that minute is reused.
+     */
+    private static final class AlertWindow {
+
+        private final long[] minutes;
+        private final long[] counts;
+
+        AlertWindow(int size) {
+            minutes = new long[size];
+            counts = new long[size];
+            Arrays.fill(minutes, Long.MIN_VALUE);
+        }
+
+        synchronized void add(long minute, long count, long now) {
+            if (minute <= now - minutes.length) {
+                return;
+            }
+            int slot = (int) Math.floorMod(minute, (long) minutes.length);
+            if (minutes[slot] != minute) {
+                minutes[slot] = minute;
+                counts[slot] = 0;
+            }
+            counts[slot] += count;
+        }
+
+        synchronized long sum(long now) {
+            long total = 0;
+            for (int i = 0; i < minutes.length; i++) {
+                if (minutes[i] > now - minutes.length && minutes[i] <= now) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        synchronized void replaceWith(AlertWindow other) {
+            synchronized (other) {
+                System.arraycopy(other.minutes, 0, minutes, 0, minutes.length);
+                System.arraycopy(other.counts, 0, counts, 0, counts.length);
+            }
+        }
+    }
+}
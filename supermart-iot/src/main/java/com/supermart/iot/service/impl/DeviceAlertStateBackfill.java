@@ -0,0 +1,81 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.repository.DeviceLatestTelemetryRepository;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.service.TelemetryStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds the per-device alert state ({@code device_latest_telemetry}) from
+ * telemetry history.
+ *
+ * <p>Ingest keeps the table current, and Flyway {@code V5} built it once for
+ * existing data. This job covers rows written outside the API, such as bulk
+ * imports or restores. It walks devices in id order, {@code chunk-size} at a
+ * time, reads each device's newest reading from the {@link TelemetryStore}
+ * (one seek per device, archived days included) and advances the chunk with one
+ * upsert batch. The upsert never moves a row backwards, so the job is safe
+ * while ingest is running and can be re-run at any time.</p>
+ *
+ * <p>Runs on startup when {@code app.alert-state.backfill.enabled} is set.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceAlertStateBackfill {
+
+    private final IotDeviceRepository deviceRepository;
+    private final TelemetryStore telemetryStore;
+    private final DeviceLatestTelemetryRepository latestTelemetryRepository;
+
+    @Value("${app.alert-state.backfill.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.alert-state.backfill.chunk-size:500}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Rebuilds the alert state of every device.
+     *
+     * @return number of devices with telemetry whose state was rebuilt
+     */
+    public int run() {
+        long started = System.currentTimeMillis();
+        int devices = 0;
+        int rebuilt = 0;
+        long afterId = Long.MIN_VALUE;
+        List<Long> chunk;
+        while (!(chunk = deviceRepository.findDeviceIdsAfter(afterId, Limit.of(chunkSize))).isEmpty()) {
+            List<TelemetryRecord> newest = new ArrayList<>(chunk.size());
+            for (Long deviceId : chunk) {
+                newest.addAll(telemetryStore.findPageBefore(deviceId, null,
+                        TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, 1));
+            }
+            latestTelemetryRepository.advance(newest);
+            rebuilt += newest.size();
+            devices += chunk.size();
+            afterId = chunk.get(chunk.size() - 1);
+        }
+        log.info("Alert state backfill rebuilt {} of {} devices in {} ms",
+                rebuilt, devices, System.currentTimeMillis() - started);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.repository.IotDeviceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces device {@code lastSeenAt} heartbeats in memory.
+ *
+ * <p>Ingest records a heartbeat per accepted reading without touching the
+ * database. Every {@code app.device-heartbeat.flush-interval-ms} the devices
+ * seen since the last flush are written with one multi-row {@code UPDATE}, so
+ * a device reporting many times per interval costs a single row write. Reads
+ * merge the in-memory value via {@link #lastSeenAt(Long, LocalDateTime)} so the
+ * API never lags the flush.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceHeartbeatTracker {
+
+    private final IotDeviceRepository deviceRepository;
+
+    private final Map<Long, LocalDateTime> lastSeen = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    /** Records that the device was seen at {@code seenAt}; later timestamps win. */
+    public void recordHeartbeat(Long deviceId, LocalDateTime seenAt) {
+        lastSeen.merge(deviceId, seenAt, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+        dirty.add(deviceId);
+    }
+
+    /**
+     * The most recent of the persisted value and any heartbeat held in memory.
+     *
+     * @param persisted {@code IotDevice.lastSeenAt} as loaded from the database; may be {@code null}
+     */
+    public LocalDateTime lastSeenAt(Long deviceId, LocalDateTime persisted) {
+        LocalDateTime inMemory = lastSeen.get(deviceId);
+        if (inMemory == null) {
+            return persisted;
+        }
+        return persisted == null || inMemory.isAfter(persisted) ? inMemory : persisted;
+    }
+
+    /** Writes pending heartbeats; on failure they stay pending for the next run. */
+    @Scheduled(fixedDelayString = "${app.device-heartbeat.flush-interval-ms:5000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> pending = new HashMap<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            Long deviceId = it.next();
+            it.remove();
+            pending.put(deviceId, lastSeen.get(deviceId));
+        }
+        try {
+            deviceRepository.updateLastSeenAt(pending);
+        } catch (RuntimeException e) {
+            dirty.addAll(pending.keySet());
+            log.warn("Failed to flush {} device heartbeats, will retry: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,135 @@
+package com.supermart.iot.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.supermart.iot.repository.IotDeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded in-process cache of {@link DeviceSnapshot}s for device authentication
+ * and telemetry ingest.
+ *
+ * <p>Snapshots are keyed by device id; a second index maps the SHA-256 hash of
+ * the device key to the id, so a {@code X-Device-Key} lookup costs two hash-map
+ * reads and no database round trip once warm. Unknown keys and ids are not
+ * cached. Entries expire after {@code app.device-cache.ttl-seconds} — the bound
+ * on staleness across nodes — and are invalidated locally whenever this node
+ * changes a device's status or thresholds.</p>
+ */
+@Component
+@Slf4j
+public class DeviceMetadataCache {
+
+    private final IotDeviceRepository deviceRepository;
+    private final Cache<Long, DeviceSnapshot> byId;
+    private final Cache<String, Long> idByKeyHash;
+
+    public DeviceMetadataCache(IotDeviceRepository deviceRepository,
+                               @Value("${app.device-cache.max-size:10000}") long maxSize,
+                               @Value("${app.device-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.deviceRepository = deviceRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.idByKeyHash = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Resolves a device by its API key.
+     *
+     * @param deviceKey the raw {@code X-Device-Key} header value
+     * @return the device snapshot, or empty if no device has this key
+     */
+    public Optional<DeviceSnapshot> findByDeviceKey(String deviceKey) {
+        String keyHash = hashKey(deviceKey);
+        Long deviceId = idByKeyHash.getIfPresent(keyHash);
+        if (deviceId != null) {
+            DeviceSnapshot snapshot = findById(deviceId).orElse(null);
+            // Guard against a key rotated since the index entry was written
+            if (snapshot != null && snapshot.deviceKeyHash().equals(keyHash)) {
+                return Optional.of(snapshot);
+            }
+            idByKeyHash.invalidate(keyHash);
+        }
+        return deviceRepository.findWithUnitByDeviceKey(deviceKey)
+                .map(DeviceSnapshot::of)
+                .map(this::put);
+    }
+
+    /**
+     * Resolves a device by id.
+     *
+     * @return the device snapshot, or empty if the device does not exist
+     */
+    public Optional<DeviceSnapshot> findById(Long deviceId) {
+        DeviceSnapshot snapshot = byId.get(deviceId, id ->
+                deviceRepository.findAllWithUnitByDeviceIdIn(List.of(id)).stream()
+                        .findFirst()
+                        .map(DeviceSnapshot::of)
+                        .orElse(null));
+        if (snapshot != null) {
+            idByKeyHash.put(snapshot.deviceKeyHash(), snapshot.deviceId());
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Resolves several devices, loading all misses with one query.
+     *
+     * @return snapshots keyed by device id; ids that do not exist are absent
+     */
+    public Map<Long, DeviceSnapshot> findAllById(Collection<Long> deviceIds) {
+        return byId.getAll(deviceIds, missing -> {
+            Map<Long, DeviceSnapshot> loaded = new HashMap<>();
+            deviceRepository.findAllWithUnitByDeviceIdIn(Set.copyOf(missing)).forEach(device -> {
+                DeviceSnapshot snapshot = DeviceSnapshot.of(device);
+                idByKeyHash.put(snapshot.deviceKeyHash(), snapshot.deviceId());
+                loaded.put(snapshot.deviceId(), snapshot);
+            });
+            return loaded;
+        });
+    }
+
+    /**
+     * Drops the cached snapshot for a device whose status or thresholds changed.
+     *
+     * <p>Inside a transaction the eviction is deferred until after commit, so a
+     * concurrent reader cannot re-cache the pre-update row in between.</p>
+     */
+    public void invalidate(Long deviceId) {
+        AfterCommit.run(() -> byId.invalidate(deviceId));
+    }
+
+    private DeviceSnapshot put(DeviceSnapshot snapshot) {
+        byId.put(snapshot.deviceId(), snapshot);
+        idByKeyHash.put(snapshot.deviceKeyHash(), snapshot.deviceId());
+        return snapshot;
+    }
+
+    static String hashKey(String deviceKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(deviceKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
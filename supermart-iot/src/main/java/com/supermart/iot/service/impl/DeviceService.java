@@ -1,30 +1,52 @@
 package com.supermart.iot.service.impl;
 
 import com.supermart.iot.dto.response.*;
+import com.supermart.iot.entity.DeviceLatestTelemetry;
 import com.supermart.iot.entity.IotDevice;
 import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.entity.TelemetryRollup;
 import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.enums.RollupBucket;
+import com.supermart.iot.exception.BadRequestException;
 import com.supermart.iot.exception.ResourceNotFoundException;
+import com.supermart.iot.repository.DeviceLatestTelemetryRepository;
 import com.supermart.iot.repository.IotDeviceRepository;
 import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.repository.TelemetryRollupRepository;
+import com.supermart.iot.service.TelemetryStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DeviceService {
 
     private final IotDeviceRepository deviceRepository;
-    private final TelemetryRepository telemetryRepository;
+    private final TelemetryStore telemetryStore;
+    private final DeviceHeartbeatTracker heartbeatTracker;
+    private final TelemetryRollupRepository rollupRepository;
+    private final DeviceLatestTelemetryRepository latestTelemetryRepository;
+    private final ServiceMetrics metrics;
+
+    @Value("${app.telemetry.aggregate.max-points:5000}")
+    private int maxAggregatePoints;
+
+    @Value("${app.telemetry.cursor.max-page-size:1000}")
+    private int maxCursorPageSize;
 
     public PagedResponse<IotDeviceSummaryResponse> listDevices(Long storeId, DeviceStatus status, int page, int size) {
         Page<IotDevice> devicePage = deviceRepository.findByStoreIdAndStatus(storeId, status, PageRequest.of(page, size));
-        return PagedResponse.of(devicePage.map(this::toSummaryResponse));
+        return PagedResponse.of(devicePage, toSummaryResponses(devicePage.getContent()));
     }
 
     public IotDeviceResponse getDeviceById(Long deviceId) {
@@ -35,23 +57,113 @@ public class DeviceService {
     public PagedResponse<TelemetryResponse> getDeviceTelemetry(Long deviceId, LocalDateTime from, LocalDateTime to, int page, int size) {
         findDeviceOrThrow(deviceId);
         if (from != null && to != null && from.isAfter(to)) {
-            throw new com.supermart.iot.exception.BadRequestException("'from' date must be before 'to' date.");
+            throw new BadRequestException("'from' date must be before 'to' date.");
         }
-        Page<TelemetryRecord> records = telemetryRepository.findByDeviceIdAndDateRange(deviceId, from, to, PageRequest.of(page, size));
+        Page<TelemetryRecord> records = telemetryStore.findByDeviceIdAndDateRange(deviceId, from, to, PageRequest.of(page, size));
         return PagedResponse.of(records.map(this::toTelemetryResponse));
     }
 
+    /**
+     * Keyset-paginated telemetry history for a device, newest first.
+     *
+     * <p>Fetches {@code size + 1} rows to learn whether another page exists, so
+     * deep pages cost the same as the first and no total is counted.</p>
+     *
+     * @param cursor {@code nextCursor} from the previous page, or {@code null} for the first page
+     */
+    public CursorPagedResponse<TelemetryResponse> getDeviceTelemetryPage(Long deviceId, LocalDateTime from,
+                                                                         LocalDateTime to, String cursor, int size) {
+        findDeviceOrThrow(deviceId);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' date must be before 'to' date.");
+        }
+        if (size < 1 || size > maxCursorPageSize) {
+            throw new BadRequestException("'size' must be between 1 and " + maxCursorPageSize + ".");
+        }
+        LocalDateTime beforeAt = to != null ? to : TelemetryRepository.LATEST_RECORDED_AT;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            TelemetryCursor position = TelemetryCursor.decode(cursor);
+            if (!position.recordedAt().isAfter(beforeAt)) {
+                beforeAt = position.recordedAt();
+                beforeId = position.telemetryId();
+            }
+        }
+        List<TelemetryRecord> rows = telemetryStore.findPageBefore(deviceId, from, beforeAt, beforeId, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<TelemetryRecord> page = hasMore ? rows.subList(0, size) : rows;
+        return CursorPagedResponse.<TelemetryResponse>builder()
+                .content(page.stream().map(this::toTelemetryResponse).toList())
+                .nextCursor(hasMore ? TelemetryCursor.after(page.get(size - 1)).encode() : null)
+                .hasMore(hasMore)
+                .size(size)
+                .build();
+    }
+
+    /**
+     * Bucketed min/max/avg/count series for a device, read from the rollups.
+     *
+     * @param bucketCode {@code 1m}, {@code 1h} or {@code 1d}
+     * @param from       inclusive; defaults to {@code to} minus the bucket's default span
+     * @param to         inclusive; defaults to now
+     * @return one entry per bucket that has readings, oldest first
+     */
+    public List<TelemetryAggregateResponse> getDeviceTelemetryAggregate(Long deviceId, String bucketCode,
+                                                                        LocalDateTime from, LocalDateTime to) {
+        findDeviceOrThrow(deviceId);
+        RollupBucket bucket = RollupBucket.fromCode(bucketCode)
+                .orElseThrow(() -> new BadRequestException("Unsupported bucket '" + bucketCode + "'. Use 1m, 1h or 1d."));
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(bucket.getDefaultSpan());
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' date must be before 'to' date.");
+        }
+        if (bucket.bucketsBetween(start, end) > maxAggregatePoints) {
+            throw new BadRequestException("Requested range spans more than " + maxAggregatePoints
+                    + " " + bucket.getCode() + " buckets. Use a coarser bucket or a shorter range.");
+        }
+        return rollupRepository.findSeries(deviceId, bucket, bucket.truncate(start), end).stream()
+                .map(this::toAggregateResponse)
+                .toList();
+    }
+
     public IotDeviceSummaryResponse toSummaryResponse(IotDevice device) {
-        Optional<TelemetryRecord> latest = telemetryRepository.findTopByDevice_DeviceIdOrderByRecordedAtDesc(device.getDeviceId());
+        metrics.summaryQuery(false, 1);
+        return toSummaryResponse(device, latestTelemetryRepository.findById(device.getDeviceId()).orElse(null));
+    }
+
+    /**
+     * Summaries for a page of devices with one bulk latest-reading lookup.
+     *
+     * <p>Devices should come from a query that fetches {@code unit} and
+     * {@code unit.store}; the result is in the order of {@code devices}.</p>
+     */
+    public List<IotDeviceSummaryResponse> toSummaryResponses(Collection<IotDevice> devices) {
+        if (devices.isEmpty()) {
+            return List.of();
+        }
+        List<Long> deviceIds = devices.stream().map(IotDevice::getDeviceId).distinct().toList();
+        metrics.summaryQuery(true, deviceIds.size());
+        Map<Long, DeviceLatestTelemetry> latest = latestTelemetryRepository.findAllById(deviceIds).stream()
+                .collect(Collectors.toMap(DeviceLatestTelemetry::getDeviceId, Function.identity()));
+        return devices.stream()
+                .map(device -> toSummaryResponse(device, latest.get(device.getDeviceId())))
+                .toList();
+    }
+
+    private IotDeviceSummaryResponse toSummaryResponse(IotDevice device, DeviceLatestTelemetry latest) {
         return IotDeviceSummaryResponse.builder()
                 .deviceId(device.getDeviceId())
                 .deviceSerial(device.getDeviceSerial())
                 .status(device.getStatus())
-                .lastSeenAt(device.getLastSeenAt())
+                .lastSeenAt(heartbeatTracker.lastSeenAt(device.getDeviceId(), device.getLastSeenAt()))
                 .storeName(device.getUnit().getStore().getStoreName())
                 .unitName(device.getUnit().getUnitName())
-                .latestTemperature(latest.map(TelemetryRecord::getTemperature).orElse(null))
-                .isAlert(latest.map(TelemetryRecord::getIsAlert).orElse(false))
+                .unitType(device.getUnit().getUnitType())
+                .minTempThreshold(device.getMinTempThreshold())
+                .maxTempThreshold(device.getMaxTempThreshold())
+                .latestTemperature(latest != null ? latest.getTemperature() : null)
+                .isAlert(latest != null && latest.getIsAlert())
                 .build();
     }
 
@@ -63,7 +175,7 @@ public class DeviceService {
                 .minTempThreshold(device.getMinTempThreshold())
                 .maxTempThreshold(device.getMaxTempThreshold())
                 .status(device.getStatus())
-                .lastSeenAt(device.getLastSeenAt())
+                .lastSeenAt(heartbeatTracker.lastSeenAt(device.getDeviceId(), device.getLastSeenAt()))
                 .unit(EquipmentUnitResponse.builder()
                         .unitId(device.getUnit().getUnitId())
                         .storeId(device.getUnit().getStore().getStoreId())
@@ -75,6 +187,17 @@ public class DeviceService {
                 .build();
     }
 
+    private TelemetryAggregateResponse toAggregateResponse(TelemetryRollup rollup) {
+        return TelemetryAggregateResponse.builder()
+                .bucketStart(rollup.getId().getBucketStart())
+                .sampleCount(rollup.getSampleCount())
+                .alertCount(rollup.getAlertCount())
+                .minTemperature(rollup.getMinTemperature())
+                .maxTemperature(rollup.getMaxTemperature())
+                .avgTemperature(rollup.getTemperatureSum() / rollup.getSampleCount())
+                .build();
+    }
+
     public TelemetryResponse toTelemetryResponse(TelemetryRecord record) {
         return TelemetryResponse.builder()
                 .telemetryId(record.getTelemetryId())
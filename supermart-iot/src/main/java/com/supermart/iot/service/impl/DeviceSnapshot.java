@@ -0,0 +1,44 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.enums.DeviceStatus;
+
+/**
+ * Immutable view of the device metadata needed on the telemetry hot path.
+ *
+ * <p>Held by {@link DeviceMetadataCache} instead of the managed {@link IotDevice}
+ * entity so it can be shared safely across request and writer threads. The raw
+ * device key is never retained — only its SHA-256 hash.</p>
+ */
+public record DeviceSnapshot(
+        Long deviceId,
+        String deviceSerial,
+        String deviceKeyHash,
+        Double minTempThreshold,
+        Double maxTempThreshold,
+        DeviceStatus status,
+        Long unitId,
+        Long storeId) {
+
+    static DeviceSnapshot of(IotDevice device) {
+        return new DeviceSnapshot(
+                device.getDeviceId(),
+                device.getDeviceSerial(),
+                DeviceMetadataCache.hashKey(device.getDeviceKey()),
+                device.getMinTempThreshold(),
+                device.getMaxTempThreshold(),
+                device.getStatus(),
+                device.getUnit().getUnitId(),
+                device.getUnit().getStore().getStoreId());
+    }
+
+    /** {@code true} if the temperature is outside {@code [minTempThreshold, maxTempThreshold]}. */
+    public boolean isOutsideThreshold(double temperature) {
+        return temperature < minTempThreshold || temperature > maxTempThreshold;
+    }
+
+    /** A reference entity carrying only the id, suitable for {@code TelemetryRecord.device}. */
+    public IotDevice toReference() {
+        return IotDevice.builder().deviceId(deviceId).build();
+    }
+}
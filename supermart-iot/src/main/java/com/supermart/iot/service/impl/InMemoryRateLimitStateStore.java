@@ -0,0 +1,35 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.service.RateLimitStateStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local {@link RateLimitStateStore}: one {@link AtomicLong} per device in a
+ * {@link ConcurrentHashMap}.
+ *
+ * <p>Reads and CAS updates are lock-free once a device has an entry. The map is
+ * bounded by the fleet size (one entry per device that has reported), so no
+ * eviction is needed.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.telemetry.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStateStore implements RateLimitStateStore {
+
+    private final ConcurrentHashMap<Long, AtomicLong> state = new ConcurrentHashMap<>();
+
+    @Override
+    public long get(long deviceId) {
+        AtomicLong value = state.get(deviceId);
+        return value == null ? 0L : value.get();
+    }
+
+    @Override
+    public boolean compareAndSet(long deviceId, long expected, long update) {
+        return state.computeIfAbsent(deviceId, id -> new AtomicLong())
+                .compareAndSet(expected, update);
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,12 +34,20 @@ public class IncidentService {
     private final TechnicianRepository technicianRepository;
     private final TechnicianAssignmentRepository assignmentRepository;
     private final DeviceService deviceService;
+    private final DashboardCounters dashboardCounters;
+    private final DashboardBroadcaster dashboardBroadcaster;
 
     public PagedResponse<IncidentResponse> listIncidents(IncidentStatus status, Long storeId,
                                                           IncidentType type, int page, int size) {
         Page<Incident> incidentPage = incidentRepository.findByFilters(
                 status, storeId, type, PageRequest.of(page, size));
-        return PagedResponse.of(incidentPage.map(i -> toResponse(i, false)));
+        List<IotDeviceSummaryResponse> devices = deviceService.toSummaryResponses(
+                incidentPage.getContent().stream().map(Incident::getDevice).toList());
+        List<IncidentResponse> content = new ArrayList<>(devices.size());
+        for (int i = 0; i < devices.size(); i++) {
+            content.add(toResponse(incidentPage.getContent().get(i), false, devices.get(i)));
+        }
+        return PagedResponse.of(incidentPage, content);
     }
 
     @Transactional
@@ -64,7 +73,10 @@ public class IncidentService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return toResponse(incidentRepository.save(incident), false);
+        Incident saved = incidentRepository.save(incident);
+        dashboardCounters.incidentStatusChanged(null, IncidentStatus.OPEN);
+        dashboardBroadcaster.countersChanged();
+        return toResponse(saved, false);
     }
 
     public IncidentResponse getIncidentById(Long incidentId) {
@@ -74,12 +86,16 @@ public class IncidentService {
     @Transactional
     public IncidentResponse updateStatus(Long incidentId, UpdateIncidentStatusRequest request) {
         Incident incident = findOrThrow(incidentId);
-        validateStatusTransition(incident.getStatus(), request.getStatus());
+        IncidentStatus previous = incident.getStatus();
+        validateStatusTransition(previous, request.getStatus());
         incident.setStatus(request.getStatus());
         if (request.getStatus() == IncidentStatus.RESOLVED) {
             incident.setResolvedAt(LocalDateTime.now());
         }
-        return toResponse(incidentRepository.save(incident), true);
+        Incident saved = incidentRepository.save(incident);
+        dashboardCounters.incidentStatusChanged(previous, request.getStatus());
+        dashboardBroadcaster.countersChanged();
+        return toResponse(saved, true);
     }
 
     @Transactional
@@ -101,8 +117,11 @@ public class IncidentService {
                 .build();
 
         TechnicianAssignment saved = assignmentRepository.save(assignment);
+        IncidentStatus previous = incident.getStatus();
         incident.setStatus(IncidentStatus.ASSIGNED);
         incidentRepository.save(incident);
+        dashboardCounters.incidentStatusChanged(previous, IncidentStatus.ASSIGNED);
+        dashboardBroadcaster.countersChanged();
 
         return toAssignmentResponse(saved, incidentId);
     }
@@ -120,6 +139,11 @@ public class IncidentService {
     }
 
     public IncidentResponse toResponse(Incident incident, boolean includeAssignments) {
+        return toResponse(incident, includeAssignments, deviceService.toSummaryResponse(incident.getDevice()));
+    }
+
+    private IncidentResponse toResponse(Incident incident, boolean includeAssignments,
+                                        IotDeviceSummaryResponse device) {
         List<TechnicianAssignmentResponse> assignments = null;
         if (includeAssignments && incident.getAssignments() != null) {
             assignments = incident.getAssignments().stream()
@@ -134,7 +158,7 @@ public class IncidentService {
                 .description(incident.getDescription())
                 .createdAt(incident.getCreatedAt())
                 .resolvedAt(incident.getResolvedAt())
-                .device(deviceService.toSummaryResponse(incident.getDevice()))
+                .device(device)
                 .assignments(assignments)
                 .build();
     }
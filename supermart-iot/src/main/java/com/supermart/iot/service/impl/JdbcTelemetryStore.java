@@ -0,0 +1,94 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.service.TelemetryStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@link TelemetryStore} backed by {@code telemetry_records}, with archived days
+ * merged back in from {@link TelemetryArchiveReader}.
+ *
+ * <p>Appends use the repository's JDBC batch insert and join the ingest
+ * transaction. History reads query the hot table and, when part of the range
+ * is archived, merge the newest archived readings in history order. Ranges
+ * stream from a forward-only cursor and deletes go out in chunks of
+ * {@value #DELETE_CHUNK_SIZE} ids.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.telemetry.store", havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JdbcTelemetryStore implements TelemetryStore {
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final TelemetryRepository telemetryRepository;
+    private final TelemetryArchiveReader archiveReader;
+
+    @Value("${app.telemetry.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public void append(List<TelemetryRecord> records) {
+        telemetryRepository.batchInsert(records);
+    }
+
+    @Override
+    public Page<TelemetryRecord> findByDeviceIdAndDateRange(Long deviceId, LocalDateTime from, LocalDateTime to,
+                                                            Pageable pageable) {
+        if (!archiveReader.hasBlocks(deviceId, from, to)) {
+            return telemetryRepository.findByDeviceIdAndDateRange(deviceId, from, to, pageable);
+        }
+        // Part of the range is archived: merge the first offset + size readings of both sources
+        int offset = (int) pageable.getOffset();
+        int needed = offset + pageable.getPageSize();
+        Page<TelemetryRecord> hot = telemetryRepository.findByDeviceIdAndDateRange(deviceId, from, to, PageRequest.of(0, needed));
+        List<TelemetryRecord> archived = archiveReader.readNewestFirst(deviceId, from,
+                to != null ? to : TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, needed);
+        List<TelemetryRecord> merged = TelemetryArchiveReader.mergeNewestFirst(hot.getContent(), archived, needed);
+        List<TelemetryRecord> content = merged.subList(Math.min(offset, merged.size()), merged.size());
+        long total = hot.getTotalElements() + archiveReader.count(deviceId, from, to);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public List<TelemetryRecord> findPageBefore(Long deviceId, LocalDateTime from, LocalDateTime beforeAt,
+                                                long beforeId, int limit) {
+        return TelemetryArchiveReader.mergeNewestFirst(
+                telemetryRepository.findPageBefore(deviceId,
+                        from != null ? from : TelemetryRepository.EARLIEST_RECORDED_AT,
+                        beforeAt, beforeId, Limit.of(limit)),
+                archiveReader.readNewestFirst(deviceId, from, beforeAt, beforeId, limit),
+                limit);
+    }
+
+    @Override
+    public List<LocalDateTime> findAlertRecordedAtFrom(LocalDateTime from) {
+        return telemetryRepository.findAlertRecordedAtFrom(from);
+    }
+
+    @Override
+    public void range(long deviceId, LocalDateTime from, LocalDateTime to, ReadingHandler handler) {
+        telemetryRepository.streamRange(deviceId, null, from, to, fetchSize, rs -> handler.accept(rs.getLong(1),
+                rs.getTimestamp(6).toLocalDateTime(), rs.getDouble(7), rs.getBoolean(8)));
+    }
+
+    @Override
+    public void remove(List<Long> telemetryIds) {
+        for (int i = 0; i < telemetryIds.size(); i += DELETE_CHUNK_SIZE) {
+            telemetryRepository.deleteAllByIdInBatch(
+                    telemetryIds.subList(i, Math.min(i + DELETE_CHUNK_SIZE, telemetryIds.size())));
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.segment.TelemetrySegment;
+import com.supermart.iot.service.TelemetryStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link TelemetryStore} that keeps readings in memory-mapped
+ * {@link TelemetrySegment} files under {@code app.telemetry.store.segment.directory}.
+ *
+ * <p>Appends go to the newest segment; a full segment is sealed and a new one of
+ * {@code records-per-segment} records is created. An append is a few stores into
+ * the mapping plus an index update, with no SQL and no identity round trip. All
+ * appends, and the undo of rolled-back ones, take one store-wide write lock, so
+ * they are serialised with each other and with reads; ingest throughput has not
+ * been measured against {@code telemetry_records} inserts. Pages are written back
+ * by the OS; {@code force-on-append=true} flushes after every batch instead.</p>
+ *
+ * <p>Reads consult each segment's time bounds and per-device slot lists and skip
+ * segments that cannot contribute. Matching slots are read from the mapping
+ * without copying the segment, but each returned reading is still built as a
+ * {@link TelemetryRecord}; {@link #range} hands out plain values instead. As with
+ * {@link JdbcTelemetryStore}, archived days are merged back in from
+ * {@link TelemetryArchiveReader}, and archived readings are tombstoned by
+ * {@link #remove} once the archive transaction commits. Segments whose newest
+ * reading is older than {@code retention-days} are deleted on
+ * {@code retention-cron}.</p>
+ *
+ * <p>Segment files are not transactional, so an append made inside a transaction
+ * is undone if it rolls back: its slots are tombstoned and the records' ids
+ * cleared, so a retry of the batch, or of a reading whose deduplication key was
+ * forgotten, appends it again instead of duplicating it. Temperatures are kept
+ * as {@code float}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.telemetry.store", havingValue = "segment")
+@RequiredArgsConstructor
+@Slf4j
+public class SegmentTelemetryStore implements TelemetryStore {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{10})\\.seg");
+
+    // Oldest first in history order; the head of a bounded heap is the entry to evict
+    private static final Comparator<Candidate> OLDEST_FIRST = Comparator
+            .comparingLong(Candidate::micros)
+            .thenComparingLong(Candidate::telemetryId);
+
+    @Value("${app.telemetry.store.segment.directory:./data/telemetry}")
+    private Path directory;
+
+    @Value("${app.telemetry.store.segment.records-per-segment:4194304}")
+    private int recordsPerSegment;
+
+    @Value("${app.telemetry.store.segment.force-on-append:false}")
+    private boolean forceOnAppend;
+
+    @Value("${app.telemetry.store.segment.retention-days:90}")
+    private int retentionDays;
+
+    private final TelemetryArchiveReader archiveReader;
+    private final NavigableMap<Integer, TelemetrySegment> segments = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TelemetrySegment active;
+
+    private record Candidate(long micros, long telemetryId) {
+    }
+
+    private record Reading(long micros, long telemetryId, float temperature, boolean alert) {
+    }
+
+    @PostConstruct
+    void open() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(file -> {
+                    Matcher name = SEGMENT_FILE.matcher(file.getFileName().toString());
+                    if (name.matches()) {
+                        int segmentId = Integer.parseInt(name.group(1));
+                        segments.put(segmentId, TelemetrySegment.open(file, segmentId, recordsPerSegment));
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open telemetry segments in " + directory, e);
+        }
+        // Segment ids start at 1 so no reading gets telemetry_id 0
+        active = segments.isEmpty() ? newSegment(1) : segments.lastEntry().getValue();
+        log.info("Opened {} telemetry segments in {}", segments.size(), directory);
+    }
+
+    @PreDestroy
+    void close() {
+        lock.writeLock().lock();
+        try {
+            segments.values().forEach(TelemetrySegment::close);
+            segments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void append(List<TelemetryRecord> records) {
+        List<TelemetryRecord> appended = new ArrayList<>(records.size());
+        lock.writeLock().lock();
+        try {
+            TelemetrySegment first = active;
+            for (TelemetryRecord record : records) {
+                if (record.getTelemetryId() != null) {
+                    continue;
+                }
+                if (active.isFull()) {
+                    active = newSegment(active.segmentId() + 1);
+                }
+                record.setTelemetryId(active.append(record.getDevice().getDeviceId(),
+                        TelemetrySegment.toMicros(record.getRecordedAt()),
+                        record.getTemperature().floatValue(), Boolean.TRUE.equals(record.getIsAlert())));
+                appended.add(record);
+            }
+            if (forceOnAppend) {
+                segments.tailMap(first.segmentId(), true).values().forEach(TelemetrySegment::force);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!appended.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        undo(appended);
+                    }
+                }
+            });
+        }
+    }
+
+    /** Tombstones the readings of a rolled-back append and clears their ids. */
+    private void undo(List<TelemetryRecord> appended) {
+        int first = TelemetrySegment.segmentIdOf(appended.get(0).getTelemetryId());
+        lock.writeLock().lock();
+        try {
+            for (TelemetryRecord record : appended) {
+                // A segment dropped by retention since has nothing left to undo
+                TelemetrySegment segment = segments.get(TelemetrySegment.segmentIdOf(record.getTelemetryId()));
+                if (segment != null) {
+                    segment.tombstone(TelemetrySegment.slotOf(record.getTelemetryId()));
+                }
+                record.setTelemetryId(null);
+            }
+            if (forceOnAppend) {
+                segments.tailMap(first, true).values().forEach(TelemetrySegment::force);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Tombstoned {} telemetry readings of a rolled-back transaction", appended.size());
+    }
+
+    @Override
+    public Page<TelemetryRecord> findByDeviceIdAndDateRange(Long deviceId, LocalDateTime from, LocalDateTime to,
+                                                            Pageable pageable) {
+        if (!archiveReader.hasBlocks(deviceId, from, to)) {
+            return findStored(deviceId, from, to, pageable);
+        }
+        // Part of the range is archived: merge the first offset + size readings of both sources
+        int offset = (int) pageable.getOffset();
+        int needed = offset + pageable.getPageSize();
+        Page<TelemetryRecord> stored = findStored(deviceId, from, to, PageRequest.of(0, needed));
+        List<TelemetryRecord> archived = archiveReader.readNewestFirst(deviceId, from,
+                to != null ? to : TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, needed);
+        List<TelemetryRecord> merged = TelemetryArchiveReader.mergeNewestFirst(stored.getContent(), archived, needed);
+        List<TelemetryRecord> content = merged.subList(Math.min(offset, merged.size()), merged.size());
+        long total = stored.getTotalElements() + archiveReader.count(deviceId, from, to);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public List<TelemetryRecord> findPageBefore(Long deviceId, LocalDateTime from, LocalDateTime beforeAt,
+                                                long beforeId, int limit) {
+        return TelemetryArchiveReader.mergeNewestFirst(
+                findStoredBefore(deviceId, from, beforeAt, beforeId, limit),
+                archiveReader.readNewestFirst(deviceId, from, beforeAt, beforeId, limit),
+                limit);
+    }
+
+    private Page<TelemetryRecord> findStored(Long deviceId, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        long lower = TelemetrySegment.toMicros(from != null ? from : TelemetryRepository.EARLIEST_RECORDED_AT);
+        long upper = TelemetrySegment.toMicros(to != null ? to : TelemetryRepository.LATEST_RECORDED_AT);
+        int offset = (int) pageable.getOffset();
+        int needed = offset + pageable.getPageSize();
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Candidate> newest = new PriorityQueue<>(OLDEST_FIRST);
+            long total = 0;
+            for (TelemetrySegment segment : segments.descendingMap().values()) {
+                TelemetrySegment.Postings postings = segment.postings(deviceId);
+                if (postings == null || postings.maxMicros() < lower || postings.minMicros() > upper) {
+                    continue;
+                }
+                boolean contained = postings.minMicros() >= lower && postings.maxMicros() <= upper;
+                // Wholly inside the range and older than everything kept: only the count changes
+                if (contained && newest.size() == needed && postings.maxMicros() < newest.peek().micros()) {
+                    total += postings.size();
+                    continue;
+                }
+                for (int i = 0; i < postings.size(); i++) {
+                    int slot = postings.slot(i);
+                    long micros = segment.micros(slot);
+                    if (micros >= lower && micros <= upper) {
+                        total++;
+                        offer(newest, new Candidate(micros, TelemetrySegment.telemetryId(segment.segmentId(), slot)), needed);
+                    }
+                }
+            }
+            List<TelemetryRecord> page = toRecords(deviceId, newest);
+            return new PageImpl<>(page.subList(Math.min(offset, page.size()), page.size()), pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<TelemetryRecord> findStoredBefore(Long deviceId, LocalDateTime from, LocalDateTime beforeAt,
+                                                   long beforeId, int limit) {
+        long lower = TelemetrySegment.toMicros(from != null ? from : TelemetryRepository.EARLIEST_RECORDED_AT);
+        long beforeMicros = TelemetrySegment.toMicros(beforeAt);
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Candidate> newest = new PriorityQueue<>(OLDEST_FIRST);
+            for (TelemetrySegment segment : segments.descendingMap().values()) {
+                TelemetrySegment.Postings postings = segment.postings(deviceId);
+                if (postings == null || postings.maxMicros() < lower || postings.minMicros() > beforeMicros
+                        || (newest.size() == limit && postings.maxMicros() < newest.peek().micros())) {
+                    continue;
+                }
+                for (int i = 0; i < postings.size(); i++) {
+                    int slot = postings.slot(i);
+                    long micros = segment.micros(slot);
+                    long telemetryId = TelemetrySegment.telemetryId(segment.segmentId(), slot);
+                    if (micros >= lower && (micros < beforeMicros || (micros == beforeMicros && telemetryId < beforeId))) {
+                        offer(newest, new Candidate(micros, telemetryId), limit);
+                    }
+                }
+            }
+            return toRecords(deviceId, newest);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LocalDateTime> findAlertRecordedAtFrom(LocalDateTime from) {
+        long lower = TelemetrySegment.toMicros(from);
+        lock.readLock().lock();
+        try {
+            List<LocalDateTime> times = new ArrayList<>();
+            for (TelemetrySegment segment : segments.values()) {
+                TelemetrySegment.Postings alerts = segment.alerts();
+                if (alerts.size() == 0 || alerts.maxMicros() < lower) {
+                    continue;
+                }
+                for (int i = 0; i < alerts.size(); i++) {
+                    long micros = segment.micros(alerts.slot(i));
+                    if (micros >= lower) {
+                        times.add(TelemetrySegment.toDateTime(micros));
+                    }
+                }
+            }
+            return times;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void range(long deviceId, LocalDateTime from, LocalDateTime to, ReadingHandler handler) {
+        long lower = TelemetrySegment.toMicros(from);
+        long upper = TelemetrySegment.toMicros(to);
+        List<Reading> readings = new ArrayList<>();
+        // Copied out under the lock so a slow handler never holds up appends
+        lock.readLock().lock();
+        try {
+            for (TelemetrySegment segment : segments.values()) {
+                TelemetrySegment.Postings postings = segment.postings(deviceId);
+                if (postings == null || postings.maxMicros() < lower || postings.minMicros() > upper) {
+                    continue;
+                }
+                for (int i = 0; i < postings.size(); i++) {
+                    int slot = postings.slot(i);
+                    long micros = segment.micros(slot);
+                    if (micros >= lower && micros <= upper) {
+                        readings.add(new Reading(micros, TelemetrySegment.telemetryId(segment.segmentId(), slot),
+                                segment.temperature(slot), segment.alert(slot)));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        readings.sort(Comparator.comparingLong(Reading::micros).thenComparingLong(Reading::telemetryId));
+        for (Reading reading : readings) {
+            handler.accept(reading.telemetryId(), TelemetrySegment.toDateTime(reading.micros()),
+                    toDouble(reading.temperature()), reading.alert());
+        }
+    }
+
+    @Override
+    public void remove(List<Long> telemetryIds) {
+        List<Long> ids = List.copyOf(telemetryIds);
+        AfterCommit.run(() -> {
+            Set<TelemetrySegment> touched = new LinkedHashSet<>();
+            lock.writeLock().lock();
+            try {
+                for (long telemetryId : ids) {
+                    TelemetrySegment segment = segments.get(TelemetrySegment.segmentIdOf(telemetryId));
+                    if (segment != null) {
+                        segment.tombstone(TelemetrySegment.slotOf(telemetryId));
+                        touched.add(segment);
+                    }
+                }
+                if (forceOnAppend) {
+                    touched.forEach(TelemetrySegment::force);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /** Deletes sealed segments whose newest reading is older than the retention window. */
+    @Scheduled(cron = "${app.telemetry.store.segment.retention-cron:0 30 0 * * *}")
+    public void dropExpired() {
+        long cutoff = TelemetrySegment.toMicros(LocalDate.now().minusDays(retentionDays).atStartOfDay());
+        lock.writeLock().lock();
+        try {
+            Iterator<TelemetrySegment> it = segments.values().iterator();
+            while (it.hasNext()) {
+                TelemetrySegment segment = it.next();
+                if (segment != active && segment.maxMicros() < cutoff) {
+                    segment.close();
+                    Files.deleteIfExists(segment.path());
+                    it.remove();
+                    log.info("Dropped telemetry segment {} past {}-day retention", segment.segmentId(), retentionDays);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Telemetry segment retention failed, will retry on next run: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private TelemetrySegment newSegment(int segmentId) {
+        Path file = directory.resolve(String.format("segment-%010d.seg", segmentId));
+        TelemetrySegment segment = TelemetrySegment.open(file, segmentId, recordsPerSegment);
+        segments.put(segmentId, segment);
+        return segment;
+    }
+
+    private static void offer(PriorityQueue<Candidate> newest, Candidate candidate, int limit) {
+        if (limit <= 0) {
+            return;
+        }
+        if (newest.size() < limit) {
+            newest.add(candidate);
+        } else if (OLDEST_FIRST.compare(candidate, newest.peek()) > 0) {
+            newest.poll();
+            newest.add(candidate);
+        }
+    }
+
+    // Shortest decimal that round-trips the float, so 5.3f reads back as 5.3
+    private static double toDouble(float temperature) {
+        return Double.parseDouble(Float.toString(temperature));
+    }
+
+    /** Materialises the kept candidates newest first; called under the read lock. */
+    private List<TelemetryRecord> toRecords(Long deviceId, PriorityQueue<Candidate> newest) {
+        IotDevice device = IotDevice.builder().deviceId(deviceId).build();
+        List<Candidate> ordered = new ArrayList<>(newest);
+        ordered.sort(OLDEST_FIRST.reversed());
+        List<TelemetryRecord> records = new ArrayList<>(ordered.size());
+        for (Candidate candidate : ordered) {
+            TelemetrySegment segment = segments.get(TelemetrySegment.segmentIdOf(candidate.telemetryId()));
+            int slot = TelemetrySegment.slotOf(candidate.telemetryId());
+            records.add(TelemetryRecord.builder()
+                    .telemetryId(candidate.telemetryId())
+                    .device(device)
+                    .temperature(toDouble(segment.temperature(slot)))
+                    .recordedAt(TelemetrySegment.toDateTime(candidate.micros()))
+                    .isAlert(segment.alert(slot))
+                    .build());
+        }
+        return records;
+    }
+}
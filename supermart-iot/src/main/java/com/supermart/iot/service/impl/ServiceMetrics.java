@@ -0,0 +1,127 @@
+package com.supermart.iot.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Micrometer meters for the ingest, incident and dashboard hot paths.
+ *
+ * <ul>
+ *   <li>{@code supermart.telemetry.ingest.phase} — timer per ingest phase, tagged
+ *       {@code phase}; see {@link Phase}. With write-behind the persistence phases
+ *       are timed on the writer threads.</li>
+ *   <li>{@code supermart.telemetry.rate.limited} — readings rejected by
+ *       {@link TelemetryRateLimiter}, tagged {@code path} {@code single} or {@code batch}.</li>
+ *   <li>{@code supermart.incidents.auto.opened} — {@code TEMP_EXCEEDED} incidents
+ *       opened by ingest.</li>
+ *   <li>{@code supermart.telemetry.write.behind.dropped} — readings accepted into
+ *       {@link TelemetryWriteBehindQueue} that were never written.</li>
+ *   <li>{@code supermart.device.summary.queries} — latest-reading lookups made to
+ *       build device summaries, tagged {@code mode} {@code single} or {@code bulk};
+ *       {@code supermart.device.summary.devices} is the number of devices each
+ *       lookup covered.</li>
+ * </ul>
+ *
+ * <p>Meters are registered once here, so the hot paths only touch prebuilt
+ * instances. Timers publish percentile histograms for Prometheus.</p>
+ */
+@Component
+public class ServiceMetrics {
+
+    /** The timed steps of telemetry ingest, in order. */
+    public enum Phase {
+        /** Device resolution through {@link DeviceMetadataCache}. */
+        LOOKUP,
+        /** The {@link TelemetryRateLimiter} check. */
+        RATE_LIMIT,
+        /** Hand-off to {@link TelemetryWriteBehindQueue}, when enabled. */
+        ENQUEUE,
+        /** The telemetry append and rollup update. */
+        PERSIST,
+        /** Latest-reading projection and {@code FAULT} status updates. */
+        DEVICE_UPDATE,
+        /** The open-incident lookup and auto-creation for alerting devices. */
+        INCIDENT_CHECK
+    }
+
+    private final Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+    private final Counter rateLimitedSingle;
+    private final Counter rateLimitedBatch;
+    private final Counter incidentsAutoCreated;
+    private final Counter writeBehindDropped;
+    private final Counter summaryQueriesSingle;
+    private final Counter summaryQueriesBulk;
+    private final DistributionSummary summaryDevices;
+
+    public ServiceMetrics(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, Timer.builder("supermart.telemetry.ingest.phase")
+                    .description("Time spent in one phase of telemetry ingest")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        rateLimitedSingle = rateLimited(registry, "single");
+        rateLimitedBatch = rateLimited(registry, "batch");
+        incidentsAutoCreated = Counter.builder("supermart.incidents.auto.opened")
+                .description("TEMP_EXCEEDED incidents opened by telemetry ingest")
+                .register(registry);
+        writeBehindDropped = Counter.builder("supermart.telemetry.write.behind.dropped")
+                .description("Telemetry readings accepted for write-behind that were never written")
+                .register(registry);
+        summaryQueriesSingle = summaryQueries(registry, "single");
+        summaryQueriesBulk = summaryQueries(registry, "bulk");
+        summaryDevices = DistributionSummary.builder("supermart.device.summary.devices")
+                .description("Devices covered by one device-summary latest-reading lookup")
+                .baseUnit("devices")
+                .register(registry);
+    }
+
+    private static Counter rateLimited(MeterRegistry registry, String path) {
+        return Counter.builder("supermart.telemetry.rate.limited")
+                .description("Telemetry readings rejected by the per-device rate limit")
+                .tag("path", path)
+                .register(registry);
+    }
+
+    private static Counter summaryQueries(MeterRegistry registry, String mode) {
+        return Counter.builder("supermart.device.summary.queries")
+                .description("Latest-reading lookups made to build device summaries")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    public Timer phase(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public void rateLimited(boolean batch) {
+        (batch ? rateLimitedBatch : rateLimitedSingle).increment();
+    }
+
+    public void incidentAutoCreated() {
+        incidentsAutoCreated.increment();
+    }
+
+    public void writeBehindDropped(int readings) {
+        writeBehindDropped.increment(readings);
+    }
+
+    /** Readings dropped by {@link TelemetryWriteBehindQueue} since startup. */
+    public long getWriteBehindDropped() {
+        return (long) writeBehindDropped.count();
+    }
+
+    /** Records one latest-reading lookup covering {@code devices} devices. */
+    public void summaryQuery(boolean bulk, int devices) {
+        (bulk ? summaryQueriesBulk : summaryQueriesSingle).increment();
+        summaryDevices.record(devices);
+    }
+}
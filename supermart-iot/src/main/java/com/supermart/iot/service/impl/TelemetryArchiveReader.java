@@ -0,0 +1,137 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.archive.ArchivedReading;
+import com.supermart.iot.archive.TelemetryBlockCodec;
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryArchiveBlock;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.repository.TelemetryArchiveBlockRepository;
+import com.supermart.iot.repository.TelemetryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reads a device's archived telemetry back as {@link TelemetryRecord}s, so
+ * history queries can merge it with the readings still in the telemetry store.
+ *
+ * <p>Blocks are found by their {@code (device_id, block_date)} key and decoded
+ * one at a time, newest first, stopping once enough readings are collected.
+ * Returned records are detached; their device carries only its id.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class TelemetryArchiveReader {
+
+    /** History order: {@code (recorded_at DESC, telemetry_id DESC)}. */
+    public static final Comparator<TelemetryRecord> NEWEST_FIRST = Comparator
+            .comparing(TelemetryRecord::getRecordedAt)
+            .thenComparing(TelemetryRecord::getTelemetryId)
+            .reversed();
+
+    private final TelemetryArchiveBlockRepository blockRepository;
+
+    /** Whether any of the device's readings in {@code [from, to]} may be archived. */
+    public boolean hasBlocks(Long deviceId, LocalDateTime from, LocalDateTime to) {
+        return blockRepository.existsInRange(deviceId, fromDate(from), toDate(to));
+    }
+
+    /**
+     * Up to {@code limit} archived readings at or after {@code from} that sort
+     * strictly after {@code (beforeAt, beforeId)} in history order.
+     *
+     * @param from     inclusive lower bound, or {@code null}
+     * @param beforeAt upper bound; readings at exactly this instant need an id below {@code beforeId}
+     */
+    public List<TelemetryRecord> readNewestFirst(Long deviceId, LocalDateTime from, LocalDateTime beforeAt,
+                                                 long beforeId, int limit) {
+        LocalDateTime lower = from != null ? from : TelemetryRepository.EARLIEST_RECORDED_AT;
+        List<Long> blockIds = blockRepository.findOverlappingIds(deviceId,
+                fromDate(lower), toDate(beforeAt), lower, beforeAt);
+        List<TelemetryRecord> records = new ArrayList<>();
+        IotDevice device = IotDevice.builder().deviceId(deviceId).build();
+        for (Long blockId : blockIds) {
+            // Blocks cover disjoint days, so once a block fills the limit older ones cannot contribute
+            if (records.size() >= limit) {
+                break;
+            }
+            List<ArchivedReading> readings = TelemetryBlockCodec.decode(blockRepository.findPayload(blockId));
+            for (int i = readings.size() - 1; i >= 0 && records.size() < limit; i--) {
+                ArchivedReading reading = readings.get(i);
+                if (reading.recordedAt().isBefore(lower)) {
+                    break;
+                }
+                if (isBefore(reading, beforeAt, beforeId)) {
+                    records.add(toRecord(reading, device));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Number of archived readings in {@code [from, to]}. Blocks inside the range
+     * are counted from their header; only the edge blocks are decoded.
+     */
+    public long count(Long deviceId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime lower = from != null ? from : TelemetryRepository.EARLIEST_RECORDED_AT;
+        LocalDateTime upper = to != null ? to : TelemetryRepository.LATEST_RECORDED_AT;
+        LocalDate fromDate = fromDate(lower);
+        LocalDate toDate = toDate(upper);
+        long count = blockRepository.sumContainedSamples(deviceId, fromDate, toDate, lower, upper);
+        for (TelemetryArchiveBlock block : blockRepository.findStraddling(deviceId, fromDate, toDate, lower, upper)) {
+            count += TelemetryBlockCodec.decode(block.getPayload()).stream()
+                    .filter(r -> !r.recordedAt().isBefore(lower) && !r.recordedAt().isAfter(upper))
+                    .count();
+        }
+        return count;
+    }
+
+    /** The first {@code limit} readings of two newest-first lists, in history order. */
+    public static List<TelemetryRecord> mergeNewestFirst(List<TelemetryRecord> hot, List<TelemetryRecord> archived,
+                                                         int limit) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<TelemetryRecord> merged = new ArrayList<>(Math.min(limit, hot.size() + archived.size()));
+        int h = 0;
+        int a = 0;
+        while (merged.size() < limit && (h < hot.size() || a < archived.size())) {
+            if (a == archived.size() || (h < hot.size()
+                    && NEWEST_FIRST.compare(hot.get(h), archived.get(a)) <= 0)) {
+                merged.add(hot.get(h++));
+            } else {
+                merged.add(archived.get(a++));
+            }
+        }
+        return merged;
+    }
+
+    private static boolean isBefore(ArchivedReading reading, LocalDateTime beforeAt, long beforeId) {
+        int cmp = reading.recordedAt().compareTo(beforeAt);
+        return cmp < 0 || (cmp == 0 && reading.telemetryId() < beforeId);
+    }
+
+    private static TelemetryRecord toRecord(ArchivedReading reading, IotDevice device) {
+        return TelemetryRecord.builder()
+                .telemetryId(reading.telemetryId())
+                .device(device)
+                .temperature(reading.temperature())
+                .recordedAt(reading.recordedAt())
+                .isAlert(reading.alert())
+                .build();
+    }
+
+    private static LocalDate fromDate(LocalDateTime from) {
+        return (from != null ? from : TelemetryRepository.EARLIEST_RECORDED_AT).toLocalDate();
+    }
+
+    private static LocalDate toDate(LocalDateTime to) {
+        return (to != null ? to : TelemetryRepository.LATEST_RECORDED_AT).toLocalDate();
+    }
+}
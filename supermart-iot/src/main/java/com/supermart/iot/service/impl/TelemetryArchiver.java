@@ -0,0 +1,156 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.archive.ArchivedReading;
+import com.supermart.iot.archive.TelemetryBlockCodec;
+import com.supermart.iot.entity.TelemetryArchiveBlock;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.TelemetryArchiveBlockRepository;
+import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.service.TelemetryStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves closed days of telemetry out of the {@link TelemetryStore} into
+ * compressed {@link TelemetryArchiveBlock}s (see migration {@code V7}).
+ *
+ * <p>On {@code app.telemetry.archive.cron} every device's readings recorded
+ * before {@code after-days} ago are read through {@link TelemetryStore#range},
+ * one device at a time, and archived one transaction per device-day: the day's
+ * readings are encoded, merged into any existing block for that day (late
+ * arrivals) and then {@link TelemetryStore#remove removed} from the store. A
+ * device with nothing to archive costs one index seek, so missed runs and old
+ * backlogs, such as the pre-partitioning {@code p_history} range, are caught up
+ * by the next run. With the {@code jdbc} store readers never see a reading twice
+ * or not at all; the {@code segment} store drops archived readings just after
+ * the block commits, so a reader may briefly see them twice.</p>
+ *
+ * <p>Rollups and the latest-reading projection are separate tables and are not
+ * affected. Enable with {@code app.telemetry.archive.enabled=true}. With
+ * partitioning enabled, startup fails unless {@code after-days} is below the
+ * partition {@code retention-days}; {@link TelemetryPartitionManager} then only
+ * drops partitions already emptied here.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.telemetry.archive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TelemetryArchiver {
+
+    private static final int DEVICE_CHUNK_SIZE = 500;
+
+    private final TelemetryStore telemetryStore;
+    private final IotDeviceRepository deviceRepository;
+    private final TelemetryArchiveBlockRepository blockRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.telemetry.archive.after-days:30}")
+    private int afterDays;
+
+    @Value("${app.telemetry.partitioning.enabled:false}")
+    private boolean partitioningEnabled;
+
+    @Value("${app.telemetry.partitioning.retention-days:90}")
+    private int retentionDays;
+
+    @PostConstruct
+    void validateSettings() {
+        if (partitioningEnabled && afterDays >= retentionDays) {
+            throw new IllegalStateException("app.telemetry.archive.after-days (" + afterDays
+                    + ") must be below app.telemetry.partitioning.retention-days (" + retentionDays
+                    + "), or partitions would be due for dropping before their days are archived.");
+        }
+    }
+
+    @Scheduled(cron = "${app.telemetry.archive.cron:0 45 0 * * *}")
+    public void archive() {
+        LocalDate cutoff = LocalDate.now().minusDays(afterDays);
+        int archived = archiveBetween(TelemetryRepository.EARLIEST_RECORDED_AT, cutoff.atStartOfDay());
+        if (archived > 0) {
+            log.info("Archived {} telemetry readings recorded before {}", archived, cutoff);
+        }
+    }
+
+    /**
+     * Archives every reading recorded on {@code day}.
+     *
+     * @return the number of readings moved
+     */
+    public int archiveDay(LocalDate day) {
+        return archiveBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    /** Archives the readings in {@code [from, until)}, device by device. */
+    private int archiveBetween(LocalDateTime from, LocalDateTime until) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int archived = 0;
+        long afterId = Long.MIN_VALUE;
+        List<Long> chunk;
+        while (!(chunk = deviceRepository.findDeviceIdsAfter(afterId, Limit.of(DEVICE_CHUNK_SIZE))).isEmpty()) {
+            for (Long deviceId : chunk) {
+                try {
+                    archived += archiveDevice(transaction, deviceId, from, until);
+                } catch (DataAccessException e) {
+                    log.warn("Telemetry archiving of device {} failed, will retry on next run: {}",
+                            deviceId, e.getMessage());
+                }
+            }
+            afterId = chunk.get(chunk.size() - 1);
+        }
+        return archived;
+    }
+
+    private int archiveDevice(TransactionTemplate transaction, Long deviceId, LocalDateTime from,
+                              LocalDateTime until) {
+        List<ArchivedReading> day = new ArrayList<>();
+        int[] archived = {0};
+        // range is inclusive; DATETIME(6) makes the last microsecond before until the upper bound
+        telemetryStore.range(deviceId, from, until.minusNanos(1000), (telemetryId, recordedAt, temperature, alert) -> {
+            if (!day.isEmpty() && !day.get(0).recordedAt().toLocalDate().equals(recordedAt.toLocalDate())) {
+                archived[0] += archiveDeviceDay(transaction, deviceId, day);
+                day.clear();
+            }
+            day.add(new ArchivedReading(telemetryId, recordedAt, temperature, alert));
+        });
+        if (!day.isEmpty()) {
+            archived[0] += archiveDeviceDay(transaction, deviceId, day);
+        }
+        return archived[0];
+    }
+
+    /** Merges one device-day of stored readings into its block and removes them from the store. */
+    private int archiveDeviceDay(TransactionTemplate transaction, Long deviceId, List<ArchivedReading> stored) {
+        LocalDate date = stored.get(0).recordedAt().toLocalDate();
+        List<Long> storedIds = stored.stream().map(ArchivedReading::telemetryId).toList();
+        transaction.executeWithoutResult(status -> {
+            TelemetryArchiveBlock block = blockRepository.findByDeviceIdAndBlockDate(deviceId, date)
+                    .orElseGet(() -> TelemetryArchiveBlock.builder().deviceId(deviceId).blockDate(date).build());
+            List<ArchivedReading> readings = new ArrayList<>(stored);
+            if (block.getPayload() != null) {
+                readings.addAll(TelemetryBlockCodec.decode(block.getPayload()));
+            }
+            readings.sort(TelemetryBlockCodec.ORDER);
+            block.setFirstRecordedAt(readings.get(0).recordedAt());
+            block.setLastRecordedAt(readings.get(readings.size() - 1).recordedAt());
+            block.setSampleCount(readings.size());
+            block.setPayload(TelemetryBlockCodec.encode(readings));
+            blockRepository.save(block);
+            telemetryStore.remove(storedIds);
+        });
+        return storedIds.size();
+    }
+}
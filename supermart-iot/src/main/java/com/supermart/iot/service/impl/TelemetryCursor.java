@@ -0,0 +1,45 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a device's telemetry history, ordered by
+ * {@code (recorded_at DESC, telemetry_id DESC)}: the next page starts strictly
+ * after the reading it names.
+ *
+ * <p>Clients only ever see the opaque URL-safe token from {@link #encode()}.</p>
+ */
+public record TelemetryCursor(LocalDateTime recordedAt, long telemetryId) {
+
+    private static final String VERSION = "v1";
+
+    public static TelemetryCursor after(TelemetryRecord record) {
+        return new TelemetryCursor(record.getRecordedAt(), record.getTelemetryId());
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + recordedAt + "|" + telemetryId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static TelemetryCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("unexpected cursor layout");
+            }
+            return new TelemetryCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid telemetry cursor.");
+        }
+    }
+}
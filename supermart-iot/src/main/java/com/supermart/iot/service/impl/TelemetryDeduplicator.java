@@ -0,0 +1,214 @@
+package com.supermart.iot.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.supermart.iot.dto.response.TelemetryResponse;
+import com.supermart.iot.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Suppresses gateway retries of telemetry readings.
+ *
+ * <p>A reading is deduplicated when the client identifies it, either with an
+ * {@code Idempotency-Key} header or a per-device {@code sequence} number in the
+ * body. The first request with a key stores its response here for
+ * {@code app.telemetry.dedup.window-seconds}; a retry within that window gets the
+ * same response back without being rate-limited, evaluated or written again.
+ * A response is only stored once its reading is written: for a reading queued
+ * for write-behind that is when the queue commits it, so a retry that arrives
+ * while the original is still running or its write is pending waits for it. A
+ * failed original, or one whose queued write is dropped, is forgotten, so its
+ * retry is processed normally.</p>
+ *
+ * <p>The window is a bounded Caffeine cache of response futures keyed by
+ * {@code (deviceId, key)}, so memory is capped at {@code max-entries} however
+ * many devices report. Readings without a key are never deduplicated.</p>
+ */
+@Component
+public class TelemetryDeduplicator {
+
+    static final int MAX_KEY_LENGTH = 128;
+
+    private final Cache<Key, CompletableFuture<TelemetryResponse>> responses;
+
+    public TelemetryDeduplicator(@Value("${app.telemetry.dedup.window-seconds:600}") long windowSeconds,
+                                 @Value("${app.telemetry.dedup.max-entries:200000}") long maxEntries) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+
+    /** A reading's identity within one device. */
+    record Key(long deviceId, String value) {
+    }
+
+    /**
+     * The deduplication key for a reading, or {@code null} if the client sent neither.
+     * The header wins over the sequence number.
+     *
+     * @throws BadRequestException if the idempotency key is blank or too long
+     */
+    public static String keyOf(String idempotencyKey, Long sequence) {
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+                throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+            }
+            return "k:" + idempotencyKey;
+        }
+        return sequence != null ? "s:" + sequence : null;
+    }
+
+    /**
+     * Runs {@code ingest}, which writes the reading before returning, unless the
+     * reading was already ingested, in which case the original response is returned.
+     *
+     * @param key from {@link #keyOf}; {@code null} always runs {@code ingest}
+     */
+    public TelemetryResponse execute(long deviceId, String key, Supplier<TelemetryResponse> ingest) {
+        return execute(deviceId, key, written -> {
+            TelemetryResponse response = ingest.get();
+            written.complete(null);
+            return response;
+        });
+    }
+
+    /**
+     * Runs {@code ingest} unless the reading was already ingested, in which case
+     * the original response is returned.
+     *
+     * <p>{@code ingest} receives a future to complete once the reading is written,
+     * or exceptionally if it never will be; it may return before then. The
+     * response is replayed to retries only after a normal completion.</p>
+     *
+     * @param key from {@link #keyOf}; {@code null} always runs {@code ingest}
+     */
+    public TelemetryResponse execute(long deviceId, String key,
+                                     Function<CompletableFuture<Void>, TelemetryResponse> ingest) {
+        if (key == null) {
+            return ingest.apply(new CompletableFuture<>());
+        }
+        Key id = new Key(deviceId, key);
+        ConcurrentMap<Key, CompletableFuture<TelemetryResponse>> map = responses.asMap();
+        while (true) {
+            CompletableFuture<TelemetryResponse> mine = new CompletableFuture<>();
+            CompletableFuture<TelemetryResponse> existing = map.putIfAbsent(id, mine);
+            if (existing == null) {
+                boolean succeeded = false;
+                try {
+                    CompletableFuture<Void> written = new CompletableFuture<>();
+                    TelemetryResponse response = ingest.apply(written);
+                    succeeded = true;
+                    written.whenComplete((ignored, failure) -> {
+                        if (failure == null) {
+                            mine.complete(response);
+                        } else {
+                            forget(id, mine);
+                        }
+                    });
+                    return response;
+                } finally {
+                    if (!succeeded) {
+                        forget(id, mine);
+                    }
+                }
+            }
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // The original failed and was forgotten; try to become the original
+            }
+        }
+    }
+
+    /**
+     * Starts deduplicating a batch. Reservations are settled when the surrounding
+     * transaction completes: published on commit, forgotten on rollback. Outside
+     * a transaction they are settled by {@link Batch#settle()}.
+     */
+    public Batch batch() {
+        return new Batch();
+    }
+
+    private void forget(Key id, CompletableFuture<TelemetryResponse> future) {
+        responses.asMap().remove(id, future);
+        future.completeExceptionally(new IllegalStateException("Original telemetry request failed"));
+    }
+
+    /** Reservations of the keyed readings in one batch request. */
+    public final class Batch {
+
+        private final Map<Key, CompletableFuture<TelemetryResponse>> reserved = new HashMap<>();
+        private final Map<Key, TelemetryResponse> ingested = new HashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Reserves the key for this batch.
+         *
+         * @return empty if this batch now owns the reading; otherwise the earlier
+         *         request's future, completed if its response can be replayed
+         */
+        public Optional<CompletableFuture<TelemetryResponse>> reserve(long deviceId, String key) {
+            Key id = new Key(deviceId, key);
+            CompletableFuture<TelemetryResponse> mine = new CompletableFuture<>();
+            CompletableFuture<TelemetryResponse> existing = responses.asMap().putIfAbsent(id, mine);
+            if (existing != null) {
+                return Optional.of(existing);
+            }
+            reserved.put(id, mine);
+            return Optional.empty();
+        }
+
+        /** Records the response of a reading reserved by this batch. */
+        public void ingested(long deviceId, String key, TelemetryResponse response) {
+            ingested.put(new Key(deviceId, key), response);
+        }
+
+        /**
+         * Publishes ingested responses and forgets the other reservations — after
+         * the transaction completes if one is active, otherwise now. Call once, in
+         * a {@code finally} block.
+         */
+        public void settle() {
+            if (reserved.isEmpty()) {
+                return;
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        publish(status == STATUS_COMMITTED);
+                    }
+                });
+            } else {
+                publish(true);
+            }
+        }
+
+        private void publish(boolean committed) {
+            reserved.forEach((id, future) -> {
+                TelemetryResponse response = committed ? ingested.get(id) : null;
+                if (response != null) {
+                    future.complete(response);
+                } else {
+                    forget(id, future);
+                }
+            });
+        }
+    }
+}
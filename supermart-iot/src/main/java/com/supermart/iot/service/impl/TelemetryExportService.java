@@ -0,0 +1,235 @@
+package com.supermart.iot.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supermart.iot.archive.ArchivedReading;
+import com.supermart.iot.archive.TelemetryBlockCodec;
+import com.supermart.iot.enums.ExportFormat;
+import com.supermart.iot.exception.BadRequestException;
+import com.supermart.iot.exception.ResourceNotFoundException;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.IotDeviceRepository.ExportDevice;
+import com.supermart.iot.repository.StoreRepository;
+import com.supermart.iot.repository.TelemetryArchiveBlockRepository;
+import com.supermart.iot.service.TelemetryStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams raw telemetry for audits as CSV or NDJSON.
+ *
+ * <p>Readings go from {@link TelemetryStore#range}, one device at a time,
+ * through a buffered writer straight to the response, so no entity is loaded
+ * and memory use does not grow with the length of the range. Scope and range
+ * are validated before the response starts; errors after that point can only
+ * abort the stream.</p>
+ *
+ * <p>Archived readings ({@link TelemetryArchiveBlockRepository#streamBlocks}) are
+ * written first, decoded one block at a time, followed by the readings still in
+ * the telemetry store; each section is in device and time order.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TelemetryExportService {
+
+    static final String CSV_HEADER = "telemetry_id,device_id,device_serial,store_id,unit_id,recorded_at,temperature,is_alert";
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmm");
+
+    private final TelemetryStore telemetryStore;
+    private final TelemetryArchiveBlockRepository archiveBlockRepository;
+    private final IotDeviceRepository deviceRepository;
+    private final StoreRepository storeRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.telemetry.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /** A validated export, ready to be written to the response. */
+    public record TelemetryExport(String filename, MediaType contentType, StreamingResponseBody body) {
+    }
+
+    /**
+     * Validates the request and prepares the export.
+     *
+     * @param deviceId   one device, or {@code null}
+     * @param storeId    every device of one store, or {@code null}; both {@code null} exports the fleet
+     * @param from       inclusive
+     * @param to         inclusive; defaults to now
+     * @param formatCode {@code csv} or {@code ndjson}
+     * @param gzip       compress the body; the file is then served as {@code application/gzip}
+     */
+    public TelemetryExport prepare(Long deviceId, Long storeId, LocalDateTime from, LocalDateTime to,
+                                   String formatCode, boolean gzip) {
+        ExportFormat format = ExportFormat.fromCode(formatCode)
+                .orElseThrow(() -> new BadRequestException("Unsupported format '" + formatCode + "'. Use csv or ndjson."));
+        if (deviceId != null && storeId != null) {
+            throw new BadRequestException("Specify either 'deviceId' or 'storeId', not both.");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (from.isAfter(end)) {
+            throw new BadRequestException("'from' date must be before 'to' date.");
+        }
+        if (deviceId != null && !deviceRepository.existsById(deviceId)) {
+            throw new ResourceNotFoundException("IoT device with id " + deviceId + " not found.");
+        }
+        if (storeId != null && !storeRepository.existsById(storeId)) {
+            throw new ResourceNotFoundException("Store with id " + storeId + " not found.");
+        }
+
+        String scope = deviceId != null ? "device-" + deviceId : storeId != null ? "store-" + storeId : "fleet";
+        String filename = "telemetry-" + scope + "-" + FILE_TIMESTAMP.format(from) + "-" + FILE_TIMESTAMP.format(end)
+                + "." + format.getCode() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8");
+        StreamingResponseBody body = out -> write(out, deviceId, storeId, from, end, format, gzip);
+        return new TelemetryExport(filename, contentType, body);
+    }
+
+    void write(OutputStream out, Long deviceId, Long storeId, LocalDateTime from, LocalDateTime to,
+               ExportFormat format, boolean gzip) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, WRITE_BUFFER_CHARS) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(compressed != null ? compressed : out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        RowWriter rows = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        try {
+            rows.begin();
+            archiveBlockRepository.streamBlocks(deviceId, storeId, from.toLocalDate(), to.toLocalDate(), fetchSize, rs -> {
+                long blockDeviceId = rs.getLong(1);
+                String serial = rs.getString(2);
+                long blockStoreId = rs.getLong(3);
+                long unitId = rs.getLong(4);
+                try {
+                    for (ArchivedReading reading : TelemetryBlockCodec.decode(rs.getBytes(5))) {
+                        if (!reading.recordedAt().isBefore(from) && !reading.recordedAt().isAfter(to)) {
+                            rows.write(reading.telemetryId(), blockDeviceId, serial, blockStoreId, unitId,
+                                    reading.recordedAt(), reading.temperature(), reading.alert());
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            for (ExportDevice device : deviceRepository.findExportDevices(deviceId, storeId)) {
+                telemetryStore.range(device.getDeviceId(), from, to, (telemetryId, recordedAt, temperature, alert) -> {
+                    try {
+                        rows.write(telemetryId, device.getDeviceId(), device.getDeviceSerial(), device.getStoreId(),
+                                device.getUnitId(), recordedAt, temperature, alert);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            rows.end();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+    }
+
+    private interface RowWriter {
+
+        default void begin() throws IOException {
+        }
+
+        void write(long telemetryId, long deviceId, String deviceSerial, long storeId, long unitId,
+                   LocalDateTime recordedAt, double temperature, boolean alert) throws IOException;
+
+        default void end() throws IOException {
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(long telemetryId, long deviceId, String deviceSerial, long storeId, long unitId,
+                          LocalDateTime recordedAt, double temperature, boolean alert) throws IOException {
+            writer.write(Long.toString(telemetryId));
+            writer.write(',');
+            writer.write(Long.toString(deviceId));
+            writer.write(',');
+            writer.write(csvField(deviceSerial));
+            writer.write(',');
+            writer.write(Long.toString(storeId));
+            writer.write(',');
+            writer.write(Long.toString(unitId));
+            writer.write(',');
+            writer.write(recordedAt.toString());
+            writer.write(',');
+            writer.write(Double.toString(temperature));
+            writer.write(',');
+            writer.write(Boolean.toString(alert));
+            writer.write('\n');
+        }
+
+        private static String csvField(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Each object ends its own line; the default separator would indent the next one
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(long telemetryId, long deviceId, String deviceSerial, long storeId, long unitId,
+                          LocalDateTime recordedAt, double temperature, boolean alert) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("telemetryId", telemetryId);
+            json.writeNumberField("deviceId", deviceId);
+            json.writeStringField("deviceSerial", deviceSerial);
+            json.writeNumberField("storeId", storeId);
+            json.writeNumberField("unitId", unitId);
+            json.writeStringField("recordedAt", recordedAt.toString());
+            json.writeNumberField("temperature", temperature);
+            json.writeBooleanField("isAlert", alert);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            json.flush();
+        }
+    }
+}
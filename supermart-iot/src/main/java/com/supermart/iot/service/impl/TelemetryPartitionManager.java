@@ -0,0 +1,243 @@
+package com.supermart.iot.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@code recorded_at} range partitions of {@code telemetry_records}
+ * on MySQL (see migration {@code V3}).
+ *
+ * <p>On startup and on {@code app.telemetry.partitioning.cron} it:</p>
+ * <ol>
+ *   <li>splits the {@code p_future} MAXVALUE partition so that bounded partitions
+ *       exist {@code precreate-count} intervals ahead. {@code REORGANIZE PARTITION}
+ *       copies the rows already in {@code p_future}: {@code V3} starts it at the day
+ *       after the migration, so the first split copies only readings ingested
+ *       since. From then on partitions exist ahead of time, {@code p_future} stays
+ *       empty and each split is cheap;</li>
+ *   <li>drops every partition whose upper bound is at or before
+ *       {@code today - retention-days}. Retention is therefore an O(1)
+ *       {@code DROP PARTITION} instead of a long-running {@code DELETE}. With
+ *       {@code app.telemetry.archive.enabled=true} a partition is dropped only once
+ *       it is empty, i.e. {@link TelemetryArchiver} has moved all of its rows
+ *       (including {@code p_history}) into archive blocks.</li>
+ * </ol>
+ *
+ * <p>Enabled only where the table is partitioned ({@code docker} profile). The
+ * startup run happens on a background thread, so a slow first split does not
+ * delay readiness, and runs on one node never overlap. If two nodes race, the
+ * loser's DDL fails harmlessly and is retried on the next run.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.telemetry.partitioning.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TelemetryPartitionManager {
+
+    static final String FUTURE_PARTITION = "p_future";
+
+    private static final String TABLE = "telemetry_records";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Lock maintenanceLock = new ReentrantLock();
+
+    @Value("${app.telemetry.partitioning.interval:DAILY}")
+    private PartitionInterval interval;
+
+    @Value("${app.telemetry.partitioning.precreate-count:7}")
+    private int precreateCount;
+
+    @Value("${app.telemetry.partitioning.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${app.telemetry.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    /** Partition width. Weekly partitions start on Monday. */
+    public enum PartitionInterval {
+        DAILY {
+            @Override
+            LocalDate floor(LocalDate date) {
+                return date;
+            }
+
+            @Override
+            LocalDate next(LocalDate date) {
+                return date.plusDays(1);
+            }
+        },
+        WEEKLY {
+            @Override
+            LocalDate floor(LocalDate date) {
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            }
+
+            @Override
+            LocalDate next(LocalDate date) {
+                return floor(date).plusWeeks(1);
+            }
+        };
+
+        abstract LocalDate floor(LocalDate date);
+
+        /** The first interval boundary strictly after {@code date}. */
+        abstract LocalDate next(LocalDate date);
+    }
+
+    /** A bounded range partition: rows with {@code lowerBound <= recorded_at < upperBound}. */
+    record Partition(String name, LocalDate upperBound) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        Thread startup = new Thread(this::maintain, "telemetry-partition-startup");
+        startup.setDaemon(true);
+        startup.start();
+    }
+
+    @Scheduled(cron = "${app.telemetry.partitioning.cron:0 15 0 * * *}")
+    public void maintain() {
+        if (!maintenanceLock.tryLock()) {
+            log.info("Telemetry partition maintenance is already running; skipping this run");
+            return;
+        }
+        try {
+            List<Partition> existing = loadBoundedPartitions();
+            if (existing == null) {
+                log.warn("{} is not partitioned; skipping partition maintenance", TABLE);
+                return;
+            }
+            LocalDate today = LocalDate.now();
+            LocalDate lastUpper = existing.isEmpty() ? interval.floor(today) : existing.get(existing.size() - 1).upperBound();
+
+            List<Partition> toCreate = planCreates(lastUpper, today);
+            if (!toCreate.isEmpty()) {
+                jdbcTemplate.execute(reorganizeSql(toCreate));
+                log.info("Created telemetry partitions {}", toCreate.stream().map(Partition::name).toList());
+            }
+            List<Partition> toDrop = planDrops(existing, today);
+            if (archiveEnabled) {
+                toDrop = emptyPartitions(toDrop);
+            }
+            if (!toDrop.isEmpty()) {
+                String names = toDrop.stream().map(Partition::name).collect(Collectors.joining(", "));
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + names);
+                log.info("Dropped telemetry partitions past {}-day retention: {}", retentionDays, names);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Telemetry partition maintenance failed, will retry on next run: {}", e.getMessage());
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    /**
+     * Bounded partitions that must be split out of {@code p_future}, oldest first.
+     *
+     * <p>Creation starts at {@code lastUpper} (the current lower bound of
+     * {@code p_future}) and continues until one partition ends after
+     * {@code floor(today) + precreate-count} intervals. If maintenance has not run
+     * for longer than the retention window, the first partition is widened to the
+     * retention cutoff instead of back-filling one partition per missed interval.</p>
+     */
+    List<Partition> planCreates(LocalDate lastUpper, LocalDate today) {
+        LocalDate horizon = interval.floor(today);
+        for (int i = 0; i < precreateCount; i++) {
+            horizon = interval.next(horizon);
+        }
+        LocalDate cutoff = retentionCutoff(today);
+        List<Partition> partitions = new ArrayList<>();
+        LocalDate lower = lastUpper;
+        LocalDate upper = interval.next(lower.isBefore(cutoff) ? interval.floor(cutoff) : lower);
+        while (!lower.isAfter(horizon)) {
+            partitions.add(new Partition(partitionName(lower), upper));
+            lower = upper;
+            upper = interval.next(upper);
+        }
+        return partitions;
+    }
+
+    /** Bounded partitions whose rows are all older than the retention window. */
+    List<Partition> planDrops(List<Partition> existing, LocalDate today) {
+        LocalDate cutoff = retentionCutoff(today);
+        return existing.stream()
+                .filter(p -> !p.upperBound().isAfter(cutoff))
+                .toList();
+    }
+
+    /** The partitions with no rows left; the others still hold readings the archiver has not reached. */
+    List<Partition> emptyPartitions(List<Partition> partitions) {
+        List<Partition> empty = new ArrayList<>();
+        for (Partition partition : partitions) {
+            List<Integer> row = jdbcTemplate.queryForList(
+                    "SELECT 1 FROM " + TABLE + " PARTITION (" + partition.name() + ") LIMIT 1", Integer.class);
+            if (row.isEmpty()) {
+                empty.add(partition);
+            } else {
+                log.info("Keeping telemetry partition {} past retention until its readings are archived",
+                        partition.name());
+            }
+        }
+        return empty;
+    }
+
+    private LocalDate retentionCutoff(LocalDate today) {
+        return today.minusDays(retentionDays);
+    }
+
+    static String partitionName(LocalDate lowerBound) {
+        return "p" + lowerBound.format(NAME_FORMAT);
+    }
+
+    static String reorganizeSql(List<Partition> partitions) {
+        StringBuilder sql = new StringBuilder("ALTER TABLE " + TABLE + " REORGANIZE PARTITION ")
+                .append(FUTURE_PARTITION).append(" INTO (");
+        for (Partition partition : partitions) {
+            sql.append("PARTITION ").append(partition.name())
+                    .append(" VALUES LESS THAN ('").append(partition.upperBound()).append(" 00:00:00'), ");
+        }
+        return sql.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))").toString();
+    }
+
+    /**
+     * @return bounded partitions ordered by position, or {@code null} if the table is not partitioned
+     */
+    private List<Partition> loadBoundedPartitions() {
+        List<String[]> rows = jdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, i) -> new String[]{rs.getString(1), rs.getString(2)}, TABLE);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        List<Partition> partitions = new ArrayList<>();
+        for (String[] row : rows) {
+            if (!"MAXVALUE".equalsIgnoreCase(row[1])) {
+                // RANGE COLUMNS descriptions are quoted literals, e.g. '2026-03-02 00:00:00'
+                String literal = row[1].replace("'", "");
+                partitions.add(new Partition(row[0], LocalDate.parse(literal.substring(0, 10))));
+            }
+        }
+        return partitions;
+    }
+}
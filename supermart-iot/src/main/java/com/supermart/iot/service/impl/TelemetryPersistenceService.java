@@ -0,0 +1,151 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.Incident;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.enums.IncidentStatus;
+import com.supermart.iot.enums.IncidentType;
+import com.supermart.iot.repository.DeviceLatestTelemetryRepository;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.IotDeviceRepository.DeviceStatusRow;
+import com.supermart.iot.repository.IncidentRepository;
+import com.supermart.iot.service.TelemetryStore;
+import com.supermart.iot.service.impl.ServiceMetrics.Phase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Persists already-evaluated telemetry readings and applies their side effects.
+ *
+ * <p>Shared by the synchronous ingest paths and the write-behind writer threads.
+ * Each call appends the readings to the {@link TelemetryStore}, folds them into the
+ * minute/hour/day rollups ({@link TelemetryRollupService}), advances each device's
+ * latest-reading projection, moves newly alerting
+ * devices to {@code FAULT} with a targeted status update (counting only rows it
+ * actually changed) and opens at most one
+ * {@code TEMP_EXCEEDED} incident per alerting device, reporting each change to
+ * {@link DashboardCounters} and {@link DashboardBroadcaster}. Heartbeats
+ * ({@code lastSeenAt}) are not written here; see {@link DeviceHeartbeatTracker}.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TelemetryPersistenceService {
+
+    private final TelemetryStore telemetryStore;
+    private final IotDeviceRepository deviceRepository;
+    private final IncidentRepository incidentRepository;
+    private final DeviceMetadataCache deviceCache;
+    private final TelemetryRollupService rollupService;
+    private final DeviceLatestTelemetryRepository latestTelemetryRepository;
+    private final DashboardCounters dashboardCounters;
+    private final DashboardBroadcaster dashboardBroadcaster;
+    private final ServiceMetrics metrics;
+
+    /**
+     * Writes the readings and their device/incident side effects in one transaction.
+     *
+     * <p>Only {@code device.deviceId} is read from each record's device, so id-only
+     * references from another thread are fine; thresholds and status come from
+     * {@link DeviceMetadataCache}.</p>
+     *
+     * @param records readings with {@code isAlert} already evaluated; ids are assigned in place
+     */
+    @Transactional
+    public void write(List<TelemetryRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        metrics.phase(Phase.PERSIST).record(() -> {
+            telemetryStore.append(records);
+            rollupService.accumulate(records);
+        });
+        List<TelemetryRecord> newest = newestPerDevice(records);
+        metrics.phase(Phase.DEVICE_UPDATE).record(() -> latestTelemetryRepository.advance(newest));
+
+        Map<Long, Double> firstAlertTemperature = new LinkedHashMap<>();
+        List<LocalDateTime> alertTimes = new ArrayList<>();
+        for (TelemetryRecord record : records) {
+            if (Boolean.TRUE.equals(record.getIsAlert())) {
+                firstAlertTemperature.putIfAbsent(record.getDevice().getDeviceId(), record.getTemperature());
+                alertTimes.add(record.getRecordedAt());
+            }
+        }
+        dashboardBroadcaster.devicesChanged(firstAlertTemperature.keySet(),
+                newest.stream().map(record -> record.getDevice().getDeviceId()).toList());
+        if (firstAlertTemperature.isEmpty()) {
+            return;
+        }
+        dashboardCounters.recordAlerts(alertTimes);
+
+        Map<Long, DeviceSnapshot> devices = deviceCache.findAllById(firstAlertTemperature.keySet());
+        // Devices already in FAULT need no status write — skipping them avoids a row lock per reading
+        List<DeviceSnapshot> newlyFaulted = devices.values().stream()
+                .filter(device -> device.status() != DeviceStatus.FAULT)
+                .toList();
+        if (!newlyFaulted.isEmpty()) {
+            // The cache may be stale: only rows this transaction actually changed count as transitions
+            List<DeviceStatusRow> changed = metrics.phase(Phase.DEVICE_UPDATE).record(() ->
+                    deviceRepository.transitionToFault(newlyFaulted.stream().map(DeviceSnapshot::deviceId).toList()));
+            newlyFaulted.forEach(device -> deviceCache.invalidate(device.deviceId()));
+            changed.forEach(row -> dashboardCounters.deviceStatusChanged(row.getStatus(), DeviceStatus.FAULT));
+        }
+
+        metrics.phase(Phase.INCIDENT_CHECK).record(() -> firstAlertTemperature.forEach((deviceId, temperature) -> {
+            DeviceSnapshot device = devices.get(deviceId);
+            if (device != null) {
+                openIncidentIfAbsent(device, temperature);
+            }
+        }));
+    }
+
+    private static List<TelemetryRecord> newestPerDevice(List<TelemetryRecord> records) {
+        Comparator<TelemetryRecord> order = Comparator.comparing(TelemetryRecord::getRecordedAt)
+                .thenComparing(TelemetryRecord::getTelemetryId);
+        Map<Long, TelemetryRecord> newest = new LinkedHashMap<>();
+        for (TelemetryRecord record : records) {
+            newest.merge(record.getDevice().getDeviceId(), record, (a, b) -> order.compare(a, b) >= 0 ? a : b);
+        }
+        return List.copyOf(newest.values());
+    }
+
+    private void openIncidentIfAbsent(DeviceSnapshot device, Double temperature) {
+        Optional<Incident> existing = incidentRepository.findByDevice_DeviceIdAndStatus(
+                device.deviceId(), IncidentStatus.OPEN);
+        if (existing.isEmpty()) {
+            Incident incident = Incident.builder()
+                    .device(deviceRepository.getReferenceById(device.deviceId()))
+                    .incidentType(IncidentType.TEMP_EXCEEDED)
+                    .status(IncidentStatus.OPEN)
+                    .description(buildIncidentDescription(device, temperature))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            incidentRepository.save(incident);
+            dashboardCounters.incidentStatusChanged(null, IncidentStatus.OPEN);
+            metrics.incidentAutoCreated();
+            log.info("Auto-created incident for device {} — temp {} exceeded threshold [{}, {}]",
+                    device.deviceId(), temperature,
+                    device.minTempThreshold(), device.maxTempThreshold());
+        }
+    }
+
+    static String buildIncidentDescription(DeviceSnapshot device, Double temperature) {
+        if (temperature > device.maxTempThreshold()) {
+            return String.format("Temperature exceeded max threshold of %.1f°C. Recorded: %.1f°C",
+                    device.maxTempThreshold(), temperature);
+        } else {
+            return String.format("Temperature below min threshold of %.1f°C. Recorded: %.1f°C",
+                    device.minTempThreshold(), temperature);
+        }
+    }
+}
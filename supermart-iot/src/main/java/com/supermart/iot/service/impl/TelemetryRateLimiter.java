@@ -0,0 +1,74 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.service.RateLimitStateStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-device telemetry rate limiter enforcing {@code app.telemetry.rate-limit-per-minute}.
+ *
+ * <p>Implements the Generic Cell Rate Algorithm (GCRA): each device has a single
+ * "theoretical arrival time" (TAT). A reading is admitted when pushing the TAT
+ * forward by one emission interval keeps it within one minute of now; otherwise
+ * it is rejected without changing state. This allows a burst of up to the
+ * configured limit, then one reading per {@code 60s / limit} — the same budget as
+ * a one-minute sliding window, held in one {@code long} per device.</p>
+ *
+ * <p>Time is the server clock, never the device-supplied {@code recordedAt}, so
+ * backdated readings cannot dodge the limit. The check is a lock-free CAS loop
+ * against {@link RateLimitStateStore}; no database access is involved.</p>
+ */
+@Component
+public class TelemetryRateLimiter {
+
+    private static final long WINDOW_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final RateLimitStateStore stateStore;
+    private final int limitPerMinute;
+    private final long emissionIntervalMicros;
+    private final LongSupplier clockMicros;
+
+    @Autowired
+    public TelemetryRateLimiter(RateLimitStateStore stateStore,
+                                @Value("${app.telemetry.rate-limit-per-minute}") int limitPerMinute) {
+        this(stateStore, limitPerMinute, () -> TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+    }
+
+    TelemetryRateLimiter(RateLimitStateStore stateStore, int limitPerMinute, LongSupplier clockMicros) {
+        if (limitPerMinute <= 0) {
+            throw new IllegalArgumentException("app.telemetry.rate-limit-per-minute must be positive.");
+        }
+        this.stateStore = stateStore;
+        this.limitPerMinute = limitPerMinute;
+        this.emissionIntervalMicros = WINDOW_MICROS / limitPerMinute;
+        this.clockMicros = clockMicros;
+    }
+
+    /**
+     * Attempts to admit one reading for the device.
+     *
+     * @param deviceId the submitting device
+     * @return {@code true} if the reading is within the device's budget
+     */
+    public boolean tryAcquire(long deviceId) {
+        long now = clockMicros.getAsLong();
+        while (true) {
+            long tat = stateStore.get(deviceId);
+            long newTat = Math.max(tat, now) + emissionIntervalMicros;
+            if (newTat - now > WINDOW_MICROS) {
+                return false;
+            }
+            if (stateStore.compareAndSet(deviceId, tat, newTat)) {
+                return true;
+            }
+        }
+    }
+
+    public int getLimitPerMinute() {
+        return limitPerMinute;
+    }
+}
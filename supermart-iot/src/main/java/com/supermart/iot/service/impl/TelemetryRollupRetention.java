@@ -0,0 +1,95 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.enums.RollupBucket;
+import com.supermart.iot.repository.TelemetryRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deletes {@code telemetry_rollups} rows older than their bucket's retention.
+ *
+ * <p>Minute rollups grow at up to one row per device per minute, close to the
+ * raw reading rate, so they are kept only for
+ * {@code app.telemetry.rollups.retention.minute-days}; hour rollups are kept for
+ * {@code hour-days} and day rollups for {@code day-days}. A value of {@code 0}
+ * keeps that bucket forever. On {@code app.telemetry.rollups.retention.cron}
+ * each bucket is purged in chunks of {@value #DELETE_CHUNK_SIZE} rows through
+ * {@code idx_rollups_bucket_start} (migration {@code V8}), each chunk in its own
+ * statement, so a purge never holds row locks for long.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TelemetryRollupRetention {
+
+    static final int DELETE_CHUNK_SIZE = 10_000;
+
+    private final TelemetryRollupRepository rollupRepository;
+    private final Lock purgeLock = new ReentrantLock();
+
+    @Value("${app.telemetry.rollups.retention.minute-days:7}")
+    private int minuteDays;
+
+    @Value("${app.telemetry.rollups.retention.hour-days:180}")
+    private int hourDays;
+
+    @Value("${app.telemetry.rollups.retention.day-days:0}")
+    private int dayDays;
+
+    @Scheduled(cron = "${app.telemetry.rollups.retention.cron:0 0 1 * * *}")
+    public void purge() {
+        purge(LocalDate.now());
+    }
+
+    void purge(LocalDate today) {
+        if (!purgeLock.tryLock()) {
+            log.info("Telemetry rollup retention is already running; skipping this run");
+            return;
+        }
+        try {
+            for (RollupBucket bucket : RollupBucket.values()) {
+                int days = retentionDays(bucket);
+                if (days > 0) {
+                    purgeBucket(bucket, today.minusDays(days).atStartOfDay(), days);
+                }
+            }
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    private void purgeBucket(RollupBucket bucket, LocalDateTime cutoff, int days) {
+        long deleted = 0;
+        try {
+            int chunk;
+            do {
+                chunk = rollupRepository.deleteBefore(bucket, cutoff, DELETE_CHUNK_SIZE);
+                deleted += chunk;
+            } while (chunk == DELETE_CHUNK_SIZE);
+        } catch (DataAccessException e) {
+            log.warn("Purging {} rollups before {} failed after {} rows; the next run retries: {}",
+                    bucket.getCode(), cutoff, deleted, e.getMessage());
+            return;
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} {} rollups past {}-day retention", deleted, bucket.getCode(), days);
+        }
+    }
+
+    private int retentionDays(RollupBucket bucket) {
+        return switch (bucket) {
+            case MINUTE -> minuteDays;
+            case HOUR -> hourDays;
+            case DAY -> dayDays;
+        };
+    }
+}
@@ -1,19 +1,17 @@
 package com.supermart.iot.service.impl;
 
 import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.TelemetryBatchItemResult;
+import com.supermart.iot.dto.response.TelemetryBatchResponse;
 import com.supermart.iot.dto.response.TelemetryResponse;
-import com.supermart.iot.entity.IotDevice;
-import com.supermart.iot.entity.Incident;
 import com.supermart.iot.entity.TelemetryRecord;
-import com.supermart.iot.enums.DeviceStatus;
-import com.supermart.iot.enums.IncidentStatus;
-import com.supermart.iot.enums.IncidentType;
 import com.supermart.iot.exception.BadRequestException;
+import com.supermart.iot.exception.IngestBackpressureException;
 import com.supermart.iot.exception.RateLimitException;
 import com.supermart.iot.exception.ResourceNotFoundException;
-import com.supermart.iot.repository.IotDeviceRepository;
-import com.supermart.iot.repository.IncidentRepository;
-import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.service.impl.ServiceMetrics.Phase;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,90 +19,248 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TelemetryService {
 
-    private final TelemetryRepository telemetryRepository;
-    private final IotDeviceRepository deviceRepository;
-    private final IncidentRepository incidentRepository;
+    private final DeviceMetadataCache deviceCache;
+    private final TelemetryPersistenceService persistenceService;
+    private final TelemetryWriteBehindQueue writeBehindQueue;
+    private final TelemetryRateLimiter rateLimiter;
+    private final DeviceHeartbeatTracker heartbeatTracker;
+    private final TelemetryDeduplicator deduplicator;
+    private final ServiceMetrics metrics;
+    private final Validator validator;
 
-    @Value("${app.telemetry.rate-limit-per-minute}")
-    private int rateLimitPerMinute;
+    @Value("${app.telemetry.batch.max-size:500}")
+    private int maxBatchSize;
 
-    @Transactional
+    /**
+     * Ingests a single reading.
+     *
+     * <p>The device is resolved from {@link DeviceMetadataCache}; rate limiting
+     * and threshold evaluation happen on the caller's thread. With write-behind enabled the reading is then queued and
+     * the response is returned before it is persisted, so {@code telemetryId} is
+     * {@code null}; otherwise it is written synchronously.</p>
+     *
+     * @throws IngestBackpressureException if the write-behind queue is saturated
+     */
     public TelemetryResponse ingest(TelemetryIngestRequest request) {
-        IotDevice device = deviceRepository.findById(request.getDeviceId())
+        return ingest(request, null);
+    }
+
+    /**
+     * Ingests a single reading, suppressing retries.
+     *
+     * <p>When {@code idempotencyKey} or the request's {@code sequence} is set, a
+     * repeat of an already ingested reading is answered by
+     * {@link TelemetryDeduplicator} with the original response, without rate
+     * limiting, persistence or a heartbeat. A queued reading's response is only
+     * replayed once the write-behind queue has written it; if the queue drops it,
+     * a retry is ingested again.</p>
+     *
+     * @param idempotencyKey the {@code Idempotency-Key} header, or {@code null}
+     * @throws IngestBackpressureException if the write-behind queue is saturated
+     */
+    public TelemetryResponse ingest(TelemetryIngestRequest request, String idempotencyKey) {
+        DeviceSnapshot device = metrics.phase(Phase.LOOKUP).record(() -> deviceCache.findById(request.getDeviceId()))
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "IoT device with id " + request.getDeviceId() + " not found."));
+        String key = TelemetryDeduplicator.keyOf(idempotencyKey, request.getSequence());
+        return deduplicator.execute(device.deviceId(), key, written -> accept(device, request, written));
+    }
 
+    private TelemetryResponse accept(DeviceSnapshot device, TelemetryIngestRequest request,
+                                     CompletableFuture<Void> written) {
         // Rate limit check
-        LocalDateTime oneMinuteAgo = LocalDateTime.now().minusMinutes(1);
-        long recentCount = telemetryRepository.countByDevice_DeviceIdAndRecordedAtAfter(
-                device.getDeviceId(), oneMinuteAgo);
-        if (recentCount >= rateLimitPerMinute) {
-            throw new RateLimitException("Device " + device.getDeviceId() +
-                    " has exceeded the telemetry submission rate limit. Max " + rateLimitPerMinute + " requests per minute.");
+        if (!metrics.phase(Phase.RATE_LIMIT).record(() -> rateLimiter.tryAcquire(device.deviceId()))) {
+            metrics.rateLimited(false);
+            throw new RateLimitException(rateLimitMessage(device.deviceId()));
         }
 
         // Evaluate threshold
-        boolean isAlert = request.getTemperature() < device.getMinTempThreshold()
-                || request.getTemperature() > device.getMaxTempThreshold();
-
-        // Persist telemetry
         TelemetryRecord record = TelemetryRecord.builder()
-                .device(device)
+                .device(device.toReference())
                 .temperature(request.getTemperature())
                 .recordedAt(request.getRecordedAt())
-                .isAlert(isAlert)
+                .isAlert(device.isOutsideThreshold(request.getTemperature()))
                 .build();
-        record = telemetryRepository.save(record);
 
-        // Update device lastSeenAt
-        device.setLastSeenAt(LocalDateTime.now());
-        if (isAlert) {
-            device.setStatus(DeviceStatus.FAULT);
+        // Persist telemetry, device update and incident — queued or inline
+        if (writeBehindQueue.isEnabled()) {
+            if (!metrics.phase(Phase.ENQUEUE).record(() -> writeBehindQueue.offer(record, written))) {
+                throw new IngestBackpressureException(
+                        "Telemetry ingest is temporarily saturated. Retry shortly.",
+                        writeBehindQueue.getRetryAfterSeconds());
+            }
+        } else {
+            persistenceService.write(List.of(record));
+            written.complete(null);
         }
-        deviceRepository.save(device);
-
-        // Auto-create incident if threshold exceeded and no open incident
-        if (isAlert) {
-            Optional<Incident> existing = incidentRepository.findByDevice_DeviceIdAndStatus(
-                    device.getDeviceId(), IncidentStatus.OPEN);
-            if (existing.isEmpty()) {
-                Incident incident = Incident.builder()
-                        .device(device)
-                        .incidentType(IncidentType.TEMP_EXCEEDED)
-                        .status(IncidentStatus.OPEN)
-                        .description(buildIncidentDescription(device, request.getTemperature()))
-                        .createdAt(LocalDateTime.now())
+        heartbeatTracker.recordHeartbeat(device.deviceId(), LocalDateTime.now());
+
+        return toResponse(record, device.deviceId());
+    }
+
+    /**
+     * Ingests a gateway batch of readings in one transaction.
+     *
+     * <p>Readings are validated, rate-limited and threshold-checked individually;
+     * invalid or rejected readings do not fail the batch but are reported in the
+     * per-item results. Accepted readings are persisted synchronously through
+     * {@link TelemetryPersistenceService} so every result carries its id.
+     * Readings whose {@code sequence} was already ingested are accepted with
+     * their original result and marked {@code duplicate}.</p>
+     *
+     * @param requests the readings, in gateway order
+     * @return per-item results in the same order as {@code requests}
+     * @throws BadRequestException if the batch is empty or exceeds {@code app.telemetry.batch.max-size}
+     */
+    @Transactional
+    public TelemetryBatchResponse ingestBatch(List<TelemetryIngestRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("Telemetry batch must contain at least one reading.");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BadRequestException("Telemetry batch of " + requests.size() +
+                    " readings exceeds the maximum of " + maxBatchSize + ".");
+        }
+
+        Set<Long> deviceIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(TelemetryIngestRequest::getDeviceId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, DeviceSnapshot> devices = metrics.phase(Phase.LOOKUP).record(() -> deviceCache.findAllById(deviceIds));
+
+        TelemetryBatchItemResult[] results = new TelemetryBatchItemResult[requests.size()];
+        List<TelemetryRecord> records = new ArrayList<>();
+        List<Integer> recordIndexes = new ArrayList<>();
+        TelemetryDeduplicator.Batch dedup = deduplicator.batch();
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                TelemetryIngestRequest request = requests.get(i);
+                String violation = validate(request);
+                if (violation != null) {
+                    results[i] = rejected(i, "VALIDATION_ERROR", violation);
+                    continue;
+                }
+                DeviceSnapshot device = devices.get(request.getDeviceId());
+                if (device == null) {
+                    results[i] = rejected(i, "NOT_FOUND",
+                            "IoT device with id " + request.getDeviceId() + " not found.");
+                    continue;
+                }
+                String key = TelemetryDeduplicator.keyOf(null, request.getSequence());
+                if (key != null) {
+                    Optional<CompletableFuture<TelemetryResponse>> earlier = dedup.reserve(device.deviceId(), key);
+                    if (earlier.isPresent()) {
+                        results[i] = replayed(i, earlier.get());
+                        continue;
+                    }
+                }
+                if (!metrics.phase(Phase.RATE_LIMIT).record(() -> rateLimiter.tryAcquire(device.deviceId()))) {
+                    metrics.rateLimited(true);
+                    results[i] = rejected(i, "RATE_LIMITED", rateLimitMessage(device.deviceId()));
+                    continue;
+                }
+                records.add(TelemetryRecord.builder()
+                        .device(device.toReference())
+                        .temperature(request.getTemperature())
+                        .recordedAt(request.getRecordedAt())
+                        .isAlert(device.isOutsideThreshold(request.getTemperature()))
+                        .build());
+                recordIndexes.add(i);
+            }
+
+            persistenceService.write(records);
+            LocalDateTime now = LocalDateTime.now();
+            records.forEach(record -> heartbeatTracker.recordHeartbeat(record.getDevice().getDeviceId(), now));
+
+            for (int r = 0; r < records.size(); r++) {
+                TelemetryRecord record = records.get(r);
+                int index = recordIndexes.get(r);
+                TelemetryResponse response = toResponse(record, record.getDevice().getDeviceId());
+                String key = TelemetryDeduplicator.keyOf(null, requests.get(index).getSequence());
+                if (key != null) {
+                    dedup.ingested(response.getDeviceId(), key, response);
+                }
+                results[index] = TelemetryBatchItemResult.builder()
+                        .index(index)
+                        .accepted(true)
+                        .telemetry(response)
                         .build();
-                incidentRepository.save(incident);
-                log.info("Auto-created incident for device {} — temp {} exceeded threshold [{}, {}]",
-                        device.getDeviceId(), request.getTemperature(),
-                        device.getMinTempThreshold(), device.getMaxTempThreshold());
             }
+
+            int accepted = (int) Arrays.stream(results).filter(TelemetryBatchItemResult::isAccepted).count();
+            return TelemetryBatchResponse.builder()
+                    .received(requests.size())
+                    .accepted(accepted)
+                    .rejected(requests.size() - accepted)
+                    .results(Arrays.asList(results))
+                    .build();
+        } finally {
+            dedup.settle();
         }
+    }
+
+    private String validate(TelemetryIngestRequest request) {
+        if (request == null) {
+            return "Reading must not be null.";
+        }
+        Set<ConstraintViolation<TelemetryIngestRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private TelemetryBatchItemResult rejected(int index, String errorCode, String message) {
+        return TelemetryBatchItemResult.builder()
+                .index(index)
+                .accepted(false)
+                .errorCode(errorCode)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Result for a reading already reserved by an earlier request, or earlier in
+     * this batch. Only a completed original can be replayed; one still in flight
+     * is rejected so the gateway retries it once the original has settled.
+     */
+    private TelemetryBatchItemResult replayed(int index, CompletableFuture<TelemetryResponse> earlier) {
+        if (!earlier.isDone() || earlier.isCompletedExceptionally()) {
+            return rejected(index, "DUPLICATE", "Reading with the same sequence is still being processed.");
+        }
+        return TelemetryBatchItemResult.builder()
+                .index(index)
+                .accepted(true)
+                .duplicate(true)
+                .telemetry(earlier.join())
+                .build();
+    }
+
+    private String rateLimitMessage(Long deviceId) {
+        return "Device " + deviceId + " has exceeded the telemetry submission rate limit. Max "
+                + rateLimiter.getLimitPerMinute() + " requests per minute.";
+    }
 
+    private TelemetryResponse toResponse(TelemetryRecord record, Long deviceId) {
         return TelemetryResponse.builder()
                 .telemetryId(record.getTelemetryId())
-                .deviceId(device.getDeviceId())
+                .deviceId(deviceId)
                 .temperature(record.getTemperature())
                 .recordedAt(record.getRecordedAt())
                 .isAlert(record.getIsAlert())
                 .build();
     }
-
-    private String buildIncidentDescription(IotDevice device, Double temperature) {
-        if (temperature > device.getMaxTempThreshold()) {
-            return String.format("Temperature exceeded max threshold of %.1f°C. Recorded: %.1f°C",
-                    device.getMaxTempThreshold(), temperature);
-        } else {
-            return String.format("Temperature below min threshold of %.1f°C. Recorded: %.1f°C",
-                    device.getMinTempThreshold(), temperature);
-        }
-    }
 }
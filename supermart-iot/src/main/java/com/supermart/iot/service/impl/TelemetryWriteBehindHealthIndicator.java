@@ -0,0 +1,58 @@
+package com.supermart.iot.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Liveness of the {@link TelemetryWriteBehindQueue} writer threads.
+ *
+ * <p>Reported as {@code telemetryWriteBehind} under {@code /actuator/health}:
+ * {@code DOWN} while the queue is running with fewer live writers than it
+ * started, since readings for the dead writer's devices are accepted but never
+ * written. Details include {@code dropped}, the readings accepted since startup
+ * that were never written (see {@link ServiceMetrics}). Also publishes the gauges
+ * {@code supermart.telemetry.write.behind.writers.alive} and
+ * {@code supermart.telemetry.write.behind.queued}.</p>
+ */
+@Component
+public class TelemetryWriteBehindHealthIndicator implements HealthIndicator {
+
+    private final TelemetryWriteBehindQueue queue;
+    private final ServiceMetrics metrics;
+
+    public TelemetryWriteBehindHealthIndicator(TelemetryWriteBehindQueue queue, ServiceMetrics metrics,
+                                               MeterRegistry registry) {
+        this.queue = queue;
+        this.metrics = metrics;
+        Gauge.builder("supermart.telemetry.write.behind.writers.alive", queue, TelemetryWriteBehindQueue::liveWriters)
+                .description("Telemetry write-behind writer threads that are still running")
+                .register(registry);
+        Gauge.builder("supermart.telemetry.write.behind.queued", queue, TelemetryWriteBehindQueue::size)
+                .description("Telemetry readings waiting in the write-behind queue")
+                .register(registry);
+    }
+
+    @Override
+    public Health health() {
+        if (!queue.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        if (!queue.isRunning()) {
+            return Health.outOfService()
+                    .withDetail("enabled", true)
+                    .withDetail("dropped", metrics.getWriteBehindDropped())
+                    .build();
+        }
+        int alive = queue.liveWriters();
+        Health.Builder health = alive < queue.getWriterThreads() ? Health.down() : Health.up();
+        return health
+                .withDetail("writers", queue.getWriterThreads())
+                .withDetail("alive", alive)
+                .withDetail("queued", queue.size())
+                .withDetail("dropped", metrics.getWriteBehindDropped())
+                .build();
+    }
+}
@@ -0,0 +1,280 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded write-behind stage between telemetry ingest and the database.
+ *
+ * <p>Readings are partitioned by device id across {@code writer-threads} bounded
+ * ring buffers ({@link ArrayBlockingQueue}). Each partition is drained by one
+ * dedicated writer thread in micro-batches of up to {@code max-batch-size}
+ * readings, which are handed to {@link TelemetryPersistenceService}. Because a
+ * device always maps to the same writer, its readings are written in order and
+ * incident creation for it never races with itself.</p>
+ *
+ * <p>{@link #offer(TelemetryRecord)} never blocks: when the partition is full the
+ * caller is expected to shed load (the API answers {@code 503} with
+ * {@code Retry-After}). A failed micro-batch is retried with backoff, then written
+ * record-by-record so that one bad reading cannot wedge its partition. Anything
+ * else a batch throws, {@link Error}s included, is logged and the batch dropped so
+ * the writer keeps running; {@link #liveWriters()} reports how many are still
+ * alive. On shutdown the writers drain whatever is queued before the connection
+ * pool closes, and an offer that loses the race with {@link #stop()} is refused.</p>
+ *
+ * <p>Each reading's {@code written} future completes once its transaction has
+ * committed, or exceptionally if the reading is dropped: after the per-record
+ * fallback fails, with its batch, or when it is still queued after shutdown.
+ * Every dropped reading is counted in {@link ServiceMetrics}
+ * ({@code supermart.telemetry.write.behind.dropped}).</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TelemetryWriteBehindQueue implements SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MS = 200;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 250;
+
+    private final TelemetryPersistenceService persistenceService;
+    private final ServiceMetrics metrics;
+
+    @Value("${app.telemetry.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.telemetry.write-behind.capacity:20000}")
+    private int capacity;
+
+    @Value("${app.telemetry.write-behind.writer-threads:4}")
+    private int writerThreads;
+
+    @Value("${app.telemetry.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.telemetry.write-behind.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${app.telemetry.write-behind.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    private volatile List<BlockingQueue<Pending>> partitions = List.of();
+    private volatile List<Thread> writers = List.of();
+    private volatile boolean running;
+
+    /** A queued reading and the future its writer settles. */
+    private record Pending(TelemetryRecord record, CompletableFuture<Void> written) {
+    }
+
+    /**
+     * Whether ingest should go through this queue. When {@code false} the
+     * writer threads are never started and callers persist synchronously.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enqueues a reading for asynchronous persistence without blocking, when
+     * nothing waits for its write.
+     *
+     * @see #offer(TelemetryRecord, CompletableFuture)
+     */
+    public boolean offer(TelemetryRecord record) {
+        return offer(record, new CompletableFuture<>());
+    }
+
+    /**
+     * Enqueues a reading for asynchronous persistence without blocking.
+     *
+     * @param record  an evaluated reading whose device id is set
+     * @param written completed once the reading is committed, or exceptionally if
+     *                it is dropped; left untouched when the offer is refused
+     * @return {@code false} if the queue is not running or the device's partition is full
+     */
+    public boolean offer(TelemetryRecord record, CompletableFuture<Void> written) {
+        List<BlockingQueue<Pending>> current = partitions;
+        if (!running || current.isEmpty()) {
+            return false;
+        }
+        BlockingQueue<Pending> partition =
+                current.get(Math.floorMod(record.getDevice().getDeviceId(), current.size()));
+        Pending pending = new Pending(record, written);
+        if (!partition.offer(pending)) {
+            return false;
+        }
+        // stop() may have begun after the check above and its writer may already
+        // have exited; take the reading back unless a writer has picked it up
+        return running || !partition.remove(pending);
+    }
+
+    /** Suggested client back-off, in seconds, when {@link #offer} is refused. */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /** Number of writer threads that are started and have not exited. */
+    public int liveWriters() {
+        int alive = 0;
+        for (Thread writer : writers) {
+            if (writer.isAlive()) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+
+    /** Number of writer threads started by {@link #start()}. */
+    public int getWriterThreads() {
+        return writerThreads;
+    }
+
+    /** Number of readings currently waiting to be written, across all partitions. */
+    public int size() {
+        int size = 0;
+        for (BlockingQueue<Pending> partition : partitions) {
+            size += partition.size();
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        int perPartition = Math.max(1, capacity / writerThreads);
+        List<BlockingQueue<Pending>> created = new ArrayList<>(writerThreads);
+        List<Thread> threads = new ArrayList<>(writerThreads);
+        for (int i = 0; i < writerThreads; i++) {
+            BlockingQueue<Pending> partition = new ArrayBlockingQueue<>(perPartition);
+            created.add(partition);
+            threads.add(new Thread(() -> drainLoop(partition), "telemetry-writer-" + i));
+        }
+        partitions = List.copyOf(created);
+        writers = List.copyOf(threads);
+        running = true;
+        writers.forEach(Thread::start);
+        log.info("Telemetry write-behind started: {} writers, {} readings per partition", writerThreads, perPartition);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        for (Thread writer : writers) {
+            try {
+                writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int stillWriting = liveWriters();
+        if (stillWriting > 0) {
+            log.error("Telemetry write-behind stopped with {} writers still draining after {} ms; {} readings queued",
+                    stillWriting, shutdownTimeoutMs, size());
+        } else {
+            List<Pending> abandoned = new ArrayList<>();
+            partitions.forEach(partition -> partition.drainTo(abandoned));
+            if (!abandoned.isEmpty()) {
+                log.error("Telemetry write-behind stopped with {} unwritten readings", abandoned.size());
+                drop(abandoned, new IllegalStateException("Telemetry write-behind stopped"));
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop(BlockingQueue<Pending> partition) {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !partition.isEmpty()) {
+            try {
+                Pending first = partition.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    log.error("Telemetry writer {} interrupted; dropped a batch of {} readings",
+                            Thread.currentThread().getName(), batch.size());
+                    drop(batch, e);
+                }
+                return;
+            } catch (Throwable t) {
+                log.error("Telemetry writer {} dropped a batch of {} readings", Thread.currentThread().getName(),
+                        batch.size(), t);
+                drop(batch, t);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) throws InterruptedException {
+        List<TelemetryRecord> records = batch.stream().map(Pending::record).toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                persistenceService.write(records);
+                batch.forEach(pending -> pending.written().complete(null));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("Telemetry batch of {} failed {} times, writing individually: {}",
+                            batch.size(), attempt, e.getMessage());
+                    writeIndividually(batch);
+                    return;
+                }
+                Thread.sleep(RETRY_BACKOFF_MS * attempt);
+            }
+        }
+    }
+
+    private void writeIndividually(List<Pending> batch) {
+        for (Pending pending : batch) {
+            TelemetryRecord record = pending.record();
+            try {
+                persistenceService.write(List.of(record));
+                pending.written().complete(null);
+            } catch (RuntimeException e) {
+                log.error("Dropping telemetry reading for device {} recorded at {}: {}",
+                        record.getDevice().getDeviceId(), record.getRecordedAt(), e.getMessage());
+                drop(List.of(pending), e);
+            }
+        }
+    }
+
+    // Readings already settled (written before a later failure in the same batch) are not counted again
+    private void drop(List<Pending> readings, Throwable cause) {
+        int dropped = 0;
+        for (Pending pending : readings) {
+            if (pending.written().completeExceptionally(cause)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            metrics.writeBehindDropped(dropped);
+        }
+    }
+}
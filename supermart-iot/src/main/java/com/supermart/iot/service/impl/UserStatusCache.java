@@ -0,0 +1,64 @@
+package com.supermart.iot.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.supermart.iot.enums.UserRole;
+import com.supermart.iot.repository.UserRepository;
+import com.supermart.iot.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of each dashboard user's current id and role, checked
+ * against the claims of their access token.
+ *
+ * <p>Access tokens carry the user's id and role, so a request is authenticated
+ * without loading the user. This cache keeps a deleted user, or one whose role
+ * changed, from using an old token for longer than
+ * {@code app.jwt.user-status.ttl-seconds}. The database is queried at most once
+ * per user in that window instead of once per request. Unknown users are cached
+ * too, so a deleted user's polling dashboard does not query on every request.
+ * Set {@code app.jwt.user-status.enabled=false} to trust the token until it
+ * expires.</p>
+ */
+@Component
+public class UserStatusCache {
+
+    /** A user's current id and role. */
+    record UserStatus(long userId, UserRole role) {
+    }
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Cache<String, Optional<UserStatus>> byEmail;
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${app.jwt.user-status.enabled:true}") boolean enabled,
+                           @Value("${app.jwt.user-status.max-size:10000}") long maxSize,
+                           @Value("${app.jwt.user-status.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Whether the user named by a token still exists with the same id and role.
+     * Always {@code true} when the check is disabled.
+     */
+    public boolean isCurrent(AuthenticatedUser user) {
+        if (!enabled) {
+            return true;
+        }
+        Optional<UserStatus> status = byEmail.get(user.email(), email -> userRepository.findByEmail(email)
+                .map(u -> new UserStatus(u.getId(), u.getRole())));
+        return status.isPresent()
+                && status.get().userId() == user.userId()
+                && status.get().role() == user.role();
+    }
+}
@@ -39,6 +39,27 @@ INSERT INTO telemetry_records (telemetry_id, device_id, temperature, recorded_at
 (78234442, 9002, 5.1,  '2026-02-24T10:28:00', false),
 (78234502, 9002, 5.3,  '2026-02-24T10:29:00', false);
 
+-- ── Telemetry rollups (derived from the seed telemetry above) ────────────────
+INSERT INTO telemetry_rollups (device_id, bucket, bucket_start, sample_count, alert_count, min_temperature, max_temperature, temperature_sum)
+SELECT device_id, 'MINUTE', DATE_TRUNC(MINUTE, recorded_at), COUNT(*),
+       SUM(CASE WHEN is_alert THEN 1 ELSE 0 END), MIN(temperature), MAX(temperature), SUM(temperature)
+FROM telemetry_records GROUP BY device_id, DATE_TRUNC(MINUTE, recorded_at);
+
+INSERT INTO telemetry_rollups (device_id, bucket, bucket_start, sample_count, alert_count, min_temperature, max_temperature, temperature_sum)
+SELECT device_id, 'HOUR', DATE_TRUNC(HOUR, recorded_at), COUNT(*),
+       SUM(CASE WHEN is_alert THEN 1 ELSE 0 END), MIN(temperature), MAX(temperature), SUM(temperature)
+FROM telemetry_records GROUP BY device_id, DATE_TRUNC(HOUR, recorded_at);
+
+INSERT INTO telemetry_rollups (device_id, bucket, bucket_start, sample_count, alert_count, min_temperature, max_temperature, temperature_sum)
+SELECT device_id, 'DAY', DATE_TRUNC(DAY, recorded_at), COUNT(*),
+       SUM(CASE WHEN is_alert THEN 1 ELSE 0 END), MIN(temperature), MAX(temperature), SUM(temperature)
+FROM telemetry_records GROUP BY device_id, DATE_TRUNC(DAY, recorded_at);
+
+-- ── Latest reading per device (derived from the seed telemetry above) ────────
+INSERT INTO device_latest_telemetry (device_id, telemetry_id, temperature, recorded_at, is_alert) VALUES
+(9001, 78234501, -10.2, '2026-02-24T10:29:00', true),
+(9002, 78234502, 5.3,  '2026-02-24T10:29:00', false);
+
 -- ── Incidents ─────────────────────────────────────────────────────────────────
 INSERT INTO incidents (incident_id, device_id, incident_type, status, description, created_at, resolved_at) VALUES
 (3301, 9001, 'TEMP_EXCEEDED', 'OPEN', 'Temperature exceeded max threshold of -15.0°C. Recorded: -10.2°C', '2026-02-24T10:31:00', null);
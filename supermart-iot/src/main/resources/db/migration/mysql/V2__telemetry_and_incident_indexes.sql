@@ -0,0 +1,33 @@
+-- ═══════════════════════════════════════════════════════════════════════════════
+-- V2 – Secondary indexes for the hot read paths
+--
+-- InnoDB secondary indexes carry the primary key, so an index that also holds
+-- every selected column is covering: the query never touches the clustered row.
+-- ═══════════════════════════════════════════════════════════════════════════════
+
+-- ─── telemetry_records ────────────────────────────────────────────────────────
+-- TelemetryRepository.findByDeviceIdAndDateRange  (device_id = ? AND recorded_at range, ORDER BY recorded_at DESC)
+-- TelemetryRepository.findTopByDevice_DeviceIdOrderByRecordedAtDesc
+-- Covers all telemetry columns (telemetry_id via the PK), so both are index-only
+-- backward range scans. Also replaces the implicit index behind fk_telemetry_device.
+CREATE INDEX idx_telemetry_device_recorded
+    ON telemetry_records (device_id, recorded_at, is_alert, temperature);
+
+-- TelemetryRepository.countByRecordedAtAfterAndIsAlertTrue  (is_alert = 1 AND recorded_at > ?)
+CREATE INDEX idx_telemetry_alert_recorded
+    ON telemetry_records (is_alert, recorded_at);
+
+-- ─── incidents ────────────────────────────────────────────────────────────────
+-- IncidentRepository.findByDevice_DeviceIdAndStatus  (device_id = ? AND status = ?)
+-- Also replaces the implicit index behind fk_incidents_device.
+CREATE INDEX idx_incidents_device_status
+    ON incidents (device_id, status);
+
+-- IncidentRepository.countByStatus / findByFilters(status)
+CREATE INDEX idx_incidents_status
+    ON incidents (status);
+
+-- ─── iot_devices ──────────────────────────────────────────────────────────────
+-- IotDeviceRepository.countByStatus / findByStoreIdAndStatus(status)
+CREATE INDEX idx_iot_devices_status
+    ON iot_devices (status);
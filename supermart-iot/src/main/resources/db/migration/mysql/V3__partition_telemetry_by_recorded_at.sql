@@ -0,0 +1,34 @@
+-- ═══════════════════════════════════════════════════════════════════════════════
+-- V3 – Range-partition telemetry_records on recorded_at
+--
+-- MySQL requires every unique key of a partitioned table to include the
+-- partitioning column, and partitioned InnoDB tables cannot take part in
+-- foreign keys. So the primary key becomes (telemetry_id, recorded_at) and
+-- fk_telemetry_device is dropped; device_id is still written only by the API
+-- from an existing iot_devices row.
+--
+-- Only two partitions are created here: p_history, holding everything before
+-- the day after the migration runs, and a MAXVALUE catch-all. The bound is
+-- computed at migration time so that p_future starts empty.
+-- TelemetryPartitionManager splits p_future into daily (or weekly) partitions
+-- with REORGANIZE PARTITION, which copies every row already in p_future, so the
+-- first split only copies readings ingested since the migration. The manager
+-- also drops partitions older than the retention window with
+-- ALTER TABLE ... DROP PARTITION. Partition bounds must be literals, hence the
+-- prepared statement.
+-- ═══════════════════════════════════════════════════════════════════════════════
+
+ALTER TABLE telemetry_records DROP FOREIGN KEY fk_telemetry_device;
+
+ALTER TABLE telemetry_records
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (telemetry_id, recorded_at);
+
+SET @history_bound = DATE_FORMAT(CURDATE() + INTERVAL 1 DAY, '%Y-%m-%d 00:00:00');
+SET @partition_sql = CONCAT(
+    'ALTER TABLE telemetry_records PARTITION BY RANGE COLUMNS (recorded_at) (',
+    'PARTITION p_history VALUES LESS THAN (''', @history_bound, '''), ',
+    'PARTITION p_future  VALUES LESS THAN (MAXVALUE))');
+PREPARE partition_telemetry FROM @partition_sql;
+EXECUTE partition_telemetry;
+DEALLOCATE PREPARE partition_telemetry;
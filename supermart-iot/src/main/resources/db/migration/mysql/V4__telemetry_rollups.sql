@@ -0,0 +1,43 @@
+-- ═══════════════════════════════════════════════════════════════════════════════
+-- V4 – Per-device telemetry rollups (1-minute, 1-hour, 1-day)
+--
+-- Maintained incrementally on ingest by TelemetryRollupService with
+-- INSERT ... ON DUPLICATE KEY UPDATE. The primary key doubles as the read
+-- index for GET /devices/{id}/telemetry/aggregate (device, bucket, time range).
+-- Existing telemetry is folded in once below.
+-- ═══════════════════════════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS telemetry_rollups (
+    device_id       BIGINT      NOT NULL,
+    bucket          VARCHAR(6)  NOT NULL,         -- RollupBucket enum: MINUTE | HOUR | DAY
+    bucket_start    DATETIME(6) NOT NULL,
+    sample_count    BIGINT      NOT NULL,
+    alert_count     BIGINT      NOT NULL,
+    min_temperature DOUBLE      NOT NULL,
+    max_temperature DOUBLE      NOT NULL,
+    temperature_sum DOUBLE      NOT NULL,
+    PRIMARY KEY (device_id, bucket, bucket_start)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci;
+
+INSERT INTO telemetry_rollups (device_id, bucket, bucket_start, sample_count, alert_count,
+                               min_temperature, max_temperature, temperature_sum)
+SELECT device_id, 'MINUTE', DATE_FORMAT(recorded_at, '%Y-%m-%d %H:%i:00'), COUNT(*), SUM(is_alert),
+       MIN(temperature), MAX(temperature), SUM(temperature)
+FROM telemetry_records
+GROUP BY device_id, DATE_FORMAT(recorded_at, '%Y-%m-%d %H:%i:00');
+
+INSERT INTO telemetry_rollups (device_id, bucket, bucket_start, sample_count, alert_count,
+                               min_temperature, max_temperature, temperature_sum)
+SELECT device_id, 'HOUR', DATE_FORMAT(recorded_at, '%Y-%m-%d %H:00:00'), COUNT(*), SUM(is_alert),
+       MIN(temperature), MAX(temperature), SUM(temperature)
+FROM telemetry_records
+GROUP BY device_id, DATE_FORMAT(recorded_at, '%Y-%m-%d %H:00:00');
+
+INSERT INTO telemetry_rollups (device_id, bucket, bucket_start, sample_count, alert_count,
+                               min_temperature, max_temperature, temperature_sum)
+SELECT device_id, 'DAY', DATE(recorded_at), COUNT(*), SUM(is_alert),
+       MIN(temperature), MAX(temperature), SUM(temperature)
+FROM telemetry_records
+GROUP BY device_id, DATE(recorded_at);
@@ -0,0 +1,27 @@
+-- ═══════════════════════════════════════════════════════════════════════════════
+-- V5 – Latest-reading projection per device
+--
+-- One row per device holding its newest telemetry reading, advanced on ingest
+-- by a conditional INSERT ... ON DUPLICATE KEY UPDATE. Device listings and
+-- incident/alert pages read it with a single primary-key IN (...) lookup
+-- instead of a top-1 telemetry query per device.
+-- ═══════════════════════════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS device_latest_telemetry (
+    device_id    BIGINT      NOT NULL,
+    telemetry_id BIGINT      NOT NULL,
+    temperature  DOUBLE      NOT NULL,
+    recorded_at  DATETIME(6) NOT NULL,
+    is_alert     BOOLEAN     NOT NULL,
+    PRIMARY KEY (device_id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci;
+
+-- Newest reading per device; ties on recorded_at go to the highest telemetry_id.
+INSERT INTO device_latest_telemetry (device_id, telemetry_id, temperature, recorded_at, is_alert)
+SELECT device_id, telemetry_id, temperature, recorded_at, is_alert
+FROM (SELECT device_id, telemetry_id, temperature, recorded_at, is_alert,
+             ROW_NUMBER() OVER (PARTITION BY device_id ORDER BY recorded_at DESC, telemetry_id DESC) AS rn
+      FROM telemetry_records) ranked
+WHERE rn = 1;
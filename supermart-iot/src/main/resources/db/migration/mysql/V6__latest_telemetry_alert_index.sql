@@ -0,0 +1,11 @@
+-- ═══════════════════════════════════════════════════════════════════════════════
+-- V6 – Alert-state index on the latest-reading projection
+--
+-- /dashboard/alerts lists devices in FAULT or whose latest reading is an alert.
+-- It previously ran a correlated MAX(recorded_at) subquery per device over
+-- telemetry_records; it now reads device ids from idx_iot_devices_status and
+-- this index. Rows missing from device_latest_telemetry (e.g. telemetry loaded
+-- outside the API) are rebuilt by DeviceAlertStateBackfill.
+-- ═══════════════════════════════════════════════════════════════════════════════
+
+CREATE INDEX idx_latest_telemetry_alert ON device_latest_telemetry (is_alert);
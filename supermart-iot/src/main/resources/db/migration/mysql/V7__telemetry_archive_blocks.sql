@@ -0,0 +1,22 @@
+-- ═══════════════════════════════════════════════════════════════════════════════
+-- V7 – Compressed archive blocks for cold telemetry
+--
+-- TelemetryArchiver moves closed days out of telemetry_records into one block
+-- per device and day: delta-of-delta timestamps and ids, XOR-compressed
+-- temperatures (see TelemetryBlockCodec). Reads merge hot rows with the
+-- blocks overlapping the requested range.
+-- ═══════════════════════════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS telemetry_archive_blocks (
+    block_id          BIGINT      NOT NULL AUTO_INCREMENT,
+    device_id         BIGINT      NOT NULL,
+    block_date        DATE        NOT NULL,
+    first_recorded_at DATETIME(6) NOT NULL,
+    last_recorded_at  DATETIME(6) NOT NULL,
+    sample_count      INT         NOT NULL,
+    payload           MEDIUMBLOB  NOT NULL,
+    PRIMARY KEY (block_id),
+    UNIQUE KEY uk_archive_device_date (device_id, block_date)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,9 @@
+-- ═══════════════════════════════════════════════════════════════════════════════
+-- V8 – Retention index for telemetry_rollups
+--
+-- TelemetryRollupRetention deletes each bucket's rows older than its retention
+-- window in chunks (bucket = ? AND bucket_start < ? LIMIT n). The primary key
+-- leads with device_id, so without this index every chunk would scan the table.
+-- ═══════════════════════════════════════════════════════════════════════════════
+
+CREATE INDEX idx_rollups_bucket_start ON telemetry_rollups (bucket, bucket_start);
@@ -0,0 +1,111 @@
+package com.supermart.iot.archive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link TelemetryBlockCodec}.
+ *
+ * <p>Covers lossless round trips, including irregular and out-of-order input,
+ * and the compression ratio on a realistic day of one-minute readings.</p>
+ */
+class TelemetryBlockCodecTest {
+
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2026, 1, 10, 0, 0);
+
+    /**
+     * One device's day at one reading per minute: a few seconds of send jitter,
+     * ids interleaved with the rest of a 500-device fleet and a slow 0.1 °C
+     * random walk around freezer temperature.
+     */
+    private static List<ArchivedReading> freezerDay(long seed) {
+        Random random = new Random(seed);
+        List<ArchivedReading> readings = new ArrayList<>();
+        long id = 78_000_000L;
+        int tenths = -180;
+        for (int minute = 0; minute < 1440; minute++) {
+            id += 500 + random.nextInt(3) - 1;
+            if (random.nextInt(4) == 0) {
+                tenths += random.nextInt(3) - 1;
+            }
+            LocalDateTime at = MIDNIGHT.plusMinutes(minute).plusSeconds(random.nextInt(3));
+            readings.add(new ArchivedReading(id, at, tenths / 10.0, tenths > -150));
+        }
+        return readings;
+    }
+
+    // ─── round trip ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("decode returns exactly the encoded readings")
+    void should_round_trip_losslessly_when_readings_are_regular() {
+        // given
+        List<ArchivedReading> readings = freezerDay(42);
+
+        // when
+        List<ArchivedReading> decoded = TelemetryBlockCodec.decode(TelemetryBlockCodec.encode(readings));
+
+        // then
+        assertThat(decoded).isEqualTo(readings);
+    }
+
+    @Test
+    @DisplayName("decode restores irregular timestamps, micros, id gaps and extreme values in time order")
+    void should_round_trip_losslessly_when_readings_are_irregular() {
+        // given
+        List<ArchivedReading> readings = new ArrayList<>(List.of(
+                new ArchivedReading(5L, MIDNIGHT, 4.0, false),
+                new ArchivedReading(9_000_000_000L, MIDNIGHT.plusHours(7).plusNanos(123_456_000), -0.0, true),
+                new ArchivedReading(6L, MIDNIGHT.plusSeconds(1), Double.MAX_VALUE, false),
+                new ArchivedReading(7L, MIDNIGHT.plusSeconds(1), Double.MIN_VALUE, false),
+                new ArchivedReading(3L, MIDNIGHT.plusHours(23).plusMinutes(59).plusSeconds(59).plusNanos(999_999_000),
+                        Double.NaN, true)));
+        List<ArchivedReading> expected = new ArrayList<>(readings);
+        expected.sort(TelemetryBlockCodec.ORDER);
+        Collections.shuffle(readings, new Random(7));
+
+        // when
+        List<ArchivedReading> decoded = TelemetryBlockCodec.decode(TelemetryBlockCodec.encode(readings));
+
+        // then
+        assertThat(decoded).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("an empty block round-trips to an empty list")
+    void should_round_trip_empty_block() {
+        assertThat(TelemetryBlockCodec.decode(TelemetryBlockCodec.encode(List.of()))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("decode rejects a payload with an unknown version byte")
+    void should_throw_when_version_unknown() {
+        assertThatThrownBy(() -> TelemetryBlockCodec.decode(new byte[]{99, 0, 0, 0, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ─── compression ──────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("a day of one-minute freezer readings compresses to under 4 bytes per reading")
+    void should_compress_realistic_day_when_encoded() {
+        // given
+        List<ArchivedReading> readings = freezerDay(1);
+
+        // when
+        byte[] block = TelemetryBlockCodec.encode(readings);
+
+        // then — a row holds 33 bytes of column data alone (id, device, time, temperature, flag)
+        double bytesPerReading = (double) block.length / readings.size();
+        assertThat(bytesPerReading).isLessThan(4.0);
+    }
+}
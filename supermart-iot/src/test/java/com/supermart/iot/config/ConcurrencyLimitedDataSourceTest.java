@@ -0,0 +1,97 @@
+package com.supermart.iot.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitedDataSource}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private ConcurrencyLimitedDataSource underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("getConnection fails fast once the limit is checked out and succeeds again after a close")
+    void should_block_beyond_limit_when_connections_held() throws SQLException {
+        // given
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        Connection first = underTest.getConnection();
+        underTest.getConnection();
+
+        // when / then
+        assertThatThrownBy(underTest::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("2 connections in use");
+        first.close();
+        assertThat(underTest.getConnection()).isNotNull();
+        assertThat(underTest.getInUse()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("closing a connection twice releases its permit only once")
+    void should_release_permit_once_when_closed_twice() throws SQLException {
+        // given
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+        Connection connection = underTest.getConnection();
+
+        // when
+        connection.close();
+        connection.close();
+
+        // then
+        assertThat(underTest.getInUse()).isZero();
+        verify(raw, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("a failed checkout gives its permit back")
+    void should_release_permit_when_target_fails() throws SQLException {
+        // given
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        // when / then
+        assertThatThrownBy(underTest::getConnection).hasMessage("pool exhausted");
+        assertThat(underTest.getInUse()).isZero();
+    }
+
+    @Test
+    @DisplayName("calls other than close reach the pooled connection")
+    void should_delegate_statements_when_connection_used() throws SQLException {
+        // given
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+
+        // when
+        underTest.getConnection().setAutoCommit(false);
+
+        // then
+        verify(raw).setAutoCommit(false);
+    }
+}
@@ -0,0 +1,85 @@
+package com.supermart.iot.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link StatementCountFilter} and {@link StatementCountingDataSource}.
+ */
+@ExtendWith(MockitoExtension.class)
+class StatementCountFilterTest {
+
+    @Mock
+    private DataSource target;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        StatementCountingDataSource.stopCounting();
+    }
+
+    @Test
+    @DisplayName("the filter records the statements a request ran under its method and uri pattern")
+    void should_record_statement_count_when_request_runs_queries() throws Exception {
+        // given
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+        when(raw.prepareStatement("select 1")).thenReturn(mock(PreparedStatement.class));
+        when(raw.createStatement()).thenReturn(mock(Statement.class));
+        StatementCountingDataSource dataSource = new StatementCountingDataSource(target);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/devices/9001");
+
+        // when
+        new StatementCountFilter(meterRegistry).doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.prepareStatement("select 1");
+                connection.prepareStatement("select 1");
+                connection.createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/devices/{deviceId}");
+        });
+
+        // then
+        DistributionSummary statements = meterRegistry.get("supermart.db.statements")
+                .tag("method", "GET").tag("uri", "/devices/{deviceId}").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("connections taken outside a counted request are returned unwrapped")
+    void should_return_raw_connection_when_not_counting() throws SQLException {
+        // given
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+
+        // when
+        Connection connection = new StatementCountingDataSource(target).getConnection();
+
+        // then
+        assertThat(connection).isSameAs(raw);
+        assertThat(StatementCountingDataSource.stopCounting()).isZero();
+    }
+}
@@ -4,10 +4,11 @@ import com.supermart.iot.dto.response.*;
 import com.supermart.iot.enums.DeviceStatus;
 import com.supermart.iot.enums.EquipmentType;
 import com.supermart.iot.exception.ResourceNotFoundException;
-import com.supermart.iot.repository.IotDeviceRepository;
 import com.supermart.iot.repository.UserRepository;
 import com.supermart.iot.security.JwtService;
+import com.supermart.iot.service.impl.DeviceMetadataCache;
 import com.supermart.iot.service.impl.DeviceService;
+import com.supermart.iot.service.impl.UserStatusCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,7 +42,7 @@ class DeviceControllerTest {
 
     /** Required by SecurityConfig → DeviceKeyAuthFilter dependency. */
     @MockBean
-    private IotDeviceRepository iotDeviceRepository;
+    private DeviceMetadataCache deviceMetadataCache;
 
     /** Required by SecurityConfig → UserDetailsService dependency. */
     @MockBean
@@ -51,6 +52,10 @@ class DeviceControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    /** Required by JwtAuthenticationFilter dependency in security filter chain. */
+    @MockBean
+    private UserStatusCache userStatusCache;
+
     private static final String BASE_URL = "/devices";
 
     // ─── GET /devices ─────────────────────────────────────────────────────────
@@ -171,4 +176,52 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.data.content[0].temperature").value(-14.8))
                 .andExpect(jsonPath("$.data.content[0].isAlert").value(false));
     }
+
+    // ─── GET /devices/{deviceId}/telemetry/cursor ─────────────────────────────
+
+    @Test
+    @WithMockUser
+    @DisplayName("GET /devices/{deviceId}/telemetry/cursor returns 200 with a continuation cursor and no total")
+    void should_return_200_when_telemetry_cursor_page_requested() throws Exception {
+        // given
+        CursorPagedResponse<TelemetryResponse> page = CursorPagedResponse.<TelemetryResponse>builder()
+                .content(List.of(TelemetryResponse.builder().telemetryId(78234501L).deviceId(9001L).temperature(-10.2).build()))
+                .nextCursor("djF8MjAyNi0wMi0yNFQxMDoyOXw3ODIzNDUwMQ")
+                .hasMore(true)
+                .size(1)
+                .build();
+        when(deviceService.getDeviceTelemetryPage(eq(9001L), any(), any(), eq("abc"), eq(1))).thenReturn(page);
+
+        // when / then
+        mockMvc.perform(get(BASE_URL + "/9001/telemetry/cursor").param("cursor", "abc").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].telemetryId").value(78234501))
+                .andExpect(jsonPath("$.data.hasMore").value(true))
+                .andExpect(jsonPath("$.data.nextCursor").isNotEmpty())
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+    }
+
+    // ─── GET /devices/{deviceId}/telemetry/aggregate ──────────────────────────
+
+    @Test
+    @WithMockUser
+    @DisplayName("GET /devices/{deviceId}/telemetry/aggregate returns 200 with bucketed points")
+    void should_return_200_when_telemetry_aggregate_requested() throws Exception {
+        // given
+        TelemetryAggregateResponse point = TelemetryAggregateResponse.builder()
+                .bucketStart(LocalDateTime.of(2026, 2, 24, 10, 0))
+                .sampleCount(4L)
+                .alertCount(1L)
+                .minTemperature(-20.0)
+                .maxTemperature(-10.0)
+                .avgTemperature(-15.0)
+                .build();
+        when(deviceService.getDeviceTelemetryAggregate(eq(9001L), eq("1h"), any(), any())).thenReturn(List.of(point));
+
+        // when / then
+        mockMvc.perform(get(BASE_URL + "/9001/telemetry/aggregate").param("bucket", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sampleCount").value(4))
+                .andExpect(jsonPath("$.data[0].avgTemperature").value(-15.0));
+    }
 }
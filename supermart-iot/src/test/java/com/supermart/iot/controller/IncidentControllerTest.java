@@ -8,10 +8,11 @@ import com.supermart.iot.dto.response.*;
 import com.supermart.iot.enums.IncidentStatus;
 import com.supermart.iot.enums.IncidentType;
 import com.supermart.iot.exception.ResourceNotFoundException;
-import com.supermart.iot.repository.IotDeviceRepository;
 import com.supermart.iot.repository.UserRepository;
 import com.supermart.iot.security.JwtService;
+import com.supermart.iot.service.impl.DeviceMetadataCache;
 import com.supermart.iot.service.impl.IncidentService;
+import com.supermart.iot.service.impl.UserStatusCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,7 +51,7 @@ class IncidentControllerTest {
 
     /** Required by SecurityConfig → DeviceKeyAuthFilter dependency. */
     @MockBean
-    private IotDeviceRepository iotDeviceRepository;
+    private DeviceMetadataCache deviceMetadataCache;
 
     /** Required by SecurityConfig → UserDetailsService dependency. */
     @MockBean
@@ -60,6 +61,10 @@ class IncidentControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    /** Required by JwtAuthenticationFilter dependency in security filter chain. */
+    @MockBean
+    private UserStatusCache userStatusCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -0,0 +1,141 @@
+package com.supermart.iot.controller;
+
+import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.TelemetryBatchItemResult;
+import com.supermart.iot.dto.response.TelemetryBatchResponse;
+import com.supermart.iot.dto.response.TelemetryResponse;
+import com.supermart.iot.protocol.TelemetryFrameCodec;
+import com.supermart.iot.repository.UserRepository;
+import com.supermart.iot.security.JwtService;
+import com.supermart.iot.service.impl.DeviceMetadataCache;
+import com.supermart.iot.service.impl.TelemetryExportService;
+import com.supermart.iot.service.impl.TelemetryService;
+import com.supermart.iot.service.impl.UserStatusCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Slice tests for the binary frame endpoints of {@link TelemetryController}.
+ */
+@WebMvcTest(TelemetryController.class)
+class TelemetryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TelemetryService telemetryService;
+
+    @MockBean
+    private TelemetryExportService telemetryExportService;
+
+    /** Required by SecurityConfig → DeviceKeyAuthFilter dependency. */
+    @MockBean
+    private DeviceMetadataCache deviceMetadataCache;
+
+    /** Required by SecurityConfig → UserDetailsService dependency. */
+    @MockBean
+    private UserRepository userRepository;
+
+    /** Required by JwtAuthenticationFilter dependency in security filter chain. */
+    @MockBean
+    private JwtService jwtService;
+
+    /** Required by JwtAuthenticationFilter dependency in security filter chain. */
+    @MockBean
+    private UserStatusCache userStatusCache;
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 2, 24, 10, 29);
+
+    private static byte[] frame(int readings) {
+        List<TelemetryIngestRequest> requests = new ArrayList<>();
+        for (int i = 0; i < readings; i++) {
+            requests.add(TelemetryIngestRequest.builder().deviceId(9001L).temperature(-18.0).recordedAt(AT).build());
+        }
+        return TelemetryFrameCodec.encode(requests);
+    }
+
+    // ─── POST /telemetry (binary) ─────────────────────────────────────────────
+
+    @Test
+    @WithMockUser(roles = "DEVICE")
+    @DisplayName("POST /telemetry with a binary frame returns 201 with a binary ack")
+    void should_return_binary_ack_when_frame_posted() throws Exception {
+        // given
+        when(telemetryService.ingest(argThat(r -> r.getDeviceId() == 9001L && r.getTemperature() == -18.0),
+                eq("gw-7:1")))
+                .thenReturn(TelemetryResponse.builder().telemetryId(78234441L).deviceId(9001L).isAlert(false).build());
+
+        // when / then
+        byte[] ack = mockMvc.perform(post("/telemetry")
+                        .with(csrf())
+                        .contentType(TelemetryFrameCodec.MEDIA_TYPE)
+                        .header("Idempotency-Key", "gw-7:1")
+                        .content(frame(1)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(TelemetryFrameCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(ack).hasSize(14);
+        assertThat(ack[4]).isEqualTo(TelemetryFrameCodec.STATUS_ACCEPTED);
+    }
+
+    @Test
+    @WithMockUser(roles = "DEVICE")
+    @DisplayName("POST /telemetry returns 400 for a malformed frame without calling the service")
+    void should_return_400_when_frame_malformed() throws Exception {
+        // when / then
+        mockMvc.perform(post("/telemetry")
+                        .with(csrf())
+                        .contentType(TelemetryFrameCodec.MEDIA_TYPE)
+                        .content(new byte[]{1, 0, 1}))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        verifyNoInteractions(telemetryService);
+    }
+
+    // ─── POST /telemetry/batch (binary) ───────────────────────────────────────
+
+    @Test
+    @WithMockUser(roles = "DEVICE")
+    @DisplayName("POST /telemetry/batch with a binary frame acks every reading")
+    void should_ack_each_reading_when_batch_frame_posted() throws Exception {
+        // given
+        when(telemetryService.ingestBatch(anyList())).thenReturn(TelemetryBatchResponse.builder()
+                .received(2).accepted(1).rejected(1)
+                .results(List.of(
+                        TelemetryBatchItemResult.builder().index(0).accepted(true)
+                                .telemetry(TelemetryResponse.builder().telemetryId(100L).isAlert(false).build())
+                                .build(),
+                        TelemetryBatchItemResult.builder().index(1).accepted(false).errorCode("NOT_FOUND").build()))
+                .build());
+
+        // when / then
+        byte[] ack = mockMvc.perform(post("/telemetry/batch")
+                        .with(csrf())
+                        .contentType(TelemetryFrameCodec.MEDIA_TYPE)
+                        .content(frame(2)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(ack).hasSize(4 + 2 * 10);
+        assertThat(ack[14]).isEqualTo(TelemetryFrameCodec.STATUS_NOT_FOUND);
+    }
+}
@@ -103,6 +103,23 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getErrorCode()).isEqualTo("RATE_LIMITED");
     }
 
+    // ─── IngestBackpressureException ──────────────────────────────────────────
+
+    @Test
+    @DisplayName("handleBackpressure returns 503 with Retry-After header")
+    void should_return_503_with_retry_after_when_backpressure_exception_thrown() {
+        // given
+        IngestBackpressureException ex = new IngestBackpressureException("Telemetry ingest is saturated.", 2);
+
+        // when
+        ResponseEntity<ApiResponse<Void>> response = underTest.handleBackpressure(ex);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("2");
+        assertThat(response.getBody().getErrorCode()).isEqualTo("SERVICE_UNAVAILABLE");
+    }
+
     // ─── BadCredentialsException ──────────────────────────────────────────────
 
     @Test
@@ -0,0 +1,131 @@
+package com.supermart.iot.protocol;
+
+import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.TelemetryBatchItemResult;
+import com.supermart.iot.dto.response.TelemetryBatchResponse;
+import com.supermart.iot.dto.response.TelemetryResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link TelemetryFrameCodec}.
+ *
+ * <p>Covers request round trips with and without sequences, rejection of
+ * malformed frames and the ack layout.</p>
+ */
+class TelemetryFrameCodecTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 2, 24, 10, 29, 5, 250_000_000);
+
+    private static TelemetryIngestRequest reading(long deviceId, double temperature, Long sequence) {
+        return TelemetryIngestRequest.builder().deviceId(deviceId).temperature(temperature)
+                .recordedAt(AT).sequence(sequence).build();
+    }
+
+    // ─── request frames ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("decode returns the encoded readings with decimal temperatures intact")
+    void should_round_trip_readings_when_frame_has_no_sequence() {
+        // given
+        byte[] frame = TelemetryFrameCodec.encode(List.of(reading(9001L, -18.3, null), reading(9002L, 4.1, null)));
+
+        // when
+        List<TelemetryIngestRequest> decoded = TelemetryFrameCodec.decode(frame);
+
+        // then
+        assertThat(frame).hasSize(4 + 2 * 20);
+        assertThat(decoded).extracting(TelemetryIngestRequest::getDeviceId).containsExactly(9001L, 9002L);
+        assertThat(decoded).extracting(TelemetryIngestRequest::getTemperature).containsExactly(-18.3, 4.1);
+        assertThat(decoded).extracting(TelemetryIngestRequest::getRecordedAt).containsOnly(AT);
+        assertThat(decoded).extracting(TelemetryIngestRequest::getSequence).containsOnlyNulls();
+    }
+
+    @Test
+    @DisplayName("decode carries sequence numbers when the frame flags them")
+    void should_decode_sequences_when_frame_is_sequenced() {
+        // given
+        byte[] frame = TelemetryFrameCodec.encode(List.of(reading(9001L, -18.0, 41L), reading(9001L, -18.1, 42L)));
+
+        // when
+        List<TelemetryIngestRequest> decoded = TelemetryFrameCodec.decode(frame);
+
+        // then
+        assertThat(frame).hasSize(4 + 2 * 28);
+        assertThat(decoded).extracting(TelemetryIngestRequest::getSequence).containsExactly(41L, 42L);
+    }
+
+    @Test
+    @DisplayName("decode rejects frames whose length does not match the reading count")
+    void should_reject_frame_when_truncated() {
+        // given
+        byte[] frame = TelemetryFrameCodec.encode(List.of(reading(9001L, -18.0, null)));
+
+        // when / then
+        assertThatThrownBy(() -> TelemetryFrameCodec.decode(Arrays.copyOf(frame, frame.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not hold 1 readings");
+    }
+
+    @Test
+    @DisplayName("decode rejects unknown versions and non-finite temperatures")
+    void should_reject_frame_when_version_or_temperature_invalid() {
+        // given
+        byte[] badVersion = TelemetryFrameCodec.encode(List.of(reading(9001L, -18.0, null)));
+        badVersion[0] = 9;
+        byte[] nan = TelemetryFrameCodec.encode(List.of(reading(9001L, Double.NaN, null)));
+
+        // when / then
+        assertThatThrownBy(() -> TelemetryFrameCodec.decode(badVersion))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+        assertThatThrownBy(() -> TelemetryFrameCodec.decode(nan))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("non-finite");
+    }
+
+    // ─── acks ─────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("encodeAck writes one status, alert flag and id per batch result")
+    void should_encode_one_result_per_reading_when_batch_acked() {
+        // given
+        TelemetryBatchResponse response = TelemetryBatchResponse.builder()
+                .results(List.of(
+                        TelemetryBatchItemResult.builder().index(0).accepted(true)
+                                .telemetry(TelemetryResponse.builder().telemetryId(78234441L).isAlert(true).build())
+                                .build(),
+                        TelemetryBatchItemResult.builder().index(1).accepted(true).duplicate(true)
+                                .telemetry(TelemetryResponse.builder().telemetryId(78234442L).isAlert(false).build())
+                                .build(),
+                        TelemetryBatchItemResult.builder().index(2).accepted(false).errorCode("RATE_LIMITED").build()))
+                .build();
+
+        // when
+        ByteBuffer ack = ByteBuffer.wrap(TelemetryFrameCodec.encodeAck(response)).order(ByteOrder.LITTLE_ENDIAN);
+
+        // then
+        assertThat(ack.remaining()).isEqualTo(4 + 3 * 10);
+        assertThat(ack.get()).isEqualTo(TelemetryFrameCodec.VERSION);
+        assertThat(ack.get()).isZero();
+        assertThat(ack.getShort()).isEqualTo((short) 3);
+        assertThat(ack.get()).isEqualTo(TelemetryFrameCodec.STATUS_ACCEPTED);
+        assertThat(ack.get()).isEqualTo((byte) 1);
+        assertThat(ack.getLong()).isEqualTo(78234441L);
+        assertThat(ack.get()).isEqualTo(TelemetryFrameCodec.STATUS_DUPLICATE);
+        assertThat(ack.get()).isZero();
+        assertThat(ack.getLong()).isEqualTo(78234442L);
+        assertThat(ack.get()).isEqualTo(TelemetryFrameCodec.STATUS_RATE_LIMITED);
+        assertThat(ack.get()).isZero();
+        assertThat(ack.getLong()).isZero();
+    }
+}
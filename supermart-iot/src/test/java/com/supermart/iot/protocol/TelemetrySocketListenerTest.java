@@ -0,0 +1,196 @@
+package com.supermart.iot.protocol;
+
+import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.TelemetryBatchItemResult;
+import com.supermart.iot.dto.response.TelemetryBatchResponse;
+import com.supermart.iot.dto.response.TelemetryResponse;
+import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.service.impl.DeviceMetadataCache;
+import com.supermart.iot.service.impl.DeviceSnapshot;
+import com.supermart.iot.service.impl.TelemetryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link TelemetrySocketListener} over real loopback connections,
+ * with the ingest pipeline mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetrySocketListenerTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 2, 24, 10, 29);
+
+    @Mock
+    private TelemetryService telemetryService;
+
+    @Mock
+    private DeviceMetadataCache deviceCache;
+
+    private TelemetrySocketListener underTest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        underTest = new TelemetrySocketListener(telemetryService, deviceCache);
+        ReflectionTestUtils.setField(underTest, "bindAddress", "127.0.0.1");
+        ReflectionTestUtils.setField(underTest, "port", 0);
+        ReflectionTestUtils.setField(underTest, "maxFrameBytes", 1024);
+        ReflectionTestUtils.setField(underTest, "workers", 2);
+        underTest.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        underTest.stop();
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("127.0.0.1", underTest.localPort());
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static void send(Socket socket, byte[] message) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(message.length).array());
+        out.write(message);
+        out.flush();
+    }
+
+    /** Reads one reply; returns the type byte followed by the payload. */
+    private static byte[] receive(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        byte[] length = new byte[4];
+        in.readFully(length);
+        byte[] reply = new byte[ByteBuffer.wrap(length).order(ByteOrder.LITTLE_ENDIAN).getInt()];
+        in.readFully(reply);
+        return reply;
+    }
+
+    private static byte[] frame(long deviceId) {
+        return TelemetryFrameCodec.encode(List.of(TelemetryIngestRequest.builder()
+                .deviceId(deviceId).temperature(-18.0).recordedAt(AT).build()));
+    }
+
+    private void authenticate(Socket socket) throws IOException {
+        when(deviceCache.findByDeviceKey("key-9001")).thenReturn(Optional.of(new DeviceSnapshot(9001L,
+                "DEV-9001", "hash", -25.0, -15.0, DeviceStatus.ACTIVE, 501L, 1001L)));
+        send(socket, "key-9001".getBytes(StandardCharsets.UTF_8));
+        assertThat(receive(socket)).containsExactly(TelemetrySocketListener.REPLY_OK);
+    }
+
+    @Test
+    @DisplayName("an authenticated connection ingests each frame as a batch and replies with its ack")
+    void should_ingest_frames_when_connection_authenticated() throws IOException {
+        // given
+        when(telemetryService.ingestBatch(anyList())).thenReturn(TelemetryBatchResponse.builder()
+                .received(1).accepted(1)
+                .results(List.of(TelemetryBatchItemResult.builder().index(0).accepted(true)
+                        .telemetry(TelemetryResponse.builder().telemetryId(78234441L).isAlert(false).build())
+                        .build()))
+                .build());
+
+        try (Socket socket = connect()) {
+            authenticate(socket);
+
+            // when
+            send(socket, frame(9001L));
+            send(socket, frame(9002L));
+            byte[] first = receive(socket);
+            byte[] second = receive(socket);
+
+            // then
+            assertThat(first[0]).isEqualTo(TelemetrySocketListener.REPLY_OK);
+            assertThat(first).hasSize(1 + 4 + 10);
+            ByteBuffer ack = ByteBuffer.wrap(first, 1 + 4, 10).order(ByteOrder.LITTLE_ENDIAN);
+            assertThat(ack.get()).isEqualTo(TelemetryFrameCodec.STATUS_ACCEPTED);
+            assertThat(ack.get()).isZero();
+            assertThat(ack.getLong()).isEqualTo(78234441L);
+            assertThat(second[0]).isEqualTo(TelemetrySocketListener.REPLY_OK);
+        }
+        verify(deviceCache).findByDeviceKey("key-9001");
+        verify(telemetryService).ingestBatch(argThat(requests -> requests.get(0).getDeviceId() == 9002L));
+    }
+
+    @Test
+    @DisplayName("an unknown device key is answered with an error and the connection is closed")
+    void should_close_connection_when_device_key_unknown() throws IOException {
+        // given
+        when(deviceCache.findByDeviceKey("wrong")).thenReturn(Optional.empty());
+
+        try (Socket socket = connect()) {
+            // when
+            send(socket, "wrong".getBytes(StandardCharsets.UTF_8));
+            byte[] reply = receive(socket);
+
+            // then
+            assertThat(reply[0]).isEqualTo(TelemetrySocketListener.REPLY_ERROR);
+            assertThat(new String(reply, 1, reply.length - 1, StandardCharsets.UTF_8)).contains("Invalid device key");
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+        verifyNoInteractions(telemetryService);
+    }
+
+    @Test
+    @DisplayName("a malformed frame fails only that message and the connection stays usable")
+    void should_reply_error_and_keep_connection_when_frame_malformed() throws IOException {
+        // given
+        when(telemetryService.ingestBatch(anyList())).thenReturn(TelemetryBatchResponse.builder()
+                .results(List.of(TelemetryBatchItemResult.builder().index(0).accepted(false)
+                        .errorCode("NOT_FOUND").build()))
+                .build());
+
+        try (Socket socket = connect()) {
+            authenticate(socket);
+
+            // when
+            send(socket, new byte[]{1, 0, 5, 0});
+            byte[] error = receive(socket);
+            send(socket, frame(9999L));
+            byte[] ack = receive(socket);
+
+            // then
+            assertThat(error[0]).isEqualTo(TelemetrySocketListener.REPLY_ERROR);
+            assertThat(ack[0]).isEqualTo(TelemetrySocketListener.REPLY_OK);
+            assertThat(ack[1 + 4]).isEqualTo(TelemetryFrameCodec.STATUS_NOT_FOUND);
+        }
+    }
+
+    @Test
+    @DisplayName("a message longer than max-frame-bytes closes the connection")
+    void should_close_connection_when_message_too_large() throws IOException {
+        try (Socket socket = connect()) {
+            // when
+            socket.getOutputStream().write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(4096).array());
+            byte[] reply = receive(socket);
+
+            // then
+            assertThat(reply[0]).isEqualTo(TelemetrySocketListener.REPLY_ERROR);
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+        verifyNoInteractions(deviceCache, telemetryService);
+    }
+}
@@ -0,0 +1,86 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.DeviceLatestTelemetry;
+import com.supermart.iot.entity.TelemetryRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the conditional upsert fragment of
+ * {@link DeviceLatestTelemetryRepository}, run against the seeded H2 test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DeviceLatestTelemetryRepositoryTest {
+
+    @Autowired
+    private DeviceLatestTelemetryRepository latestTelemetryRepository;
+
+    @Autowired
+    private IotDeviceRepository deviceRepository;
+
+    private TelemetryRecord reading(long telemetryId, double temperature, LocalDateTime recordedAt) {
+        return TelemetryRecord.builder()
+                .telemetryId(telemetryId)
+                .device(deviceRepository.getReferenceById(9003L))
+                .temperature(temperature)
+                .recordedAt(recordedAt)
+                .isAlert(false)
+                .build();
+    }
+
+    @Test
+    @DisplayName("advance inserts a device's first reading and only moves forward afterwards")
+    void should_keep_newest_reading_when_older_reading_advanced_later() {
+        // given
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 10, 0);
+        latestTelemetryRepository.advance(List.of(reading(100L, -20.0, at)));
+
+        // when
+        latestTelemetryRepository.advance(List.of(reading(99L, -30.0, at.minusMinutes(5))));
+        latestTelemetryRepository.advance(List.of(reading(98L, -31.0, at)));
+
+        // then
+        assertThat(latestTelemetryRepository.findById(9003L)).hasValueSatisfying(latest -> {
+            assertThat(latest.getTelemetryId()).isEqualTo(100L);
+            assertThat(latest.getTemperature()).isEqualTo(-20.0);
+        });
+    }
+
+    @Test
+    @DisplayName("advance replaces the stored reading with a newer one")
+    void should_replace_reading_when_newer_reading_advanced() {
+        // given
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 10, 0);
+        latestTelemetryRepository.advance(List.of(reading(100L, -20.0, at)));
+
+        // when
+        latestTelemetryRepository.advance(List.of(reading(101L, -21.0, at)));
+
+        // then
+        assertThat(latestTelemetryRepository.findById(9003L))
+                .map(DeviceLatestTelemetry::getTemperature)
+                .hasValue(-21.0);
+    }
+
+    @Test
+    @DisplayName("seed data includes the latest reading of each device with telemetry")
+    void should_contain_seed_latest_readings_when_application_started() {
+        // when
+        List<DeviceLatestTelemetry> latest = latestTelemetryRepository.findAllById(List.of(9001L, 9002L, 9005L));
+
+        // then
+        assertThat(latest).extracting(DeviceLatestTelemetry::getTelemetryId)
+                .containsExactlyInAnyOrder(78234501L, 78234502L);
+    }
+}
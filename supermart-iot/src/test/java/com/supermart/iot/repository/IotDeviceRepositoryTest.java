@@ -0,0 +1,141 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.enums.DeviceStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the bulk write and alert-state queries of
+ * {@link IotDeviceRepository}, run against the seeded H2 test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class IotDeviceRepositoryTest {
+
+    @Autowired
+    private IotDeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceLatestTelemetryRepository latestTelemetryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("updateLastSeenAt writes each device's own timestamp in one statement")
+    void should_update_each_device_when_last_seen_flushed() {
+        // given
+        LocalDateTime first = LocalDateTime.of(2026, 3, 1, 10, 0, 1);
+        LocalDateTime second = LocalDateTime.of(2026, 3, 1, 10, 0, 2);
+
+        // when
+        int updated = deviceRepository.updateLastSeenAt(Map.of(9002L, first, 9003L, second, 123456L, second));
+        entityManager.clear();
+
+        // then
+        assertThat(updated).isEqualTo(2);
+        assertThat(deviceRepository.findById(9002L)).get().extracting(IotDevice::getLastSeenAt).isEqualTo(first);
+        assertThat(deviceRepository.findById(9003L)).get().extracting(IotDevice::getLastSeenAt).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("markFault only changes devices that are not already FAULT")
+    void should_mark_only_non_fault_devices_when_markFault_called() {
+        // when — seed data has 9001 in FAULT and 9002 ACTIVE
+        int updated = deviceRepository.markFault(List.of(9001L, 9002L));
+        entityManager.clear();
+
+        // then
+        assertThat(updated).isEqualTo(1);
+        assertThat(deviceRepository.findById(9002L)).get()
+                .extracting(IotDevice::getStatus).isEqualTo(DeviceStatus.FAULT);
+    }
+
+    @Test
+    @DisplayName("transitionToFault returns only the devices it changed, with their previous status")
+    void should_return_changed_devices_when_transitioned_to_fault() {
+        // when — seed data has 9001 in FAULT and 9002 ACTIVE
+        List<IotDeviceRepository.DeviceStatusRow> changed = deviceRepository.transitionToFault(List.of(9001L, 9002L));
+        entityManager.clear();
+
+        // then
+        assertThat(changed).singleElement().satisfies(row -> {
+            assertThat(row.getDeviceId()).isEqualTo(9002L);
+            assertThat(row.getStatus()).isEqualTo(DeviceStatus.ACTIVE);
+        });
+        assertThat(deviceRepository.findById(9002L)).get()
+                .extracting(IotDevice::getStatus).isEqualTo(DeviceStatus.FAULT);
+    }
+
+    // ─── alert state ──────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findAllAlertDevices pages FAULT devices and devices whose latest reading alerts, by id")
+    void should_page_fault_and_latest_alert_devices_when_alerts_requested() {
+        // given — seed data has 9001 in FAULT; 9004 is ACTIVE with an alerting latest reading
+        latestTelemetryRepository.advance(List.of(TelemetryRecord.builder()
+                .telemetryId(500L)
+                .device(deviceRepository.getReferenceById(9004L))
+                .temperature(-5.0)
+                .recordedAt(LocalDateTime.of(2026, 3, 1, 10, 0))
+                .isAlert(true)
+                .build()));
+
+        // when
+        Page<IotDevice> first = deviceRepository.findAllAlertDevices(PageRequest.of(0, 1));
+        Page<IotDevice> second = deviceRepository.findAllAlertDevices(PageRequest.of(1, 1));
+
+        // then
+        assertThat(first.getTotalElements()).isEqualTo(2);
+        assertThat(first.getContent()).extracting(IotDevice::getDeviceId).containsExactly(9001L);
+        assertThat(second.getContent()).extracting(IotDevice::getDeviceId).containsExactly(9004L);
+        assertThat(second.getContent().get(0).getUnit().getStore().getStoreName()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("findAllAlertDevices returns an empty page past the last alerting device")
+    void should_return_empty_page_when_page_beyond_alerting_devices() {
+        // when
+        Page<IotDevice> page = deviceRepository.findAllAlertDevices(PageRequest.of(5, 20));
+
+        // then
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findAlertDeviceIds reads only the requested page of ids")
+    void should_limit_ids_when_alert_page_requested() {
+        // given — seed data has 9001 in FAULT; 9004 is ACTIVE with an alerting latest reading
+        latestTelemetryRepository.advance(List.of(TelemetryRecord.builder()
+                .telemetryId(500L)
+                .device(deviceRepository.getReferenceById(9004L))
+                .temperature(-5.0)
+                .recordedAt(LocalDateTime.of(2026, 3, 1, 10, 0))
+                .isAlert(true)
+                .build()));
+
+        // when
+        List<Long> ids = deviceRepository.findAlertDeviceIds(1, 1);
+
+        // then
+        assertThat(ids).containsExactly(9004L);
+        assertThat(deviceRepository.countAlertDevices()).isEqualTo(2);
+    }
+}
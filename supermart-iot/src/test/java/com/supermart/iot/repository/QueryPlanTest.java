@@ -0,0 +1,113 @@
+package com.supermart.iot.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression tests for the hot repository queries.
+ *
+ * <p>Each case is the SQL a repository method issues (with literal arguments)
+ * and the index it must use. The plan is obtained with {@code EXPLAIN} against
+ * the H2 schema Hibernate builds from the entity {@code @Table} indexes, which
+ * mirror the MySQL Flyway migrations. A missing or unused index shows up as a
+ * {@code tableScan} and fails the build before it reaches a 500M-row table.</p>
+ *
+ * <p>New hot queries should be added here together with their index.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("TelemetryRepository.findByDeviceIdAndDateRange",
+                        "SELECT t.telemetry_id, t.device_id, t.temperature, t.recorded_at, t.is_alert " +
+                        "FROM telemetry_records t WHERE t.device_id = 9001 " +
+                        "AND t.recorded_at >= TIMESTAMP '2026-02-01 00:00:00' " +
+                        "AND t.recorded_at <= TIMESTAMP '2026-02-28 00:00:00' " +
+                        "ORDER BY t.recorded_at DESC OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY",
+                        "IDX_TELEMETRY_DEVICE_RECORDED"),
+                Arguments.of("TelemetryRepository.findPageBefore",
+                        "SELECT t.telemetry_id, t.device_id, t.temperature, t.recorded_at, t.is_alert " +
+                        "FROM telemetry_records t WHERE t.device_id = 9001 " +
+                        "AND t.recorded_at >= TIMESTAMP '1000-01-01 00:00:00' " +
+                        "AND t.recorded_at <= TIMESTAMP '2026-02-24 10:29:00' " +
+                        "AND (t.recorded_at < TIMESTAMP '2026-02-24 10:29:00' OR t.telemetry_id < 78234501) " +
+                        "ORDER BY t.recorded_at DESC, t.telemetry_id DESC FETCH FIRST 21 ROWS ONLY",
+                        "IDX_TELEMETRY_DEVICE_RECORDED"),
+                Arguments.of("TelemetryRepository.findTopByDevice_DeviceIdOrderByRecordedAtDesc",
+                        "SELECT t.telemetry_id, t.device_id, t.temperature, t.recorded_at, t.is_alert " +
+                        "FROM telemetry_records t WHERE t.device_id = 9001 " +
+                        "ORDER BY t.recorded_at DESC FETCH FIRST 1 ROWS ONLY",
+                        "IDX_TELEMETRY_DEVICE_RECORDED"),
+                Arguments.of("TelemetryRepository.countByRecordedAtAfterAndIsAlertTrue",
+                        "SELECT COUNT(t.telemetry_id) FROM telemetry_records t " +
+                        "WHERE t.recorded_at > TIMESTAMP '2026-02-24 00:00:00' AND t.is_alert = TRUE",
+                        "IDX_TELEMETRY_ALERT_RECORDED"),
+                Arguments.of("TelemetryRepository.streamRange (one device-day, as archived)",
+                        "SELECT t.telemetry_id, t.device_id, d.device_serial, u.store_id, u.unit_id, " +
+                        "t.recorded_at, t.temperature, t.is_alert FROM telemetry_records t " +
+                        "JOIN iot_devices d ON d.device_id = t.device_id " +
+                        "JOIN equipment_units u ON u.unit_id = d.unit_id " +
+                        "WHERE t.recorded_at >= TIMESTAMP '2026-01-10 00:00:00' " +
+                        "AND t.recorded_at <= TIMESTAMP '2026-01-10 23:59:59.999999' AND t.device_id = 9001 " +
+                        "ORDER BY t.recorded_at, t.telemetry_id",
+                        "IDX_TELEMETRY_DEVICE_RECORDED"),
+                Arguments.of("TelemetryRollupRepository.deleteBefore",
+                        "DELETE FROM telemetry_rollups WHERE bucket = 'MINUTE' " +
+                        "AND bucket_start < TIMESTAMP '2026-02-17 00:00:00' FETCH FIRST 10000 ROWS ONLY",
+                        "IDX_ROLLUPS_BUCKET_START"),
+                Arguments.of("IncidentRepository.findByDevice_DeviceIdAndStatus",
+                        "SELECT i.incident_id FROM incidents i WHERE i.device_id = 9001 AND i.status = 'OPEN'",
+                        "IDX_INCIDENTS_DEVICE_STATUS"),
+                Arguments.of("IncidentRepository.countByStatus",
+                        "SELECT COUNT(i.incident_id) FROM incidents i WHERE i.status = 'OPEN'",
+                        "IDX_INCIDENTS_STATUS"),
+                Arguments.of("IotDeviceRepository.countByStatus",
+                        "SELECT COUNT(d.device_id) FROM iot_devices d WHERE d.status = 'FAULT'",
+                        "IDX_IOT_DEVICES_STATUS"),
+                Arguments.of("IotDeviceRepository.findAlertDeviceIds",
+                        "SELECT device_id FROM iot_devices WHERE status = 'FAULT' " +
+                        "UNION SELECT device_id FROM device_latest_telemetry WHERE is_alert = TRUE " +
+                        "ORDER BY device_id LIMIT 20 OFFSET 0",
+                        "IDX_LATEST_TELEMETRY_ALERT"),
+                Arguments.of("IotDeviceRepository.countAlertDevices",
+                        "SELECT COUNT(*) FROM (SELECT device_id FROM iot_devices WHERE status = 'FAULT' " +
+                        "UNION SELECT device_id FROM device_latest_telemetry WHERE is_alert = TRUE) alert_devices",
+                        "IDX_LATEST_TELEMETRY_ALERT"),
+                Arguments.of("TelemetryArchiveBlockRepository.findOverlappingIds",
+                        "SELECT b.block_id FROM telemetry_archive_blocks b WHERE b.device_id = 9001 " +
+                        "AND b.block_date >= DATE '2026-01-01' AND b.block_date <= DATE '2026-02-24' " +
+                        "AND b.last_recorded_at >= TIMESTAMP '2026-01-01 00:00:00' " +
+                        "AND b.first_recorded_at <= TIMESTAMP '2026-02-24 10:29:00' " +
+                        "ORDER BY b.block_date DESC",
+                        "UK_ARCHIVE_DEVICE_DATE"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    @DisplayName("hot query uses its index instead of a full table scan")
+    void should_use_index_when_hot_query_explained(String query, String sql, String expectedIndex) {
+        // when
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        // then
+        assertThat(plan)
+                .as("plan for %s", query)
+                .doesNotContain("tableScan")
+                .contains(expectedIndex);
+    }
+}
@@ -0,0 +1,113 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the JDBC fragment of {@link TelemetryRepository},
+ * run against the seeded H2 test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TelemetryRepositoryTest {
+
+    @Autowired
+    private TelemetryRepository telemetryRepository;
+
+    @Autowired
+    private IotDeviceRepository deviceRepository;
+
+    @Test
+    @DisplayName("batchInsert persists every record and assigns generated ids in order")
+    void should_assign_generated_ids_when_batch_inserted() {
+        // given
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<TelemetryRecord> records = List.of(
+                TelemetryRecord.builder().device(deviceRepository.getReferenceById(9002L))
+                        .temperature(4.0).recordedAt(now.minusSeconds(2)).isAlert(false).build(),
+                TelemetryRecord.builder().device(deviceRepository.getReferenceById(9003L))
+                        .temperature(-10.0).recordedAt(now.minusSeconds(1)).isAlert(true).build());
+
+        // when
+        telemetryRepository.batchInsert(records);
+
+        // then
+        assertThat(records).allSatisfy(r -> assertThat(r.getTelemetryId()).isNotNull());
+        assertThat(records.get(0).getTelemetryId()).isNotEqualTo(records.get(1).getTelemetryId());
+        assertThat(telemetryRepository.findById(records.get(1).getTelemetryId()))
+                .hasValueSatisfying(r -> {
+                    assertThat(r.getTemperature()).isEqualTo(-10.0);
+                    assertThat(r.getIsAlert()).isTrue();
+                });
+    }
+
+    @Test
+    @DisplayName("findByDeviceIdAndDateRange treats null bounds as open")
+    void should_return_all_device_readings_when_bounds_null() {
+        // given
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        telemetryRepository.batchInsert(List.of(
+                TelemetryRecord.builder().device(deviceRepository.getReferenceById(9004L))
+                        .temperature(-20.0).recordedAt(now.minusDays(400)).isAlert(false).build(),
+                TelemetryRecord.builder().device(deviceRepository.getReferenceById(9004L))
+                        .temperature(-19.0).recordedAt(now).isAlert(false).build()));
+
+        // when
+        Page<TelemetryRecord> open = telemetryRepository.findByDeviceIdAndDateRange(9004L, null, null, PageRequest.of(0, 50));
+        Page<TelemetryRecord> bounded = telemetryRepository.findByDeviceIdAndDateRange(
+                9004L, now.minusDays(1), null, PageRequest.of(0, 50));
+
+        // then
+        assertThat(open.getContent()).extracting(TelemetryRecord::getRecordedAt).contains(now, now.minusDays(400));
+        assertThat(open.getContent().get(0).getRecordedAt()).isAfterOrEqualTo(bounded.getContent().get(0).getRecordedAt());
+        assertThat(bounded.getContent()).extracting(TelemetryRecord::getRecordedAt).doesNotContain(now.minusDays(400));
+    }
+
+    @Test
+    @DisplayName("findPageBefore walks readings sharing a timestamp without skipping or repeating any")
+    void should_visit_every_reading_once_when_paging_by_keyset() {
+        // given
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<TelemetryRecord> inserted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            inserted.add(TelemetryRecord.builder().device(deviceRepository.getReferenceById(9003L))
+                    .temperature(-20.0 + i).recordedAt(i < 3 ? now : now.minusMinutes(i)).isAlert(false).build());
+        }
+        telemetryRepository.batchInsert(inserted);
+        LocalDateTime from = now.minusHours(1);
+
+        // when
+        List<Long> visited = new ArrayList<>();
+        LocalDateTime beforeAt = TelemetryRepository.LATEST_RECORDED_AT;
+        long beforeId = Long.MAX_VALUE;
+        List<TelemetryRecord> page;
+        do {
+            page = telemetryRepository.findPageBefore(9003L, from, beforeAt, beforeId, Limit.of(2));
+            page.forEach(r -> visited.add(r.getTelemetryId()));
+            if (!page.isEmpty()) {
+                beforeAt = page.get(page.size() - 1).getRecordedAt();
+                beforeId = page.get(page.size() - 1).getTelemetryId();
+            }
+        } while (page.size() == 2);
+
+        // then
+        assertThat(visited).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(inserted.stream().map(TelemetryRecord::getTelemetryId).toList());
+        assertThat(visited.subList(0, 3)).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+}
@@ -0,0 +1,100 @@
+package com.supermart.iot.repository;
+
+import com.supermart.iot.entity.TelemetryRollup;
+import com.supermart.iot.entity.TelemetryRollupId;
+import com.supermart.iot.enums.RollupBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the upsert and delete fragment of {@link TelemetryRollupRepository},
+ * run against the seeded H2 test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TelemetryRollupRepositoryTest {
+
+    @Autowired
+    private TelemetryRollupRepository rollupRepository;
+
+    private TelemetryRollup delta(LocalDateTime bucketStart, long count, long alerts, double min, double max, double sum) {
+        return TelemetryRollup.builder()
+                .id(new TelemetryRollupId(9003L, RollupBucket.HOUR, bucketStart))
+                .sampleCount(count).alertCount(alerts)
+                .minTemperature(min).maxTemperature(max).temperatureSum(sum)
+                .build();
+    }
+
+    @Test
+    @DisplayName("upsert inserts new buckets and merges into existing ones")
+    void should_merge_counts_and_widen_range_when_bucket_upserted_twice() {
+        // given
+        LocalDateTime hour = LocalDateTime.of(2026, 3, 1, 10, 0);
+        rollupRepository.upsert(List.of(delta(hour, 2, 0, -20.0, -18.0, -38.0)));
+
+        // when
+        rollupRepository.upsert(List.of(
+                delta(hour, 1, 1, -12.0, -12.0, -12.0),
+                delta(hour.plusHours(1), 1, 0, -19.0, -19.0, -19.0)));
+
+        // then
+        List<TelemetryRollup> series = rollupRepository.findSeries(9003L, RollupBucket.HOUR, hour, hour.plusHours(1));
+        assertThat(series).hasSize(2);
+        TelemetryRollup merged = series.get(0);
+        assertThat(merged.getSampleCount()).isEqualTo(3);
+        assertThat(merged.getAlertCount()).isEqualTo(1);
+        assertThat(merged.getMinTemperature()).isEqualTo(-20.0);
+        assertThat(merged.getMaxTemperature()).isEqualTo(-12.0);
+        assertThat(merged.getTemperatureSum()).isEqualTo(-50.0);
+    }
+
+    @Test
+    @DisplayName("seed data is rolled up on startup")
+    void should_contain_seed_rollups_when_application_started() {
+        // when
+        List<TelemetryRollup> series = rollupRepository.findSeries(9001L, RollupBucket.DAY,
+                LocalDateTime.of(2026, 2, 24, 0, 0), LocalDateTime.of(2026, 2, 24, 0, 0));
+
+        // then
+        assertThat(series).singleElement().satisfies(r -> {
+            assertThat(r.getSampleCount()).isEqualTo(2);
+            assertThat(r.getAlertCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("deleteBefore removes at most limit rows of one bucket older than the cutoff")
+    void should_delete_only_older_rows_of_bucket_when_deleted_before_cutoff() {
+        // given
+        LocalDateTime hour = LocalDateTime.of(2020, 1, 1, 0, 0);
+        rollupRepository.upsert(List.of(
+                delta(hour, 1, 0, -20.0, -20.0, -20.0),
+                delta(hour.plusHours(1), 1, 0, -20.0, -20.0, -20.0),
+                delta(hour.plusHours(2), 1, 0, -20.0, -20.0, -20.0)));
+        LocalDateTime cutoff = hour.plusHours(2);
+
+        // when
+        int first = rollupRepository.deleteBefore(RollupBucket.HOUR, cutoff, 1);
+        int second = rollupRepository.deleteBefore(RollupBucket.HOUR, cutoff, 1);
+        int third = rollupRepository.deleteBefore(RollupBucket.HOUR, cutoff, 1);
+
+        // then
+        assertThat(List.of(first, second, third)).containsExactly(1, 1, 0);
+        assertThat(rollupRepository.findSeries(9003L, RollupBucket.HOUR, hour, cutoff))
+                .extracting(r -> r.getId().getBucketStart())
+                .containsExactly(cutoff);
+        assertThat(rollupRepository.findSeries(9003L, RollupBucket.DAY, hour, cutoff)).isEmpty();
+        assertThat(rollupRepository.findSeries(9001L, RollupBucket.DAY,
+                LocalDateTime.of(2026, 2, 24, 0, 0), LocalDateTime.of(2026, 2, 24, 0, 0))).hasSize(1);
+    }
+}
@@ -1,11 +1,15 @@
 package com.supermart.iot.security;
 
+import com.supermart.iot.enums.UserRole;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -192,4 +196,99 @@ class JwtServiceTest {
         assertThatThrownBy(() -> underTest.extractEmail("not.a.valid.token"))
                 .isInstanceOf(Exception.class);
     }
+
+    // ─── Verification cache ────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("verify returns the cached claims when the same token is verified again")
+    void should_return_cached_claims_when_token_verified_twice() {
+        // given
+        String token = underTest.generateAccessToken(TEST_EMAIL);
+        Claims first = underTest.verify(token);
+
+        // when
+        Claims second = underTest.verify(token);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(second.getSubject()).isEqualTo(TEST_EMAIL);
+    }
+
+    @Test
+    @DisplayName("verify rejects a token whose signature was tampered with after a valid one was cached")
+    void should_throw_when_token_signature_is_tampered() {
+        // given
+        String token = underTest.generateAccessToken(TEST_EMAIL);
+        underTest.verify(token);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        // when / then
+        assertThatThrownBy(() -> underTest.verify(tampered))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("verify rejects a cached token once its exp has passed")
+    void should_throw_when_cached_token_has_expired() throws InterruptedException {
+        // given — exp has second precision, so 1.5 s leaves at least 0.5 s to verify
+        ReflectionTestUtils.setField(underTest, "accessTokenExpirationMs", 1500L);
+        String token = underTest.generateAccessToken(TEST_EMAIL);
+        underTest.verify(token);
+
+        // when
+        Thread.sleep(1600L);
+
+        // then
+        assertThatThrownBy(() -> underTest.verify(token))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("verify parses the token every time when the cache is disabled")
+    void should_parse_every_time_when_cache_disabled() {
+        // given
+        ReflectionTestUtils.setField(underTest, "verifiedCacheSize", 0L);
+        String token = underTest.generateAccessToken(TEST_EMAIL);
+        Claims first = underTest.verify(token);
+
+        // when
+        Claims second = underTest.verify(token);
+
+        // then
+        assertThat(second).isNotSameAs(first);
+        assertThat(underTest.isTokenValid(second, User.withUsername(TEST_EMAIL)
+                .password("irrelevant")
+                .authorities(Collections.emptyList())
+                .build())).isTrue();
+    }
+
+    // ─── Role and user id claims ───────────────────────────────────────────────
+
+    @Test
+    @DisplayName("extractUser returns the uid and role embedded in an access token")
+    void should_return_user_from_claims_when_access_token_carries_uid_and_role() {
+        // given
+        String token = underTest.generateAccessToken(TEST_EMAIL, 42L, UserRole.ADMIN);
+
+        // when
+        AuthenticatedUser user = underTest.extractUser(underTest.verify(token));
+
+        // then
+        assertThat(user).isEqualTo(new AuthenticatedUser(42L, TEST_EMAIL, UserRole.ADMIN));
+        assertThat(user.getName()).isEqualTo(TEST_EMAIL);
+        assertThat(user.authorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("extractUser returns null for tokens without uid and role claims")
+    void should_return_null_user_when_token_has_no_user_claims() {
+        // given
+        String accessToken = underTest.generateAccessToken(TEST_EMAIL);
+        String refreshToken = underTest.generateRefreshToken(TEST_EMAIL);
+
+        // when / then
+        assertThat(underTest.extractUser(underTest.verify(accessToken))).isNull();
+        assertThat(underTest.extractUser(underTest.verify(refreshToken))).isNull();
+    }
 }
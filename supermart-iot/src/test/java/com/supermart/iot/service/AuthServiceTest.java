@@ -3,6 +3,9 @@ package com.supermart.iot.service;
 import com.supermart.iot.dto.request.LoginRequest;
 import com.supermart.iot.dto.request.RefreshRequest;
 import com.supermart.iot.dto.response.LoginResponse;
+import com.supermart.iot.entity.User;
+import com.supermart.iot.enums.UserRole;
+import com.supermart.iot.repository.UserRepository;
 import com.supermart.iot.security.JwtService;
 import com.supermart.iot.service.impl.AuthService;
 import org.junit.jupiter.api.DisplayName;
@@ -14,11 +17,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 
-import java.util.Collections;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -42,12 +42,13 @@ class AuthServiceTest {
     private JwtService jwtService;
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private UserRepository userRepository;
 
     @InjectMocks
     private AuthService underTest;
 
     private static final String TEST_EMAIL = "user@supermart.com";
+    private static final long TEST_USER_ID = 42L;
     private static final String TEST_PASSWORD = "secret";
     private static final String ACCESS_TOKEN = "access.token.value";
     private static final String REFRESH_TOKEN = "refresh.token.value";
@@ -61,10 +62,10 @@ class AuthServiceTest {
     void should_return_loginResponse_when_credentials_are_valid() {
         // given
         LoginRequest request = new LoginRequest(TEST_EMAIL, TEST_PASSWORD);
-        UserDetails userDetails = buildUserDetails(TEST_EMAIL);
+        User user = buildUser(TEST_EMAIL);
 
-        when(userDetailsService.loadUserByUsername(TEST_EMAIL)).thenReturn(userDetails);
-        when(jwtService.generateAccessToken(TEST_EMAIL)).thenReturn(ACCESS_TOKEN);
+        when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+        when(jwtService.generateAccessToken(TEST_EMAIL, TEST_USER_ID, UserRole.MANAGER)).thenReturn(ACCESS_TOKEN);
         when(jwtService.generateRefreshToken(TEST_EMAIL)).thenReturn(REFRESH_TOKEN);
         when(jwtService.getAccessTokenExpirationMs()).thenReturn(ACCESS_TOKEN_EXPIRATION_MS);
 
@@ -84,10 +85,10 @@ class AuthServiceTest {
     void should_return_expiresIn_2700_seconds_when_login_successful() {
         // given
         LoginRequest request = new LoginRequest(TEST_EMAIL, TEST_PASSWORD);
-        UserDetails userDetails = buildUserDetails(TEST_EMAIL);
+        User user = buildUser(TEST_EMAIL);
 
-        when(userDetailsService.loadUserByUsername(TEST_EMAIL)).thenReturn(userDetails);
-        when(jwtService.generateAccessToken(TEST_EMAIL)).thenReturn(ACCESS_TOKEN);
+        when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+        when(jwtService.generateAccessToken(TEST_EMAIL, TEST_USER_ID, UserRole.MANAGER)).thenReturn(ACCESS_TOKEN);
         when(jwtService.generateRefreshToken(TEST_EMAIL)).thenReturn(REFRESH_TOKEN);
         when(jwtService.getAccessTokenExpirationMs()).thenReturn(ACCESS_TOKEN_EXPIRATION_MS);
 
@@ -119,12 +120,12 @@ class AuthServiceTest {
     void should_return_new_loginResponse_when_refresh_token_is_valid() {
         // given
         RefreshRequest request = new RefreshRequest(REFRESH_TOKEN);
-        UserDetails userDetails = buildUserDetails(TEST_EMAIL);
+        User user = buildUser(TEST_EMAIL);
 
         when(jwtService.extractEmail(REFRESH_TOKEN)).thenReturn(TEST_EMAIL);
-        when(userDetailsService.loadUserByUsername(TEST_EMAIL)).thenReturn(userDetails);
-        when(jwtService.isTokenValid(REFRESH_TOKEN, userDetails)).thenReturn(true);
-        when(jwtService.generateAccessToken(TEST_EMAIL)).thenReturn(ACCESS_TOKEN);
+        when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+        when(jwtService.isTokenExpired(REFRESH_TOKEN)).thenReturn(false);
+        when(jwtService.generateAccessToken(TEST_EMAIL, TEST_USER_ID, UserRole.MANAGER)).thenReturn(ACCESS_TOKEN);
         when(jwtService.generateRefreshToken(TEST_EMAIL)).thenReturn(REFRESH_TOKEN);
         when(jwtService.getAccessTokenExpirationMs()).thenReturn(ACCESS_TOKEN_EXPIRATION_MS);
 
@@ -142,11 +143,11 @@ class AuthServiceTest {
     void should_throw_when_refresh_token_is_invalid() {
         // given
         RefreshRequest request = new RefreshRequest(REFRESH_TOKEN);
-        UserDetails userDetails = buildUserDetails(TEST_EMAIL);
+        User user = buildUser(TEST_EMAIL);
 
         when(jwtService.extractEmail(REFRESH_TOKEN)).thenReturn(TEST_EMAIL);
-        when(userDetailsService.loadUserByUsername(TEST_EMAIL)).thenReturn(userDetails);
-        when(jwtService.isTokenValid(REFRESH_TOKEN, userDetails)).thenReturn(false);
+        when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+        when(jwtService.isTokenExpired(REFRESH_TOKEN)).thenReturn(true);
 
         // when / then
         assertThatThrownBy(() -> underTest.refresh(request))
@@ -154,6 +155,21 @@ class AuthServiceTest {
                 .hasMessageContaining("Refresh token is invalid or has expired");
     }
 
+    @Test
+    @DisplayName("refresh throws BadCredentialsException when the user no longer exists")
+    void should_throw_when_refresh_token_user_was_removed() {
+        // given
+        RefreshRequest request = new RefreshRequest(REFRESH_TOKEN);
+
+        when(jwtService.extractEmail(REFRESH_TOKEN)).thenReturn(TEST_EMAIL);
+        when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.empty());
+
+        // when / then
+        assertThatThrownBy(() -> underTest.refresh(request))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(jwtService, never()).generateAccessToken(any(), anyLong(), any());
+    }
+
     // ─── AC-5: Security validation — edge cases ────────────────────────────────
 
     @Test
@@ -165,15 +181,17 @@ class AuthServiceTest {
     }
 
     /**
-     * Builds a minimal {@link UserDetails} stub for the given username.
+     * Builds a minimal {@link User} entity for the given email.
      *
-     * @param username the username (email) to set on the test user
-     * @return a non-null {@link UserDetails} instance
+     * @param email the email to set on the test user
+     * @return a non-null {@link User} instance with the {@code MANAGER} role
      */
-    private UserDetails buildUserDetails(String username) {
-        return User.withUsername(username)
-                .password("encoded-password")
-                .authorities(Collections.emptyList())
+    private User buildUser(String email) {
+        return User.builder()
+                .id(TEST_USER_ID)
+                .email(email)
+                .passwordHash("encoded-password")
+                .role(UserRole.MANAGER)
                 .build();
     }
 }
@@ -0,0 +1,306 @@
+package com.supermart.iot.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supermart.iot.dto.response.DashboardSummaryResponse;
+import com.supermart.iot.dto.response.IotDeviceSummaryResponse;
+import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.repository.IotDeviceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DashboardBroadcaster}.
+ *
+ * <p>Covers the initial snapshot, fan-out to every subscriber, alert raise/clear
+ * tracking, summary pushes on counter changes, isolation of subscribers whose
+ * sends block and disconnection of subscribers that overflow or stall.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardBroadcasterTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private DeviceService deviceService;
+
+    @Mock
+    private IotDeviceRepository deviceRepository;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private CountDownLatch sendGate;
+    private DashboardBroadcaster underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new DashboardBroadcaster(dashboardService, deviceService, deviceRepository,
+                new ObjectMapper().findAndRegisterModules()) {
+            @Override
+            protected SseEmitter newEmitter(long timeout) {
+                RecordingEmitter emitter = new RecordingEmitter(sendGate);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(underTest, "subscriberBuffer", 4);
+        ReflectionTestUtils.setField(underTest, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(underTest, "initialAlerts", 50);
+        ReflectionTestUtils.setField(underTest, "sendTimeoutMs", 10_000L);
+        underTest.start();
+
+        lenient().when(dashboardService.getSummary()).thenReturn(summary(3));
+        lenient().when(deviceRepository.findAllAlertDevices(any())).thenReturn(Page.empty());
+        lenient().when(deviceService.toSummaryResponses(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sendGate = null;
+        emitters.forEach(RecordingEmitter::release);
+        underTest.stop();
+    }
+
+    private static DashboardSummaryResponse summary(long activeDevices) {
+        return DashboardSummaryResponse.builder().totalStores(3).activeDevices(activeDevices).build();
+    }
+
+    private static IotDeviceSummaryResponse device(long id, DeviceStatus status, boolean alert) {
+        return IotDeviceSummaryResponse.builder().deviceId(id).status(status).isAlert(alert).build();
+    }
+
+    // ─── subscribe ────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("subscribe sends the current summary and alert list")
+    void should_send_initial_snapshot_when_subscribed() {
+        // given
+        when(deviceRepository.findAllAlertDevices(any())).thenReturn(new PageImpl<>(List.of()));
+        when(deviceService.toSummaryResponses(any())).thenReturn(List.of(device(9001L, DeviceStatus.FAULT, true)));
+
+        // when
+        underTest.subscribe();
+
+        // then
+        RecordingEmitter emitter = emitters.get(0);
+        emitter.awaitEvents(2);
+        assertThat(emitter.events.get(0)).contains("event:summary").contains("\"activeDevices\":3");
+        assertThat(emitter.events.get(1)).contains("event:alerts").contains("\"deviceId\":9001");
+        assertThat(underTest.subscriberCount()).isEqualTo(1);
+    }
+
+    // ─── fan-out ──────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("publishSummaryIfChanged sends the summary to every subscriber only when a counter changed")
+    void should_fan_out_summary_only_when_counts_change() {
+        // given
+        underTest.subscribe();
+        underTest.subscribe();
+        underTest.publishSummaryIfChanged();
+        underTest.publishSummaryIfChanged();
+        when(dashboardService.getSummary()).thenReturn(summary(4));
+
+        // when
+        underTest.publishSummaryIfChanged();
+
+        // then
+        for (RecordingEmitter emitter : emitters) {
+            emitter.awaitEvents(4);
+            assertThat(emitter.events).hasSize(4);
+            assertThat(emitter.events.get(3)).contains("event:summary").contains("\"activeDevices\":4");
+        }
+    }
+
+    @Test
+    @DisplayName("devicesChanged pushes alerting devices and clears devices that stopped alerting")
+    void should_publish_alert_then_alert_cleared_when_device_recovers() {
+        // given — the summary has been pushed once, so unchanged counters add no events
+        underTest.subscribe();
+        RecordingEmitter emitter = emitters.get(0);
+        underTest.publishSummaryIfChanged();
+        emitter.awaitEvents(3);
+        when(deviceService.toSummaryResponses(any()))
+                .thenReturn(List.of(device(9002L, DeviceStatus.ACTIVE, true)))
+                .thenReturn(List.of(device(9002L, DeviceStatus.ACTIVE, false)));
+
+        // when
+        underTest.devicesChanged(List.of(9002L), List.of(9002L));
+        emitter.awaitEvents(4);
+        underTest.devicesChanged(List.of(), List.of(9002L));
+
+        // then
+        emitter.awaitEvents(5);
+        assertThat(emitter.events.get(3)).contains("event:alert\n").contains("\"deviceId\":9002");
+        assertThat(emitter.events.get(4)).contains("event:alert-cleared").contains("9002");
+    }
+
+    @Test
+    @DisplayName("countersChanged pushes the summary without waiting for the periodic check")
+    void should_push_summary_when_counters_changed() {
+        // given
+        underTest.subscribe();
+        RecordingEmitter emitter = emitters.get(0);
+        underTest.publishSummaryIfChanged();
+        emitter.awaitEvents(3);
+        when(dashboardService.getSummary()).thenReturn(summary(4));
+
+        // when — outside a transaction the push is scheduled immediately
+        underTest.countersChanged();
+
+        // then
+        emitter.awaitEvents(4);
+        assertThat(emitter.events.get(3)).contains("event:summary").contains("\"activeDevices\":4");
+    }
+
+    @Test
+    @DisplayName("devicesChanged loads nothing for devices that neither alert nor were alerting")
+    void should_not_load_devices_when_none_are_alerting() {
+        // given
+        underTest.subscribe();
+
+        // when
+        underTest.devicesChanged(List.of(), List.of(9003L));
+
+        // then
+        verify(deviceRepository, never()).findByDeviceIdIn(any());
+    }
+
+    // ─── slow consumers ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("a subscriber whose buffer overflows is disconnected without affecting the others")
+    void should_drop_slow_subscriber_when_buffer_is_full() {
+        // given
+        sendGate = new CountDownLatch(1);
+        underTest.subscribe();
+        RecordingEmitter slow = emitters.get(0);
+        sendGate = null;
+        underTest.subscribe();
+        RecordingEmitter fast = emitters.get(1);
+        fast.awaitEvents(2);
+
+        // when
+        for (int i = 0; i < 6; i++) {
+            underTest.publish(new DashboardBroadcaster.Event(DashboardBroadcaster.SUMMARY, "{\"n\":" + i + "}"));
+            fast.awaitEvents(3 + i);
+        }
+
+        // then — the slow emitter is completed by its own sender once its blocked send returns
+        assertThat(underTest.subscriberCount()).isEqualTo(1);
+        assertThat(fast.events).hasSize(8);
+        assertThat(fast.completed).isFalse();
+        slow.release();
+        slow.awaitCompleted();
+    }
+
+    @Test
+    @DisplayName("subscribers whose sends block do not delay events to the others")
+    void should_deliver_to_other_subscribers_when_sends_block() {
+        // given — more blocked subscribers than the old fixed sender pool had threads
+        sendGate = new CountDownLatch(1);
+        for (int i = 0; i < 6; i++) {
+            underTest.subscribe();
+        }
+        sendGate = null;
+        underTest.subscribe();
+        RecordingEmitter fast = emitters.get(6);
+        fast.awaitEvents(2);
+
+        // when
+        underTest.publish(new DashboardBroadcaster.Event(DashboardBroadcaster.SUMMARY, "{\"n\":1}"));
+
+        // then
+        fast.awaitEvents(3);
+        assertThat(emitters.subList(0, 6)).allSatisfy(blocked -> assertThat(blocked.events).isEmpty());
+    }
+
+    @Test
+    @DisplayName("a subscriber blocked in a send past the send timeout is disconnected")
+    void should_drop_subscriber_when_send_stalls() throws InterruptedException {
+        // given
+        ReflectionTestUtils.setField(underTest, "sendTimeoutMs", 50L);
+        sendGate = new CountDownLatch(1);
+        underTest.subscribe();
+        RecordingEmitter stalled = emitters.get(0);
+        Thread.sleep(100);
+
+        // when
+        underTest.dropStalledSubscribers();
+
+        // then — the blocked send is interrupted and its sender completes the emitter
+        assertThat(underTest.subscriberCount()).isZero();
+        stalled.awaitCompleted();
+    }
+
+    /** Records sent events; blocks each send on {@code gate} when one is given. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new java.util.concurrent.CopyOnWriteArrayList<>();
+        private final CountDownLatch gate;
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        void release() {
+            if (gate != null) {
+                gate.countDown();
+            }
+        }
+
+        void awaitCompleted() {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!completed && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertThat(completed).isTrue();
+        }
+
+        void awaitEvents(int count) {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertThat(events).hasSizeGreaterThanOrEqualTo(count);
+        }
+    }
+}
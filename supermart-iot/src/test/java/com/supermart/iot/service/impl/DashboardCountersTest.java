@@ -0,0 +1,149 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.enums.IncidentStatus;
+import com.supermart.iot.repository.IncidentRepository;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.StoreRepository;
+import com.supermart.iot.service.TelemetryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DashboardCounters}.
+ *
+ * <p>Covers reconciliation from the repositories, incremental status and
+ * incident transitions, and expiry of the per-minute alert window.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardCountersTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private IotDeviceRepository deviceRepository;
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private TelemetryStore telemetryStore;
+
+    @InjectMocks
+    private DashboardCounters underTest;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 3, 1, 10, 30, 15);
+
+    private void setClock(LocalDateTime at) {
+        ReflectionTestUtils.setField(underTest, "clock", Clock.fixed(at.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @BeforeEach
+    void setUp() {
+        setClock(now);
+        when(storeRepository.count()).thenReturn(3L);
+        when(deviceRepository.countByStatus(DeviceStatus.ACTIVE)).thenReturn(4L);
+        when(deviceRepository.countByStatus(DeviceStatus.FAULT)).thenReturn(1L);
+        when(incidentRepository.countByStatus(IncidentStatus.OPEN)).thenReturn(2L);
+        when(telemetryStore.findAlertRecordedAtFrom(any()))
+                .thenReturn(List.of(now.minusMinutes(5), now.minusMinutes(50)));
+    }
+
+    @Test
+    @DisplayName("counters are loaded from the database on first read and served from memory afterwards")
+    void should_reconcile_once_when_read_repeatedly() {
+        // when
+        long stores = underTest.getTotalStores();
+        underTest.getActiveDevices();
+        underTest.getFaultyDevices();
+        underTest.getOpenIncidents();
+        long alerts = underTest.getAlertsLastHour();
+
+        // then
+        assertThat(stores).isEqualTo(3L);
+        assertThat(alerts).isEqualTo(2L);
+        verify(storeRepository, times(1)).count();
+        verify(telemetryStore).findAlertRecordedAtFrom(LocalDateTime.of(2026, 3, 1, 9, 31));
+    }
+
+    @Test
+    @DisplayName("device and incident transitions adjust the counters incrementally")
+    void should_adjust_counters_when_status_transitions_reported() {
+        // given
+        underTest.reconcile();
+
+        // when
+        underTest.deviceStatusChanged(DeviceStatus.ACTIVE, DeviceStatus.FAULT);
+        underTest.deviceStatusChanged(DeviceStatus.INACTIVE, DeviceStatus.FAULT);
+        underTest.incidentStatusChanged(null, IncidentStatus.OPEN);
+        underTest.incidentStatusChanged(IncidentStatus.OPEN, IncidentStatus.ASSIGNED);
+        underTest.incidentStatusChanged(IncidentStatus.OPEN, IncidentStatus.RESOLVED);
+        underTest.incidentStatusChanged(IncidentStatus.ASSIGNED, IncidentStatus.RESOLVED);
+
+        // then
+        assertThat(underTest.getActiveDevices()).isEqualTo(3L);
+        assertThat(underTest.getFaultyDevices()).isEqualTo(3L);
+        assertThat(underTest.getOpenIncidents()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("alerts drop out of the window once they are older than an hour")
+    void should_expire_alerts_when_window_moves_past_them() {
+        // given
+        underTest.reconcile();
+        underTest.recordAlerts(List.of(now, now.plusMinutes(3)));
+        assertThat(underTest.getAlertsLastHour()).isEqualTo(4L);
+
+        // when
+        setClock(now.plusMinutes(15));
+
+        // then — the reading from 50 minutes before is now outside the hour
+        assertThat(underTest.getAlertsLastHour()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("alerts recorded before the window are ignored")
+    void should_ignore_alerts_when_recorded_before_window() {
+        // given
+        underTest.reconcile();
+
+        // when
+        underTest.recordAlerts(List.of(now.minusHours(2)));
+
+        // then
+        assertThat(underTest.getAlertsLastHour()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("a failed reconciliation keeps the incremental values")
+    void should_keep_counters_when_reconciliation_fails() {
+        // given
+        underTest.reconcile();
+        underTest.incidentStatusChanged(null, IncidentStatus.OPEN);
+        when(incidentRepository.countByStatus(IncidentStatus.OPEN))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // when
+        underTest.reconcile();
+
+        // then
+        assertThat(underTest.getOpenIncidents()).isEqualTo(3L);
+    }
+}
@@ -7,11 +7,7 @@ import com.supermart.iot.entity.EquipmentUnit;
 import com.supermart.iot.entity.IotDevice;
 import com.supermart.iot.entity.Store;
 import com.supermart.iot.enums.DeviceStatus;
-import com.supermart.iot.enums.IncidentStatus;
 import com.supermart.iot.repository.IotDeviceRepository;
-import com.supermart.iot.repository.IncidentRepository;
-import com.supermart.iot.repository.StoreRepository;
-import com.supermart.iot.repository.TelemetryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,35 +19,29 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for {@link DashboardService}.
  *
- * <p>Covers dashboard summary aggregation and alert device listing.</p>
+ * <p>Covers the counter-backed dashboard summary and alert device listing.</p>
  */
 @ExtendWith(MockitoExtension.class)
 class DashboardServiceTest {
 
-    @Mock
-    private StoreRepository storeRepository;
-
     @Mock
     private IotDeviceRepository deviceRepository;
 
     @Mock
-    private IncidentRepository incidentRepository;
-
-    @Mock
-    private TelemetryRepository telemetryRepository;
+    private DeviceService deviceService;
 
     @Mock
-    private DeviceService deviceService;
+    private DashboardCounters counters;
 
     @InjectMocks
     private DashboardService underTest;
@@ -77,11 +67,11 @@ class DashboardServiceTest {
     @DisplayName("getSummary returns correctly aggregated dashboard summary")
     void should_return_dashboard_summary_with_correct_counts() {
         // given
-        when(storeRepository.count()).thenReturn(3L);
-        when(deviceRepository.countByStatus(DeviceStatus.ACTIVE)).thenReturn(4L);
-        when(deviceRepository.countByStatus(DeviceStatus.FAULT)).thenReturn(1L);
-        when(incidentRepository.countByStatus(IncidentStatus.OPEN)).thenReturn(2L);
-        when(telemetryRepository.countByRecordedAtAfterAndIsAlertTrue(any(LocalDateTime.class))).thenReturn(5L);
+        when(counters.getTotalStores()).thenReturn(3L);
+        when(counters.getActiveDevices()).thenReturn(4L);
+        when(counters.getFaultyDevices()).thenReturn(1L);
+        when(counters.getOpenIncidents()).thenReturn(2L);
+        when(counters.getAlertsLastHour()).thenReturn(5L);
 
         // when
         DashboardSummaryResponse result = underTest.getSummary();
@@ -94,6 +84,7 @@ class DashboardServiceTest {
         assertThat(result.getOpenIncidents()).isEqualTo(2L);
         assertThat(result.getAlertsLastHour()).isEqualTo(5L);
         assertThat(result.getAsOf()).isNotNull();
+        verifyNoInteractions(deviceRepository);
     }
 
     // ─── getAlerts ────────────────────────────────────────────────────────────
@@ -110,7 +101,7 @@ class DashboardServiceTest {
                 .build();
 
         when(deviceRepository.findAllAlertDevices(any(Pageable.class))).thenReturn(page);
-        when(deviceService.toSummaryResponse(alertDevice)).thenReturn(summaryResponse);
+        when(deviceService.toSummaryResponses(List.of(alertDevice))).thenReturn(List.of(summaryResponse));
 
         // when
         PagedResponse<IotDeviceSummaryResponse> result = underTest.getAlerts(0, 20);
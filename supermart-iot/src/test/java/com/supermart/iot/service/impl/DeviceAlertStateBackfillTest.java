@@ -0,0 +1,93 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.repository.DeviceLatestTelemetryRepository;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.service.TelemetryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DeviceAlertStateBackfill}.
+ *
+ * <p>Covers the keyset walk over devices in chunks, the newest-reading lookup
+ * through the {@link TelemetryStore} and the startup switch.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class DeviceAlertStateBackfillTest {
+
+    @Mock
+    private IotDeviceRepository deviceRepository;
+
+    @Mock
+    private TelemetryStore telemetryStore;
+
+    @Mock
+    private DeviceLatestTelemetryRepository latestTelemetryRepository;
+
+    @InjectMocks
+    private DeviceAlertStateBackfill underTest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "chunkSize", 2);
+    }
+
+    private void stubNewest(long deviceId, TelemetryRecord... newest) {
+        when(telemetryStore.findPageBefore(deviceId, null, TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, 1))
+                .thenReturn(List.of(newest));
+    }
+
+    private static TelemetryRecord reading(long telemetryId, long deviceId) {
+        return TelemetryRecord.builder().telemetryId(telemetryId)
+                .device(IotDevice.builder().deviceId(deviceId).build())
+                .temperature(-18.0).recordedAt(LocalDateTime.of(2026, 2, 24, 10, 29)).isAlert(false).build();
+    }
+
+    @Test
+    @DisplayName("run advances each chunk to its devices' newest readings, continuing after the last id of each chunk")
+    void should_rebuild_every_chunk_when_run() {
+        // given — 9003 has no readings
+        TelemetryRecord first = reading(78234501L, 9001L);
+        TelemetryRecord second = reading(78234502L, 9002L);
+        when(deviceRepository.findDeviceIdsAfter(Long.MIN_VALUE, Limit.of(2))).thenReturn(List.of(9001L, 9002L));
+        when(deviceRepository.findDeviceIdsAfter(9002L, Limit.of(2))).thenReturn(List.of(9003L));
+        when(deviceRepository.findDeviceIdsAfter(9003L, Limit.of(2))).thenReturn(List.of());
+        stubNewest(9001L, first);
+        stubNewest(9002L, second);
+        stubNewest(9003L);
+
+        // when
+        int rebuilt = underTest.run();
+
+        // then
+        assertThat(rebuilt).isEqualTo(2);
+        verify(latestTelemetryRepository).advance(List.of(first, second));
+        verify(latestTelemetryRepository).advance(List.of());
+    }
+
+    @Test
+    @DisplayName("onStartup does nothing unless the backfill is enabled")
+    void should_skip_backfill_on_startup_when_disabled() {
+        // when
+        underTest.onStartup();
+
+        // then
+        verifyNoInteractions(deviceRepository, telemetryStore, latestTelemetryRepository);
+    }
+}
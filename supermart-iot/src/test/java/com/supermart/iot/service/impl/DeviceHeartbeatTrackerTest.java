@@ -0,0 +1,93 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.repository.IotDeviceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DeviceHeartbeatTracker}.
+ *
+ * <p>Verifies heartbeat coalescing, read-side merging and flush retry.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class DeviceHeartbeatTrackerTest {
+
+    @Mock
+    private IotDeviceRepository deviceRepository;
+
+    @InjectMocks
+    private DeviceHeartbeatTracker underTest;
+
+    private final LocalDateTime t0 = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    @Test
+    @DisplayName("flush writes one row per device with its latest heartbeat")
+    void should_flush_latest_heartbeat_per_device_when_many_recorded() {
+        // given
+        underTest.recordHeartbeat(9001L, t0);
+        underTest.recordHeartbeat(9001L, t0.plusSeconds(2));
+        underTest.recordHeartbeat(9001L, t0.plusSeconds(1)); // late arrival does not move it back
+        underTest.recordHeartbeat(9002L, t0);
+
+        // when
+        underTest.flush();
+
+        // then
+        verify(deviceRepository).updateLastSeenAt(Map.of(9001L, t0.plusSeconds(2), 9002L, t0));
+    }
+
+    @Test
+    @DisplayName("flush is a no-op when no heartbeat arrived since the previous flush")
+    void should_skip_database_when_nothing_pending() {
+        // given
+        underTest.recordHeartbeat(9001L, t0);
+        underTest.flush();
+
+        // when
+        underTest.flush();
+
+        // then
+        verify(deviceRepository, times(1)).updateLastSeenAt(any());
+    }
+
+    @Test
+    @DisplayName("failed flush keeps heartbeats pending for the next run")
+    void should_retry_heartbeats_when_flush_fails() {
+        // given
+        underTest.recordHeartbeat(9001L, t0);
+        when(deviceRepository.updateLastSeenAt(any()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(1);
+        underTest.flush();
+
+        // when
+        underTest.flush();
+
+        // then
+        verify(deviceRepository, times(2)).updateLastSeenAt(Map.of(9001L, t0));
+    }
+
+    @Test
+    @DisplayName("lastSeenAt returns the newer of the persisted and in-memory values")
+    void should_merge_persisted_and_in_memory_last_seen() {
+        // given
+        underTest.recordHeartbeat(9001L, t0);
+
+        // when / then
+        assertThat(underTest.lastSeenAt(9001L, t0.minusMinutes(1))).isEqualTo(t0);
+        assertThat(underTest.lastSeenAt(9001L, t0.plusMinutes(1))).isEqualTo(t0.plusMinutes(1));
+        assertThat(underTest.lastSeenAt(9001L, null)).isEqualTo(t0);
+        assertThat(underTest.lastSeenAt(9002L, null)).isNull();
+    }
+}
@@ -0,0 +1,127 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.EquipmentUnit;
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.Store;
+import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.repository.IotDeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DeviceMetadataCache}.
+ *
+ * <p>Verifies that lookups by key and by id share one snapshot, that misses hit
+ * the repository only once, and that invalidation forces a reload.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class DeviceMetadataCacheTest {
+
+    @Mock
+    private IotDeviceRepository deviceRepository;
+
+    private DeviceMetadataCache underTest;
+
+    private IotDevice device;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new DeviceMetadataCache(deviceRepository, 100, 300);
+
+        Store store = Store.builder().storeId(1001L).storeName("Supermart Dallas").build();
+        EquipmentUnit unit = EquipmentUnit.builder().unitId(501L).store(store).unitName("Freezer-1").build();
+
+        device = IotDevice.builder()
+                .deviceId(9001L)
+                .unit(unit)
+                .deviceSerial("DEV-9001")
+                .deviceKey("key-9001")
+                .status(DeviceStatus.ACTIVE)
+                .minTempThreshold(-25.0)
+                .maxTempThreshold(-15.0)
+                .build();
+    }
+
+    @Test
+    @DisplayName("findByDeviceKey loads once and serves repeated and by-id lookups from memory")
+    void should_query_repository_once_when_device_key_looked_up_repeatedly() {
+        // given
+        when(deviceRepository.findWithUnitByDeviceKey("key-9001")).thenReturn(Optional.of(device));
+
+        // when
+        Optional<DeviceSnapshot> first = underTest.findByDeviceKey("key-9001");
+        Optional<DeviceSnapshot> second = underTest.findByDeviceKey("key-9001");
+        Optional<DeviceSnapshot> byId = underTest.findById(9001L);
+
+        // then
+        assertThat(first).isPresent();
+        assertThat(first.get().storeId()).isEqualTo(1001L);
+        assertThat(first.get().unitId()).isEqualTo(501L);
+        assertThat(first.get().deviceKeyHash()).isNotEqualTo("key-9001").hasSize(64);
+        assertThat(second).containsSame(first.get());
+        assertThat(byId).containsSame(first.get());
+        verify(deviceRepository, times(1)).findWithUnitByDeviceKey("key-9001");
+        verify(deviceRepository, never()).findAllWithUnitByDeviceIdIn(any());
+    }
+
+    @Test
+    @DisplayName("findByDeviceKey does not cache unknown keys")
+    void should_return_empty_and_not_cache_when_device_key_unknown() {
+        // given
+        when(deviceRepository.findWithUnitByDeviceKey("bogus")).thenReturn(Optional.empty());
+
+        // when
+        underTest.findByDeviceKey("bogus");
+        Optional<DeviceSnapshot> result = underTest.findByDeviceKey("bogus");
+
+        // then
+        assertThat(result).isEmpty();
+        verify(deviceRepository, times(2)).findWithUnitByDeviceKey("bogus");
+    }
+
+    @Test
+    @DisplayName("invalidate forces the next lookup to reload the device")
+    void should_reload_snapshot_when_invalidated() {
+        // given
+        when(deviceRepository.findAllWithUnitByDeviceIdIn(any())).thenReturn(List.of(device));
+        underTest.findById(9001L);
+        device.setStatus(DeviceStatus.FAULT);
+
+        // when
+        underTest.invalidate(9001L);
+        Optional<DeviceSnapshot> result = underTest.findById(9001L);
+
+        // then
+        assertThat(result).get().extracting(DeviceSnapshot::status).isEqualTo(DeviceStatus.FAULT);
+        verify(deviceRepository, times(2)).findAllWithUnitByDeviceIdIn(any());
+    }
+
+    @Test
+    @DisplayName("findAllById loads only the ids that are not already cached")
+    void should_load_only_misses_when_find_all_by_id() {
+        // given
+        when(deviceRepository.findAllWithUnitByDeviceIdIn(any())).thenReturn(List.of(device));
+        underTest.findById(9001L);
+
+        // when
+        Map<Long, DeviceSnapshot> result = underTest.findAllById(List.of(9001L, 9999L));
+
+        // then
+        assertThat(result).containsOnlyKeys(9001L);
+        verify(deviceRepository).findAllWithUnitByDeviceIdIn(List.of(9001L));
+        verify(deviceRepository).findAllWithUnitByDeviceIdIn(Set.of(9999L));
+    }
+}
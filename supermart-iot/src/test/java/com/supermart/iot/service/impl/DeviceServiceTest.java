@@ -1,29 +1,41 @@
 package com.supermart.iot.service.impl;
 
+import com.supermart.iot.dto.response.CursorPagedResponse;
 import com.supermart.iot.dto.response.IotDeviceResponse;
 import com.supermart.iot.dto.response.IotDeviceSummaryResponse;
 import com.supermart.iot.dto.response.PagedResponse;
+import com.supermart.iot.dto.response.TelemetryAggregateResponse;
 import com.supermart.iot.dto.response.TelemetryResponse;
+import com.supermart.iot.entity.DeviceLatestTelemetry;
 import com.supermart.iot.entity.EquipmentUnit;
 import com.supermart.iot.entity.IotDevice;
 import com.supermart.iot.entity.Store;
 import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.entity.TelemetryRollup;
+import com.supermart.iot.entity.TelemetryRollupId;
 import com.supermart.iot.enums.DeviceStatus;
 import com.supermart.iot.enums.EquipmentType;
+import com.supermart.iot.enums.RollupBucket;
 import com.supermart.iot.exception.BadRequestException;
 import com.supermart.iot.exception.ResourceNotFoundException;
+import com.supermart.iot.repository.DeviceLatestTelemetryRepository;
 import com.supermart.iot.repository.IotDeviceRepository;
 import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.repository.TelemetryRollupRepository;
+import com.supermart.iot.service.TelemetryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,6 +45,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -48,7 +63,21 @@ class DeviceServiceTest {
     private IotDeviceRepository deviceRepository;
 
     @Mock
-    private TelemetryRepository telemetryRepository;
+    private TelemetryStore telemetryStore;
+
+    @Mock
+    private DeviceHeartbeatTracker heartbeatTracker;
+
+    @Mock
+    private TelemetryRollupRepository rollupRepository;
+
+    @Mock
+    private DeviceLatestTelemetryRepository latestTelemetryRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ServiceMetrics metrics = new ServiceMetrics(meterRegistry);
 
     @InjectMocks
     private DeviceService underTest;
@@ -57,9 +86,14 @@ class DeviceServiceTest {
     private Store store;
     private EquipmentUnit unit;
     private TelemetryRecord telemetryRecord;
+    private DeviceLatestTelemetry latestReading;
 
     @BeforeEach
     void setUp() {
+        // Inject aggregate limit via ReflectionTestUtils (value normally injected by @Value)
+        ReflectionTestUtils.setField(underTest, "maxAggregatePoints", 5000);
+        ReflectionTestUtils.setField(underTest, "maxCursorPageSize", 1000);
+
         store = Store.builder()
                 .storeId(1001L)
                 .storeName("Supermart Dallas")
@@ -93,6 +127,14 @@ class DeviceServiceTest {
                 .recordedAt(LocalDateTime.now())
                 .isAlert(false)
                 .build();
+
+        latestReading = DeviceLatestTelemetry.builder()
+                .deviceId(9001L)
+                .telemetryId(78234441L)
+                .temperature(-14.8)
+                .recordedAt(telemetryRecord.getRecordedAt())
+                .isAlert(false)
+                .build();
     }
 
     // ─── listDevices ──────────────────────────────────────────────────────────
@@ -103,8 +145,7 @@ class DeviceServiceTest {
         // given
         Page<IotDevice> page = new PageImpl<>(List.of(device));
         when(deviceRepository.findByStoreIdAndStatus(any(), any(), any(Pageable.class))).thenReturn(page);
-        when(telemetryRepository.findTopByDevice_DeviceIdOrderByRecordedAtDesc(9001L))
-                .thenReturn(Optional.of(telemetryRecord));
+        when(latestTelemetryRepository.findAllById(List.of(9001L))).thenReturn(List.of(latestReading));
 
         // when
         PagedResponse<IotDeviceSummaryResponse> result = underTest.listDevices(null, null, 0, 20);
@@ -122,8 +163,7 @@ class DeviceServiceTest {
         // given
         Page<IotDevice> page = new PageImpl<>(List.of(device));
         when(deviceRepository.findByStoreIdAndStatus(any(), any(), any(Pageable.class))).thenReturn(page);
-        when(telemetryRepository.findTopByDevice_DeviceIdOrderByRecordedAtDesc(9001L))
-                .thenReturn(Optional.empty());
+        when(latestTelemetryRepository.findAllById(List.of(9001L))).thenReturn(List.of());
 
         // when
         PagedResponse<IotDeviceSummaryResponse> result = underTest.listDevices(1001L, DeviceStatus.ACTIVE, 0, 20);
@@ -175,7 +215,7 @@ class DeviceServiceTest {
         Page<TelemetryRecord> page = new PageImpl<>(List.of(telemetryRecord));
 
         when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
-        when(telemetryRepository.findByDeviceIdAndDateRange(eq(9001L), eq(from), eq(to), any(Pageable.class)))
+        when(telemetryStore.findByDeviceIdAndDateRange(eq(9001L), eq(from), eq(to), any(Pageable.class)))
                 .thenReturn(page);
 
         // when
@@ -214,14 +254,136 @@ class DeviceServiceTest {
                 .hasMessageContaining("9999");
     }
 
+    // ─── getDeviceTelemetryPage ───────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getDeviceTelemetryPage fetches size + 1 rows and returns a cursor naming the last row served")
+    void should_return_next_cursor_when_more_rows_than_page_size() {
+        // given
+        LocalDateTime at = LocalDateTime.of(2026, 2, 24, 10, 29);
+        TelemetryRecord older = TelemetryRecord.builder().telemetryId(78234440L).device(device)
+                .temperature(-15.0).recordedAt(at.minusMinutes(1)).isAlert(false).build();
+        TelemetryRecord oldest = TelemetryRecord.builder().telemetryId(78234439L).device(device)
+                .temperature(-15.2).recordedAt(at.minusMinutes(2)).isAlert(false).build();
+        telemetryRecord.setRecordedAt(at);
+
+        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
+        when(telemetryStore.findPageBefore(9001L, null, TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, 3))
+                .thenReturn(List.of(telemetryRecord, older, oldest));
+
+        // when
+        CursorPagedResponse<TelemetryResponse> result = underTest.getDeviceTelemetryPage(9001L, null, null, null, 2);
+
+        // then
+        assertThat(result.getContent()).extracting(TelemetryResponse::getTelemetryId)
+                .containsExactly(78234441L, 78234440L);
+        assertThat(result.isHasMore()).isTrue();
+        assertThat(TelemetryCursor.decode(result.getNextCursor()))
+                .isEqualTo(new TelemetryCursor(at.minusMinutes(1), 78234440L));
+    }
+
+    @Test
+    @DisplayName("getDeviceTelemetryPage resumes strictly after the cursor position and ends without a cursor")
+    void should_seek_past_cursor_when_cursor_provided() {
+        // given
+        TelemetryCursor cursor = new TelemetryCursor(LocalDateTime.of(2026, 2, 24, 10, 28), 78234440L);
+        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
+        when(telemetryStore.findPageBefore(9001L, null, cursor.recordedAt(), 78234440L, 21))
+                .thenReturn(List.of(telemetryRecord));
+
+        // when
+        CursorPagedResponse<TelemetryResponse> result =
+                underTest.getDeviceTelemetryPage(9001L, null, null, cursor.encode(), 20);
+
+        // then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.isHasMore()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getDeviceTelemetryPage throws BadRequestException for a malformed cursor")
+    void should_throw_bad_request_when_cursor_malformed() {
+        // given
+        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
+
+        // when / then
+        assertThatThrownBy(() -> underTest.getDeviceTelemetryPage(9001L, null, null, "not-a-cursor", 20))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("cursor");
+    }
+
+    @Test
+    @DisplayName("getDeviceTelemetryPage throws BadRequestException when size exceeds the maximum")
+    void should_throw_bad_request_when_cursor_page_size_too_large() {
+        // given
+        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
+
+        // when / then
+        assertThatThrownBy(() -> underTest.getDeviceTelemetryPage(9001L, null, null, null, 5000))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("1000");
+    }
+
+    // ─── getDeviceTelemetryAggregate ──────────────────────────────────────────
+
+    @Test
+    @DisplayName("getDeviceTelemetryAggregate maps hourly rollups to min/max/avg/count points")
+    void should_return_hourly_points_when_aggregate_requested() {
+        // given
+        LocalDateTime from = LocalDateTime.of(2026, 2, 24, 9, 30);
+        LocalDateTime to = LocalDateTime.of(2026, 2, 24, 11, 0);
+        TelemetryRollup rollup = TelemetryRollup.builder()
+                .id(new TelemetryRollupId(9001L, RollupBucket.HOUR, LocalDateTime.of(2026, 2, 24, 10, 0)))
+                .sampleCount(4).alertCount(1)
+                .minTemperature(-20.0).maxTemperature(-10.0).temperatureSum(-60.0)
+                .build();
+        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
+        when(rollupRepository.findSeries(9001L, RollupBucket.HOUR, LocalDateTime.of(2026, 2, 24, 9, 0), to))
+                .thenReturn(List.of(rollup));
+
+        // when
+        List<TelemetryAggregateResponse> result = underTest.getDeviceTelemetryAggregate(9001L, "1h", from, to);
+
+        // then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getBucketStart()).isEqualTo(LocalDateTime.of(2026, 2, 24, 10, 0));
+        assertThat(result.get(0).getAvgTemperature()).isEqualTo(-15.0);
+        assertThat(result.get(0).getAlertCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("getDeviceTelemetryAggregate throws BadRequestException for an unknown bucket")
+    void should_throw_bad_request_when_bucket_unsupported() {
+        // given
+        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
+
+        // when / then
+        assertThatThrownBy(() -> underTest.getDeviceTelemetryAggregate(9001L, "5m", null, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("5m");
+    }
+
+    @Test
+    @DisplayName("getDeviceTelemetryAggregate throws BadRequestException when the range has too many buckets")
+    void should_throw_bad_request_when_aggregate_range_exceeds_max_points() {
+        // given
+        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
+        LocalDateTime to = LocalDateTime.of(2026, 2, 24, 0, 0);
+
+        // when / then — 30 days of 1-minute buckets is 43,201 points
+        assertThatThrownBy(() -> underTest.getDeviceTelemetryAggregate(9001L, "1m", to.minusDays(30), to))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("5000");
+    }
+
     // ─── toSummaryResponse ────────────────────────────────────────────────────
 
     @Test
     @DisplayName("toSummaryResponse maps device fields correctly including store and unit names")
     void should_map_device_fields_when_toSummaryResponse_called() {
         // given
-        when(telemetryRepository.findTopByDevice_DeviceIdOrderByRecordedAtDesc(9001L))
-                .thenReturn(Optional.of(telemetryRecord));
+        when(latestTelemetryRepository.findById(9001L)).thenReturn(Optional.of(latestReading));
 
         // when
         IotDeviceSummaryResponse result = underTest.toSummaryResponse(device);
@@ -231,6 +393,42 @@ class DeviceServiceTest {
         assertThat(result.getStoreName()).isEqualTo("Supermart Dallas");
         assertThat(result.getUnitName()).isEqualTo("Freezer-Aisle-3");
         assertThat(result.getStatus()).isEqualTo(DeviceStatus.ACTIVE);
+        assertThat(result.getLatestTemperature()).isEqualTo(-14.8);
+    }
+
+    @Test
+    @DisplayName("toSummaryResponse reports the in-memory heartbeat when it is newer than the stored lastSeenAt")
+    void should_report_in_memory_last_seen_when_toSummaryResponse_called() {
+        // given
+        LocalDateTime heartbeat = device.getLastSeenAt().plusSeconds(3);
+        when(heartbeatTracker.lastSeenAt(9001L, device.getLastSeenAt())).thenReturn(heartbeat);
+
+        // when
+        IotDeviceSummaryResponse result = underTest.toSummaryResponse(device);
+
+        // then
+        assertThat(result.getLastSeenAt()).isEqualTo(heartbeat);
+    }
+
+    @Test
+    @DisplayName("toSummaryResponses resolves latest readings for the whole page with one lookup")
+    void should_look_up_latest_readings_once_when_toSummaryResponses_called() {
+        // given
+        IotDevice second = IotDevice.builder().deviceId(9003L).unit(unit).deviceSerial("DEV-2024-TX-09003")
+                .status(DeviceStatus.ACTIVE).build();
+        when(latestTelemetryRepository.findAllById(List.of(9001L, 9003L))).thenReturn(List.of(latestReading));
+
+        // when
+        List<IotDeviceSummaryResponse> result = underTest.toSummaryResponses(List.of(device, second));
+
+        // then
+        assertThat(result).extracting(IotDeviceSummaryResponse::getDeviceId).containsExactly(9001L, 9003L);
+        assertThat(result).extracting(IotDeviceSummaryResponse::getLatestTemperature).containsExactly(-14.8, null);
+        verify(latestTelemetryRepository, never()).findById(any());
+        verifyNoInteractions(telemetryStore);
+        assertThat(meterRegistry.get("supermart.device.summary.queries").tag("mode", "bulk").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("supermart.device.summary.devices").summary().totalAmount()).isEqualTo(2.0);
     }
 
     // ─── toTelemetryResponse ──────────────────────────────────────────────────
@@ -61,6 +61,12 @@ class IncidentServiceTest {
     @Mock
     private DeviceService deviceService;
 
+    @Mock
+    private DashboardCounters dashboardCounters;
+
+    @Mock
+    private DashboardBroadcaster dashboardBroadcaster;
+
     @InjectMocks
     private IncidentService underTest;
 
@@ -111,7 +117,7 @@ class IncidentServiceTest {
         Page<Incident> page = new PageImpl<>(List.of(incident));
         when(incidentRepository.findByFilters(any(), any(), any(), any(Pageable.class))).thenReturn(page);
         IotDeviceSummaryResponse deviceSummary = IotDeviceSummaryResponse.builder().deviceId(9001L).build();
-        when(deviceService.toSummaryResponse(device)).thenReturn(deviceSummary);
+        when(deviceService.toSummaryResponses(List.of(device))).thenReturn(List.of(deviceSummary));
 
         // when
         PagedResponse<IncidentResponse> result = underTest.listIncidents(null, null, null, 0, 20);
@@ -120,6 +126,7 @@ class IncidentServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getTotalElements()).isEqualTo(1L);
+        assertThat(result.getContent().get(0).getDevice()).isSameAs(deviceSummary);
     }
 
     // ─── createIncident ───────────────────────────────────────────────────────
@@ -147,6 +154,8 @@ class IncidentServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getDeviceId()).isEqualTo(9001L);
         verify(incidentRepository, times(1)).save(any(Incident.class));
+        verify(dashboardCounters).incidentStatusChanged(null, IncidentStatus.OPEN);
+        verify(dashboardBroadcaster).countersChanged();
     }
 
     @Test
@@ -238,6 +247,8 @@ class IncidentServiceTest {
         assertThat(result).isNotNull();
         assertThat(incident.getResolvedAt()).isNotNull();
         assertThat(incident.getStatus()).isEqualTo(IncidentStatus.RESOLVED);
+        verify(dashboardCounters).incidentStatusChanged(IncidentStatus.OPEN, IncidentStatus.RESOLVED);
+        verify(dashboardBroadcaster).countersChanged();
     }
 
     @Test
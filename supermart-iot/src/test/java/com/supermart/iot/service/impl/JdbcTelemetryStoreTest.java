@@ -0,0 +1,123 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.repository.TelemetryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link JdbcTelemetryStore}: hot-table delegation and the merge
+ * with archived readings.
+ */
+@ExtendWith(MockitoExtension.class)
+class JdbcTelemetryStoreTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 2, 24, 10, 29);
+
+    @Mock
+    private TelemetryRepository telemetryRepository;
+
+    @Mock
+    private TelemetryArchiveReader archiveReader;
+
+    @InjectMocks
+    private JdbcTelemetryStore underTest;
+
+    private static TelemetryRecord reading(long id, LocalDateTime at) {
+        return TelemetryRecord.builder().telemetryId(id).device(IotDevice.builder().deviceId(9001L).build())
+                .temperature(-16.0).recordedAt(at).isAlert(false).build();
+    }
+
+    // ─── findByDeviceIdAndDateRange ───────────────────────────────────────────
+
+    @Test
+    @DisplayName("findByDeviceIdAndDateRange reads only the hot table when no block covers the range")
+    void should_query_hot_table_only_when_range_not_archived() {
+        // given
+        Page<TelemetryRecord> page = new PageImpl<>(List.of(reading(78234441L, AT)));
+        when(telemetryRepository.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20))).thenReturn(page);
+
+        // when
+        Page<TelemetryRecord> result = underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20));
+
+        // then
+        assertThat(result).isSameAs(page);
+        verify(archiveReader, never()).count(9001L, null, null);
+    }
+
+    @Test
+    @DisplayName("findByDeviceIdAndDateRange merges hot rows with archived readings and counts both")
+    void should_merge_archived_readings_when_range_has_archive_blocks() {
+        // given
+        when(archiveReader.hasBlocks(9001L, null, null)).thenReturn(true);
+        when(telemetryRepository.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 4)))
+                .thenReturn(new PageImpl<>(List.of(reading(78234441L, AT)), PageRequest.of(0, 4), 1));
+        when(archiveReader.readNewestFirst(9001L, null, TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, 4))
+                .thenReturn(List.of(reading(70000002L, AT.minusDays(40)), reading(70000001L, AT.minusDays(41))));
+        when(archiveReader.count(9001L, null, null)).thenReturn(2L);
+
+        // when
+        Page<TelemetryRecord> result = underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(1, 2));
+
+        // then
+        assertThat(result.getContent()).extracting(TelemetryRecord::getTelemetryId).containsExactly(70000001L);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+    }
+
+    // ─── findPageBefore ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findPageBefore continues into archived readings in history order")
+    void should_merge_archived_readings_when_page_crosses_into_archive() {
+        // given
+        when(telemetryRepository.findPageBefore(9001L, TelemetryRepository.EARLIEST_RECORDED_AT,
+                TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, Limit.of(3)))
+                .thenReturn(List.of(reading(78234441L, AT)));
+        when(archiveReader.readNewestFirst(9001L, null, TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, 3))
+                .thenReturn(List.of(reading(70000001L, AT.minusDays(40)), reading(70000000L, AT.minusDays(41)),
+                        reading(69999999L, AT.minusDays(42))));
+
+        // when
+        List<TelemetryRecord> result = underTest.findPageBefore(9001L, null,
+                TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, 3);
+
+        // then
+        assertThat(result).extracting(TelemetryRecord::getTelemetryId)
+                .containsExactly(78234441L, 70000001L, 70000000L);
+    }
+
+    // ─── remove ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("remove deletes ids in chunks so no statement carries an unbounded IN list")
+    void should_delete_in_chunks_when_many_ids_removed() {
+        // given
+        List<Long> ids = LongStream.range(0, 2500).boxed().toList();
+
+        // when
+        underTest.remove(ids);
+
+        // then
+        verify(telemetryRepository).deleteAllByIdInBatch(ids.subList(0, 1000));
+        verify(telemetryRepository).deleteAllByIdInBatch(ids.subList(1000, 2000));
+        verify(telemetryRepository).deleteAllByIdInBatch(ids.subList(2000, 2500));
+    }
+}
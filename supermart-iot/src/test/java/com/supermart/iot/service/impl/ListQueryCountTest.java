@@ -0,0 +1,86 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.dto.response.PagedResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement-count regression tests for the paginated list endpoints.
+ *
+ * <p>Each listing must cost a fixed number of statements per page (page query,
+ * count query and one bulk latest-reading lookup), independent of how many
+ * rows the page holds. A lazy association or per-row lookup creeping back in
+ * shows up here as a count that grows with the seed data.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ListQueryCountTest {
+
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statementsFor(Supplier<PagedResponse<?>> listing) {
+        // Start from an empty persistence context so nothing is served from the first-level cache
+        entityManager.clear();
+        statistics.clear();
+        PagedResponse<?> page = listing.get();
+        assertThat(page.getContent()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("GET /devices issues a fixed number of statements for a whole page")
+    void should_issue_constant_statements_when_devices_listed() {
+        assertThat(statementsFor(() -> deviceService.listDevices(null, null, 0, 100)))
+                .isLessThanOrEqualTo(STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    @DisplayName("GET /dashboard/alerts issues a fixed number of statements for a whole page")
+    void should_issue_constant_statements_when_alerts_listed() {
+        assertThat(statementsFor(() -> dashboardService.getAlerts(0, 100)))
+                .isLessThanOrEqualTo(STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    @DisplayName("GET /incidents issues a fixed number of statements for a whole page")
+    void should_issue_constant_statements_when_incidents_listed() {
+        assertThat(statementsFor(() -> incidentService.listIncidents(null, null, null, 0, 100)))
+                .isLessThanOrEqualTo(STATEMENTS_PER_PAGE);
+    }
+}
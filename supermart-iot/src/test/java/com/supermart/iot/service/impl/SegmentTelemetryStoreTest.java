@@ -0,0 +1,334 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.repository.TelemetryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link SegmentTelemetryStore} against real segment files in a
+ * temporary directory, with segments of four records so roll-over is exercised.
+ * The archive is mocked and empty unless a test says otherwise.
+ */
+class SegmentTelemetryStoreTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 2, 24, 10, 0);
+
+    @TempDir
+    Path directory;
+
+    private final TelemetryArchiveReader archiveReader = mock(TelemetryArchiveReader.class);
+
+    private SegmentTelemetryStore underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = openStore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.close();
+    }
+
+    private SegmentTelemetryStore openStore() {
+        SegmentTelemetryStore store = new SegmentTelemetryStore(archiveReader);
+        ReflectionTestUtils.setField(store, "directory", directory);
+        ReflectionTestUtils.setField(store, "recordsPerSegment", 4);
+        ReflectionTestUtils.setField(store, "forceOnAppend", false);
+        ReflectionTestUtils.setField(store, "retentionDays", 90);
+        store.open();
+        return store;
+    }
+
+    private static TelemetryRecord reading(long deviceId, LocalDateTime at, double temperature, boolean alert) {
+        return TelemetryRecord.builder().device(IotDevice.builder().deviceId(deviceId).build())
+                .temperature(temperature).recordedAt(at).isAlert(alert).build();
+    }
+
+    /** Six readings for 9001 one minute apart, interleaved with 9002, appended out of time order. */
+    private List<TelemetryRecord> appendHistory() {
+        List<TelemetryRecord> records = new ArrayList<>();
+        for (int minute : new int[]{0, 1, 2, 5, 3, 4}) {
+            records.add(reading(9001L, AT.plusMinutes(minute), -18.0 + minute / 10.0, minute == 5));
+            records.add(reading(9002L, AT.plusMinutes(minute), 4.0, false));
+        }
+        underTest.append(records);
+        return records;
+    }
+
+    private static List<LocalDateTime> times(List<TelemetryRecord> records) {
+        return records.stream().map(TelemetryRecord::getRecordedAt).toList();
+    }
+
+    // ─── append ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("append assigns increasing ids and rolls over into new segment files")
+    void should_assign_ids_and_roll_segments_when_appended() throws IOException {
+        // when
+        List<TelemetryRecord> records = appendHistory();
+
+        // then
+        assertThat(records).extracting(TelemetryRecord::getTelemetryId).doesNotContainNull().isSorted();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("append skips records that already carry an id, so a retried batch is not stored twice")
+    void should_skip_stored_records_when_batch_retried() {
+        // given
+        List<TelemetryRecord> records = appendHistory();
+
+        // when
+        underTest.append(records);
+
+        // then
+        assertThat(underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20))
+                .getTotalElements()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("append rolled back with its transaction is tombstoned, so the retry is stored once")
+    void should_tombstone_readings_when_transaction_rolls_back() {
+        // given
+        appendHistory();
+        List<TelemetryRecord> batch = List.of(
+                reading(9001L, AT.plusMinutes(6), -17.0, true),
+                reading(9001L, AT.plusMinutes(7), -16.0, false));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            underTest.append(batch);
+
+            // when
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        assertThat(batch).extracting(TelemetryRecord::getTelemetryId).containsOnlyNulls();
+        assertThat(underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20))
+                .getTotalElements()).isEqualTo(6);
+        assertThat(underTest.findAlertRecordedAtFrom(AT)).containsExactly(AT.plusMinutes(5));
+
+        underTest.append(batch);
+        underTest.close();
+        underTest = openStore();
+        assertThat(times(underTest.findByDeviceIdAndDateRange(9001L, AT.plusMinutes(5), null, PageRequest.of(0, 20))
+                .getContent())).containsExactly(AT.plusMinutes(7), AT.plusMinutes(6), AT.plusMinutes(5));
+    }
+
+    @Test
+    @DisplayName("append committed with its transaction is kept")
+    void should_keep_readings_when_transaction_commits() {
+        // given
+        List<TelemetryRecord> batch = List.of(reading(9001L, AT, -17.0, false));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            underTest.append(batch);
+
+            // when
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        assertThat(batch.get(0).getTelemetryId()).isNotNull();
+        assertThat(underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20))
+                .getTotalElements()).isEqualTo(1);
+    }
+
+    // ─── reads ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findByDeviceIdAndDateRange pages one device newest first with the total in range")
+    void should_page_device_readings_newest_first_when_range_queried() {
+        // given
+        appendHistory();
+
+        // when
+        Page<TelemetryRecord> first = underTest.findByDeviceIdAndDateRange(9001L, AT.plusMinutes(1), null,
+                PageRequest.of(0, 2));
+        Page<TelemetryRecord> second = underTest.findByDeviceIdAndDateRange(9001L, AT.plusMinutes(1), null,
+                PageRequest.of(1, 2));
+
+        // then
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(times(first.getContent())).containsExactly(AT.plusMinutes(5), AT.plusMinutes(4));
+        assertThat(times(second.getContent())).containsExactly(AT.plusMinutes(3), AT.plusMinutes(2));
+        TelemetryRecord newest = first.getContent().get(0);
+        assertThat(newest.getTemperature()).isEqualTo(-17.5);
+        assertThat(newest.getIsAlert()).isTrue();
+        assertThat(newest.getDevice().getDeviceId()).isEqualTo(9001L);
+    }
+
+    @Test
+    @DisplayName("findPageBefore walks the history strictly after each cursor position")
+    void should_seek_past_position_when_page_before_requested() {
+        // given
+        appendHistory();
+
+        // when
+        List<TelemetryRecord> first = underTest.findPageBefore(9001L, null,
+                TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, 4);
+        TelemetryRecord last = first.get(3);
+        List<TelemetryRecord> next = underTest.findPageBefore(9001L, null,
+                last.getRecordedAt(), last.getTelemetryId(), 4);
+
+        // then
+        assertThat(times(first)).containsExactly(AT.plusMinutes(5), AT.plusMinutes(4), AT.plusMinutes(3),
+                AT.plusMinutes(2));
+        assertThat(times(next)).containsExactly(AT.plusMinutes(1), AT);
+    }
+
+    @Test
+    @DisplayName("findAlertRecordedAtFrom returns alerting readings across segments")
+    void should_return_alert_times_when_window_queried() {
+        // given
+        appendHistory();
+
+        // when / then
+        assertThat(underTest.findAlertRecordedAtFrom(AT)).containsExactly(AT.plusMinutes(5));
+        assertThat(underTest.findAlertRecordedAtFrom(AT.plusMinutes(6))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findByDeviceIdAndDateRange merges archived readings in history order")
+    void should_merge_archived_readings_when_range_archived() {
+        // given
+        appendHistory();
+        TelemetryRecord archived = TelemetryRecord.builder().telemetryId(77L)
+                .device(IotDevice.builder().deviceId(9001L).build())
+                .temperature(-19.0).recordedAt(AT.minusDays(1)).isAlert(false).build();
+        when(archiveReader.hasBlocks(9001L, null, null)).thenReturn(true);
+        when(archiveReader.readNewestFirst(9001L, null, TelemetryRepository.LATEST_RECORDED_AT, Long.MAX_VALUE, 20))
+                .thenReturn(List.of(archived));
+        when(archiveReader.count(9001L, null, null)).thenReturn(1L);
+
+        // when
+        Page<TelemetryRecord> page = underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20));
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.getContent()).hasSize(7).last().isSameAs(archived);
+    }
+
+    // ─── range and remove ─────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("range streams one device's readings in the range oldest first, across segments")
+    void should_stream_readings_oldest_first_when_range_read() {
+        // given
+        List<TelemetryRecord> records = appendHistory();
+        List<Long> ids = new ArrayList<>();
+        List<LocalDateTime> at = new ArrayList<>();
+        List<Double> temperatures = new ArrayList<>();
+
+        // when
+        underTest.range(9001L, AT.plusMinutes(1), AT.plusMinutes(5), (telemetryId, recordedAt, temperature, alert) -> {
+            ids.add(telemetryId);
+            at.add(recordedAt);
+            temperatures.add(temperature);
+        });
+
+        // then
+        assertThat(at).containsExactly(AT.plusMinutes(1), AT.plusMinutes(2), AT.plusMinutes(3), AT.plusMinutes(4),
+                AT.plusMinutes(5));
+        assertThat(temperatures).startsWith(-17.9);
+        assertThat(ids.get(0)).isEqualTo(records.get(2).getTelemetryId());
+    }
+
+    @Test
+    @DisplayName("remove drops readings at once outside a transaction, and only on commit inside one")
+    void should_remove_readings_when_transaction_commits() {
+        // given
+        List<TelemetryRecord> records = appendHistory();
+        underTest.remove(List.of(records.get(0).getTelemetryId()));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            underTest.remove(List.of(records.get(2).getTelemetryId()));
+
+            // then
+            assertThat(underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20))
+                    .getTotalElements()).isEqualTo(5);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(times(underTest.findPageBefore(9001L, null, TelemetryRepository.LATEST_RECORDED_AT,
+                Long.MAX_VALUE, 20))).containsExactly(AT.plusMinutes(5), AT.plusMinutes(4), AT.plusMinutes(3),
+                AT.plusMinutes(2));
+    }
+
+    // ─── recovery and retention ───────────────────────────────────────────────
+
+    @Test
+    @DisplayName("a reopened store rebuilds its index from the segment files and keeps appending after them")
+    void should_recover_readings_when_reopened() {
+        // given
+        List<TelemetryRecord> records = appendHistory();
+        underTest.close();
+
+        // when
+        underTest = openStore();
+        TelemetryRecord late = reading(9001L, AT.plusMinutes(6), -17.4, false);
+        underTest.append(List.of(late));
+
+        // then
+        assertThat(underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20))
+                .getTotalElements()).isEqualTo(7);
+        assertThat(late.getTelemetryId()).isGreaterThan(records.get(records.size() - 1).getTelemetryId());
+    }
+
+    @Test
+    @DisplayName("dropExpired deletes sealed segments older than the retention window")
+    void should_delete_old_segments_when_retention_runs() throws IOException {
+        // given
+        LocalDateTime old = LocalDate.now().minusDays(120).atStartOfDay();
+        List<TelemetryRecord> records = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            records.add(reading(9001L, old.plusMinutes(i), -18.0, false));
+        }
+        records.add(reading(9001L, LocalDateTime.now().withNano(0), -18.0, false));
+        underTest.append(records);
+
+        // when
+        underTest.dropExpired();
+
+        // then
+        assertThat(underTest.findByDeviceIdAndDateRange(9001L, null, null, PageRequest.of(0, 20))
+                .getTotalElements()).isEqualTo(1);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.dto.response.CursorPagedResponse;
+import com.supermart.iot.dto.response.PagedResponse;
+import com.supermart.iot.dto.response.TelemetryResponse;
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryArchiveBlock;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.enums.ExportFormat;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.TelemetryArchiveBlockRepository;
+import com.supermart.iot.repository.TelemetryRepository;
+import com.supermart.iot.service.TelemetryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for {@link TelemetryArchiver} and the read paths that merge
+ * archived blocks back in, run against the seeded H2 telemetry of 2026-02-24.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TelemetryArchiverTest {
+
+    private static final LocalDate SEED_DAY = LocalDate.of(2026, 2, 24);
+
+    @Autowired
+    private TelemetryRepository telemetryRepository;
+
+    @Autowired
+    private TelemetryStore telemetryStore;
+
+    @Autowired
+    private TelemetryArchiveReader archiveReader;
+
+    @Autowired
+    private TelemetryArchiveBlockRepository blockRepository;
+
+    @Autowired
+    private IotDeviceRepository deviceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private TelemetryExportService exportService;
+
+    private TelemetryArchiver underTest;
+
+    @BeforeEach
+    void setUp() {
+        // Disabled by default, so not a bean in the test context
+        underTest = new TelemetryArchiver(telemetryStore, deviceRepository, blockRepository, transactionManager);
+    }
+
+    /** Ids of the readings still in {@code store} on {@code day} for the given devices. */
+    private static List<Long> storedOn(TelemetryStore store, LocalDate day, Long... deviceIds) {
+        List<Long> ids = new ArrayList<>();
+        for (Long deviceId : deviceIds) {
+            store.range(deviceId, day.atStartOfDay(), day.plusDays(1).atStartOfDay(),
+                    (telemetryId, recordedAt, temperature, alert) -> ids.add(telemetryId));
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(List<TelemetryResponse> content) {
+        return content.stream().map(TelemetryResponse::getTelemetryId).toList();
+    }
+
+    private String exportCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.write(out, null, 1001L, SEED_DAY.atStartOfDay(), SEED_DAY.plusDays(1).atStartOfDay(),
+                ExportFormat.CSV, false);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // ─── archiving ────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("archiveDay moves each device's readings into one block and deletes the rows")
+    void should_replace_rows_with_blocks_when_day_archived() {
+        // when
+        int archived = underTest.archiveDay(SEED_DAY);
+
+        // then
+        assertThat(archived).isEqualTo(4);
+        assertThat(storedOn(telemetryStore, SEED_DAY, 9001L, 9002L)).isEmpty();
+        TelemetryArchiveBlock block = blockRepository.findByDeviceIdAndBlockDate(9001L, SEED_DAY).orElseThrow();
+        assertThat(block.getSampleCount()).isEqualTo(2);
+        assertThat(block.getFirstRecordedAt()).isEqualTo(LocalDateTime.of(2026, 2, 24, 10, 28));
+        assertThat(block.getLastRecordedAt()).isEqualTo(LocalDateTime.of(2026, 2, 24, 10, 29));
+    }
+
+    @Test
+    @DisplayName("archiveDay merges late readings into the day's existing block")
+    void should_merge_into_existing_block_when_day_archived_again() {
+        // given
+        underTest.archiveDay(SEED_DAY);
+        telemetryRepository.batchInsert(new ArrayList<>(List.of(TelemetryRecord.builder()
+                .device(deviceRepository.getReferenceById(9001L)).temperature(-14.9)
+                .recordedAt(LocalDateTime.of(2026, 2, 24, 10, 27, 30, 250_000)).isAlert(false).build())));
+
+        // when
+        int archived = underTest.archiveDay(SEED_DAY);
+
+        // then
+        assertThat(archived).isEqualTo(1);
+        TelemetryArchiveBlock block = blockRepository.findByDeviceIdAndBlockDate(9001L, SEED_DAY).orElseThrow();
+        assertThat(block.getSampleCount()).isEqualTo(3);
+        assertThat(block.getFirstRecordedAt()).isEqualTo(LocalDateTime.of(2026, 2, 24, 10, 27, 30, 250_000));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("archiveDay reads through the telemetry store, so segment readings are archived and removed")
+    void should_archive_segment_readings_when_segment_store_selected(@TempDir Path directory) {
+        // given — committed for real, so the segment store drops the readings after commit
+        LocalDate day = LocalDate.of(2026, 1, 10);
+        SegmentTelemetryStore segmentStore = new SegmentTelemetryStore(archiveReader);
+        ReflectionTestUtils.setField(segmentStore, "directory", directory);
+        ReflectionTestUtils.setField(segmentStore, "recordsPerSegment", 16);
+        segmentStore.open();
+        try {
+            segmentStore.append(List.of(
+                    TelemetryRecord.builder().device(IotDevice.builder().deviceId(9003L).build()).temperature(3.5)
+                            .recordedAt(day.atTime(8, 0)).isAlert(false).build(),
+                    TelemetryRecord.builder().device(IotDevice.builder().deviceId(9003L).build()).temperature(9.5)
+                            .recordedAt(day.atTime(9, 0)).isAlert(true).build()));
+            TelemetryArchiver archiver = new TelemetryArchiver(segmentStore, deviceRepository, blockRepository,
+                    transactionManager);
+
+            // when
+            int archived = archiver.archiveDay(day);
+
+            // then
+            assertThat(archived).isEqualTo(2);
+            assertThat(storedOn(segmentStore, day, 9003L)).isEmpty();
+            assertThat(blockRepository.findByDeviceIdAndBlockDate(9003L, day))
+                    .map(TelemetryArchiveBlock::getSampleCount).hasValue(2);
+            assertThat(segmentStore.findPageBefore(9003L, null, TelemetryRepository.LATEST_RECORDED_AT,
+                    Long.MAX_VALUE, 20)).extracting(TelemetryRecord::getTemperature).containsExactly(9.5, 3.5);
+        } finally {
+            segmentStore.close();
+            blockRepository.findByDeviceIdAndBlockDate(9003L, day).ifPresent(blockRepository::delete);
+        }
+    }
+
+    @Test
+    @DisplayName("the archiver refuses to start when partitions could be dropped before their days are archived")
+    void should_fail_startup_when_archive_window_reaches_partition_retention() {
+        // given
+        ReflectionTestUtils.setField(underTest, "partitioningEnabled", true);
+        ReflectionTestUtils.setField(underTest, "retentionDays", 30);
+        ReflectionTestUtils.setField(underTest, "afterDays", 30);
+
+        // when / then
+        assertThatThrownBy(underTest::validateSettings)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("retention-days (30)");
+    }
+
+    @Test
+    @DisplayName("a scheduled run archives every day older than after-days, however old")
+    void should_archive_all_days_before_cutoff_when_run() {
+        // given — the seed day is far older than after-days
+        ReflectionTestUtils.setField(underTest, "afterDays", 1);
+
+        // when
+        underTest.archive();
+
+        // then
+        assertThat(blockRepository.findByDeviceIdAndBlockDate(9001L, SEED_DAY)).isPresent();
+        assertThat(storedOn(telemetryStore, SEED_DAY, 9001L, 9002L)).isEmpty();
+    }
+
+    // ─── reads ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("offset and cursor history return the same readings before and after archiving")
+    void should_serve_identical_history_when_readings_archived() {
+        // given
+        PagedResponse<TelemetryResponse> hotPage = deviceService.getDeviceTelemetry(9001L, null, null, 0, 20);
+        underTest.archiveDay(SEED_DAY);
+
+        // when
+        PagedResponse<TelemetryResponse> page = deviceService.getDeviceTelemetry(9001L, null, null, 0, 20);
+        PagedResponse<TelemetryResponse> second = deviceService.getDeviceTelemetry(9001L, null, null, 1, 1);
+        CursorPagedResponse<TelemetryResponse> first = deviceService.getDeviceTelemetryPage(9001L, null, null, null, 1);
+        CursorPagedResponse<TelemetryResponse> next =
+                deviceService.getDeviceTelemetryPage(9001L, null, null, first.getNextCursor(), 1);
+
+        // then
+        assertThat(ids(page.getContent())).containsExactly(78234501L, 78234441L)
+                .isEqualTo(ids(hotPage.getContent()));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent().get(0).getIsAlert()).isTrue();
+        assertThat(page.getContent().get(0).getTemperature()).isEqualTo(-10.2);
+        assertThat(ids(second.getContent())).containsExactly(78234441L);
+        assertThat(ids(first.getContent())).containsExactly(78234501L);
+        assertThat(ids(next.getContent())).containsExactly(78234441L);
+        assertThat(next.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("bounded history counts only the archived readings inside the range")
+    void should_count_only_readings_in_range_when_block_straddles_bound() {
+        // given
+        underTest.archiveDay(SEED_DAY);
+        LocalDateTime from = LocalDateTime.of(2026, 2, 24, 10, 28, 30);
+
+        // when
+        PagedResponse<TelemetryResponse> page = deviceService.getDeviceTelemetry(9001L, from, null, 0, 20);
+
+        // then
+        assertThat(ids(page.getContent())).containsExactly(78234501L);
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("export writes archived readings exactly as it wrote the rows")
+    void should_export_identical_rows_when_readings_archived() throws IOException {
+        // given
+        String before = exportCsv();
+        underTest.archiveDay(SEED_DAY);
+
+        // when
+        String after = exportCsv();
+
+        // then
+        assertThat(after).isEqualTo(before);
+    }
+}
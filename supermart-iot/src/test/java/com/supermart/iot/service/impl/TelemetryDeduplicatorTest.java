@@ -0,0 +1,157 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.dto.response.TelemetryResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link TelemetryDeduplicator}: waiting on in-flight originals
+ * and settling batch reservations with the transaction outcome.
+ */
+class TelemetryDeduplicatorTest {
+
+    private TelemetryDeduplicator underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new TelemetryDeduplicator(600, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static TelemetryResponse response(long telemetryId) {
+        return TelemetryResponse.builder().telemetryId(telemetryId).deviceId(9001L).build();
+    }
+
+    @Test
+    @DisplayName("execute makes a concurrent retry wait for the in-flight original and share its response")
+    void should_wait_for_original_when_retry_arrives_in_flight() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ingested = new AtomicInteger();
+        CompletableFuture<TelemetryResponse> original = CompletableFuture.supplyAsync(() ->
+                underTest.execute(9001L, "s:7", () -> {
+                    started.countDown();
+                    await(release);
+                    ingested.incrementAndGet();
+                    return response(78234441L);
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        CompletableFuture<TelemetryResponse> retry = CompletableFuture.supplyAsync(() ->
+                underTest.execute(9001L, "s:7", () -> {
+                    ingested.incrementAndGet();
+                    return response(0L);
+                }));
+        release.countDown();
+
+        // then
+        assertThat(retry.get(5, TimeUnit.SECONDS)).isSameAs(original.get(5, TimeUnit.SECONDS));
+        assertThat(ingested).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("execute forgets a reading whose pending write fails, so its retry is ingested again")
+    void should_forget_response_when_pending_write_fails() {
+        // given
+        CompletableFuture<CompletableFuture<Void>> pending = new CompletableFuture<>();
+        underTest.execute(9001L, "s:7", written -> {
+            pending.complete(written);
+            return response(0L);
+        });
+        AtomicInteger ingested = new AtomicInteger();
+
+        // when
+        pending.join().completeExceptionally(new IllegalStateException("dropped"));
+        underTest.execute(9001L, "s:7", () -> {
+            ingested.incrementAndGet();
+            return response(0L);
+        });
+
+        // then
+        assertThat(ingested).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("execute replays a response only after its pending write completes")
+    void should_replay_response_when_pending_write_completes() {
+        // given
+        CompletableFuture<CompletableFuture<Void>> pending = new CompletableFuture<>();
+        TelemetryResponse original = underTest.execute(9001L, "s:7", written -> {
+            pending.complete(written);
+            return response(0L);
+        });
+        TelemetryDeduplicator.Batch batch = underTest.batch();
+        assertThat(batch.reserve(9001L, "s:7")).hasValueSatisfying(earlier -> assertThat(earlier).isNotDone());
+
+        // when
+        pending.join().complete(null);
+
+        // then
+        assertThat(underTest.execute(9001L, "s:7", () -> response(1L))).isSameAs(original);
+    }
+
+    @Test
+    @DisplayName("batch reservations are forgotten when the transaction rolls back")
+    void should_forget_reservations_when_transaction_rolls_back() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        TelemetryDeduplicator.Batch batch = underTest.batch();
+        assertThat(batch.reserve(9001L, "s:1")).isEmpty();
+        batch.ingested(9001L, "s:1", response(100L));
+        batch.settle();
+
+        // when
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        assertThat(underTest.batch().reserve(9001L, "s:1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("batch reservations are published when the transaction commits")
+    void should_publish_responses_when_transaction_commits() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        TelemetryDeduplicator.Batch batch = underTest.batch();
+        batch.reserve(9001L, "s:1");
+        batch.ingested(9001L, "s:1", response(100L));
+        batch.settle();
+
+        // when
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // then
+        assertThat(underTest.batch().reserve(9001L, "s:1"))
+                .hasValueSatisfying(earlier -> assertThat(earlier.join().getTelemetryId()).isEqualTo(100L));
+        assertThat(underTest.batch().reserve(9002L, "s:1")).isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.supermart.iot.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.enums.ExportFormat;
+import com.supermart.iot.exception.BadRequestException;
+import com.supermart.iot.exception.ResourceNotFoundException;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.StoreRepository;
+import com.supermart.iot.repository.TelemetryArchiveBlockRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for {@link TelemetryExportService}, streaming the seeded
+ * H2 telemetry through the real JDBC cursor.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TelemetryExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 2, 24, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 2, 25, 0, 0);
+
+    @Autowired
+    private TelemetryExportService underTest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TelemetryArchiveBlockRepository archiveBlockRepository;
+
+    @Autowired
+    private IotDeviceRepository deviceRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private TelemetryArchiveReader archiveReader;
+
+    private byte[] export(Long deviceId, Long storeId, String format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        underTest.prepare(deviceId, storeId, FROM, TO, format, gzip).body().writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static List<String> lines(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8).lines().toList();
+    }
+
+    // ─── formats ──────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("CSV export of a store lists every reading of its devices in device and time order")
+    void should_write_store_readings_in_order_when_csv_exported() throws IOException {
+        // given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<String> rows = lines(export(null, 1001L, "csv", false));
+
+        // then
+        assertThat(rows).containsExactly(
+                TelemetryExportService.CSV_HEADER,
+                "78234441,9001,DEV-2024-TX-09001,1001,501,2026-02-24T10:28,-14.8,false",
+                "78234501,9001,DEV-2024-TX-09001,1001,501,2026-02-24T10:29,-10.2,true",
+                "78234442,9002,DEV-2024-TX-09002,1001,502,2026-02-24T10:28,5.1,false",
+                "78234502,9002,DEV-2024-TX-09002,1001,502,2026-02-24T10:29,5.3,false");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one JSON object per line")
+    void should_write_one_object_per_line_when_ndjson_exported() throws IOException {
+        // when
+        List<String> rows = lines(export(9002L, null, "ndjson", false));
+
+        // then
+        assertThat(rows).hasSize(2);
+        JsonNode last = objectMapper.readTree(rows.get(1));
+        assertThat(last.get("telemetryId").asLong()).isEqualTo(78234502L);
+        assertThat(last.get("temperature").asDouble()).isEqualTo(5.3);
+        assertThat(last.get("isAlert").asBoolean()).isFalse();
+    }
+
+    @Test
+    @DisplayName("gzip export decompresses to the same rows as the plain export")
+    void should_match_plain_export_when_gzip_requested() throws IOException {
+        // when
+        byte[] compressed = export(null, null, "csv", true);
+
+        // then
+        byte[] plain;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            plain = in.readAllBytes();
+        }
+        assertThat(lines(plain)).isEqualTo(lines(export(null, null, "csv", false))).hasSize(5);
+        assertThat(underTest.prepare(null, null, FROM, TO, "csv", true).filename()).endsWith(".csv.gz");
+    }
+
+    // ─── validation ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("prepare rejects an unknown format before streaming")
+    void should_throw_bad_request_when_format_unknown() {
+        assertThatThrownBy(() -> underTest.prepare(9001L, null, FROM, TO, "xml", false))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("csv or ndjson");
+    }
+
+    @Test
+    @DisplayName("prepare rejects a request scoped to both a device and a store")
+    void should_throw_bad_request_when_device_and_store_given() {
+        assertThatThrownBy(() -> underTest.prepare(9001L, 1001L, FROM, TO, "csv", false))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("prepare throws not found for an unknown store")
+    void should_throw_not_found_when_store_unknown() {
+        assertThatThrownBy(() -> underTest.prepare(null, 4242L, FROM, TO, "csv", false))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("4242");
+    }
+
+    // ─── stores ───────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("export reads through the telemetry store, so readings kept in segment files are exported too")
+    void should_export_segment_readings_when_segment_store_selected(@TempDir Path directory) throws IOException {
+        // given
+        SegmentTelemetryStore segmentStore = new SegmentTelemetryStore(archiveReader);
+        ReflectionTestUtils.setField(segmentStore, "directory", directory);
+        ReflectionTestUtils.setField(segmentStore, "recordsPerSegment", 16);
+        segmentStore.open();
+        try {
+            List<TelemetryRecord> records = List.of(
+                    reading(9002L, FROM.plusHours(2), 4.5),
+                    reading(9001L, FROM.plusHours(3), -17.5),
+                    reading(9001L, FROM.plusHours(1), -18.5));
+            segmentStore.append(records);
+            TelemetryExportService export = new TelemetryExportService(segmentStore, archiveBlockRepository,
+                    deviceRepository, storeRepository, objectMapper);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            // when
+            export.write(out, null, 1001L, FROM, TO, ExportFormat.CSV, false);
+
+            // then
+            assertThat(lines(out.toByteArray())).containsExactly(
+                    TelemetryExportService.CSV_HEADER,
+                    records.get(2).getTelemetryId() + ",9001,DEV-2024-TX-09001,1001,501,2026-02-24T01:00,-18.5,false",
+                    records.get(1).getTelemetryId() + ",9001,DEV-2024-TX-09001,1001,501,2026-02-24T03:00,-17.5,false",
+                    records.get(0).getTelemetryId() + ",9002,DEV-2024-TX-09002,1001,502,2026-02-24T02:00,4.5,false");
+        } finally {
+            segmentStore.close();
+        }
+    }
+
+    private static TelemetryRecord reading(long deviceId, LocalDateTime at, double temperature) {
+        return TelemetryRecord.builder().device(IotDevice.builder().deviceId(deviceId).build())
+                .temperature(temperature).recordedAt(at).isAlert(false).build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.service.impl.TelemetryPartitionManager.Partition;
+import com.supermart.iot.service.impl.TelemetryPartitionManager.PartitionInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the partition planning of {@link TelemetryPartitionManager}.
+ *
+ * <p>The DDL itself only runs against MySQL; these tests cover which
+ * partitions are created and dropped for a given day, and which are kept
+ * while the archiver has not emptied them.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetryPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private TelemetryPartitionManager underTest;
+
+    private final LocalDate today = LocalDate.of(2026, 3, 4); // a Wednesday
+
+    @BeforeEach
+    void setUp() {
+        // Inject settings via ReflectionTestUtils (values normally injected by @Value)
+        ReflectionTestUtils.setField(underTest, "interval", PartitionInterval.DAILY);
+        ReflectionTestUtils.setField(underTest, "precreateCount", 3);
+        ReflectionTestUtils.setField(underTest, "retentionDays", 30);
+    }
+
+    @Test
+    @DisplayName("planCreates adds daily partitions until the pre-create horizon is covered")
+    void should_precreate_daily_partitions_when_horizon_not_covered() {
+        // when — partitions already exist up to (excluding) tomorrow
+        List<Partition> result = underTest.planCreates(today.plusDays(1), today);
+
+        // then — horizon is today + 3 days
+        assertThat(result).extracting(Partition::name)
+                .containsExactly("p20260305", "p20260306", "p20260307");
+        assertThat(result).extracting(Partition::upperBound)
+                .containsExactly(LocalDate.of(2026, 3, 6), LocalDate.of(2026, 3, 7), LocalDate.of(2026, 3, 8));
+    }
+
+    @Test
+    @DisplayName("planCreates creates nothing when partitions already extend past the horizon")
+    void should_create_nothing_when_horizon_already_covered() {
+        // when
+        List<Partition> result = underTest.planCreates(today.plusDays(4), today);
+
+        // then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("planCreates widens the first partition to the retention cutoff after a long gap")
+    void should_create_single_catch_up_partition_when_last_bound_before_retention_cutoff() {
+        // when — the last bounded partition ended well before the 30-day cutoff (2026-02-02)
+        List<Partition> result = underTest.planCreates(LocalDate.of(2026, 1, 1), today);
+
+        // then
+        assertThat(result.get(0)).isEqualTo(new Partition("p20260101", LocalDate.of(2026, 2, 3)));
+        assertThat(result.get(1).name()).isEqualTo("p20260203");
+        assertThat(result.get(result.size() - 1).upperBound()).isEqualTo(LocalDate.of(2026, 3, 8));
+    }
+
+    @Test
+    @DisplayName("planCreates aligns weekly partitions to Mondays")
+    void should_align_weekly_partitions_to_monday() {
+        // given
+        ReflectionTestUtils.setField(underTest, "interval", PartitionInterval.WEEKLY);
+        ReflectionTestUtils.setField(underTest, "precreateCount", 1);
+
+        // when
+        List<Partition> result = underTest.planCreates(LocalDate.of(2026, 3, 2), today);
+
+        // then
+        assertThat(result).containsExactly(
+                new Partition("p20260302", LocalDate.of(2026, 3, 9)),
+                new Partition("p20260309", LocalDate.of(2026, 3, 16)));
+    }
+
+    @Test
+    @DisplayName("planDrops selects only partitions entirely older than the retention window")
+    void should_drop_only_partitions_past_retention() {
+        // given — cutoff is 2026-02-02
+        List<Partition> existing = List.of(
+                new Partition("p_history", LocalDate.of(2026, 1, 1)),
+                new Partition("p20260201", LocalDate.of(2026, 2, 2)),
+                new Partition("p20260202", LocalDate.of(2026, 2, 3)));
+
+        // when
+        List<Partition> result = underTest.planDrops(existing, today);
+
+        // then
+        assertThat(result).extracting(Partition::name).containsExactly("p_history", "p20260201");
+    }
+
+    @Test
+    @DisplayName("emptyPartitions keeps partitions that still hold unarchived readings")
+    void should_keep_partition_with_rows_when_archive_enabled() {
+        // given — p_history still has readings the archiver has not moved yet
+        when(jdbcTemplate.queryForList(contains("PARTITION (p_history)"), eq(Integer.class))).thenReturn(List.of(1));
+        when(jdbcTemplate.queryForList(contains("PARTITION (p20260201)"), eq(Integer.class))).thenReturn(List.of());
+
+        // when
+        List<Partition> result = underTest.emptyPartitions(List.of(
+                new Partition("p_history", LocalDate.of(2026, 1, 1)),
+                new Partition("p20260201", LocalDate.of(2026, 2, 2))));
+
+        // then
+        assertThat(result).extracting(Partition::name).containsExactly("p20260201");
+    }
+
+    @Test
+    @DisplayName("startup maintenance runs in the background and never overlaps a scheduled run")
+    void should_not_block_startup_when_maintenance_is_slow() throws InterruptedException {
+        // given — the first partition lookup blocks until released
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        }).when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq("telemetry_records"));
+
+        // when
+        underTest.onStartup();
+
+        // then — onStartup returned while maintenance is still running, and a
+        // scheduled run meanwhile is skipped rather than queued behind it
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        underTest.maintain();
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq("telemetry_records"));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("reorganizeSql splits p_future and keeps a MAXVALUE catch-all")
+    void should_build_reorganize_statement_with_trailing_maxvalue() {
+        // when
+        String sql = TelemetryPartitionManager.reorganizeSql(
+                List.of(new Partition("p20260305", LocalDate.of(2026, 3, 6))));
+
+        // then
+        assertThat(sql).isEqualTo("ALTER TABLE telemetry_records REORGANIZE PARTITION p_future INTO (" +
+                "PARTITION p20260305 VALUES LESS THAN ('2026-03-06 00:00:00'), " +
+                "PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+    }
+}
@@ -0,0 +1,245 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.Incident;
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.enums.DeviceStatus;
+import com.supermart.iot.enums.IncidentStatus;
+import com.supermart.iot.repository.DeviceLatestTelemetryRepository;
+import com.supermart.iot.repository.IncidentRepository;
+import com.supermart.iot.repository.IotDeviceRepository;
+import com.supermart.iot.repository.IotDeviceRepository.DeviceStatusRow;
+import com.supermart.iot.service.TelemetryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TelemetryPersistenceService}.
+ *
+ * <p>Covers the batch insert hand-off, FAULT status transitions and incident
+ * auto-creation applied when evaluated readings are persisted.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetryPersistenceServiceTest {
+
+    @Mock
+    private TelemetryStore telemetryStore;
+
+    @Mock
+    private IotDeviceRepository deviceRepository;
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private DeviceMetadataCache deviceCache;
+
+    @Mock
+    private TelemetryRollupService rollupService;
+
+    @Mock
+    private DeviceLatestTelemetryRepository latestTelemetryRepository;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
+
+    @Mock
+    private DashboardBroadcaster dashboardBroadcaster;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ServiceMetrics metrics = new ServiceMetrics(meterRegistry);
+
+    @InjectMocks
+    private TelemetryPersistenceService underTest;
+
+    private DeviceSnapshot snapshot(DeviceStatus status) {
+        return new DeviceSnapshot(9001L, "DEV-9001", DeviceMetadataCache.hashKey("key-9001"),
+                -25.0, -15.0, status, 501L, 1001L);
+    }
+
+    private static DeviceStatusRow statusRow(long deviceId, DeviceStatus status) {
+        return new DeviceStatusRow() {
+            @Override
+            public Long getDeviceId() {
+                return deviceId;
+            }
+
+            @Override
+            public DeviceStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
+    private long nextTelemetryId = 1;
+
+    private TelemetryRecord reading(double temperature, boolean alert) {
+        return reading(9001L, temperature, alert, LocalDateTime.now());
+    }
+
+    private TelemetryRecord reading(long deviceId, double temperature, boolean alert, LocalDateTime recordedAt) {
+        // batchInsert is mocked, so ids are assigned here as the real insert would
+        return TelemetryRecord.builder()
+                .telemetryId(nextTelemetryId++)
+                .device(IotDevice.builder().deviceId(deviceId).build())
+                .temperature(temperature)
+                .recordedAt(recordedAt)
+                .isAlert(alert)
+                .build();
+    }
+
+    @Test
+    @DisplayName("write batch-inserts readings without touching devices or incidents when nothing alerts")
+    void should_only_insert_when_no_reading_alerts() {
+        // given
+        List<TelemetryRecord> records = List.of(reading(-18.0, false), reading(-17.0, false));
+
+        // when
+        underTest.write(records);
+
+        // then
+        verify(telemetryStore).append(records);
+        verify(rollupService).accumulate(records);
+        verifyNoInteractions(deviceRepository, incidentRepository, deviceCache, dashboardCounters);
+        verify(dashboardBroadcaster).devicesChanged(Set.of(), List.of(9001L));
+    }
+
+    @Test
+    @DisplayName("write marks device FAULT and creates one incident when readings exceed max threshold")
+    void should_set_fault_status_and_create_incident_when_temperature_exceeds_max_threshold() {
+        // given
+        when(deviceCache.findAllById(Set.of(9001L))).thenReturn(Map.of(9001L, snapshot(DeviceStatus.ACTIVE)));
+        when(deviceRepository.transitionToFault(List.of(9001L)))
+                .thenReturn(List.of(statusRow(9001L, DeviceStatus.ACTIVE)));
+        when(incidentRepository.findByDevice_DeviceIdAndStatus(9001L, IncidentStatus.OPEN))
+                .thenReturn(Optional.empty());
+
+        // when
+        underTest.write(List.of(reading(-10.0, true), reading(-9.0, true)));
+
+        // then
+        verify(deviceRepository).transitionToFault(List.of(9001L));
+        verify(deviceCache).invalidate(9001L);
+        verify(incidentRepository, times(1)).save(argThat(incident ->
+                incident.getDescription().contains("exceeded max threshold")
+                        && incident.getDescription().contains("-10.0")));
+        verify(dashboardCounters).recordAlerts(argThat(times -> times.size() == 2));
+        verify(dashboardCounters).deviceStatusChanged(DeviceStatus.ACTIVE, DeviceStatus.FAULT);
+        verify(dashboardCounters).incidentStatusChanged(null, IncidentStatus.OPEN);
+        verify(dashboardBroadcaster).devicesChanged(Set.of(9001L), List.of(9001L));
+        assertThat(meterRegistry.get("supermart.incidents.auto.opened").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("supermart.telemetry.ingest.phase").tag("phase", "incident_check").timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("write skips the status update when the device is already FAULT")
+    void should_not_mark_fault_when_device_already_faulted() {
+        // given
+        when(deviceCache.findAllById(Set.of(9001L))).thenReturn(Map.of(9001L, snapshot(DeviceStatus.FAULT)));
+        when(incidentRepository.findByDevice_DeviceIdAndStatus(9001L, IncidentStatus.OPEN))
+                .thenReturn(Optional.empty());
+
+        // when
+        underTest.write(List.of(reading(-10.0, true)));
+
+        // then
+        verify(deviceRepository, never()).transitionToFault(any());
+        verify(deviceCache, never()).invalidate(any());
+    }
+
+    @Test
+    @DisplayName("write counts no transition when another writer faulted the device after it was cached")
+    void should_not_count_transition_when_cached_status_is_stale() {
+        // given — the cache still says ACTIVE, but the row is already FAULT
+        when(deviceCache.findAllById(Set.of(9001L))).thenReturn(Map.of(9001L, snapshot(DeviceStatus.ACTIVE)));
+        when(deviceRepository.transitionToFault(List.of(9001L))).thenReturn(List.of());
+        when(incidentRepository.findByDevice_DeviceIdAndStatus(9001L, IncidentStatus.OPEN))
+                .thenReturn(Optional.of(Incident.builder().incidentId(3301L).status(IncidentStatus.OPEN).build()));
+
+        // when
+        underTest.write(List.of(reading(-10.0, true)));
+
+        // then
+        verify(deviceCache).invalidate(9001L);
+        verify(dashboardCounters, never()).deviceStatusChanged(any(), any());
+    }
+
+    @Test
+    @DisplayName("write does not create duplicate incident when open incident already exists")
+    void should_not_create_incident_when_open_incident_already_exists_for_device() {
+        // given
+        when(deviceCache.findAllById(Set.of(9001L))).thenReturn(Map.of(9001L, snapshot(DeviceStatus.FAULT)));
+        when(incidentRepository.findByDevice_DeviceIdAndStatus(9001L, IncidentStatus.OPEN))
+                .thenReturn(Optional.of(Incident.builder()
+                        .incidentId(3301L)
+                        .status(IncidentStatus.OPEN)
+                        .build()));
+
+        // when
+        underTest.write(List.of(reading(-10.0, true)));
+
+        // then
+        verify(incidentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("write creates incident with below-min description when temperature is below min threshold")
+    void should_create_incident_with_below_min_description_when_temperature_below_min_threshold() {
+        // given
+        when(deviceCache.findAllById(Set.of(9001L))).thenReturn(Map.of(9001L, snapshot(DeviceStatus.ACTIVE)));
+        when(incidentRepository.findByDevice_DeviceIdAndStatus(9001L, IncidentStatus.OPEN))
+                .thenReturn(Optional.empty());
+
+        // when
+        underTest.write(List.of(reading(-30.0, true)));
+
+        // then
+        verify(incidentRepository, times(1)).save(argThat(incident ->
+                incident.getDescription().contains("below min threshold")));
+    }
+
+    @Test
+    @DisplayName("write does nothing for an empty list")
+    void should_skip_all_writes_when_records_empty() {
+        // when
+        underTest.write(List.of());
+
+        // then
+        verifyNoInteractions(telemetryStore, rollupService, deviceRepository, incidentRepository);
+    }
+
+    @Test
+    @DisplayName("write advances the latest-reading projection with the newest reading of each device")
+    void should_advance_latest_reading_with_newest_per_device_when_written() {
+        // given
+        LocalDateTime at = LocalDateTime.of(2026, 2, 24, 10, 29);
+        TelemetryRecord newest9001 = reading(9001L, -18.0, false, at);
+        TelemetryRecord older9001 = reading(9001L, -17.0, false, at.minusMinutes(1));
+        TelemetryRecord only9002 = reading(9002L, 4.0, false, at.minusMinutes(5));
+
+        // when
+        underTest.write(List.of(newest9001, older9001, only9002));
+
+        // then
+        verify(latestTelemetryRepository).advance(List.of(newest9001, only9002));
+    }
+}
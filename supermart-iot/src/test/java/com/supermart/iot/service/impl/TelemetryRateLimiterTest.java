@@ -0,0 +1,98 @@
+package com.supermart.iot.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link TelemetryRateLimiter} backed by {@link InMemoryRateLimitStateStore}.
+ *
+ * <p>Uses a manually advanced clock so window behaviour is deterministic.</p>
+ */
+class TelemetryRateLimiterTest {
+
+    private static final int LIMIT = 4;
+
+    private final AtomicLong clockMicros = new AtomicLong(TimeUnit.DAYS.toMicros(20_000));
+
+    private TelemetryRateLimiter underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new TelemetryRateLimiter(new InMemoryRateLimitStateStore(), LIMIT, clockMicros::get);
+    }
+
+    @Test
+    @DisplayName("tryAcquire admits a burst up to the limit and rejects the next reading")
+    void should_reject_when_burst_exceeds_limit() {
+        for (int i = 0; i < LIMIT; i++) {
+            assertThat(underTest.tryAcquire(9001L)).isTrue();
+        }
+        assertThat(underTest.tryAcquire(9001L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("tryAcquire admits one more reading after one emission interval has elapsed")
+    void should_admit_again_when_emission_interval_elapsed() {
+        for (int i = 0; i < LIMIT; i++) {
+            underTest.tryAcquire(9001L);
+        }
+
+        clockMicros.addAndGet(TimeUnit.SECONDS.toMicros(60) / LIMIT);
+
+        assertThat(underTest.tryAcquire(9001L)).isTrue();
+        assertThat(underTest.tryAcquire(9001L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("tryAcquire keeps independent budgets per device")
+    void should_track_budgets_independently_per_device() {
+        for (int i = 0; i < LIMIT; i++) {
+            underTest.tryAcquire(9001L);
+        }
+
+        assertThat(underTest.tryAcquire(9001L)).isFalse();
+        assertThat(underTest.tryAcquire(9002L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("tryAcquire admits exactly the limit under concurrent submissions")
+    void should_admit_exactly_limit_when_called_concurrently() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        for (int i = 0; i < 64; i++) {
+            pool.submit(() -> {
+                start.await();
+                if (underTest.tryAcquire(9001L)) {
+                    admitted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(admitted.get()).isEqualTo(LIMIT);
+    }
+
+    @Test
+    @DisplayName("constructor rejects a non-positive limit")
+    void should_throw_when_limit_not_positive() {
+        InMemoryRateLimitStateStore store = new InMemoryRateLimitStateStore();
+        assertThatThrownBy(() -> new TelemetryRateLimiter(store, 0, clockMicros::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.enums.RollupBucket;
+import com.supermart.iot.repository.TelemetryRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static com.supermart.iot.service.impl.TelemetryRollupRetention.DELETE_CHUNK_SIZE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TelemetryRollupRetention}.
+ *
+ * <p>Verifies per-bucket cutoffs, chunked deletes and that a bucket kept
+ * forever is never touched.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetryRollupRetentionTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private TelemetryRollupRepository rollupRepository;
+
+    @InjectMocks
+    private TelemetryRollupRetention underTest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "minuteDays", 7);
+        ReflectionTestUtils.setField(underTest, "hourDays", 180);
+        ReflectionTestUtils.setField(underTest, "dayDays", 0);
+    }
+
+    @Test
+    @DisplayName("purge deletes each bucket before its own cutoff and keeps day rollups")
+    void should_use_bucket_cutoffs_when_purged() {
+        // given
+        LocalDateTime minuteCutoff = LocalDateTime.of(2026, 2, 22, 0, 0);
+        LocalDateTime hourCutoff = LocalDateTime.of(2025, 9, 2, 0, 0);
+        when(rollupRepository.deleteBefore(RollupBucket.MINUTE, minuteCutoff, DELETE_CHUNK_SIZE)).thenReturn(3);
+        when(rollupRepository.deleteBefore(RollupBucket.HOUR, hourCutoff, DELETE_CHUNK_SIZE)).thenReturn(0);
+
+        // when
+        underTest.purge(TODAY);
+
+        // then
+        verify(rollupRepository).deleteBefore(RollupBucket.MINUTE, minuteCutoff, DELETE_CHUNK_SIZE);
+        verify(rollupRepository).deleteBefore(RollupBucket.HOUR, hourCutoff, DELETE_CHUNK_SIZE);
+        verify(rollupRepository, never()).deleteBefore(eq(RollupBucket.DAY), any(), eq(DELETE_CHUNK_SIZE));
+    }
+
+    @Test
+    @DisplayName("purge repeats full chunks until a partial chunk is deleted")
+    void should_delete_in_chunks_when_more_rows_than_chunk_expired() {
+        // given
+        when(rollupRepository.deleteBefore(eq(RollupBucket.MINUTE), any(), eq(DELETE_CHUNK_SIZE)))
+                .thenReturn(DELETE_CHUNK_SIZE, DELETE_CHUNK_SIZE, 5);
+
+        // when
+        underTest.purge(TODAY);
+
+        // then
+        verify(rollupRepository, times(3)).deleteBefore(eq(RollupBucket.MINUTE), any(), eq(DELETE_CHUNK_SIZE));
+    }
+
+    @Test
+    @DisplayName("a failing bucket does not stop the others from being purged")
+    void should_purge_next_bucket_when_previous_bucket_fails() {
+        // given
+        when(rollupRepository.deleteBefore(eq(RollupBucket.MINUTE), any(), eq(DELETE_CHUNK_SIZE)))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"));
+
+        // when
+        underTest.purge(TODAY);
+
+        // then
+        verify(rollupRepository).deleteBefore(eq(RollupBucket.HOUR), any(), eq(DELETE_CHUNK_SIZE));
+    }
+}
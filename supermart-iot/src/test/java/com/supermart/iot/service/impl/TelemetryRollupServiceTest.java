@@ -0,0 +1,102 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import com.supermart.iot.entity.TelemetryRollup;
+import com.supermart.iot.enums.RollupBucket;
+import com.supermart.iot.repository.TelemetryRollupRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link TelemetryRollupService}.
+ *
+ * <p>Verifies that readings are folded into one delta per device, bucket and
+ * bucket start before the upsert.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetryRollupServiceTest {
+
+    @Mock
+    private TelemetryRollupRepository rollupRepository;
+
+    @InjectMocks
+    private TelemetryRollupService underTest;
+
+    @Captor
+    private ArgumentCaptor<List<TelemetryRollup>> deltas;
+
+    private TelemetryRecord reading(long deviceId, double temperature, LocalDateTime at, boolean alert) {
+        return TelemetryRecord.builder()
+                .device(IotDevice.builder().deviceId(deviceId).build())
+                .temperature(temperature)
+                .recordedAt(at)
+                .isAlert(alert)
+                .build();
+    }
+
+    @Test
+    @DisplayName("accumulate folds readings into minute, hour and day deltas")
+    void should_fold_readings_into_one_delta_per_bucket_when_accumulated() {
+        // given — two readings in the same minute, one in the next minute of the same hour
+        LocalDateTime t = LocalDateTime.of(2026, 2, 24, 10, 28, 5);
+        List<TelemetryRecord> records = List.of(
+                reading(9001L, -18.0, t, false),
+                reading(9001L, -10.0, t.plusSeconds(30), true),
+                reading(9001L, -20.0, t.plusMinutes(1), false));
+
+        // when
+        underTest.accumulate(records);
+
+        // then
+        verify(rollupRepository).upsert(deltas.capture());
+        List<TelemetryRollup> result = deltas.getValue();
+        assertThat(result).hasSize(4); // 2 minutes + 1 hour + 1 day
+
+        TelemetryRollup hour = result.stream()
+                .filter(d -> d.getId().getBucket() == RollupBucket.HOUR)
+                .findFirst().orElseThrow();
+        assertThat(hour.getId().getBucketStart()).isEqualTo(LocalDateTime.of(2026, 2, 24, 10, 0));
+        assertThat(hour.getSampleCount()).isEqualTo(3);
+        assertThat(hour.getAlertCount()).isEqualTo(1);
+        assertThat(hour.getMinTemperature()).isEqualTo(-20.0);
+        assertThat(hour.getMaxTemperature()).isEqualTo(-10.0);
+        assertThat(hour.getTemperatureSum()).isEqualTo(-48.0);
+
+        TelemetryRollup firstMinute = result.stream()
+                .filter(d -> d.getId().getBucket() == RollupBucket.MINUTE)
+                .findFirst().orElseThrow();
+        assertThat(firstMinute.getId().getBucketStart()).isEqualTo(LocalDateTime.of(2026, 2, 24, 10, 28));
+        assertThat(firstMinute.getSampleCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("accumulate orders deltas by device, bucket and bucket start")
+    void should_sort_deltas_by_key_when_accumulated() {
+        // given
+        LocalDateTime t = LocalDateTime.of(2026, 2, 24, 10, 0);
+        List<TelemetryRecord> records = List.of(
+                reading(9002L, 4.0, t, false),
+                reading(9001L, -18.0, t, false));
+
+        // when
+        underTest.accumulate(records);
+
+        // then
+        verify(rollupRepository).upsert(deltas.capture());
+        assertThat(deltas.getValue()).extracting(d -> d.getId().getDeviceId())
+                .containsExactly(9001L, 9001L, 9001L, 9002L, 9002L, 9002L);
+    }
+}
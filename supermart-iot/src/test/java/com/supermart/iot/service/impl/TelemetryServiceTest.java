@@ -1,92 +1,97 @@
 package com.supermart.iot.service.impl;
 
 import com.supermart.iot.dto.request.TelemetryIngestRequest;
+import com.supermart.iot.dto.response.TelemetryBatchResponse;
 import com.supermart.iot.dto.response.TelemetryResponse;
-import com.supermart.iot.entity.EquipmentUnit;
-import com.supermart.iot.entity.IotDevice;
-import com.supermart.iot.entity.Store;
 import com.supermart.iot.entity.TelemetryRecord;
 import com.supermart.iot.enums.DeviceStatus;
-import com.supermart.iot.enums.IncidentStatus;
+import com.supermart.iot.exception.BadRequestException;
+import com.supermart.iot.exception.IngestBackpressureException;
 import com.supermart.iot.exception.RateLimitException;
 import com.supermart.iot.exception.ResourceNotFoundException;
-import com.supermart.iot.repository.IotDeviceRepository;
-import com.supermart.iot.repository.IncidentRepository;
-import com.supermart.iot.repository.TelemetryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for {@link TelemetryService}.
  *
- * <p>Covers telemetry ingestion, threshold evaluation, auto-incident creation,
- * rate-limit enforcement, and error paths.</p>
+ * <p>Covers telemetry ingestion, threshold evaluation, write-behind hand-off,
+ * backpressure, rate-limit enforcement, batch ingest, retry deduplication and
+ * error paths.</p>
  */
 @ExtendWith(MockitoExtension.class)
 class TelemetryServiceTest {
 
     @Mock
-    private TelemetryRepository telemetryRepository;
+    private DeviceMetadataCache deviceCache;
 
     @Mock
-    private IotDeviceRepository deviceRepository;
+    private TelemetryPersistenceService persistenceService;
 
     @Mock
-    private IncidentRepository incidentRepository;
+    private TelemetryWriteBehindQueue writeBehindQueue;
+
+    @Mock
+    private TelemetryRateLimiter rateLimiter;
+
+    @Mock
+    private DeviceHeartbeatTracker heartbeatTracker;
+
+    @Spy
+    private TelemetryDeduplicator deduplicator = new TelemetryDeduplicator(600, 1000);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ServiceMetrics metrics = new ServiceMetrics(meterRegistry);
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @InjectMocks
     private TelemetryService underTest;
 
-    private IotDevice device;
-    private TelemetryRecord savedRecord;
+    private DeviceSnapshot device;
 
     @BeforeEach
     void setUp() {
-        // Inject rate limit via ReflectionTestUtils (value normally injected by @Value)
-        ReflectionTestUtils.setField(underTest, "rateLimitPerMinute", 10);
-
-        Store store = Store.builder().storeId(1001L).storeName("Supermart Dallas").build();
-        EquipmentUnit unit = EquipmentUnit.builder().unitId(501L).store(store).unitName("Freezer-1").build();
+        // Inject batch size via ReflectionTestUtils (value normally injected by @Value)
+        ReflectionTestUtils.setField(underTest, "maxBatchSize", 500);
 
-        device = IotDevice.builder()
-                .deviceId(9001L)
-                .unit(unit)
-                .deviceSerial("DEV-9001")
-                .deviceKey("key-9001")
-                .status(DeviceStatus.ACTIVE)
-                .minTempThreshold(-25.0)
-                .maxTempThreshold(-15.0)
-                .lastSeenAt(LocalDateTime.now())
-                .build();
-
-        savedRecord = TelemetryRecord.builder()
-                .telemetryId(78234441L)
-                .device(device)
-                .temperature(-18.0)
-                .recordedAt(LocalDateTime.now())
-                .isAlert(false)
-                .build();
+        device = new DeviceSnapshot(9001L, "DEV-9001", DeviceMetadataCache.hashKey("key-9001"),
+                -25.0, -15.0, DeviceStatus.ACTIVE, 501L, 1001L);
     }
 
     // ─── ingest — normal path ─────────────────────────────────────────────────
 
     @Test
-    @DisplayName("ingest returns TelemetryResponse when temperature is within threshold")
-    void should_return_telemetry_response_when_temperature_within_threshold() {
+    @DisplayName("ingest writes synchronously and returns the persisted id when write-behind is disabled")
+    void should_persist_synchronously_when_write_behind_disabled() {
         // given
         TelemetryIngestRequest request = TelemetryIngestRequest.builder()
                 .deviceId(9001L)
@@ -94,25 +99,30 @@ class TelemetryServiceTest {
                 .recordedAt(LocalDateTime.now())
                 .build();
 
-        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
-        when(telemetryRepository.countByDevice_DeviceIdAndRecordedAtAfter(eq(9001L), any())).thenReturn(3L);
-        when(telemetryRepository.save(any(TelemetryRecord.class))).thenReturn(savedRecord);
-        when(deviceRepository.save(any(IotDevice.class))).thenReturn(device);
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        when(writeBehindQueue.isEnabled()).thenReturn(false);
+        doAnswer(invocation -> {
+            List<TelemetryRecord> records = invocation.getArgument(0);
+            records.get(0).setTelemetryId(78234441L);
+            return null;
+        }).when(persistenceService).write(anyList());
 
         // when
         TelemetryResponse result = underTest.ingest(request);
 
         // then
-        assertThat(result).isNotNull();
+        assertThat(result.getTelemetryId()).isEqualTo(78234441L);
         assertThat(result.getDeviceId()).isEqualTo(9001L);
         assertThat(result.getTemperature()).isEqualTo(-18.0);
         assertThat(result.getIsAlert()).isFalse();
-        verify(incidentRepository, never()).save(any());
+        verify(writeBehindQueue, never()).offer(any(), any());
+        verify(heartbeatTracker).recordHeartbeat(eq(9001L), any());
     }
 
     @Test
-    @DisplayName("ingest sets device status to FAULT and creates incident when temperature exceeds max threshold")
-    void should_set_fault_status_and_create_incident_when_temperature_exceeds_max_threshold() {
+    @DisplayName("ingest evaluates the alert and queues the reading when write-behind is enabled")
+    void should_queue_alert_reading_when_write_behind_enabled() {
         // given
         TelemetryIngestRequest request = TelemetryIngestRequest.builder()
                 .deviceId(9001L)
@@ -120,104 +130,69 @@ class TelemetryServiceTest {
                 .recordedAt(LocalDateTime.now())
                 .build();
 
-        TelemetryRecord alertRecord = TelemetryRecord.builder()
-                .telemetryId(78234442L)
-                .device(device)
-                .temperature(-10.0)
-                .recordedAt(LocalDateTime.now())
-                .isAlert(true)
-                .build();
-
-        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
-        when(telemetryRepository.countByDevice_DeviceIdAndRecordedAtAfter(eq(9001L), any())).thenReturn(1L);
-        when(telemetryRepository.save(any(TelemetryRecord.class))).thenReturn(alertRecord);
-        when(deviceRepository.save(any(IotDevice.class))).thenReturn(device);
-        when(incidentRepository.findByDevice_DeviceIdAndStatus(9001L, IncidentStatus.OPEN))
-                .thenReturn(Optional.empty());
-        when(incidentRepository.save(any())).thenReturn(null);
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.offer(any(), any())).thenReturn(true);
 
         // when
         TelemetryResponse result = underTest.ingest(request);
 
         // then
+        ArgumentCaptor<TelemetryRecord> queued = ArgumentCaptor.forClass(TelemetryRecord.class);
+        verify(writeBehindQueue).offer(queued.capture(), any());
+        assertThat(queued.getValue().getIsAlert()).isTrue();
         assertThat(result.getIsAlert()).isTrue();
-        assertThat(device.getStatus()).isEqualTo(DeviceStatus.FAULT);
-        verify(incidentRepository, times(1)).save(any());
+        assertThat(result.getTelemetryId()).isNull();
+        verifyNoInteractions(persistenceService);
     }
 
     @Test
-    @DisplayName("ingest does not create duplicate incident when open incident already exists")
-    void should_not_create_incident_when_open_incident_already_exists_for_device() {
+    @DisplayName("ingest flags readings below the min threshold as alerts")
+    void should_flag_alert_when_temperature_below_min_threshold() {
         // given
         TelemetryIngestRequest request = TelemetryIngestRequest.builder()
                 .deviceId(9001L)
-                .temperature(-10.0) // alert
-                .recordedAt(LocalDateTime.now())
-                .build();
-
-        TelemetryRecord alertRecord = TelemetryRecord.builder()
-                .telemetryId(78234443L)
-                .device(device)
-                .temperature(-10.0)
+                .temperature(-30.0) // below min of -25.0 => alert
                 .recordedAt(LocalDateTime.now())
-                .isAlert(true)
                 .build();
 
-        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
-        when(telemetryRepository.countByDevice_DeviceIdAndRecordedAtAfter(eq(9001L), any())).thenReturn(1L);
-        when(telemetryRepository.save(any(TelemetryRecord.class))).thenReturn(alertRecord);
-        when(deviceRepository.save(any(IotDevice.class))).thenReturn(device);
-        when(incidentRepository.findByDevice_DeviceIdAndStatus(9001L, IncidentStatus.OPEN))
-                .thenReturn(Optional.of(com.supermart.iot.entity.Incident.builder()
-                        .incidentId(3301L)
-                        .status(IncidentStatus.OPEN)
-                        .build()));
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.offer(any(), any())).thenReturn(true);
 
         // when
         TelemetryResponse result = underTest.ingest(request);
 
         // then
         assertThat(result.getIsAlert()).isTrue();
-        verify(incidentRepository, never()).save(any());
     }
 
+    // ─── ingest — error paths ─────────────────────────────────────────────────
+
     @Test
-    @DisplayName("ingest creates incident with below-min description when temperature is below min threshold")
-    void should_create_incident_with_below_min_description_when_temperature_below_min_threshold() {
+    @DisplayName("ingest throws IngestBackpressureException when the write-behind queue is full")
+    void should_throw_backpressure_when_write_behind_queue_full() {
         // given
         TelemetryIngestRequest request = TelemetryIngestRequest.builder()
                 .deviceId(9001L)
-                .temperature(-30.0) // below min of -25.0 => alert
-                .recordedAt(LocalDateTime.now())
-                .build();
-
-        TelemetryRecord alertRecord = TelemetryRecord.builder()
-                .telemetryId(78234444L)
-                .device(device)
-                .temperature(-30.0)
+                .temperature(-18.0)
                 .recordedAt(LocalDateTime.now())
-                .isAlert(true)
                 .build();
 
-        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
-        when(telemetryRepository.countByDevice_DeviceIdAndRecordedAtAfter(eq(9001L), any())).thenReturn(0L);
-        when(telemetryRepository.save(any(TelemetryRecord.class))).thenReturn(alertRecord);
-        when(deviceRepository.save(any(IotDevice.class))).thenReturn(device);
-        when(incidentRepository.findByDevice_DeviceIdAndStatus(9001L, IncidentStatus.OPEN))
-                .thenReturn(Optional.empty());
-        when(incidentRepository.save(any())).thenReturn(null);
-
-        // when
-        TelemetryResponse result = underTest.ingest(request);
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.offer(any(), any())).thenReturn(false);
+        when(writeBehindQueue.getRetryAfterSeconds()).thenReturn(2);
 
-        // then
-        assertThat(result.getIsAlert()).isTrue();
-        verify(incidentRepository, times(1)).save(argThat(incident ->
-                ((com.supermart.iot.entity.Incident) incident).getDescription().contains("below min threshold")));
+        // when / then
+        assertThatThrownBy(() -> underTest.ingest(request))
+                .isInstanceOf(IngestBackpressureException.class)
+                .extracting("retryAfterSeconds").isEqualTo(2);
     }
 
-    // ─── ingest — error paths ─────────────────────────────────────────────────
-
     @Test
     @DisplayName("ingest throws ResourceNotFoundException when device does not exist")
     void should_throw_resource_not_found_when_device_not_found_on_ingest() {
@@ -228,7 +203,7 @@ class TelemetryServiceTest {
                 .recordedAt(LocalDateTime.now())
                 .build();
 
-        when(deviceRepository.findById(9999L)).thenReturn(Optional.empty());
+        when(deviceCache.findById(9999L)).thenReturn(Optional.empty());
 
         // when / then
         assertThatThrownBy(() -> underTest.ingest(request))
@@ -246,13 +221,262 @@ class TelemetryServiceTest {
                 .recordedAt(LocalDateTime.now())
                 .build();
 
-        when(deviceRepository.findById(9001L)).thenReturn(Optional.of(device));
-        // Return count >= rateLimitPerMinute (10)
-        when(telemetryRepository.countByDevice_DeviceIdAndRecordedAtAfter(eq(9001L), any())).thenReturn(10L);
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        // Device has used up its budget for the current minute
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(false);
+        when(rateLimiter.getLimitPerMinute()).thenReturn(10);
 
         // when / then
         assertThatThrownBy(() -> underTest.ingest(request))
                 .isInstanceOf(RateLimitException.class)
                 .hasMessageContaining("rate limit");
+        verifyNoInteractions(persistenceService, heartbeatTracker);
+        assertThat(meterRegistry.get("supermart.telemetry.rate.limited").tag("path", "single").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    // ─── ingestBatch ──────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("ingestBatch reports per-item results and persists only accepted readings")
+    void should_return_per_item_results_when_batch_contains_valid_and_invalid_readings() {
+        // given
+        List<TelemetryIngestRequest> requests = List.of(
+                TelemetryIngestRequest.builder().deviceId(9001L).temperature(-18.0)
+                        .recordedAt(LocalDateTime.now()).build(),
+                TelemetryIngestRequest.builder().deviceId(9999L).temperature(-18.0)
+                        .recordedAt(LocalDateTime.now()).build(),
+                TelemetryIngestRequest.builder().deviceId(9001L).temperature(null)
+                        .recordedAt(LocalDateTime.now()).build());
+
+        when(deviceCache.findAllById(any())).thenReturn(Map.of(9001L, device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        doAnswer(invocation -> {
+            List<TelemetryRecord> records = invocation.getArgument(0);
+            records.forEach(r -> r.setTelemetryId(100L));
+            return null;
+        }).when(persistenceService).write(anyList());
+
+        // when
+        TelemetryBatchResponse result = underTest.ingestBatch(requests);
+
+        // then
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getResults().get(0).isAccepted()).isTrue();
+        assertThat(result.getResults().get(0).getTelemetry().getTelemetryId()).isEqualTo(100L);
+        assertThat(result.getResults().get(1).getErrorCode()).isEqualTo("NOT_FOUND");
+        assertThat(result.getResults().get(2).getErrorCode()).isEqualTo("VALIDATION_ERROR");
+        verify(rateLimiter, times(1)).tryAcquire(9001L);
+    }
+
+    @Test
+    @DisplayName("ingestBatch rate-limits readings beyond the per-device budget")
+    void should_rate_limit_excess_readings_when_batch_exceeds_device_budget() {
+        // given — the device has budget for one more reading this minute
+        List<TelemetryIngestRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(TelemetryIngestRequest.builder().deviceId(9001L).temperature(-10.0)
+                    .recordedAt(LocalDateTime.now()).build());
+        }
+        when(deviceCache.findAllById(any())).thenReturn(Map.of(9001L, device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true, false, false);
+
+        // when
+        TelemetryBatchResponse result = underTest.ingestBatch(requests);
+
+        // then
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getTelemetry().getIsAlert()).isTrue();
+        assertThat(result.getResults().get(1).getErrorCode()).isEqualTo("RATE_LIMITED");
+        assertThat(result.getResults().get(2).getErrorCode()).isEqualTo("RATE_LIMITED");
+        verify(persistenceService).write(argThat(records -> records.size() == 1));
+    }
+
+    @Test
+    @DisplayName("ingestBatch throws BadRequestException when batch exceeds the configured maximum")
+    void should_throw_bad_request_when_batch_exceeds_max_size() {
+        // given
+        ReflectionTestUtils.setField(underTest, "maxBatchSize", 1);
+        List<TelemetryIngestRequest> requests = List.of(
+                TelemetryIngestRequest.builder().deviceId(9001L).build(),
+                TelemetryIngestRequest.builder().deviceId(9001L).build());
+
+        // when / then
+        assertThatThrownBy(() -> underTest.ingestBatch(requests))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("maximum of 1");
+    }
+
+    // ─── deduplication ────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("ingest replays the original response for a retried sequence without persisting again")
+    void should_replay_original_response_when_sequence_retried() {
+        // given
+        TelemetryIngestRequest request = TelemetryIngestRequest.builder()
+                .deviceId(9001L)
+                .temperature(-18.0)
+                .recordedAt(LocalDateTime.now())
+                .sequence(42L)
+                .build();
+
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        when(writeBehindQueue.isEnabled()).thenReturn(false);
+        doAnswer(invocation -> {
+            List<TelemetryRecord> records = invocation.getArgument(0);
+            records.get(0).setTelemetryId(78234441L);
+            return null;
+        }).when(persistenceService).write(anyList());
+
+        // when
+        TelemetryResponse first = underTest.ingest(request);
+        TelemetryResponse retry = underTest.ingest(request);
+
+        // then
+        assertThat(retry).isSameAs(first);
+        assertThat(retry.getTelemetryId()).isEqualTo(78234441L);
+        verify(persistenceService, times(1)).write(anyList());
+        verify(rateLimiter, times(1)).tryAcquire(9001L);
+        verify(heartbeatTracker, times(1)).recordHeartbeat(eq(9001L), any());
+    }
+
+    @Test
+    @DisplayName("ingest processes a retry normally when the original attempt failed")
+    void should_process_retry_when_original_attempt_failed() {
+        // given
+        TelemetryIngestRequest request = TelemetryIngestRequest.builder()
+                .deviceId(9001L)
+                .temperature(-18.0)
+                .recordedAt(LocalDateTime.now())
+                .build();
+
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.offer(any(), any())).thenReturn(false, true);
+
+        // when
+        assertThatThrownBy(() -> underTest.ingest(request, "gw-7:1001"))
+                .isInstanceOf(IngestBackpressureException.class);
+        TelemetryResponse retry = underTest.ingest(request, "gw-7:1001");
+
+        // then
+        assertThat(retry.getDeviceId()).isEqualTo(9001L);
+        verify(writeBehindQueue, times(2)).offer(any(), any());
+    }
+
+    @Test
+    @DisplayName("ingest processes a retry again when the queued original was dropped by the writer")
+    void should_process_retry_when_queued_original_dropped() {
+        // given
+        TelemetryIngestRequest request = TelemetryIngestRequest.builder()
+                .deviceId(9001L)
+                .temperature(-18.0)
+                .recordedAt(LocalDateTime.now())
+                .build();
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.offer(any(), any())).thenAnswer(invocation -> {
+            writes.add(invocation.getArgument(1));
+            return true;
+        });
+        underTest.ingest(request, "gw-7:1001");
+
+        // when — the writer gives up on the original, then the gateway retries
+        writes.get(0).completeExceptionally(new IllegalStateException("Deadlock found when trying to get lock"));
+        underTest.ingest(request, "gw-7:1001");
+
+        // then
+        verify(writeBehindQueue, times(2)).offer(any(), any());
+    }
+
+    @Test
+    @DisplayName("ingest replays a queued reading once the writer has written it")
+    void should_replay_queued_reading_when_written() {
+        // given
+        TelemetryIngestRequest request = TelemetryIngestRequest.builder()
+                .deviceId(9001L)
+                .temperature(-18.0)
+                .recordedAt(LocalDateTime.now())
+                .build();
+
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.offer(any(), any())).thenAnswer(invocation -> {
+            invocation.<CompletableFuture<Void>>getArgument(1).complete(null);
+            return true;
+        });
+        TelemetryResponse first = underTest.ingest(request, "gw-7:1001");
+
+        // when
+        TelemetryResponse retry = underTest.ingest(request, "gw-7:1001");
+
+        // then
+        assertThat(retry).isSameAs(first);
+        verify(writeBehindQueue, times(1)).offer(any(), any());
+    }
+
+    @Test
+    @DisplayName("ingest rejects a blank Idempotency-Key")
+    void should_throw_bad_request_when_idempotency_key_blank() {
+        // given
+        TelemetryIngestRequest request = TelemetryIngestRequest.builder()
+                .deviceId(9001L)
+                .temperature(-18.0)
+                .recordedAt(LocalDateTime.now())
+                .build();
+        when(deviceCache.findById(9001L)).thenReturn(Optional.of(device));
+
+        // when / then
+        assertThatThrownBy(() -> underTest.ingest(request, " "))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Idempotency-Key");
+        verifyNoInteractions(rateLimiter, persistenceService);
+    }
+
+    @Test
+    @DisplayName("ingestBatch replays already ingested sequences and rejects duplicates within the batch")
+    void should_replay_ingested_sequences_when_batch_retried() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        List<TelemetryIngestRequest> original = List.of(
+                TelemetryIngestRequest.builder().deviceId(9001L).temperature(-18.0).recordedAt(now)
+                        .sequence(1L).build());
+        List<TelemetryIngestRequest> retried = List.of(
+                TelemetryIngestRequest.builder().deviceId(9001L).temperature(-18.0).recordedAt(now)
+                        .sequence(1L).build(),
+                TelemetryIngestRequest.builder().deviceId(9001L).temperature(-17.0).recordedAt(now)
+                        .sequence(2L).build(),
+                TelemetryIngestRequest.builder().deviceId(9001L).temperature(-17.0).recordedAt(now)
+                        .sequence(2L).build());
+
+        when(deviceCache.findAllById(any())).thenReturn(Map.of(9001L, device));
+        when(rateLimiter.tryAcquire(9001L)).thenReturn(true);
+        doAnswer(invocation -> {
+            List<TelemetryRecord> records = invocation.getArgument(0);
+            records.forEach(r -> r.setTelemetryId(100L + r.getTemperature().longValue()));
+            return null;
+        }).when(persistenceService).write(anyList());
+        TelemetryBatchResponse first = underTest.ingestBatch(original);
+
+        // when
+        TelemetryBatchResponse result = underTest.ingestBatch(retried);
+
+        // then
+        assertThat(result.getAccepted()).isEqualTo(2);
+        assertThat(result.getResults().get(0).getDuplicate()).isTrue();
+        assertThat(result.getResults().get(0).getTelemetry())
+                .isSameAs(first.getResults().get(0).getTelemetry());
+        assertThat(result.getResults().get(1).getDuplicate()).isNull();
+        assertThat(result.getResults().get(2).getErrorCode()).isEqualTo("DUPLICATE");
+        verify(persistenceService).write(argThat(records -> records.size() == 1
+                && records.get(0).getTemperature() == -17.0));
     }
 }
@@ -0,0 +1,87 @@
+package com.supermart.iot.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TelemetryWriteBehindHealthIndicator}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetryWriteBehindHealthIndicatorTest {
+
+    @Mock
+    private TelemetryWriteBehindQueue queue;
+
+    private SimpleMeterRegistry registry;
+    private ServiceMetrics metrics;
+    private TelemetryWriteBehindHealthIndicator underTest;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ServiceMetrics(registry);
+        underTest = new TelemetryWriteBehindHealthIndicator(queue, metrics, registry);
+    }
+
+    @Test
+    @DisplayName("health is UP while every writer thread is alive")
+    void should_report_up_when_all_writers_alive() {
+        // given
+        when(queue.isEnabled()).thenReturn(true);
+        when(queue.isRunning()).thenReturn(true);
+        when(queue.getWriterThreads()).thenReturn(4);
+        when(queue.liveWriters()).thenReturn(4);
+
+        // when
+        Health health = underTest.health();
+
+        // then
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("alive", 4);
+    }
+
+    @Test
+    @DisplayName("health is DOWN and the gauge drops when a writer thread has died")
+    void should_report_down_when_writer_dead() {
+        // given
+        when(queue.isEnabled()).thenReturn(true);
+        when(queue.isRunning()).thenReturn(true);
+        when(queue.getWriterThreads()).thenReturn(4);
+        when(queue.liveWriters()).thenReturn(3);
+
+        // when
+        Health health = underTest.health();
+
+        // then
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(registry.get("supermart.telemetry.write.behind.writers.alive").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("health reports how many accepted readings were dropped")
+    void should_report_dropped_readings_when_writer_dropped_some() {
+        // given
+        when(queue.isEnabled()).thenReturn(true);
+        when(queue.isRunning()).thenReturn(true);
+        when(queue.getWriterThreads()).thenReturn(4);
+        when(queue.liveWriters()).thenReturn(4);
+        metrics.writeBehindDropped(3);
+
+        // when
+        Health health = underTest.health();
+
+        // then
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("dropped", 3L);
+    }
+}
@@ -0,0 +1,262 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.IotDevice;
+import com.supermart.iot.entity.TelemetryRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TelemetryWriteBehindQueue}.
+ *
+ * <p>Covers micro-batch draining, backpressure when a partition is full,
+ * per-record fallback after repeated failures, dropped-reading accounting,
+ * writer survival and draining on shutdown.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetryWriteBehindQueueTest {
+
+    @Mock
+    private TelemetryPersistenceService persistenceService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ServiceMetrics metrics = new ServiceMetrics(meterRegistry);
+
+    @InjectMocks
+    private TelemetryWriteBehindQueue underTest;
+
+    @BeforeEach
+    void setUp() {
+        // Inject settings via ReflectionTestUtils (values normally injected by @Value)
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "capacity", 4);
+        ReflectionTestUtils.setField(underTest, "writerThreads", 1);
+        ReflectionTestUtils.setField(underTest, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(underTest, "retryAfterSeconds", 1);
+        ReflectionTestUtils.setField(underTest, "shutdownTimeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.stop();
+    }
+
+    private TelemetryRecord reading(long deviceId) {
+        return TelemetryRecord.builder()
+                .device(IotDevice.builder().deviceId(deviceId).build())
+                .temperature(-18.0)
+                .recordedAt(LocalDateTime.now())
+                .isAlert(false)
+                .build();
+    }
+
+    @Test
+    @DisplayName("offer is refused before the queue has been started")
+    void should_refuse_offer_when_not_running() {
+        // when / then
+        assertThat(underTest.offer(reading(9001L))).isFalse();
+        verifyNoInteractions(persistenceService);
+    }
+
+    @Test
+    @DisplayName("queued readings are written by the writer thread")
+    void should_write_queued_readings_when_running() throws InterruptedException {
+        // given
+        CountDownLatch written = new CountDownLatch(3);
+        List<TelemetryRecord> persisted = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<TelemetryRecord> batch = invocation.getArgument(0);
+            persisted.addAll(batch);
+            batch.forEach(r -> written.countDown());
+            return null;
+        }).when(persistenceService).write(anyList());
+        underTest.start();
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertThat(underTest.offer(reading(9001L))).isTrue();
+        }
+
+        // then
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(persisted).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("offer is refused once the partition is full")
+    void should_refuse_offer_when_partition_full() throws InterruptedException {
+        // given — the writer blocks on its first batch so the partition fills up
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(persistenceService).write(anyList());
+        underTest.start();
+        underTest.offer(reading(9001L));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            assertThat(underTest.offer(reading(9001L))).isTrue();
+        }
+        boolean accepted = underTest.offer(reading(9001L));
+
+        // then
+        assertThat(accepted).isFalse();
+        assertThat(underTest.size()).isEqualTo(4);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("a failing batch is retried and then written record by record")
+    void should_fall_back_to_individual_writes_when_batch_keeps_failing() throws InterruptedException {
+        // given — multi-record writes always fail; the first write holds the
+        // writer until two more readings are queued so they drain as one batch
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<TelemetryRecord> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            if (batch.size() > 1) {
+                throw new IllegalStateException("Deadlock found when trying to get lock");
+            }
+            if (firstWriteStarted.getCount() > 0) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(persistenceService).write(anyList());
+        underTest.start();
+        underTest.offer(reading(9001L));
+        assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        underTest.offer(reading(9001L));
+        underTest.offer(reading(9001L));
+
+        // when
+        releaseFirstWrite.countDown();
+        underTest.stop();
+
+        // then — one single write, three failed batch attempts, two individual writes
+        assertThat(batchSizes).containsExactly(1, 2, 2, 2, 1, 1);
+    }
+
+    @Test
+    @DisplayName("a reading the per-record fallback cannot write is counted as dropped and its future fails")
+    void should_count_dropped_reading_when_individual_write_fails() {
+        // given — every write fails
+        doThrow(new IllegalStateException("Data truncation")).when(persistenceService).write(anyList());
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        underTest.start();
+        underTest.offer(reading(9001L), written);
+
+        // when
+        underTest.stop();
+
+        // then
+        assertThat(written).isCompletedExceptionally();
+        assertThat(meterRegistry.get("supermart.telemetry.write.behind.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("a written reading's future completes and nothing is counted as dropped")
+    void should_complete_future_when_reading_written() throws Exception {
+        // given
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        underTest.start();
+
+        // when
+        underTest.offer(reading(9001L), written);
+
+        // then
+        written.get(5, TimeUnit.SECONDS);
+        verify(persistenceService).write(anyList());
+        assertThat(metrics.getWriteBehindDropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("stop drains readings still waiting in the queue")
+    void should_drain_pending_readings_when_stopped() {
+        // given
+        List<TelemetryRecord> persisted = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            persisted.addAll(invocation.<List<TelemetryRecord>>getArgument(0));
+            return null;
+        }).when(persistenceService).write(anyList());
+        underTest.start();
+        for (int i = 0; i < 4; i++) {
+            underTest.offer(reading(9001L));
+        }
+
+        // when
+        underTest.stop();
+
+        // then
+        assertThat(persisted).hasSize(4);
+        assertThat(underTest.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a writer survives an Error thrown by a batch and keeps writing")
+    void should_keep_writer_alive_when_batch_throws_error() throws InterruptedException {
+        // given
+        CountDownLatch failed = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            failed.countDown();
+            throw new StackOverflowError();
+        }).doAnswer(invocation -> {
+            written.countDown();
+            return null;
+        }).when(persistenceService).write(anyList());
+        underTest.start();
+        underTest.offer(reading(9001L));
+
+        // when
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+        underTest.offer(reading(9001L));
+
+        // then
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(underTest.liveWriters()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("no writer is left running and no reading is left queued after stop")
+    void should_have_no_live_writers_when_stopped() {
+        // given
+        underTest.start();
+        assertThat(underTest.liveWriters()).isEqualTo(1);
+
+        // when
+        underTest.stop();
+
+        // then
+        assertThat(underTest.liveWriters()).isZero();
+        assertThat(underTest.offer(reading(9001L))).isFalse();
+        assertThat(underTest.size()).isZero();
+    }
+}
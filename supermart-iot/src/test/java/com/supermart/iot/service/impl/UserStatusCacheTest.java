@@ -0,0 +1,97 @@
+package com.supermart.iot.service.impl;
+
+import com.supermart.iot.entity.User;
+import com.supermart.iot.enums.UserRole;
+import com.supermart.iot.repository.UserRepository;
+import com.supermart.iot.security.AuthenticatedUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UserStatusCache}.
+ *
+ * <p>Verifies that token users are checked against the database once per
+ * window, that removed users and role changes are rejected, and that the
+ * check can be turned off.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+class UserStatusCacheTest {
+
+    private static final String EMAIL = "manager@supermart.com";
+    private static final AuthenticatedUser TOKEN_USER = new AuthenticatedUser(2L, EMAIL, UserRole.MANAGER);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("isCurrent queries the repository once and serves repeated checks from memory")
+    void should_query_repository_once_when_user_checked_repeatedly() {
+        // given
+        UserStatusCache underTest = new UserStatusCache(userRepository, true, 100, 30);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(2L, UserRole.MANAGER)));
+
+        // when
+        boolean first = underTest.isCurrent(TOKEN_USER);
+        boolean second = underTest.isCurrent(TOKEN_USER);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("isCurrent rejects a removed user and remembers the miss")
+    void should_reject_when_user_no_longer_exists() {
+        // given
+        UserStatusCache underTest = new UserStatusCache(userRepository, true, 100, 30);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        // when
+        boolean first = underTest.isCurrent(TOKEN_USER);
+        boolean second = underTest.isCurrent(TOKEN_USER);
+
+        // then
+        assertThat(first).isFalse();
+        assertThat(second).isFalse();
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("isCurrent rejects a token whose role or user id no longer matches")
+    void should_reject_when_role_or_id_changed() {
+        // given
+        UserStatusCache underTest = new UserStatusCache(userRepository, true, 100, 30);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(2L, UserRole.MANAGER)));
+
+        // when / then
+        assertThat(underTest.isCurrent(new AuthenticatedUser(2L, EMAIL, UserRole.ADMIN))).isFalse();
+        assertThat(underTest.isCurrent(new AuthenticatedUser(7L, EMAIL, UserRole.MANAGER))).isFalse();
+    }
+
+    @Test
+    @DisplayName("isCurrent trusts the token without a query when the check is disabled")
+    void should_not_query_when_disabled() {
+        // given
+        UserStatusCache underTest = new UserStatusCache(userRepository, false, 100, 30);
+
+        // when
+        boolean result = underTest.isCurrent(TOKEN_USER);
+
+        // then
+        assertThat(result).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    private static User user(long id, UserRole role) {
+        return User.builder().id(id).email(EMAIL).passwordHash("hash").role(role).build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.supermart.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous calls to the supermart-iot API, with each completed call
+ * recorded in an {@link EndpointStats}.
+ *
+ * <p>At most {@code max-in-flight} requests are outstanding. A send beyond that
+ * is not queued but counted as skipped, so an overloaded server cannot make the
+ * generator buffer without bound.</p>
+ */
+public class ApiClient {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final URI baseUrl;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+
+    public ApiClient(LoadProfile profile, ExecutorService executor) {
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(profile.requestTimeout())
+                .build();
+        this.baseUrl = profile.baseUrl();
+        this.timeout = profile.requestTimeout();
+        this.inFlight = new Semaphore(profile.maxInFlight());
+    }
+
+    /** {@code POST /telemetry} with the device's key and an idempotency key for retries. */
+    public HttpRequest telemetry(FleetDevice device, double temperature, String idempotencyKey) {
+        String body = JSON.createObjectNode()
+                .put("deviceId", device.deviceId())
+                .put("temperature", temperature)
+                .put("recordedAt", LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).toString())
+                .toString();
+        return request("telemetry")
+                .header("X-Device-Key", device.deviceKey())
+                .header("Idempotency-Key", idempotencyKey)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /** {@code POST /auth/login}. */
+    public HttpRequest login(String username, String password) {
+        String body = JSON.createObjectNode()
+                .put("email", username)
+                .put("password", password)
+                .toString();
+        return request("auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /** An authenticated {@code GET}; {@code path} is relative to the API root. */
+    public HttpRequest get(String path, String accessToken) {
+        return request(path)
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build();
+    }
+
+    /** The {@code data.accessToken} of a successful login response. */
+    public static String accessToken(HttpResponse<String> login) throws IOException {
+        JsonNode token = JSON.readTree(login.body()).path("data").path("accessToken");
+        if (!token.isTextual()) {
+            throw new IOException("Login response carries no access token");
+        }
+        return token.asText();
+    }
+
+    /**
+     * Sends {@code request} and records it in {@code stats} with its latency
+     * measured from {@code dueNanos}. {@code onResponse} runs for every HTTP
+     * response, {@code null} on a timeout or I/O error; it does not run for a
+     * skipped send.
+     */
+    public void send(HttpRequest request, EndpointStats stats, long dueNanos, Consumer<HttpResponse<String>> onResponse) {
+        if (!inFlight.tryAcquire()) {
+            stats.skipped();
+            return;
+        }
+        CompletableFuture<HttpResponse<String>> call;
+        try {
+            call = http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        call.whenComplete((response, error) -> {
+            inFlight.release();
+            long latency = System.nanoTime() - dueNanos;
+            if (response != null) {
+                int status = response.statusCode();
+                stats.record(latency, Integer.toString(status), status >= 200 && status < 300);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                stats.record(latency, cause instanceof HttpTimeoutException
+                        ? EndpointStats.TIMEOUT : EndpointStats.IO_ERROR, false);
+            }
+            onResponse.accept(response);
+        });
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout);
+    }
+}
@@ -0,0 +1,91 @@
+package com.supermart.loadgen;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard users: each logs in and then, every {@code poll-interval} ± 20%,
+ * refreshes the dashboard by loading {@code /dashboard/summary} and the first
+ * page of {@code /incidents} in parallel. A {@code 401} clears the user's token
+ * and the next poll logs in again.
+ */
+public class DashboardDriver {
+
+    static final String LOGIN_ENDPOINT = "POST /auth/login";
+    static final String SUMMARY_ENDPOINT = "GET /dashboard/summary";
+    static final String INCIDENTS_ENDPOINT = "GET /incidents";
+
+    private static final double POLL_JITTER = 0.2;
+
+    private final ApiClient client;
+    private final ScheduledExecutorService scheduler;
+    private final LoadProfile profile;
+    private final EndpointStats logins;
+    private final EndpointStats summaries;
+    private final EndpointStats incidents;
+    private volatile boolean running;
+
+    public DashboardDriver(ApiClient client, ScheduledExecutorService scheduler, LoadProfile profile,
+                           LoadReport report) {
+        this.client = client;
+        this.scheduler = scheduler;
+        this.profile = profile;
+        this.logins = report.endpoint(LOGIN_ENDPOINT);
+        this.summaries = report.endpoint(SUMMARY_ENDPOINT);
+        this.incidents = report.endpoint(INCIDENTS_ENDPOINT);
+    }
+
+    public void start() {
+        running = true;
+        long now = System.nanoTime();
+        long interval = profile.pollInterval().toNanos();
+        for (int i = 0; i < profile.dashboardUsers(); i++) {
+            schedule(new User(), now + (long) (ThreadLocalRandom.current().nextDouble() * interval));
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    private void schedule(User user, long dueNanos) {
+        scheduler.schedule(() -> poll(user, dueNanos), dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void poll(User user, long dueNanos) {
+        if (!running) {
+            return;
+        }
+        String token = user.accessToken;
+        if (token == null) {
+            client.send(client.login(profile.username(), profile.password()), logins, dueNanos, response -> {
+                if (response != null && response.statusCode() == 200) {
+                    try {
+                        user.accessToken = ApiClient.accessToken(response);
+                    } catch (IOException e) {
+                        // Counted as a successful login; the next poll tries again
+                    }
+                }
+            });
+        } else {
+            client.send(client.get("dashboard/summary", token), summaries, dueNanos, user::checkToken);
+            client.send(client.get("incidents?page=0&size=20", token), incidents, dueNanos, user::checkToken);
+        }
+        double factor = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * POLL_JITTER;
+        schedule(user, dueNanos + (long) (profile.pollInterval().toNanos() * factor));
+    }
+
+    private static final class User {
+
+        private volatile String accessToken;
+
+        private void checkToken(HttpResponse<String> response) {
+            if (response != null && response.statusCode() == 401) {
+                accessToken = null;
+            }
+        }
+    }
+}
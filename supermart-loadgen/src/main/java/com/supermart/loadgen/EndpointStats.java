@@ -0,0 +1,108 @@
+package com.supermart.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts for one endpoint.
+ *
+ * <p>Latency is recorded in microseconds into an HdrHistogram {@link Recorder},
+ * measured from when the request was <em>due</em>, not from when it was sent.
+ * A generator that falls behind therefore shows up as latency instead of
+ * silently sending less, so the percentiles are free of coordinated omission.</p>
+ *
+ * <p>Outcomes are the HTTP status, {@code timeout}, {@code io-error}, or
+ * {@code skipped} when the send was dropped because {@code max-in-flight}
+ * requests were already outstanding. Only 2xx counts as success.</p>
+ *
+ * <p>Any thread may record; {@link #interval()} must only be called by the
+ * reporting thread.</p>
+ */
+public class EndpointStats {
+
+    public static final String TIMEOUT = "timeout";
+    public static final String IO_ERROR = "io-error";
+    public static final String SKIPPED = "skipped";
+
+    private final String name;
+    private final Recorder recorder = new Recorder(3);
+    private final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    // Reporting thread only
+    private final Histogram total = new Histogram(3);
+    private Histogram intervalHistogram;
+    private long reportedSuccesses;
+    private long reportedFailures;
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Records a completed request. */
+    public void record(long latencyNanos, String outcome, boolean success) {
+        recorder.recordValue(Math.max(1, latencyNanos / 1_000));
+        count(outcome, success);
+    }
+
+    /** Records a request that was never sent. */
+    public void skipped() {
+        count(SKIPPED, false);
+    }
+
+    private void count(String outcome, boolean success) {
+        outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+        (success ? successes : failures).increment();
+    }
+
+    /** Moves what was recorded since the last call into the totals and returns it. */
+    public Interval interval() {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        total.add(intervalHistogram);
+        long ok = successes.sum();
+        long failed = failures.sum();
+        Interval interval = new Interval(ok - reportedSuccesses, failed - reportedFailures, intervalHistogram);
+        reportedSuccesses = ok;
+        reportedFailures = failed;
+        return interval;
+    }
+
+    /** Every latency recorded up to the last {@link #interval()}. */
+    public Histogram total() {
+        return total;
+    }
+
+    public long successes() {
+        return successes.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    /** Requests per outcome, sorted by outcome. */
+    public Map<String, Long> outcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return counts;
+    }
+
+    /** What one reporting interval saw; the histogram is reused by the next call. */
+    public record Interval(long successes, long failures, Histogram latency) {
+
+        public long requests() {
+            return successes + failures;
+        }
+    }
+}
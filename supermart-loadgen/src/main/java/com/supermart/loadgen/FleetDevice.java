@@ -0,0 +1,41 @@
+package com.supermart.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One simulated IoT device, the equipment unit it sits in and its store.
+ *
+ * @param unitType {@code FREEZER} or {@code REFRIGERATOR}, which decides the thresholds
+ */
+public record FleetDevice(long storeId, long unitId, long deviceId, String unitType, String deviceKey,
+                          double minThreshold, double maxThreshold) {
+
+    static final String FREEZER = "FREEZER";
+    static final String REFRIGERATOR = "REFRIGERATOR";
+
+    /** The devices a run reports for; see {@link LoadProfile#fleet()}. */
+    public static List<FleetDevice> fleet(LoadProfile profile) {
+        if (LoadProfile.FLEET_DEMO.equals(profile.fleet())) {
+            // The reporting devices of data.sql; 9005 is INACTIVE
+            return List.of(
+                    new FleetDevice(1001, 501, 9001, FREEZER, "key-dev-9001", -25.0, -15.0),
+                    new FleetDevice(1001, 502, 9002, REFRIGERATOR, "key-dev-9002", 2.0, 8.0),
+                    new FleetDevice(1001, 503, 9003, FREEZER, "key-dev-9003", -25.0, -15.0),
+                    new FleetDevice(1002, 504, 9004, FREEZER, "key-dev-9004", -25.0, -15.0));
+        }
+        List<FleetDevice> devices = new ArrayList<>(profile.stores() * profile.unitsPerStore());
+        for (int s = 0; s < profile.stores(); s++) {
+            long storeId = profile.idBase() + s;
+            for (int u = 0; u < profile.unitsPerStore(); u++) {
+                // Unit and device share an id; stores, units and devices are separate tables
+                long id = profile.idBase() + (long) s * profile.unitsPerStore() + u;
+                // Like data.sql: mostly freezers, every third unit a refrigerator
+                devices.add(u % 3 == 1
+                        ? new FleetDevice(storeId, id, id, REFRIGERATOR, "load-key-" + id, 2.0, 8.0)
+                        : new FleetDevice(storeId, id, id, FREEZER, "load-key-" + id, -25.0, -15.0));
+            }
+        }
+        return devices;
+    }
+}
@@ -0,0 +1,154 @@
+package com.supermart.loadgen;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inserts the generated fleet the way {@code data.sql} seeds the demo one: a
+ * store row, an equipment unit per device and an {@code ACTIVE} device with the
+ * unit type's thresholds.
+ *
+ * <p>Seeding is idempotent. Rows whose id already exists are left alone, so a
+ * second run against the same database reuses the fleet, including whatever
+ * telemetry and incidents earlier runs created for it.</p>
+ */
+public class FleetSeeder {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+
+    public FleetSeeder(String jdbcUrl, String user, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    /** @return the number of devices inserted */
+    public int seed(List<FleetDevice> devices) throws SQLException {
+        Map<Long, FleetDevice> stores = new LinkedHashMap<>();
+        devices.forEach(device -> stores.putIfAbsent(device.storeId(), device));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().withNano(0));
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            connection.setAutoCommit(false);
+            Set<Long> existingStores = existing(connection, "stores", "store_id", stores.keySet());
+            Set<Long> existingUnits = existing(connection, "equipment_units", "unit_id",
+                    devices.stream().map(FleetDevice::unitId).toList());
+            Set<Long> existingDevices = existing(connection, "iot_devices", "device_id",
+                    devices.stream().map(FleetDevice::deviceId).toList());
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO stores (store_id, store_code, store_name, address, city, state, zip_code, created_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                int pending = 0;
+                for (long storeId : stores.keySet()) {
+                    if (existingStores.contains(storeId)) {
+                        continue;
+                    }
+                    insert.setLong(1, storeId);
+                    insert.setString(2, "LG-" + storeId);
+                    insert.setString(3, "Supermart Load Test " + storeId);
+                    insert.setString(4, storeId + " Simulation Way");
+                    insert.setString(5, "Dallas");
+                    insert.setString(6, "TX");
+                    insert.setString(7, "75201");
+                    insert.setTimestamp(8, now);
+                    insert.addBatch();
+                    pending = flush(insert, pending + 1);
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement unit = connection.prepareStatement(
+                    "INSERT INTO equipment_units (unit_id, store_id, unit_type, unit_name, location_desc, created_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement device = connection.prepareStatement(
+                         "INSERT INTO iot_devices (device_id, unit_id, device_serial, device_key, "
+                                 + "min_temp_threshold, max_temp_threshold, status, last_seen_at) "
+                                 + "VALUES (?, ?, ?, ?, ?, ?, 'ACTIVE', NULL)")) {
+                int inserted = 0;
+                for (FleetDevice fleetDevice : devices) {
+                    if (existingDevices.contains(fleetDevice.deviceId())) {
+                        continue;
+                    }
+                    String name = (FleetDevice.FREEZER.equals(fleetDevice.unitType()) ? "Freezer-" : "Fridge-")
+                            + fleetDevice.unitId();
+                    if (!existingUnits.contains(fleetDevice.unitId())) {
+                        unit.setLong(1, fleetDevice.unitId());
+                        unit.setLong(2, fleetDevice.storeId());
+                        unit.setString(3, fleetDevice.unitType());
+                        unit.setString(4, name);
+                        unit.setString(5, "Simulated unit");
+                        unit.setTimestamp(6, now);
+                        unit.addBatch();
+                    }
+
+                    device.setLong(1, fleetDevice.deviceId());
+                    device.setLong(2, fleetDevice.unitId());
+                    device.setString(3, "LOAD-" + fleetDevice.deviceId());
+                    device.setString(4, fleetDevice.deviceKey());
+                    device.setDouble(5, fleetDevice.minThreshold());
+                    device.setDouble(6, fleetDevice.maxThreshold());
+                    device.addBatch();
+
+                    inserted++;
+                    if (inserted % BATCH_SIZE == 0) {
+                        // Units before devices, for the foreign key
+                        unit.executeBatch();
+                        device.executeBatch();
+                    }
+                }
+                unit.executeBatch();
+                device.executeBatch();
+                connection.commit();
+                return inserted;
+            }
+        }
+    }
+
+    private static int flush(PreparedStatement statement, int pending) throws SQLException {
+        if (pending < BATCH_SIZE) {
+            return pending;
+        }
+        statement.executeBatch();
+        return 0;
+    }
+
+    private static Set<Long> existing(Connection connection, String table, String column, Iterable<Long> ids)
+            throws SQLException {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long id : ids) {
+            min = Math.min(min, id);
+            max = Math.max(max, id);
+        }
+        Set<Long> existing = new HashSet<>();
+        if (min > max) {
+            return existing;
+        }
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT " + column + " FROM " + table + " WHERE " + column + " BETWEEN ? AND ?")) {
+            select.setLong(1, min);
+            select.setLong(2, max);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    existing.add(rows.getLong(1));
+                }
+            }
+        }
+        return existing;
+    }
+}
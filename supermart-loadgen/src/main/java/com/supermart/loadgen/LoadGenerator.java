@@ -0,0 +1,84 @@
+package com.supermart.loadgen;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reproduces production load against a running supermart-iot: a fleet of
+ * {@code stores × units-per-store} devices posting telemetry and a few dashboard
+ * users polling, for {@code duration}. See {@link LoadProfile} for the options.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.args="--stores=50 --units-per-store=8 --duration=5m \
+ *     --jdbc-url=jdbc:mysql://localhost:3306/supermartdb --jdbc-user=supermart --jdbc-password=supermart_pass"
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile;
+        try {
+            profile = LoadProfile.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        List<FleetDevice> fleet = FleetDevice.fleet(profile);
+        if (LoadProfile.FLEET_GENERATED.equals(profile.fleet())) {
+            if (profile.jdbcUrl() != null) {
+                int inserted = new FleetSeeder(profile.jdbcUrl(), profile.jdbcUser(), profile.jdbcPassword())
+                        .seed(fleet);
+                System.out.printf("Seeded %d of %d devices into %s%n", inserted, fleet.size(), profile.jdbcUrl());
+            } else {
+                System.out.printf("No --jdbc-url; assuming devices %d to %d are already seeded%n",
+                        fleet.get(0).deviceId(), fleet.get(fleet.size() - 1).deviceId());
+            }
+        }
+        System.out.printf("%d devices every %ds, %d dashboard users every %ds, for %ds against %s%n",
+                fleet.size(), profile.telemetryInterval().toSeconds(), profile.dashboardUsers(),
+                profile.pollInterval().toSeconds(), profile.duration().toSeconds(), profile.baseUrl());
+
+        AtomicInteger threads = new AtomicInteger();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()),
+                task -> new Thread(task, "loadgen-" + threads.incrementAndGet()));
+        ExecutorService httpExecutor = Executors.newCachedThreadPool(
+                task -> new Thread(task, "loadgen-http-" + threads.incrementAndGet()));
+
+        LoadReport report = new LoadReport(System.out);
+        ApiClient client = new ApiClient(profile, httpExecutor);
+        TelemetryDriver telemetry = new TelemetryDriver(client, scheduler, profile, report);
+        DashboardDriver dashboard = new DashboardDriver(client, scheduler, profile, report);
+        try {
+            telemetry.start(fleet);
+            dashboard.start();
+            long intervalMillis = profile.reportInterval().toMillis();
+            scheduler.scheduleAtFixedRate(report::printInterval, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+            Thread.sleep(profile.duration().toMillis());
+            telemetry.stop();
+            dashboard.stop();
+            // Let requests already sent complete so they are counted
+            Thread.sleep(Math.min(profile.requestTimeout().toMillis(), 2_000));
+        } finally {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            httpExecutor.shutdownNow();
+        }
+
+        report.printInterval();
+        report.printSummary();
+        if (profile.hdrDir() != null) {
+            report.writeHistograms(profile.hdrDir());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.supermart.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Everything a load run is configured with, parsed from {@code --name=value}
+ * arguments. Unknown arguments are rejected so a typo does not silently run
+ * the default profile.
+ *
+ * @param baseUrl            API root including the context path
+ * @param fleet              {@code generated} for a seeded fleet of {@code stores × unitsPerStore}
+ *                           devices, {@code demo} for the four reporting devices of {@code data.sql}
+ * @param stores             simulated stores
+ * @param unitsPerStore      equipment units, one device each, per store
+ * @param idBase             first store, unit and device id of the generated fleet
+ * @param duration           how long to generate load
+ * @param reportInterval     how often to print interval statistics
+ * @param telemetryInterval  mean time between readings of one device
+ * @param jitter             relative spread of {@code telemetryInterval}, {@code 0.2} = ±20%
+ * @param excursionRate      probability that a reading starts a temperature excursion
+ * @param duplicateRate      probability that an acknowledged reading is sent again, as after a lost ack
+ * @param maxRetries         retries of a reading after a timeout, 503 or other 5xx
+ * @param dashboardUsers     simulated dashboard users
+ * @param pollInterval       mean time between dashboard polls of one user
+ * @param username           dashboard login
+ * @param password           dashboard password
+ * @param jdbcUrl            database to seed the generated fleet into; {@code null} to skip seeding
+ * @param jdbcUser           database user
+ * @param jdbcPassword       database password
+ * @param maxInFlight        requests allowed in flight; sends beyond it are counted as skipped
+ * @param requestTimeout     per-request timeout
+ * @param seed               random seed, so two runs send the same readings
+ * @param hdrDir             directory for HdrHistogram percentile files; {@code null} to skip
+ */
+public record LoadProfile(
+        URI baseUrl,
+        String fleet,
+        int stores,
+        int unitsPerStore,
+        long idBase,
+        Duration duration,
+        Duration reportInterval,
+        Duration telemetryInterval,
+        double jitter,
+        double excursionRate,
+        double duplicateRate,
+        int maxRetries,
+        int dashboardUsers,
+        Duration pollInterval,
+        String username,
+        String password,
+        String jdbcUrl,
+        String jdbcUser,
+        String jdbcPassword,
+        int maxInFlight,
+        Duration requestTimeout,
+        long seed,
+        Path hdrDir) {
+
+    static final String FLEET_GENERATED = "generated";
+    static final String FLEET_DEMO = "demo";
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("base-url", "http://localhost:8080/api"),
+            Map.entry("fleet", FLEET_GENERATED),
+            Map.entry("stores", "10"),
+            Map.entry("units-per-store", "4"),
+            Map.entry("id-base", "100000"),
+            Map.entry("duration", "60s"),
+            Map.entry("report-interval", "10s"),
+            Map.entry("telemetry-interval", "30s"),
+            Map.entry("jitter", "0.2"),
+            Map.entry("excursion-rate", "0.002"),
+            Map.entry("duplicate-rate", "0.01"),
+            Map.entry("max-retries", "3"),
+            Map.entry("dashboard-users", "5"),
+            Map.entry("poll-interval", "10s"),
+            Map.entry("username", "admin@supermart.com"),
+            Map.entry("password", "S3cur3P@ss!"),
+            Map.entry("jdbc-url", ""),
+            Map.entry("jdbc-user", "sa"),
+            Map.entry("jdbc-password", ""),
+            Map.entry("max-in-flight", "2000"),
+            Map.entry("request-timeout", "10s"),
+            Map.entry("seed", "42"),
+            Map.entry("hdr-dir", ""));
+
+    /**
+     * Parses {@code --name=value} arguments over the defaults.
+     *
+     * @throws IllegalArgumentException for an unknown argument or a value out of range
+     */
+    public static LoadProfile parse(String... args) {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq <= 2 || !DEFAULTS.containsKey(arg.substring(2, eq))) {
+                throw new IllegalArgumentException("Unknown argument " + arg + "; expected one of --"
+                        + String.join(", --", DEFAULTS.keySet().stream().sorted().toList()));
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        String fleet = options.get("fleet");
+        if (!FLEET_GENERATED.equals(fleet) && !FLEET_DEMO.equals(fleet)) {
+            throw new IllegalArgumentException("--fleet must be " + FLEET_GENERATED + " or " + FLEET_DEMO);
+        }
+        String baseUrl = options.get("base-url");
+        LoadProfile profile = new LoadProfile(
+                URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/"),
+                fleet,
+                Integer.parseInt(options.get("stores")),
+                Integer.parseInt(options.get("units-per-store")),
+                Long.parseLong(options.get("id-base")),
+                duration(options.get("duration")),
+                duration(options.get("report-interval")),
+                duration(options.get("telemetry-interval")),
+                Double.parseDouble(options.get("jitter")),
+                Double.parseDouble(options.get("excursion-rate")),
+                Double.parseDouble(options.get("duplicate-rate")),
+                Integer.parseInt(options.get("max-retries")),
+                Integer.parseInt(options.get("dashboard-users")),
+                duration(options.get("poll-interval")),
+                options.get("username"),
+                options.get("password"),
+                blankToNull(options.get("jdbc-url")),
+                options.get("jdbc-user"),
+                options.get("jdbc-password"),
+                Integer.parseInt(options.get("max-in-flight")),
+                duration(options.get("request-timeout")),
+                Long.parseLong(options.get("seed")),
+                blankToNull(options.get("hdr-dir")) == null ? null : Path.of(options.get("hdr-dir")));
+        profile.validate();
+        return profile;
+    }
+
+    private void validate() {
+        require(stores > 0 && unitsPerStore > 0, "--stores and --units-per-store must be positive");
+        require(jitter >= 0 && jitter < 1, "--jitter must be at least 0 and below 1");
+        require(excursionRate >= 0 && excursionRate <= 1, "--excursion-rate must be between 0 and 1");
+        require(duplicateRate >= 0 && duplicateRate <= 1, "--duplicate-rate must be between 0 and 1");
+        require(maxRetries >= 0 && dashboardUsers >= 0, "--max-retries and --dashboard-users must not be negative");
+        require(maxInFlight > 0, "--max-in-flight must be positive");
+        require(positive(duration) && positive(reportInterval) && positive(telemetryInterval)
+                && positive(pollInterval) && positive(requestTimeout), "Durations must be positive");
+    }
+
+    private static boolean positive(Duration duration) {
+        return !duration.isNegative() && !duration.isZero();
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /** Parses {@code 250ms}, {@code 30s}, {@code 5m} or {@code 1h}. */
+    static Duration duration(String value) {
+        String text = value.trim();
+        try {
+            if (text.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+            }
+            long amount = Long.parseLong(text.substring(0, text.length() - 1));
+            return switch (text.charAt(text.length() - 1)) {
+                case 's' -> Duration.ofSeconds(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                case 'h' -> Duration.ofHours(amount);
+                default -> throw new IllegalArgumentException("Unknown unit in duration " + value);
+            };
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid duration " + value + "; use e.g. 250ms, 30s, 5m or 1h");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
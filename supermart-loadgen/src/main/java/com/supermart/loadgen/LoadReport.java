@@ -0,0 +1,98 @@
+package com.supermart.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * The per-endpoint statistics of a run and how they are printed: one line per
+ * endpoint every reporting interval, then a summary with throughput, error rate
+ * and latency percentiles over the whole run.
+ */
+public class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentSkipListMap<>();
+    private final PrintStream out;
+    private final long startNanos = System.nanoTime();
+    private long lastIntervalNanos = startNanos;
+
+    public LoadReport(PrintStream out) {
+        this.out = out;
+    }
+
+    /** The statistics for {@code name}, created on first use. */
+    public EndpointStats endpoint(String name) {
+        return endpoints.computeIfAbsent(name, EndpointStats::new);
+    }
+
+    /** Prints what happened since the previous call. */
+    public synchronized void printInterval() {
+        long now = System.nanoTime();
+        double seconds = (now - lastIntervalNanos) / 1e9;
+        lastIntervalNanos = now;
+        out.printf("[%5.0fs]%n", (now - startNanos) / 1e9);
+        for (EndpointStats stats : endpoints.values()) {
+            EndpointStats.Interval interval = stats.interval();
+            if (interval.requests() == 0) {
+                continue;
+            }
+            Histogram latency = interval.latency();
+            out.printf("  %-30s %8.1f req/s  %6d ok  %6d failed  p50 %8.1f ms  p99 %8.1f ms  max %8.1f ms%n",
+                    stats.name(), interval.requests() / seconds, interval.successes(), interval.failures(),
+                    millis(latency, 50), millis(latency, 99), latency.getMaxValue() / MICROS_PER_MILLI);
+        }
+    }
+
+    /** Prints the run summary; call after the last {@link #printInterval()}. */
+    public synchronized void printSummary() {
+        double seconds = (lastIntervalNanos - startNanos) / 1e9;
+        out.printf("%nSummary over %.0f s%n", seconds);
+        out.printf("%-30s %9s %9s %8s %9s %9s %9s %9s %9s%n", "Endpoint", "Requests", "req/s", "Errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats stats : endpoints.values()) {
+            long requests = stats.successes() + stats.failures();
+            if (requests == 0) {
+                continue;
+            }
+            Histogram latency = stats.total();
+            out.printf("%-30s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n", stats.name(), requests,
+                    requests / seconds, 100.0 * stats.failures() / requests,
+                    millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / MICROS_PER_MILLI);
+            out.printf("%-30s %s%n", "", stats.outcomes().entrySet().stream()
+                    .map(outcome -> outcome.getKey() + "=" + outcome.getValue())
+                    .collect(Collectors.joining("  ")));
+        }
+    }
+
+    /**
+     * Writes each endpoint's full percentile distribution, in milliseconds, as
+     * {@code <endpoint>.hgrm} for plotting or comparing runs.
+     */
+    public synchronized void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (EndpointStats stats : endpoints.values()) {
+            if (stats.total().getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(stats.name().replaceAll("[^A-Za-z0-9]+", "-")
+                    .replaceAll("^-|-$", "") + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                stats.total().outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            }
+        }
+        out.println("Histograms written to " + directory.toAbsolutePath());
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
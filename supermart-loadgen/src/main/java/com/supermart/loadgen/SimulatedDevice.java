@@ -0,0 +1,92 @@
+package com.supermart.loadgen;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Temperature and timing model of one device.
+ *
+ * <p>Readings follow a mean-reverting random walk around the middle of the
+ * device's threshold band, with sensor noise on top. With probability
+ * {@code excursionRate} a reading starts an excursion, such as a door left open
+ * or a failing compressor: for the next few readings the temperature drifts to
+ * well above the maximum threshold and then recovers, which opens an incident
+ * on the server and later resolves it.</p>
+ *
+ * <p>The gap to the next reading is the telemetry interval scaled by a uniform
+ * factor in {@code 1 ± jitter}, so devices drift apart instead of reporting in
+ * lockstep. Each device has its own {@link Random} seeded from the run seed and
+ * its id, so the same profile sends the same readings. Calls for one device must
+ * not overlap.</p>
+ */
+public class SimulatedDevice {
+
+    private static final double REVERSION = 0.2;
+
+    private final FleetDevice device;
+    private final Random random;
+    private final long intervalNanos;
+    private final double jitter;
+    private final double excursionRate;
+    private final double midpoint;
+    private final double band;
+
+    private double temperature;
+    private int excursionLeft;
+    private long sequence;
+
+    public SimulatedDevice(FleetDevice device, LoadProfile profile) {
+        this(device, profile.telemetryInterval(), profile.jitter(), profile.excursionRate(),
+                new Random(profile.seed() * 31 + device.deviceId()));
+    }
+
+    SimulatedDevice(FleetDevice device, Duration interval, double jitter, double excursionRate, Random random) {
+        this.device = device;
+        this.random = random;
+        this.intervalNanos = interval.toNanos();
+        this.jitter = jitter;
+        this.excursionRate = excursionRate;
+        this.midpoint = (device.minThreshold() + device.maxThreshold()) / 2;
+        this.band = device.maxThreshold() - device.minThreshold();
+        this.temperature = midpoint + random.nextGaussian() * band * 0.1;
+    }
+
+    public FleetDevice device() {
+        return device;
+    }
+
+    /** Whether the last reading was part of an excursion. */
+    public boolean inExcursion() {
+        return excursionLeft > 0;
+    }
+
+    /** The next reading's temperature, rounded to 0.1 °C like the real sensors. */
+    public double nextTemperature() {
+        if (excursionLeft > 0) {
+            excursionLeft--;
+        } else if (random.nextDouble() < excursionRate) {
+            excursionLeft = 3 + random.nextInt(8);
+        }
+        double target = excursionLeft > 0 ? device.maxThreshold() + band * 0.5 : midpoint;
+        double rate = excursionLeft > 0 ? 0.5 : REVERSION;
+        temperature += (target - temperature) * rate + random.nextGaussian() * band * 0.03;
+        sequence++;
+        return Math.round(temperature * 10) / 10.0;
+    }
+
+    /** Per-device number of the reading last returned by {@link #nextTemperature()}. */
+    public long sequence() {
+        return sequence;
+    }
+
+    /** Delay before the following reading. */
+    public long nextIntervalNanos() {
+        double factor = 1 + (random.nextDouble() * 2 - 1) * jitter;
+        return (long) (intervalNanos * factor);
+    }
+
+    /** Delay before the first reading, spread over one interval so devices do not start together. */
+    public long initialDelayNanos() {
+        return (long) (random.nextDouble() * intervalNanos);
+    }
+}
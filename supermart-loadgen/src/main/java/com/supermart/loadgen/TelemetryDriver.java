@@ -0,0 +1,117 @@
+package com.supermart.loadgen;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts readings for every device of the fleet, each on its own jittered
+ * schedule, through {@code X-Device-Key} like a real device.
+ *
+ * <p>Failed posts are retried the way gateways retry: after a timeout, an I/O
+ * error or a 5xx, with exponential backoff or the server's {@code Retry-After},
+ * up to {@code max-retries} times and with the same {@code Idempotency-Key}. A
+ * 4xx such as a rate limit rejection is not retried. With probability
+ * {@code duplicate-rate} an acknowledged reading is sent once more, as if the
+ * ack had been lost, which the server should answer from its deduplication
+ * window. Retries and duplicates are reported as separate endpoints.</p>
+ */
+public class TelemetryDriver {
+
+    static final String ENDPOINT = "POST /telemetry";
+    static final String RETRY_ENDPOINT = "POST /telemetry (retry)";
+    static final String DUPLICATE_ENDPOINT = "POST /telemetry (duplicate)";
+
+    private static final long BASE_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final ApiClient client;
+    private final ScheduledExecutorService scheduler;
+    private final LoadProfile profile;
+    private final EndpointStats posts;
+    private final EndpointStats retries;
+    private final EndpointStats duplicates;
+    private volatile boolean running;
+
+    public TelemetryDriver(ApiClient client, ScheduledExecutorService scheduler, LoadProfile profile,
+                           LoadReport report) {
+        this.client = client;
+        this.scheduler = scheduler;
+        this.profile = profile;
+        this.posts = report.endpoint(ENDPOINT);
+        this.retries = report.endpoint(RETRY_ENDPOINT);
+        this.duplicates = report.endpoint(DUPLICATE_ENDPOINT);
+    }
+
+    public void start(List<FleetDevice> fleet) {
+        running = true;
+        long now = System.nanoTime();
+        for (FleetDevice device : fleet) {
+            SimulatedDevice simulated = new SimulatedDevice(device, profile);
+            schedule(simulated, now + simulated.initialDelayNanos());
+        }
+    }
+
+    /** Stops scheduling readings; requests already sent still complete and are recorded. */
+    public void stop() {
+        running = false;
+    }
+
+    private void schedule(SimulatedDevice device, long dueNanos) {
+        scheduler.schedule(() -> report(device, dueNanos), dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void report(SimulatedDevice device, long dueNanos) {
+        if (!running) {
+            return;
+        }
+        double temperature = device.nextTemperature();
+        String idempotencyKey = device.device().deviceId() + "-" + device.sequence();
+        post(device.device(), temperature, idempotencyKey, posts, 0, dueNanos);
+        // Schedule from the due time, not from now, so a late scheduler does not slow the fleet down
+        schedule(device, dueNanos + device.nextIntervalNanos());
+    }
+
+    private void post(FleetDevice device, double temperature, String idempotencyKey, EndpointStats stats,
+                      int attempt, long dueNanos) {
+        client.send(client.telemetry(device, temperature, idempotencyKey), stats, dueNanos, response -> {
+            if (!running) {
+                return;
+            }
+            if (retryable(response) && attempt < profile.maxRetries()) {
+                long retryAt = System.nanoTime() + backoffNanos(response, attempt);
+                scheduler.schedule(() -> post(device, temperature, idempotencyKey, retries, attempt + 1, retryAt),
+                        retryAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } else if (stats != duplicates && succeeded(response)
+                    && ThreadLocalRandom.current().nextDouble() < profile.duplicateRate()) {
+                post(device, temperature, idempotencyKey, duplicates, attempt, System.nanoTime());
+            }
+        });
+    }
+
+    static boolean retryable(HttpResponse<String> response) {
+        return response == null || response.statusCode() >= 500;
+    }
+
+    private static boolean succeeded(HttpResponse<String> response) {
+        return response != null && response.statusCode() / 100 == 2;
+    }
+
+    /** {@code Retry-After} when the server sent one, otherwise 0.5 s doubling per attempt, with ±25% jitter. */
+    static long backoffNanos(HttpResponse<String> response, int attempt) {
+        if (response != null) {
+            Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+            if (retryAfter.isPresent()) {
+                try {
+                    return TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.get().trim()));
+                } catch (NumberFormatException e) {
+                    // An HTTP date; fall back to exponential backoff
+                }
+            }
+        }
+        double jitter = 0.75 + ThreadLocalRandom.current().nextDouble() * 0.5;
+        return (long) ((BASE_BACKOFF_NANOS << Math.min(attempt, 10)) * jitter);
+    }
+}
@@ -0,0 +1,42 @@
+package com.supermart.loadgen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link EndpointStats}.
+ */
+class EndpointStatsTest {
+
+    private final EndpointStats underTest = new EndpointStats("POST /telemetry");
+
+    @Test
+    @DisplayName("interval returns what was recorded since the previous interval and keeps the totals")
+    void should_split_intervals_when_interval_is_called_repeatedly() {
+        // given
+        underTest.record(2_000_000, "201", true);
+        underTest.record(4_000_000, "201", true);
+        underTest.record(50_000_000, "429", false);
+
+        // when
+        EndpointStats.Interval first = underTest.interval();
+        long firstCount = first.latency().getTotalCount();
+        underTest.record(8_000_000, "201", true);
+        underTest.skipped();
+        EndpointStats.Interval second = underTest.interval();
+
+        // then
+        assertThat(first.successes()).isEqualTo(2);
+        assertThat(first.failures()).isEqualTo(1);
+        assertThat(firstCount).isEqualTo(3);
+        assertThat(second.requests()).isEqualTo(2);
+        assertThat(second.latency().getTotalCount()).isEqualTo(1);
+        assertThat(underTest.total().getTotalCount()).isEqualTo(4);
+        assertThat(underTest.total().getMaxValue()).isBetween(49_900L, 50_100L);
+        assertThat(underTest.outcomes()).isEqualTo(Map.of("201", 3L, "429", 1L, EndpointStats.SKIPPED, 1L));
+    }
+}
@@ -0,0 +1,84 @@
+package com.supermart.loadgen;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FleetSeeder} against an in-memory H2 database with the
+ * store, unit and device tables of {@code db/init/01_schema.sql}.
+ */
+class FleetSeederTest {
+
+    private static final String URL = "jdbc:h2:mem:loadgen-seed;DB_CLOSE_DELAY=-1";
+
+    private final FleetSeeder underTest = new FleetSeeder(URL, "sa", "");
+
+    @BeforeEach
+    void createSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE stores (store_id BIGINT PRIMARY KEY, store_code VARCHAR(20) NOT NULL UNIQUE, "
+                    + "store_name VARCHAR(255) NOT NULL, address VARCHAR(255) NOT NULL, city VARCHAR(100) NOT NULL, "
+                    + "state VARCHAR(2) NOT NULL, zip_code VARCHAR(10), created_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE equipment_units (unit_id BIGINT PRIMARY KEY, "
+                    + "store_id BIGINT NOT NULL REFERENCES stores (store_id), unit_type VARCHAR(20) NOT NULL, "
+                    + "unit_name VARCHAR(255) NOT NULL, location_desc VARCHAR(255), created_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE iot_devices (device_id BIGINT PRIMARY KEY, "
+                    + "unit_id BIGINT NOT NULL UNIQUE REFERENCES equipment_units (unit_id), "
+                    + "device_serial VARCHAR(255) NOT NULL UNIQUE, device_key VARCHAR(255) NOT NULL UNIQUE, "
+                    + "min_temp_threshold DOUBLE NOT NULL, max_temp_threshold DOUBLE NOT NULL, "
+                    + "status VARCHAR(10) NOT NULL, last_seen_at TIMESTAMP)");
+        }
+    }
+
+    private static long count(String table) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    @Test
+    @DisplayName("seed inserts every store, unit and active device of the fleet")
+    void should_insert_fleet_when_database_is_empty() throws SQLException {
+        // given
+        List<FleetDevice> fleet = FleetDevice.fleet(LoadProfile.parse("--stores=3", "--units-per-store=4"));
+
+        // when
+        int inserted = underTest.seed(fleet);
+
+        // then
+        assertThat(inserted).isEqualTo(12);
+        assertThat(count("stores")).isEqualTo(3);
+        assertThat(count("equipment_units")).isEqualTo(12);
+        assertThat(count("iot_devices WHERE status = 'ACTIVE'")).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("seeding again only adds devices that are missing")
+    void should_skip_existing_rows_when_seeded_twice() throws SQLException {
+        // given
+        underTest.seed(FleetDevice.fleet(LoadProfile.parse("--stores=2", "--units-per-store=2")));
+
+        // when
+        int inserted = underTest.seed(FleetDevice.fleet(LoadProfile.parse("--stores=3", "--units-per-store=2")));
+
+        // then
+        assertThat(inserted).isEqualTo(2);
+        assertThat(count("stores")).isEqualTo(3);
+        assertThat(count("iot_devices")).isEqualTo(6);
+    }
+}
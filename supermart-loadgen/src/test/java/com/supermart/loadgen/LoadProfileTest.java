@@ -0,0 +1,85 @@
+package com.supermart.loadgen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link LoadProfile} and the fleet it describes.
+ */
+class LoadProfileTest {
+
+    // ─── parsing ──────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("parse applies arguments over the defaults")
+    void should_override_defaults_when_arguments_are_given() {
+        // when
+        LoadProfile profile = LoadProfile.parse("--stores=3", "--duration=5m", "--base-url=http://api:8080/api",
+                "--poll-interval=250ms");
+
+        // then
+        assertThat(profile.stores()).isEqualTo(3);
+        assertThat(profile.unitsPerStore()).isEqualTo(4);
+        assertThat(profile.duration()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(profile.pollInterval()).isEqualTo(Duration.ofMillis(250));
+        assertThat(profile.baseUrl()).isEqualTo(URI.create("http://api:8080/api/"));
+        assertThat(profile.jdbcUrl()).isNull();
+        assertThat(profile.hdrDir()).isNull();
+    }
+
+    @Test
+    @DisplayName("parse rejects unknown arguments and out-of-range values")
+    void should_throw_when_argument_is_unknown_or_invalid() {
+        assertThatThrownBy(() -> LoadProfile.parse("--store=3"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown argument --store=3");
+        assertThatThrownBy(() -> LoadProfile.parse("--jitter=1.5"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--jitter");
+        assertThatThrownBy(() -> LoadProfile.parse("--duration=10x"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("10x");
+        assertThatThrownBy(() -> LoadProfile.parse("--fleet=all"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ─── fleet ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("the generated fleet has one device per unit with unique ids and keys")
+    void should_generate_stores_times_units_devices_when_fleet_is_generated() {
+        // given
+        LoadProfile profile = LoadProfile.parse("--stores=2", "--units-per-store=3", "--id-base=500000");
+
+        // when
+        List<FleetDevice> fleet = FleetDevice.fleet(profile);
+
+        // then
+        assertThat(fleet).hasSize(6);
+        assertThat(fleet).extracting(FleetDevice::storeId).containsExactly(
+                500000L, 500000L, 500000L, 500001L, 500001L, 500001L);
+        assertThat(fleet).extracting(FleetDevice::deviceId).doesNotHaveDuplicates()
+                .containsExactly(500000L, 500001L, 500002L, 500003L, 500004L, 500005L);
+        assertThat(fleet).extracting(FleetDevice::deviceKey).doesNotHaveDuplicates();
+        assertThat(fleet).extracting(FleetDevice::unitType).containsExactly(
+                "FREEZER", "REFRIGERATOR", "FREEZER", "FREEZER", "REFRIGERATOR", "FREEZER");
+    }
+
+    @Test
+    @DisplayName("the demo fleet is the reporting devices of data.sql")
+    void should_use_seed_devices_when_fleet_is_demo() {
+        // when
+        List<FleetDevice> fleet = FleetDevice.fleet(LoadProfile.parse("--fleet=demo"));
+
+        // then
+        assertThat(fleet).extracting(FleetDevice::deviceId).containsExactly(9001L, 9002L, 9003L, 9004L);
+        assertThat(fleet.get(1).deviceKey()).isEqualTo("key-dev-9002");
+    }
+}
@@ -0,0 +1,87 @@
+package com.supermart.loadgen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SimulatedDevice}.
+ *
+ * <p>Covers the temperature model with and without excursions, reproducibility
+ * and interval jitter.</p>
+ */
+class SimulatedDeviceTest {
+
+    private static final FleetDevice FRIDGE =
+            new FleetDevice(1001, 502, 9002, FleetDevice.REFRIGERATOR, "key-dev-9002", 2.0, 8.0);
+
+    private static List<Double> readings(SimulatedDevice device, int count) {
+        List<Double> readings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            readings.add(device.nextTemperature());
+        }
+        return readings;
+    }
+
+    @Test
+    @DisplayName("without excursions readings stay inside the thresholds")
+    void should_stay_within_thresholds_when_excursion_rate_is_zero() {
+        // given
+        SimulatedDevice device = new SimulatedDevice(FRIDGE, Duration.ofSeconds(30), 0.2, 0.0, new Random(7));
+
+        // when
+        List<Double> readings = readings(device, 1_000);
+
+        // then
+        assertThat(readings).allSatisfy(t -> assertThat(t).isBetween(2.0, 8.0));
+        assertThat(device.sequence()).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("an excursion drives readings above the maximum threshold and then recovers")
+    void should_exceed_max_threshold_when_excursion_starts() {
+        // given
+        SimulatedDevice device = new SimulatedDevice(FRIDGE, Duration.ofSeconds(30), 0.2, 1.0, new Random(7));
+
+        // when
+        List<Double> excursion = readings(device, 3);
+
+        // then
+        assertThat(device.inExcursion()).isTrue();
+        assertThat(excursion.get(2)).isGreaterThan(8.0);
+    }
+
+    @Test
+    @DisplayName("the same seed produces the same readings")
+    void should_repeat_readings_when_seed_is_equal() {
+        // given
+        LoadProfile profile = LoadProfile.parse("--seed=11", "--excursion-rate=0.05");
+
+        // when / then
+        assertThat(readings(new SimulatedDevice(FRIDGE, profile), 200))
+                .isEqualTo(readings(new SimulatedDevice(FRIDGE, profile), 200));
+    }
+
+    @Test
+    @DisplayName("intervals vary within the configured jitter")
+    void should_jitter_interval_when_jitter_is_set() {
+        // given
+        SimulatedDevice device = new SimulatedDevice(FRIDGE, Duration.ofSeconds(10), 0.2, 0.0, new Random(3));
+
+        // when
+        List<Long> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            intervals.add(device.nextIntervalNanos());
+        }
+
+        // then
+        assertThat(intervals).allSatisfy(n -> assertThat(n).isBetween(8_000_000_000L, 12_000_000_000L));
+        assertThat(intervals).doesNotHaveDuplicates();
+    }
+}
@@ -1,6 +1,7 @@
-import { Component } from '@angular/core';
+import { Component, computed, input } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { KpiCardComponent } from '../kpi-card/kpi-card.component';
+import { DashboardSummary } from '../../services/dashboard-stream.service';
 
 export interface KpiMetric {
   icon: string;
@@ -17,11 +18,17 @@ export interface KpiMetric {
   styleUrl: './kpi-cards.component.scss'
 })
 export class KpiCardsComponent {
-  metrics: KpiMetric[] = [
-    { icon: '🏬', value: '3,000',  label: 'Active Locations', accentColor: '#3b82f6' },
-    { icon: '📡', value: '14,820', label: 'Online Sensors',   accentColor: '#10b981' },
-    { icon: '⚠️', value: '47',     label: 'Faulty Devices',   accentColor: '#f87171' },
-    { icon: '🔥', value: '23',     label: 'Open Incidents',   accentColor: '#f59e0b' },
-    { icon: '🌡️', value: '112',    label: 'Alerts Last Hour', accentColor: '#f97316' }
-  ];
+  summary = input<DashboardSummary | null>(null);
+
+  metrics = computed<KpiMetric[]>(() => {
+    const summary = this.summary();
+    const format = (value: number | undefined) => value === undefined ? '—' : value.toLocaleString('en-US');
+    return [
+      { icon: '🏬', value: format(summary?.totalStores),    label: 'Active Locations', accentColor: '#3b82f6' },
+      { icon: '📡', value: format(summary?.activeDevices),  label: 'Online Sensors',   accentColor: '#10b981' },
+      { icon: '⚠️', value: format(summary?.faultyDevices),  label: 'Faulty Devices',   accentColor: '#f87171' },
+      { icon: '🔥', value: format(summary?.openIncidents),  label: 'Open Incidents',   accentColor: '#f59e0b' },
+      { icon: '🌡️', value: format(summary?.alertsLastHour), label: 'Alerts Last Hour', accentColor: '#f97316' }
+    ];
+  });
 }
@@ -0,0 +1,31 @@
+import { TestBed } from '@angular/core/testing';
+import { Router, UrlTree, provideRouter } from '@angular/router';
+import { AuthService } from '../services/auth.service';
+import { authGuard } from './auth.guard';
+
+describe('authGuard', () => {
+  let auth: jasmine.SpyObj<AuthService>;
+
+  const run = () => TestBed.runInInjectionContext(() => authGuard({} as never, {} as never));
+
+  beforeEach(() => {
+    auth = jasmine.createSpyObj<AuthService>('AuthService', ['isAuthenticated']);
+    TestBed.configureTestingModule({
+      providers: [provideRouter([]), { provide: AuthService, useValue: auth }]
+    });
+  });
+
+  it('should allow signed-in users', () => {
+    auth.isAuthenticated.and.returnValue(true);
+
+    expect(run()).toBeTrue();
+  });
+
+  it('should redirect signed-out users to the login page', () => {
+    auth.isAuthenticated.and.returnValue(false);
+
+    const result = run() as UrlTree;
+
+    expect(TestBed.inject(Router).serializeUrl(result)).toBe('/login');
+  });
+});
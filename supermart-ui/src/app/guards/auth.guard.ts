@@ -0,0 +1,7 @@
+import { inject } from '@angular/core';
+import { CanActivateFn, Router } from '@angular/router';
+import { AuthService } from '../services/auth.service';
+
+/** Sends signed-out users to the login page. */
+export const authGuard: CanActivateFn = () =>
+  inject(AuthService).isAuthenticated() || inject(Router).createUrlTree(['/login']);
@@ -1,15 +1,36 @@
 import { ComponentFixture, TestBed } from '@angular/core/testing';
 import { DashboardComponent } from './dashboard.component';
 import { provideRouter } from '@angular/router';
+import { Subject } from 'rxjs';
+import { AlertDevice, DashboardStreamEvent, DashboardStreamService } from '../../services/dashboard-stream.service';
 
 describe('DashboardComponent', () => {
   let fixture: ComponentFixture<DashboardComponent>;
   let component: DashboardComponent;
+  let events: Subject<DashboardStreamEvent>;
+
+  const device = (deviceId: number, status: AlertDevice['status'] = 'FAULT'): AlertDevice => ({
+    deviceId,
+    deviceSerial: `DEV-${deviceId}`,
+    status,
+    lastSeenAt: null,
+    storeName: 'Supermart Dallas North',
+    unitName: 'Freezer-Aisle-3',
+    unitType: 'FREEZER',
+    minTempThreshold: -25,
+    maxTempThreshold: -15,
+    latestTemperature: -10.2,
+    isAlert: true
+  });
 
   beforeEach(() => {
+    events = new Subject<DashboardStreamEvent>();
     TestBed.configureTestingModule({
       imports: [DashboardComponent],
-      providers: [provideRouter([])]
+      providers: [
+        provideRouter([]),
+        { provide: DashboardStreamService, useValue: { connect: () => events.asObservable() } }
+      ]
     }).compileComponents();
     fixture = TestBed.createComponent(DashboardComponent);
     component = fixture.componentInstance;
@@ -28,7 +49,45 @@ describe('DashboardComponent', () => {
     expect(fixture.nativeElement.querySelector('app-topbar')).toBeTruthy();
   });
 
-  it('should render 3 alert rows by default', () => {
-    expect(component.alertRows.length).toBe(3);
+  it('should render no alert rows before the stream delivers a snapshot', () => {
+    expect(component.alertRows().length).toBe(0);
+  });
+
+  it('should apply alert snapshot, updates and clears from the stream', () => {
+    events.next({ type: 'alerts', devices: [device(9001), device(9003)] });
+    events.next({ type: 'alert', device: device(9002, 'ACTIVE') });
+    events.next({ type: 'alert-cleared', deviceId: 9003 });
+
+    expect(component.alertRows().map(row => row.id)).toEqual(['9002', '9001']);
+    expect(component.alertRows()[0].status).toBe('ALERT');
+    expect(component.alertRows()[1].temperature).toBe('−10.2°C');
+  });
+
+  it('should update the KPI summary from the stream', () => {
+    events.next({
+      type: 'summary',
+      summary: { totalStores: 3, activeDevices: 3, faultyDevices: 1, openIncidents: 1, alertsLastHour: 2, asOf: '' }
+    });
+
+    expect(component.summary()?.faultyDevices).toBe(1);
+  });
+
+  it('should show a sign-in banner when the stream is unauthenticated', () => {
+    events.next({ type: 'connection', state: 'unauthenticated' });
+    fixture.detectChanges();
+
+    const banner: HTMLElement = fixture.nativeElement.querySelector('.dashboard-layout__banner--error');
+    expect(banner).toBeTruthy();
+    expect(banner.textContent).toContain('not signed in');
+  });
+
+  it('should show a reconnecting banner until the stream is live again', () => {
+    events.next({ type: 'connection', state: 'reconnecting' });
+    fixture.detectChanges();
+    expect(fixture.nativeElement.querySelector('.dashboard-layout__banner')).toBeTruthy();
+
+    events.next({ type: 'connection', state: 'live' });
+    fixture.detectChanges();
+    expect(fixture.nativeElement.querySelector('.dashboard-layout__banner')).toBeNull();
   });
 });
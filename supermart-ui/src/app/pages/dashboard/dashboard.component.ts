@@ -1,9 +1,17 @@
-import { Component } from '@angular/core';
+import { Component, DestroyRef, OnInit, computed, inject, signal } from '@angular/core';
+import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
 import { Router } from '@angular/router';
 import { SidebarComponent } from '../../components/sidebar/sidebar.component';
 import { TopbarComponent } from '../../components/topbar/topbar.component';
 import { KpiCardsComponent } from '../../components/kpi-cards/kpi-cards.component';
 import { AlertsTableComponent, AlertRow } from '../../components/alerts-table/alerts-table.component';
+import {
+  AlertDevice,
+  DashboardStreamEvent,
+  DashboardStreamService,
+  DashboardSummary,
+  StreamConnectionState
+} from '../../services/dashboard-stream.service';
 
 @Component({
   selector: 'app-dashboard-page',
@@ -12,48 +20,33 @@ import { AlertsTableComponent, AlertRow } from '../../components/alerts-table/al
   templateUrl: './dashboard.component.html',
   styleUrl: './dashboard.component.scss'
 })
-export class DashboardComponent {
-  lastUpdated = '14:32:05';
+export class DashboardComponent implements OnInit {
+  private readonly stream = inject(DashboardStreamService);
+  private readonly destroyRef = inject(DestroyRef);
 
-  alertRows: AlertRow[] = [
-    {
-      id: '1',
-      serial: 'DEV-000342',
-      store: 'SM-ATL-042 — Atlanta, GA',
-      unit: 'Freezer 3A',
-      deviceType: 'FREEZER',
-      temperature: '−10.2°C',
-      threshold: '−18°C to −15°C',
-      status: 'ALERT'
-    },
-    {
-      id: '2',
-      serial: 'DEV-001104',
-      store: 'SM-CHI-017 — Chicago, IL',
-      unit: 'Refrigerator 1B',
-      deviceType: 'FRIDGE',
-      temperature: '11.4°C',
-      threshold: '0°C to 8°C',
-      status: 'FAULT'
-    },
-    {
-      id: '3',
-      serial: 'DEV-002891',
-      store: 'SM-NYC-003 — New York, NY',
-      unit: 'Freezer 2C',
-      deviceType: 'FREEZER',
-      temperature: '−8.7°C',
-      threshold: '−22°C to −18°C',
-      status: 'ALERT'
-    }
-  ];
+  readonly connectionState = signal<StreamConnectionState>('connecting');
+  readonly summary = signal<DashboardSummary | null>(null);
+  readonly lastUpdated = signal('');
+  private readonly alertDevices = signal<AlertDevice[]>([]);
+
+  readonly alertRows = computed<AlertRow[]>(() => this.alertDevices().map(toAlertRow));
 
   constructor(private router: Router) {}
 
+  ngOnInit(): void {
+    this.stream.connect()
+      .pipe(takeUntilDestroyed(this.destroyRef))
+      .subscribe(event => this.apply(event));
+  }
+
   onNavSelect(routeId: string): void {
     this.router.navigate([`/${routeId}`]);
   }
 
+  onSignIn(): void {
+    this.router.navigate(['/login']);
+  }
+
   onViewAllDevices(): void {
     this.router.navigate(['/devices']);
   }
@@ -61,4 +54,45 @@ export class DashboardComponent {
   onViewDevice(deviceId: string): void {
     this.router.navigate(['/devices', deviceId]);
   }
+
+  private apply(event: DashboardStreamEvent): void {
+    switch (event.type) {
+      case 'connection':
+        this.connectionState.set(event.state);
+        return;
+      case 'summary':
+        this.summary.set(event.summary);
+        break;
+      case 'alerts':
+        this.alertDevices.set(event.devices);
+        break;
+      case 'alert':
+        this.alertDevices.update(devices => [
+          event.device,
+          ...devices.filter(device => device.deviceId !== event.device.deviceId)
+        ]);
+        break;
+      case 'alert-cleared':
+        this.alertDevices.update(devices => devices.filter(device => device.deviceId !== event.deviceId));
+        break;
+    }
+    this.lastUpdated.set(new Date().toLocaleTimeString('en-GB'));
+  }
+}
+
+function formatTemperature(value: number): string {
+  return `${value.toFixed(1).replace('-', '−')}°C`;
+}
+
+function toAlertRow(device: AlertDevice): AlertRow {
+  return {
+    id: String(device.deviceId),
+    serial: device.deviceSerial,
+    store: device.storeName,
+    unit: device.unitName,
+    deviceType: device.unitType === 'FREEZER' ? 'FREEZER' : 'FRIDGE',
+    temperature: device.latestTemperature === null ? '—' : formatTemperature(device.latestTemperature),
+    threshold: `${formatTemperature(device.minTempThreshold)} to ${formatTemperature(device.maxTempThreshold)}`,
+    status: device.status === 'FAULT' ? 'FAULT' : 'ALERT'
+  };
 }
@@ -1,16 +1,21 @@
 import { ComponentFixture, TestBed } from '@angular/core/testing';
+import { HttpErrorResponse } from '@angular/common/http';
 import { Router } from '@angular/router';
 import { LoginComponent } from './login.component';
 import { provideRouter } from '@angular/router';
+import { of, throwError } from 'rxjs';
+import { AuthService } from '../../services/auth.service';
 
 describe('LoginComponent', () => {
   let fixture: ComponentFixture<LoginComponent>;
   let component: LoginComponent;
+  let auth: jasmine.SpyObj<AuthService>;
 
   beforeEach(() => {
+    auth = jasmine.createSpyObj<AuthService>('AuthService', ['login']);
     TestBed.configureTestingModule({
       imports: [LoginComponent],
-      providers: [provideRouter([])]
+      providers: [provideRouter([]), { provide: AuthService, useValue: auth }]
     }).compileComponents();
     fixture = TestBed.createComponent(LoginComponent);
     component = fixture.componentInstance;
@@ -30,4 +35,27 @@ describe('LoginComponent', () => {
     const el: HTMLElement = fixture.nativeElement;
     expect(el.querySelector('app-login-form')).toBeTruthy();
   });
+
+  it('should navigate to the dashboard after a successful login', () => {
+    const router = TestBed.inject(Router);
+    spyOn(router, 'navigate');
+    auth.login.and.returnValue(of(undefined));
+
+    component.onLoginSubmit({ email: 'admin@supermart.com', password: 'secret' });
+
+    expect(auth.login).toHaveBeenCalledWith({ email: 'admin@supermart.com', password: 'secret' });
+    expect(router.navigate).toHaveBeenCalledWith(['/dashboard']);
+  });
+
+  it('should show an error and stay on the page when credentials are rejected', () => {
+    const router = TestBed.inject(Router);
+    spyOn(router, 'navigate');
+    auth.login.and.returnValue(throwError(() => new HttpErrorResponse({ status: 401 })));
+
+    component.onLoginSubmit({ email: 'admin@supermart.com', password: 'wrong' });
+    fixture.detectChanges();
+
+    expect(router.navigate).not.toHaveBeenCalled();
+    expect(fixture.nativeElement.querySelector('.login-page__error').textContent).toContain('Invalid email or password');
+  });
 });
@@ -1,7 +1,9 @@
-import { Component } from '@angular/core';
+import { Component, inject, signal } from '@angular/core';
+import { HttpErrorResponse } from '@angular/common/http';
 import { Router } from '@angular/router';
 import { AppLogoComponent } from '../../components/app-logo/app-logo.component';
 import { LoginFormComponent, LoginCredentials } from '../../components/login-form/login-form.component';
+import { AuthService } from '../../services/auth.service';
 
 @Component({
   selector: 'app-login-page',
@@ -11,12 +13,22 @@ import { LoginFormComponent, LoginCredentials } from '../../components/login-for
   styleUrl: './login.component.scss'
 })
 export class LoginComponent {
+  private readonly auth = inject(AuthService);
+
+  readonly errorMessage = signal<string | null>(null);
+
   constructor(private router: Router) {}
 
   onLoginSubmit(credentials: LoginCredentials): void {
-    // TODO: integrate with authentication service
-    console.log('Login attempted with:', credentials.email);
-    this.router.navigate(['/dashboard']);
+    this.errorMessage.set(null);
+    this.auth.login(credentials).subscribe({
+      next: () => this.router.navigate(['/dashboard']),
+      error: (error: HttpErrorResponse) => this.errorMessage.set(
+        error.status === 401 || error.status === 403
+          ? 'Invalid email or password.'
+          : 'Sign-in failed. Check your connection and try again.'
+      )
+    });
   }
 
   onForgotPassword(): void {
@@ -0,0 +1,13 @@
+import { InjectionToken } from '@angular/core';
+import { environment } from '../../environments/environment';
+
+/**
+ * Base URL of the Supermart IoT API, without a trailing slash.
+ *
+ * Defaults to the build environment's `apiBaseUrl`; provide the token to point
+ * the UI at another host or proxy path.
+ */
+export const API_BASE_URL = new InjectionToken<string>('API_BASE_URL', {
+  providedIn: 'root',
+  factory: () => environment.apiBaseUrl
+});
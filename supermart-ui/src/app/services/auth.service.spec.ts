@@ -0,0 +1,63 @@
+import { TestBed } from '@angular/core/testing';
+import { provideHttpClient } from '@angular/common/http';
+import { HttpTestingController, provideHttpClientTesting } from '@angular/common/http/testing';
+import { API_BASE_URL } from './api-config';
+import { AuthService } from './auth.service';
+
+describe('AuthService', () => {
+  let service: AuthService;
+  let http: HttpTestingController;
+
+  beforeEach(() => {
+    sessionStorage.clear();
+    TestBed.configureTestingModule({
+      providers: [
+        provideHttpClient(),
+        provideHttpClientTesting(),
+        { provide: API_BASE_URL, useValue: 'https://iot.example.com/api' }
+      ]
+    });
+    service = TestBed.inject(AuthService);
+    http = TestBed.inject(HttpTestingController);
+  });
+
+  afterEach(() => {
+    http.verify();
+    sessionStorage.clear();
+  });
+
+  it('should be signed out before login', () => {
+    expect(service.isAuthenticated()).toBeFalse();
+    expect(service.accessToken()).toBeNull();
+  });
+
+  it('should store the access token returned by /auth/login', () => {
+    service.login({ email: 'admin@supermart.com', password: 'secret' }).subscribe();
+
+    const request = http.expectOne('https://iot.example.com/api/auth/login');
+    expect(request.request.method).toBe('POST');
+    request.flush({
+      success: true,
+      message: 'Login successful',
+      data: { accessToken: 'access.jwt', refreshToken: 'refresh.jwt', tokenType: 'Bearer', expiresIn: 2700 }
+    });
+
+    expect(service.accessToken()).toBe('access.jwt');
+  });
+
+  it('should treat an expired token as signed out', () => {
+    sessionStorage.setItem('accessToken', 'access.jwt');
+    sessionStorage.setItem('accessTokenExpiresAt', String(Date.now() - 1000));
+
+    expect(service.accessToken()).toBeNull();
+  });
+
+  it('should forget the token on logout', () => {
+    sessionStorage.setItem('accessToken', 'access.jwt');
+    sessionStorage.setItem('accessTokenExpiresAt', String(Date.now() + 60_000));
+
+    service.logout();
+
+    expect(service.isAuthenticated()).toBeFalse();
+  });
+});
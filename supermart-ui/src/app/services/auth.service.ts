@@ -0,0 +1,59 @@
+import { HttpClient } from '@angular/common/http';
+import { Injectable, inject } from '@angular/core';
+import { Observable, map } from 'rxjs';
+import { LoginCredentials } from '../components/login-form/login-form.component';
+import { API_BASE_URL } from './api-config';
+
+interface LoginResponse {
+  accessToken: string;
+  refreshToken: string;
+  tokenType: string;
+  expiresIn: number;
+}
+
+interface ApiResponse<T> {
+  success: boolean;
+  data: T;
+  message: string;
+}
+
+const ACCESS_TOKEN_KEY = 'accessToken';
+const EXPIRES_AT_KEY = 'accessTokenExpiresAt';
+
+/**
+ * Signs dashboard users in through POST /auth/login and keeps the access token
+ * in session storage for the lifetime of the browser tab.
+ */
+@Injectable({ providedIn: 'root' })
+export class AuthService {
+  private readonly http = inject(HttpClient);
+  private readonly apiBaseUrl = inject(API_BASE_URL);
+
+  login(credentials: LoginCredentials): Observable<void> {
+    return this.http.post<ApiResponse<LoginResponse>>(`${this.apiBaseUrl}/auth/login`, credentials).pipe(
+      map(response => {
+        sessionStorage.setItem(ACCESS_TOKEN_KEY, response.data.accessToken);
+        sessionStorage.setItem(EXPIRES_AT_KEY, String(Date.now() + response.data.expiresIn * 1000));
+      })
+    );
+  }
+
+  /** The current access token, or null when signed out or the token has expired. */
+  accessToken(): string | null {
+    const token = sessionStorage.getItem(ACCESS_TOKEN_KEY);
+    const expiresAt = Number(sessionStorage.getItem(EXPIRES_AT_KEY));
+    if (!token || !(expiresAt > Date.now())) {
+      return null;
+    }
+    return token;
+  }
+
+  isAuthenticated(): boolean {
+    return this.accessToken() !== null;
+  }
+
+  logout(): void {
+    sessionStorage.removeItem(ACCESS_TOKEN_KEY);
+    sessionStorage.removeItem(EXPIRES_AT_KEY);
+  }
+}
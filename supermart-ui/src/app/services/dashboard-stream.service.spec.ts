@@ -0,0 +1,46 @@
+import { TestBed } from '@angular/core/testing';
+import { API_BASE_URL } from './api-config';
+import { AuthService } from './auth.service';
+import { DashboardStreamEvent, DashboardStreamService } from './dashboard-stream.service';
+
+describe('DashboardStreamService', () => {
+  let auth: jasmine.SpyObj<AuthService>;
+  let service: DashboardStreamService;
+
+  beforeEach(() => {
+    auth = jasmine.createSpyObj<AuthService>('AuthService', ['accessToken', 'logout']);
+    TestBed.configureTestingModule({
+      providers: [
+        { provide: AuthService, useValue: auth },
+        { provide: API_BASE_URL, useValue: 'https://iot.example.com/api' }
+      ]
+    });
+    service = TestBed.inject(DashboardStreamService);
+  });
+
+  it('should report unauthenticated and complete without calling the API when signed out', () => {
+    auth.accessToken.and.returnValue(null);
+    const fetchSpy = spyOn(window, 'fetch');
+    const events: DashboardStreamEvent[] = [];
+    let completed = false;
+
+    service.connect().subscribe({ next: event => events.push(event), complete: () => completed = true });
+
+    expect(events).toEqual([{ type: 'connection', state: 'unauthenticated' }]);
+    expect(completed).toBeTrue();
+    expect(fetchSpy).not.toHaveBeenCalled();
+  });
+
+  it('should stop retrying and sign out when the API rejects the token', async () => {
+    auth.accessToken.and.returnValue('expired.jwt');
+    const fetchSpy = spyOn(window, 'fetch').and.resolveTo(new Response(null, { status: 401 }));
+    const events: DashboardStreamEvent[] = [];
+
+    await new Promise<void>(resolve =>
+      service.connect().subscribe({ next: event => events.push(event), complete: resolve }));
+
+    expect(fetchSpy).toHaveBeenCalledOnceWith('https://iot.example.com/api/dashboard/stream', jasmine.anything());
+    expect(auth.logout).toHaveBeenCalled();
+    expect(events).toEqual([{ type: 'connection', state: 'unauthenticated' }]);
+  });
+});
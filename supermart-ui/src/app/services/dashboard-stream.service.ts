@@ -0,0 +1,145 @@
+import { Injectable, inject } from '@angular/core';
+import { Observable, retry, timer } from 'rxjs';
+import { API_BASE_URL } from './api-config';
+import { AuthService } from './auth.service';
+
+export interface DashboardSummary {
+  totalStores: number;
+  activeDevices: number;
+  faultyDevices: number;
+  openIncidents: number;
+  alertsLastHour: number;
+  asOf: string;
+}
+
+export interface AlertDevice {
+  deviceId: number;
+  deviceSerial: string;
+  status: 'ACTIVE' | 'INACTIVE' | 'FAULT';
+  lastSeenAt: string | null;
+  storeName: string;
+  unitName: string;
+  unitType: 'FREEZER' | 'REFRIGERATOR';
+  minTempThreshold: number;
+  maxTempThreshold: number;
+  latestTemperature: number | null;
+  isAlert: boolean;
+}
+
+/**
+ * live: connected and receiving events; reconnecting: the connection dropped and
+ * will be retried; unauthenticated: no valid token, so the stream will not retry.
+ */
+export type StreamConnectionState = 'connecting' | 'live' | 'reconnecting' | 'unauthenticated';
+
+export type DashboardStreamEvent =
+  | { type: 'connection'; state: StreamConnectionState }
+  | { type: 'summary'; summary: DashboardSummary }
+  | { type: 'alerts'; devices: AlertDevice[] }
+  | { type: 'alert'; device: AlertDevice }
+  | { type: 'alert-cleared'; deviceId: number };
+
+const MAX_RECONNECT_DELAY_MS = 30_000;
+
+/**
+ * Subscribes to GET /dashboard/stream (server-sent events).
+ *
+ * Uses fetch rather than EventSource so the JWT from {@link AuthService} can be
+ * sent as a header. Dropped connections reconnect with exponential backoff; every
+ * connection starts with a full summary and alert snapshot, so no state is lost
+ * across reconnects. Without a valid token, or when the API answers 401/403, the
+ * stream reports `unauthenticated` and completes instead of retrying.
+ */
+@Injectable({ providedIn: 'root' })
+export class DashboardStreamService {
+  private readonly auth = inject(AuthService);
+  private readonly apiBaseUrl = inject(API_BASE_URL);
+
+  connect(): Observable<DashboardStreamEvent> {
+    return this.open().pipe(
+      retry({ delay: (_, attempt) => timer(Math.min(1000 * 2 ** (attempt - 1), MAX_RECONNECT_DELAY_MS)) })
+    );
+  }
+
+  private open(): Observable<DashboardStreamEvent> {
+    return new Observable<DashboardStreamEvent>(subscriber => {
+      const abort = new AbortController();
+      const token = this.auth.accessToken();
+      if (!token) {
+        subscriber.next({ type: 'connection', state: 'unauthenticated' });
+        subscriber.complete();
+        return () => abort.abort();
+      }
+
+      fetch(`${this.apiBaseUrl}/dashboard/stream`, {
+        headers: { Accept: 'text/event-stream', Authorization: `Bearer ${token}` },
+        signal: abort.signal
+      }).then(async response => {
+        if (response.status === 401 || response.status === 403) {
+          this.auth.logout();
+          subscriber.next({ type: 'connection', state: 'unauthenticated' });
+          subscriber.complete();
+          return;
+        }
+        if (!response.ok || !response.body) {
+          throw new Error(`Dashboard stream failed with HTTP ${response.status}`);
+        }
+        subscriber.next({ type: 'connection', state: 'live' });
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffered = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) {
+            break;
+          }
+          buffered += value;
+          let boundary: number;
+          while ((boundary = buffered.indexOf('\n\n')) >= 0) {
+            const event = parseEvent(buffered.slice(0, boundary));
+            buffered = buffered.slice(boundary + 2);
+            if (event) {
+              subscriber.next(event);
+            }
+          }
+        }
+        // The server closed the stream (timeout or slow-consumer drop): reconnect
+        throw new Error('Dashboard stream closed');
+      }).catch(error => {
+        if (!abort.signal.aborted) {
+          subscriber.next({ type: 'connection', state: 'reconnecting' });
+          subscriber.error(error);
+        }
+      });
+
+      return () => abort.abort();
+    });
+  }
+}
+
+function parseEvent(block: string): DashboardStreamEvent | null {
+  let name = 'message';
+  const data: string[] = [];
+  for (const line of block.split('\n')) {
+    if (line.startsWith('event:')) {
+      name = line.slice(6).trim();
+    } else if (line.startsWith('data:')) {
+      data.push(line.slice(5));
+    }
+  }
+  if (data.length === 0) {
+    return null; // heartbeat comment
+  }
+  const payload = JSON.parse(data.join('\n'));
+  switch (name) {
+    case 'summary':
+      return { type: 'summary', summary: payload };
+    case 'alerts':
+      return { type: 'alerts', devices: payload };
+    case 'alert':
+      return { type: 'alert', device: payload };
+    case 'alert-cleared':
+      return { type: 'alert-cleared', deviceId: payload };
+    default:
+      return null;
+  }
+}
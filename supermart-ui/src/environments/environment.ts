@@ -0,0 +1,8 @@
+/**
+ * The API is reached on the UI's own origin: through proxy.conf.json under
+ * `ng serve`, and through the reverse proxy that serves the built app elsewhere.
+ * Point apiBaseUrl at another host only if that host allows this origin (CORS).
+ */
+export const environment = {
+  apiBaseUrl: '/api'
+};